@@ -0,0 +1,63 @@
+package com.example.financial_products_management.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Definición de un benchmark con sus parámetros.
+ *
+ * @param name    Nombre del benchmark
+ * @param threads Cantidad de hilos que ejecutan la carga
+ * @param params  Parámetros del benchmark, en el orden en que se informan
+ * @param trial   Fábrica de la ejecución del benchmark
+ */
+record Benchmark(String name, int threads, Map<String, String> params, TrialFactory trial) {
+
+    /**
+     * Crea la ejecución de un benchmark: prepara su estado y mide cada iteración.
+     */
+    @FunctionalInterface
+    interface TrialFactory {
+        /**
+         * Prepara el estado del benchmark.
+         *
+         * @return Ejecución lista para medir iteraciones
+         * @throws Exception Si la preparación falla
+         */
+        Trial setUp() throws Exception;
+    }
+
+    /**
+     * Ejecución preparada de un benchmark.
+     */
+    interface Trial extends AutoCloseable {
+        /**
+         * Mide una iteración.
+         *
+         * @param iterationMillis Duración objetivo de la iteración en milisegundos
+         * @return Rendimiento de la iteración en operaciones por segundo
+         * @throws Exception Si la iteración falla
+         */
+        double measure(long iterationMillis) throws Exception;
+
+        /**
+         * Libera los recursos de la ejecución.
+         *
+         * @throws IOException Si la liberación falla
+         */
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    /**
+     * Nombre completo del benchmark incluyendo sus parámetros, usado para filtrar.
+     *
+     * @return Nombre con parámetros
+     */
+    String qualifiedName() {
+        StringBuilder builder = new StringBuilder(name);
+        params.forEach((key, value) -> builder.append(':').append(key).append('=').append(value));
+        return builder.append(":threads=").append(threads).toString();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.financial_products_management.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Ejecutor de los benchmarks del dominio de productos financieros.
+ * Cada benchmark se prepara una vez, ejecuta iteraciones de calentamiento que se descartan y
+ * luego iteraciones de medición cuyo rendimiento se informa en operaciones por segundo.
+ * Los resultados se publican en un archivo JSON con la misma estructura que genera JMH
+ * ({@code -rf json}), de modo que pueden compararse entre ejecuciones con las mismas herramientas.
+ *
+ * <p>Opciones:
+ * <ul>
+ *   <li>{@code --filter <regex>}: ejecuta solo los benchmarks cuyo nombre con parámetros coincide</li>
+ *   <li>{@code --sizes 10000,1000000,10000000}: tamaños de repositorio (por defecto 10000,1000000)</li>
+ *   <li>{@code --threads 1,4,16}: hilos de las mezclas concurrentes (por defecto 1,4,16)</li>
+ *   <li>{@code --warmup <n>}, {@code --iterations <n>}: iteraciones (por defecto 3 y 5)</li>
+ *   <li>{@code --time <ms>}: duración de cada iteración (por defecto 1000)</li>
+ *   <li>{@code --output <archivo>}: archivo JSON de resultados (por defecto benchmark-results.json)</li>
+ *   <li>{@code --list}: muestra los benchmarks sin ejecutarlos</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+    /**
+     * Cuantil de la distribución normal para un intervalo de confianza del 99.9%.
+     */
+    private static final double CONFIDENCE_QUANTILE = 3.291;
+
+    private int[] sizes = {10_000, 1_000_000};
+    private int[] threadCounts = {1, 4, 16};
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationMillis = 1000;
+    private Pattern filter;
+    private Path output = Path.of("benchmark-results.json");
+    private boolean listOnly;
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Punto de entrada del ejecutor de benchmarks.
+     *
+     * @param args Opciones de ejecución
+     * @throws Exception Si un benchmark falla o no es posible escribir los resultados
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner();
+        runner.parse(args);
+        runner.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--list")) {
+                listOnly = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de la opción " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--filter" -> filter = Pattern.compile(value);
+                case "--sizes" -> sizes = parseInts(value);
+                case "--threads" -> threadCounts = parseInts(value);
+                case "--warmup" -> warmupIterations = Integer.parseInt(value);
+                case "--iterations" -> measurementIterations = Integer.parseInt(value);
+                case "--time" -> iterationMillis = Long.parseLong(value);
+                case "--output" -> output = Path.of(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option);
+            }
+        }
+    }
+
+    private static int[] parseInts(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private void run() throws Exception {
+        List<Benchmark> selected = new ArrayList<>();
+        for (Benchmark benchmark : FinancialBenchmarks.all(sizes, threadCounts)) {
+            if (filter == null || filter.matcher(benchmark.qualifiedName()).find()) {
+                selected.add(benchmark);
+            }
+        }
+
+        if (listOnly) {
+            selected.forEach(benchmark -> System.out.println(benchmark.qualifiedName()));
+            return;
+        }
+
+        List<String> results = new ArrayList<>();
+        for (Benchmark benchmark : selected) {
+            double[] scores = execute(benchmark);
+            Statistics statistics = new Statistics(scores);
+            System.out.printf(Locale.ROOT, "%-90s %,18.1f ± %,14.1f ops/s%n", benchmark.qualifiedName(),
+                    statistics.mean, statistics.error);
+            results.add(toJson(benchmark, scores, statistics));
+        }
+
+        Files.writeString(output, "[\n" + String.join(",\n", results) + "\n]\n", StandardCharsets.UTF_8);
+        System.out.println("Resultados escritos en " + output.toAbsolutePath());
+    }
+
+    /**
+     * Prepara un benchmark, ejecuta el calentamiento y las iteraciones de medición.
+     *
+     * @param benchmark Benchmark a ejecutar
+     * @return Rendimiento de cada iteración de medición
+     * @throws Exception Si el benchmark falla
+     */
+    private double[] execute(Benchmark benchmark) throws Exception {
+        System.gc();
+        try (Benchmark.Trial trial = benchmark.trial().setUp()) {
+            for (int i = 0; i < warmupIterations; i++) {
+                trial.measure(iterationMillis);
+            }
+            double[] scores = new double[measurementIterations];
+            for (int i = 0; i < measurementIterations; i++) {
+                scores[i] = trial.measure(iterationMillis);
+            }
+            return scores;
+        }
+    }
+
+    private String toJson(Benchmark benchmark, double[] scores, Statistics statistics) {
+        StringBuilder json = new StringBuilder();
+        json.append("  {\n");
+        field(json, "benchmark", quote(benchmark.name()));
+        field(json, "mode", quote("thrpt"));
+        field(json, "threads", Integer.toString(benchmark.threads()));
+        field(json, "forks", "1");
+        field(json, "jvm", quote(System.getProperty("java.home")));
+        field(json, "jvmArgs", array(ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        field(json, "jdkVersion", quote(System.getProperty("java.version")));
+        field(json, "vmName", quote(System.getProperty("java.vm.name")));
+        field(json, "warmupIterations", Integer.toString(warmupIterations));
+        field(json, "warmupTime", quote(iterationMillis + " ms"));
+        field(json, "measurementIterations", Integer.toString(measurementIterations));
+        field(json, "measurementTime", quote(iterationMillis + " ms"));
+
+        List<String> params = new ArrayList<>();
+        for (Map.Entry<String, String> param : benchmark.params().entrySet()) {
+            params.add(quote(param.getKey()) + ": " + quote(param.getValue()));
+        }
+        field(json, "params", "{" + String.join(", ", params) + "}");
+
+        List<String> raw = new ArrayList<>();
+        for (double score : scores) {
+            raw.add(number(score));
+        }
+        json.append("    \"primaryMetric\": {\n");
+        json.append("      \"score\": ").append(number(statistics.mean)).append(",\n");
+        json.append("      \"scoreError\": ").append(number(statistics.error)).append(",\n");
+        json.append("      \"scoreConfidence\": [").append(number(statistics.mean - statistics.error)).append(", ")
+                .append(number(statistics.mean + statistics.error)).append("],\n");
+        json.append("      \"scoreUnit\": \"ops/s\",\n");
+        json.append("      \"rawData\": [[").append(String.join(", ", raw)).append("]]\n");
+        json.append("    },\n");
+        json.append("    \"secondaryMetrics\": {}\n");
+        json.append("  }");
+        return json.toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        json.append("    ").append(quote(name)).append(": ").append(value).append(",\n");
+    }
+
+    private static String array(List<String> values) {
+        List<String> quoted = new ArrayList<>();
+        for (String value : values) {
+            quoted.add(quote(value));
+        }
+        return "[" + String.join(", ", quoted) + "]";
+    }
+
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "\"NaN\"";
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Media y error de las iteraciones de medición.
+     * El error es la mitad del intervalo de confianza del 99.9%, con aproximación normal.
+     */
+    private static final class Statistics {
+        private final double mean;
+        private final double error;
+
+        private Statistics(double[] scores) {
+            double sum = 0;
+            for (double score : scores) {
+                sum += score;
+            }
+            this.mean = sum / scores.length;
+
+            double squares = 0;
+            for (double score : scores) {
+                squares += (score - mean) * (score - mean);
+            }
+            this.error = scores.length > 1
+                    ? CONFIDENCE_QUANTILE * Math.sqrt(squares / (scores.length - 1)) / Math.sqrt(scores.length)
+                    : Double.NaN;
+        }
+    }
+}
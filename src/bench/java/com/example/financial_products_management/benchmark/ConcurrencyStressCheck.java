@@ -0,0 +1,200 @@
+package com.example.financial_products_management.benchmark;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.repository.IndexedProductRepository;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Prueba de estrés que verifica que las operaciones concurrentes no pierden actualizaciones.
+ * Muchos hilos operan a la vez sobre unas pocas cuentas muy disputadas: depósitos, retiros que
+ * entran en el sobregiro de cuentas corrientes sin saldo y transferencias entre ellas. Cada hilo
+ * lleva la cuenta de los movimientos que la compañía informó como aplicados y, al terminar, el
+ * saldo de cada cuenta debe ser exactamente el inicial más esos movimientos y ninguna cuenta
+ * corriente puede superar su sobregiro. Si alguna cuenta no coincide, termina con código de salida 1.
+ *
+ * <p>Opciones:
+ * <ul>
+ *   <li>{@code --threads <n>}: hilos concurrentes (por defecto 64)</li>
+ *   <li>{@code --accounts <n>}: cuentas disputadas; la mitad corrientes y la mitad de ahorro (por defecto 8)</li>
+ *   <li>{@code --operations <n>}: operaciones por hilo (por defecto 100000)</li>
+ * </ul>
+ */
+public final class ConcurrencyStressCheck {
+    private static final long INITIAL_BALANCE = 1_000_000;
+    private static final long OVERDRAFT_LIMIT = 500_000;
+    private static final long MAX_AMOUNT = 10_000;
+
+    private int threads = 64;
+    private int accounts = 8;
+    private int operations = 100_000;
+
+    private ConcurrencyStressCheck() {
+    }
+
+    /**
+     * Ejecuta la prueba y termina con código 1 si los saldos finales no coinciden con lo esperado.
+     *
+     * @param args Opciones de ejecución
+     * @throws Exception Si algún hilo falla
+     */
+    public static void main(String[] args) throws Exception {
+        ConcurrencyStressCheck check = new ConcurrencyStressCheck();
+        check.parse(args);
+        if (!check.run()) {
+            System.exit(1);
+        }
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de la opción " + args[i]);
+            }
+            int value = Integer.parseInt(args[i + 1]);
+            switch (args[i]) {
+                case "--threads" -> threads = value;
+                case "--accounts" -> accounts = value;
+                case "--operations" -> operations = value;
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        if (threads <= 0 || accounts < 2 || operations <= 0) {
+            throw new IllegalArgumentException("Se requieren hilos y operaciones positivos y al menos dos cuentas");
+        }
+    }
+
+    private boolean run() throws Exception {
+        FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+        String[] numbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = Integer.toString(1_000 + i);
+            Customer customer = new Customer("ST" + i, "Cliente", "De Estrés", "3000000000");
+            if (isChecking(i)) {
+                // Sin saldo inicial: casi todos los retiros usan el sobregiro y algunos lo exceden
+                company.createCheckingAccount(numbers[i], customer, 0, OVERDRAFT_LIMIT);
+            } else {
+                company.createSavingsAccount(numbers[i], customer, INITIAL_BALANCE);
+            }
+        }
+
+        // Movimientos aplicados por cada hilo sobre cada cuenta; sin estado compartido entre hilos
+        long[][] deltas = new long[threads][accounts];
+        long[] rejected = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    rejected[thread] = operate(company, numbers, deltas[thread], 0x9E3779B97F4A7C15L * (thread + 1));
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }, "stress-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Falló un hilo de la prueba", failures.get(0));
+        }
+
+        long totalRejected = 0;
+        for (long count : rejected) {
+            totalRejected += count;
+        }
+        System.out.printf("Hilos: %d, cuentas: %d, operaciones: %d (rechazadas: %d) en %.1f s%n",
+                threads, accounts, (long) threads * operations, totalRejected, elapsed / 1e9);
+
+        boolean consistent = true;
+        for (int i = 0; i < accounts; i++) {
+            long expected = isChecking(i) ? 0 : INITIAL_BALANCE;
+            for (long[] delta : deltas) {
+                expected += delta[i];
+            }
+            long balance = balanceOf(company, numbers[i]);
+            boolean withinLimit = !isChecking(i) || balance >= -OVERDRAFT_LIMIT;
+            if (balance != expected || !withinLimit) {
+                consistent = false;
+                System.out.printf("Cuenta %s: saldo %d, esperado %d%s%n", numbers[i], balance, expected,
+                        withinLimit ? "" : ", sobregiro excedido");
+            }
+        }
+        System.out.println(consistent ? "Saldos consistentes" : "SALDOS INCONSISTENTES");
+        return consistent;
+    }
+
+    /**
+     * Ejecuta las operaciones de un hilo: 30% depósitos, 40% retiros y 30% transferencias. Con más
+     * retiros que depósitos las cuentas llegan pronto a su límite y los rechazos también se ejercitan.
+     *
+     * @return Cantidad de operaciones rechazadas
+     */
+    private long operate(FinancialCompany company, String[] numbers, long[] delta, long seed) {
+        OperationResult result = new OperationResult();
+        long rejected = 0;
+        long random = seed;
+        for (int i = 0; i < operations; i++) {
+            random = next(random);
+            int account = (int) Long.remainderUnsigned(random >>> 16, accounts);
+            long amount = 1 + Long.remainderUnsigned(random >>> 32, MAX_AMOUNT);
+            int kind = (int) Long.remainderUnsigned(random & 0xFFFF, 10);
+            OperationStatus status;
+            if (kind < 3) {
+                status = company.performOperation(numbers[account], OperationType.DEPOSIT, amount, result);
+                if (status.isSuccess()) {
+                    delta[account] += amount;
+                }
+            } else if (kind < 7) {
+                status = company.performOperation(numbers[account], OperationType.WITHDRAWAL, amount, result);
+                if (status.isSuccess()) {
+                    delta[account] -= amount;
+                }
+            } else {
+                int target = (account + 1 + (int) Long.remainderUnsigned(random >>> 48, accounts - 1)) % accounts;
+                status = company.performTransfer(numbers[account], numbers[target], amount, result);
+                if (status.isSuccess()) {
+                    delta[account] -= amount;
+                    delta[target] += amount;
+                }
+            }
+            if (!status.isSuccess()) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    private static long balanceOf(FinancialCompany company, String productNumber) throws ProductNotFoundException {
+        FinancialProduct product = company.consultByProductNumber(productNumber);
+        return product.getBalance();
+    }
+
+    private static boolean isChecking(int index) {
+        return index % 2 == 0;
+    }
+
+    private static long next(long seed) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed;
+    }
+}
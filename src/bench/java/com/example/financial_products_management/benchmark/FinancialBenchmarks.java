@@ -0,0 +1,600 @@
+package com.example.financial_products_management.benchmark;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_company.IdempotencyCache;
+import com.example.financial_products_management.domain.financial_company.InterestAccrualEngine;
+import com.example.financial_products_management.domain.financial_company.OperationMetrics;
+import com.example.financial_products_management.domain.financial_company.OperationPipeline;
+import com.example.financial_products_management.domain.financial_company.PortfolioAggregates;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.FinancialCompanyRepository;
+import com.example.financial_products_management.domain.repository.IndexedProductRepository;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.OperationBatch;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.InsufficientFundsException;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import com.example.financial_products_management.infrastructure.cluster.LocalCluster;
+import com.example.financial_products_management.infrastructure.cluster.ShardRouter;
+import com.example.financial_products_management.infrastructure.persistence.MappedProductRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Catálogo de benchmarks del dominio de productos financieros.
+ * Cubre las consultas del repositorio por número de producto y por cliente, la inserción en
+ * repositorios de distintos tamaños, el rendimiento de depósitos y retiros por tipo de cuenta,
+ * el costo de un retiro rechazado con y sin traza de pila en la excepción,
+ * mezclas de operaciones concurrentes con y sin contención sobre las mismas cuentas, y
+ * transferencias concurrentes entre cuentas muy disputadas o repartidas, la causación diaria
+ * de intereses sobre todas las cuentas de ahorro, el costo de mantener los totales de la cartera
+ * y de registrar métricas de cada operación, y las transferencias en un clúster local con una o
+ * varias particiones.
+ */
+final class FinancialBenchmarks {
+    private static final int ACCOUNTS_PER_TYPE = 1024;
+    private static final int SPREAD_ACCOUNTS = 100_000;
+    private static final int HOT_ACCOUNTS = 16;
+    private static final int BATCH_SIZE = 10_000;
+    /**
+     * Saldo inicial suficiente para no agotarse durante la medición ni desbordar el cálculo de intereses.
+     */
+    private static final long LARGE_BALANCE = 100_000_000_000L;
+
+    /**
+     * Claves de idempotencia generadas para la mezcla con idempotencia; debe ser potencia de dos.
+     */
+    private static final int IDEMPOTENCY_KEYS = 1 << 20;
+    /**
+     * Cantidades de nodos del clúster local en las transferencias enrutadas.
+     */
+    private static final int[] CLUSTER_SHARDS = {1, 4};
+
+    private static final LocalDate OPENING_DATE = LocalDate.of(2025, 1, 1);
+
+    private FinancialBenchmarks() {
+    }
+
+    /**
+     * Construye la lista de benchmarks para los tamaños y cantidades de hilos indicados.
+     *
+     * @param sizes        Tamaños de repositorio a evaluar
+     * @param threadCounts Cantidades de hilos para las mezclas concurrentes
+     * @return Benchmarks a ejecutar
+     */
+    static List<Benchmark> all(int[] sizes, int[] threadCounts) {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        for (String repository : new String[]{"list", "indexed", "mapped"}) {
+            for (int size : sizes) {
+                benchmarks.add(lookup("repository.findByProductNumber", repository, size, false));
+                benchmarks.add(lookup("repository.findByCustomerIdentification", repository, size, true));
+                benchmarks.add(insert(repository, size));
+            }
+        }
+
+        for (String accountType : new String[]{"savings", "checking", "housing", "salary"}) {
+            benchmarks.add(singleAccountType(OperationType.DEPOSIT, accountType));
+            if (!accountType.equals("housing")) {
+                benchmarks.add(singleAccountType(OperationType.WITHDRAWAL, accountType));
+            }
+        }
+        for (String accountType : new String[]{"savings", "checking"}) {
+            benchmarks.add(rejectedWithdrawal(accountType, false));
+            benchmarks.add(rejectedWithdrawal(accountType, true));
+        }
+
+        for (int threads : threadCounts) {
+            benchmarks.add(mixed(threads, HOT_ACCOUNTS));
+            benchmarks.add(mixed(threads, SPREAD_ACCOUNTS));
+            benchmarks.add(mixed(threads, SPREAD_ACCOUNTS, "WithAggregates",
+                    company -> company.addListener(new PortfolioAggregates())));
+            benchmarks.add(mixed(threads, SPREAD_ACCOUNTS, "WithMetrics",
+                    company -> company.setMetrics(new OperationMetrics())));
+            benchmarks.add(idempotentMixed(threads, SPREAD_ACCOUNTS));
+            benchmarks.add(pipelinedMixed(threads, HOT_ACCOUNTS));
+            benchmarks.add(pipelinedMixed(threads, SPREAD_ACCOUNTS));
+            benchmarks.add(transfer(threads, HOT_ACCOUNTS));
+            benchmarks.add(transfer(threads, SPREAD_ACCOUNTS));
+            for (int shards : CLUSTER_SHARDS) {
+                benchmarks.add(clusterTransfer(threads, shards));
+            }
+        }
+        benchmarks.add(batch());
+        benchmarks.add(interestAccrual());
+        benchmarks.add(metricsRecord(1));
+        benchmarks.add(metricsRecord(OperationMetrics.DEFAULT_SAMPLE_INTERVAL));
+        return benchmarks;
+    }
+
+    /**
+     * Consulta de productos existentes elegidos al azar.
+     */
+    private static Benchmark lookup(String name, String repositoryType, int size, boolean byCustomer) {
+        return new Benchmark(name, 1, params("repository", repositoryType, "size", Integer.toString(size)), () -> {
+            Repository repository = Repository.create(repositoryType);
+            for (int i = 0; i < size; i++) {
+                repository.get().addProduct(product(i));
+            }
+            String[] keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = byCustomer ? customerIdentification(i) : productNumber(i);
+            }
+            long[] seeds = {0x9E3779B97F4A7C15L};
+
+            return new Benchmark.Trial() {
+                @Override
+                public double measure(long iterationMillis) throws Exception {
+                    ProductRepository target = repository.get();
+                    return Throughput.measure(1, iterationMillis, (thread, iteration) -> {
+                        String key = keys[(int) Long.remainderUnsigned(seeds[0] = next(seeds[0]), size)];
+                        FinancialProduct product = byCustomer
+                                ? target.findByCustomerIdentification(key)
+                                : target.findByProductNumber(key);
+                        return product.getBalance();
+                    });
+                }
+
+                @Override
+                public void close() throws IOException {
+                    repository.close();
+                }
+            };
+        });
+    }
+
+    /**
+     * Inserción de todos los productos en un repositorio vacío; cada iteración usa un repositorio nuevo.
+     */
+    private static Benchmark insert(String repositoryType, int size) {
+        return new Benchmark("repository.addProduct", 1,
+                params("repository", repositoryType, "size", Integer.toString(size)), () -> {
+            FinancialProduct[] products = new FinancialProduct[size];
+            for (int i = 0; i < size; i++) {
+                products[i] = product(i);
+            }
+
+            return iterationMillis -> {
+                try (Repository repository = Repository.create(repositoryType)) {
+                    ProductRepository target = repository.get();
+                    long begin = System.nanoTime();
+                    for (FinancialProduct product : products) {
+                        target.addProduct(product);
+                    }
+                    return size * 1e9 / (System.nanoTime() - begin);
+                }
+            };
+        });
+    }
+
+    /**
+     * Depósitos o retiros sobre cuentas de un único tipo.
+     */
+    private static Benchmark singleAccountType(OperationType operationType, String accountType) {
+        String name = operationType == OperationType.DEPOSIT ? "company.deposit" : "company.withdraw";
+        return new Benchmark(name, 1, params("accountType", accountType), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            String[] numbers = new String[ACCOUNTS_PER_TYPE];
+            for (int i = 0; i < ACCOUNTS_PER_TYPE; i++) {
+                numbers[i] = productNumber(i);
+                Customer customer = customer(i);
+                switch (accountType) {
+                    case "savings" -> company.createSavingsAccount(numbers[i], customer, LARGE_BALANCE);
+                    case "checking" -> company.createCheckingAccount(numbers[i], customer, LARGE_BALANCE, 0);
+                    case "housing" -> company.createHousingSavingsAccount(numbers[i], customer, 0, LARGE_BALANCE,
+                            HousingClassification.VIS);
+                    default -> company.createSalaryAccount(numbers[i], customer, LARGE_BALANCE, LARGE_BALANCE);
+                }
+            }
+            OperationResult result = new OperationResult();
+
+            return iterationMillis -> Throughput.measure(1, iterationMillis, (thread, iteration) -> {
+                company.performOperation(numbers[(int) (iteration & (ACCOUNTS_PER_TYPE - 1))], operationType,
+                        1 + (iteration & 7), result);
+                return result.getBalance();
+            });
+        });
+    }
+
+    /**
+     * Retiros rechazados con {@code performWithdrawal}, que informa el rechazo con una excepción.
+     * Las cuentas de ahorro sin saldo lanzan la instancia compartida de fondos insuficientes y las
+     * corrientes sin saldo ni sobregiro la de sobregiro excedido; comparar con {@code company.withdraw}.
+     */
+    private static Benchmark rejectedWithdrawal(String accountType, boolean stackless) {
+        return new Benchmark("company.withdrawRejected", 1,
+                params("accountType", accountType, "stackless", Boolean.toString(stackless)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            company.setStacklessRejections(stackless);
+            String[] numbers = new String[ACCOUNTS_PER_TYPE];
+            for (int i = 0; i < ACCOUNTS_PER_TYPE; i++) {
+                numbers[i] = productNumber(i);
+                if (accountType.equals("savings")) {
+                    company.createSavingsAccount(numbers[i], customer(i), 0);
+                } else {
+                    company.createCheckingAccount(numbers[i], customer(i), 0, 0);
+                }
+            }
+
+            return iterationMillis -> Throughput.measure(1, iterationMillis, (thread, iteration) -> {
+                try {
+                    company.performWithdrawal(numbers[(int) (iteration & (ACCOUNTS_PER_TYPE - 1))],
+                            1 + (iteration & 7));
+                    throw new IllegalStateException("El retiro debía rechazarse");
+                } catch (InsufficientFundsException e) {
+                    return System.identityHashCode(e);
+                } catch (ProductNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Mezcla concurrente de 70% depósitos y 30% retiros sobre cuentas corrientes elegidas al azar.
+     * Con pocas cuentas los hilos compiten por los mismos candados.
+     */
+    private static Benchmark mixed(int threads, int accounts) {
+        return mixed(threads, accounts, "", company -> {
+        });
+    }
+
+    /**
+     * Mezcla concurrente de depósitos y retiros sobre una compañía preparada por {@code setup},
+     * por ejemplo con observadores o métricas, para medir su costo frente a la mezcla sin ellos.
+     */
+    private static Benchmark mixed(int threads, int accounts, String variant, Consumer<FinancialCompany> setup) {
+        return new Benchmark("company.mixedOperations" + variant, threads, params("accounts", Integer.toString(accounts)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            setup.accept(company);
+            String[] numbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                numbers[i] = productNumber(i);
+                company.createCheckingAccount(numbers[i], customer(i), LARGE_BALANCE, 0);
+            }
+            OperationResult[] results = new OperationResult[threads];
+            long[] seeds = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                results[t] = new OperationResult();
+                seeds[t] = 0x9E3779B97F4A7C15L * (t + 1);
+            }
+
+            return iterationMillis -> Throughput.measure(threads, iterationMillis, (thread, iteration) -> {
+                long random = seeds[thread] = next(seeds[thread]);
+                String number = numbers[(int) Long.remainderUnsigned(random >>> 8, accounts)];
+                OperationType type = (random & 0xFF) < 77 ? OperationType.WITHDRAWAL : OperationType.DEPOSIT;
+                OperationResult result = results[thread];
+                company.performOperation(number, type, 1 + (random >>> 60), result);
+                return result.getBalance();
+            });
+        });
+    }
+
+    /**
+     * La misma mezcla que {@link #mixed(int, int)}, con una clave de idempotencia nueva por operación
+     * y uno de cada dieciséis envíos repetido como reintento de la operación anterior del hilo.
+     * Las claves se generan antes de medir y se reciclan cuando ya salieron de la caché.
+     */
+    private static Benchmark idempotentMixed(int threads, int accounts) {
+        return new Benchmark("company.mixedOperationsWithIdempotency", threads,
+                params("accounts", Integer.toString(accounts)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            company.setIdempotencyCache(new IdempotencyCache(IDEMPOTENCY_KEYS / 4, IdempotencyCache.DEFAULT_RETENTION));
+            String[] numbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                numbers[i] = productNumber(i);
+                company.createCheckingAccount(numbers[i], customer(i), LARGE_BALANCE, 0);
+            }
+            String[] keys = new String[IDEMPOTENCY_KEYS];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = "op-" + i;
+            }
+            OperationResult[] results = new OperationResult[threads];
+            long[] seeds = new long[threads];
+            int[] sequences = new int[threads];
+            int[] lastAccounts = new int[threads];
+            OperationType[] lastTypes = new OperationType[threads];
+            long[] lastAmounts = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                results[t] = new OperationResult();
+                seeds[t] = 0x9E3779B97F4A7C15L * (t + 1);
+                sequences[t] = t * (IDEMPOTENCY_KEYS / threads);
+            }
+
+            return iterationMillis -> Throughput.measure(threads, iterationMillis, (thread, iteration) -> {
+                long random = seeds[thread] = next(seeds[thread]);
+                OperationResult result = results[thread];
+                if ((random & 0xF00) != 0 || lastTypes[thread] == null) {
+                    lastAccounts[thread] = (int) Long.remainderUnsigned(random >>> 12, accounts);
+                    lastTypes[thread] = (random & 0xFF) < 77 ? OperationType.WITHDRAWAL : OperationType.DEPOSIT;
+                    lastAmounts[thread] = 1 + (random >>> 60);
+                    sequences[thread]++;
+                }
+                // Uno de cada dieciséis envíos repite la clave y la operación del anterior
+                String key = keys[sequences[thread] & (IDEMPOTENCY_KEYS - 1)];
+                company.performOperation(numbers[lastAccounts[thread]], lastTypes[thread], lastAmounts[thread], result,
+                        key);
+                return result.getBalance();
+            });
+        });
+    }
+
+    /**
+     * La misma mezcla que {@link #mixed(int, int)} con un {@link OperationPipeline} en marcha, para
+     * compararla con la aplicación directa: los hilos solo publican y esperan, y un único hilo aplica
+     * todas las operaciones sin candados.
+     */
+    private static Benchmark pipelinedMixed(int threads, int accounts) {
+        return new Benchmark("company.mixedOperationsPipelined", threads,
+                params("accounts", Integer.toString(accounts)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            String[] numbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                numbers[i] = productNumber(i);
+                company.createCheckingAccount(numbers[i], customer(i), LARGE_BALANCE, 0);
+            }
+            OperationResult[] results = new OperationResult[threads];
+            long[] seeds = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                results[t] = new OperationResult();
+                seeds[t] = 0x9E3779B97F4A7C15L * (t + 1);
+            }
+            OperationPipeline pipeline = new OperationPipeline(company);
+
+            return new Benchmark.Trial() {
+                @Override
+                public double measure(long iterationMillis) throws Exception {
+                    return Throughput.measure(threads, iterationMillis, (thread, iteration) -> {
+                        long random = seeds[thread] = next(seeds[thread]);
+                        String number = numbers[(int) Long.remainderUnsigned(random >>> 8, accounts)];
+                        OperationType type = (random & 0xFF) < 77 ? OperationType.WITHDRAWAL : OperationType.DEPOSIT;
+                        OperationResult result = results[thread];
+                        company.performOperation(number, type, 1 + (random >>> 60), result);
+                        return result.getBalance();
+                    });
+                }
+
+                @Override
+                public void close() {
+                    pipeline.close();
+                }
+            };
+        });
+    }
+
+    /**
+     * Transferencias concurrentes entre pares de cuentas corrientes distintas elegidas al azar.
+     * Con pocas cuentas casi todas las transferencias comparten algún candado con otra en curso,
+     * y los pares cruzados (A hacia B y B hacia A) ejercitan el orden de adquisición de candados.
+     */
+    private static Benchmark transfer(int threads, int accounts) {
+        return new Benchmark("company.transfer", threads, params("accounts", Integer.toString(accounts)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            String[] numbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                numbers[i] = productNumber(i);
+                company.createCheckingAccount(numbers[i], customer(i), LARGE_BALANCE, 0);
+            }
+            OperationResult[] results = new OperationResult[threads];
+            long[] seeds = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                results[t] = new OperationResult();
+                seeds[t] = 0x9E3779B97F4A7C15L * (t + 1);
+            }
+
+            return iterationMillis -> Throughput.measure(threads, iterationMillis, (thread, iteration) -> {
+                long random = seeds[thread] = next(seeds[thread]);
+                int source = (int) Long.remainderUnsigned(random >>> 8, accounts);
+                int target = (source + 1 + (int) Long.remainderUnsigned(random >>> 32, accounts - 1)) % accounts;
+                OperationResult result = results[thread];
+                company.performTransfer(numbers[source], numbers[target], 1 + (random >>> 60), result);
+                return result.getBalance();
+            });
+        });
+    }
+
+    /**
+     * Las mismas transferencias que {@link #transfer(int, int)} enviadas por un {@link ShardRouter} a un
+     * clúster con nodos en el mismo proceso. Con un nodo todas son locales; con más, la mayoría cruza
+     * nodos y paga el protocolo de dos fases.
+     */
+    private static Benchmark clusterTransfer(int threads, int shards) {
+        return new Benchmark("cluster.transfer", threads, params("accounts", Integer.toString(SPREAD_ACCOUNTS),
+                "shards", Integer.toString(shards)), () -> {
+            LocalCluster cluster = LocalCluster.inProcess(shards);
+            ShardRouter router = cluster.getRouter();
+            String[] numbers = new String[SPREAD_ACCOUNTS];
+            for (int i = 0; i < SPREAD_ACCOUNTS; i++) {
+                numbers[i] = productNumber(i);
+                router.register(new CheckingAccount(numbers[i], OPENING_DATE, customer(i), LARGE_BALANCE, 0));
+            }
+            OperationResult[] results = new OperationResult[threads];
+            long[] seeds = new long[threads];
+            for (int t = 0; t < threads; t++) {
+                results[t] = new OperationResult();
+                seeds[t] = 0x9E3779B97F4A7C15L * (t + 1);
+            }
+
+            return new Benchmark.Trial() {
+                @Override
+                public double measure(long iterationMillis) throws Exception {
+                    return Throughput.measure(threads, iterationMillis, (thread, iteration) -> {
+                        long random = seeds[thread] = next(seeds[thread]);
+                        int source = (int) Long.remainderUnsigned(random >>> 8, SPREAD_ACCOUNTS);
+                        int target = (source + 1 + (int) Long.remainderUnsigned(random >>> 32, SPREAD_ACCOUNTS - 1))
+                                % SPREAD_ACCOUNTS;
+                        OperationResult result = results[thread];
+                        router.performTransfer(numbers[source], numbers[target], 1 + (random >>> 60), result);
+                        return result.getBalance();
+                    });
+                }
+
+                @Override
+                public void close() throws IOException {
+                    cluster.close();
+                }
+            };
+        });
+    }
+
+    /**
+     * Procesamiento de lotes de operaciones mediante {@link FinancialCompany#performBatch(OperationBatch)}.
+     */
+    private static Benchmark batch() {
+        return new Benchmark("company.performBatch", 1, params("batchSize", Integer.toString(BATCH_SIZE),
+                "accounts", Integer.toString(SPREAD_ACCOUNTS)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            for (int i = 0; i < SPREAD_ACCOUNTS; i++) {
+                company.createCheckingAccount(productNumber(i), customer(i), LARGE_BALANCE, 0);
+            }
+            OperationBatch batch = new OperationBatch(BATCH_SIZE);
+            long seed = 0x9E3779B97F4A7C15L;
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                seed = next(seed);
+                batch.add(productNumber((int) Long.remainderUnsigned(seed >>> 8, SPREAD_ACCOUNTS)),
+                        (seed & 0xFF) < 77 ? OperationType.WITHDRAWAL : OperationType.DEPOSIT, 1 + (seed >>> 60));
+            }
+
+            // Cada operación medida es un lote completo; el resultado se expresa en operaciones individuales
+            return iterationMillis -> Throughput.measure(1, iterationMillis, (thread, iteration) -> {
+                company.performBatch(batch);
+                return batch.getBalance(0);
+            }) * BATCH_SIZE;
+        });
+    }
+
+    /**
+     * Causación diaria de intereses sobre todas las cuentas de ahorro mediante {@link InterestAccrualEngine}.
+     * Cada ejecución causa un día nuevo, por lo que todas las cuentas se causan en cada una.
+     */
+    private static Benchmark interestAccrual() {
+        return new Benchmark("company.accrueInterest", 1, params("accounts", Integer.toString(SPREAD_ACCOUNTS)), () -> {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            for (int i = 0; i < SPREAD_ACCOUNTS; i++) {
+                company.createSavingsAccount(productNumber(i), customer(i), LARGE_BALANCE);
+            }
+            InterestAccrualEngine engine = new InterestAccrualEngine(company);
+            LocalDate[] day = {OPENING_DATE};
+
+            // Cada operación medida es una causación completa; el resultado se expresa en cuentas causadas
+            return iterationMillis -> Throughput.measure(1, iterationMillis, (thread, iteration) -> {
+                day[0] = day[0].plusDays(1);
+                return engine.accrue(day[0]).totalInterest();
+            }) * SPREAD_ACCOUNTS;
+        });
+    }
+
+    /**
+     * Registro de una operación en {@link OperationMetrics}, sin la operación misma.
+     * Con intervalo 1 se mide el reloj en cada registro; con el intervalo por defecto solo en una muestra.
+     */
+    private static Benchmark metricsRecord(int sampleInterval) {
+        return new Benchmark("metrics.record", 1, params("sampleInterval", Integer.toString(sampleInterval)), () -> {
+            OperationMetrics metrics = new OperationMetrics(sampleInterval);
+            FinancialProduct product = product(1);
+
+            return iterationMillis -> Throughput.measure(1, iterationMillis, (thread, iteration) -> {
+                long start = metrics.startSample();
+                metrics.record(OperationType.DEPOSIT, product, OperationStatus.DEPOSITED, start);
+                return start;
+            });
+        });
+    }
+
+    private static Map<String, String> params(String... keyValues) {
+        Map<String, String> params = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            params.put(keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+
+    private static String productNumber(int index) {
+        return Integer.toString(index + 1);
+    }
+
+    private static String customerIdentification(int index) {
+        return Integer.toString(10_000_000 + index);
+    }
+
+    private static Customer customer(int index) {
+        return new Customer(customerIdentification(index), "Nombre", "Apellido", "3000000000");
+    }
+
+    /**
+     * Crea un producto de prueba alternando los cuatro tipos de cuenta.
+     */
+    private static FinancialProduct product(int index) {
+        String number = productNumber(index);
+        Customer customer = customer(index);
+        return switch (index & 3) {
+            case 0 -> new SavingsAccount(number, OPENING_DATE, customer, 100_000);
+            case 1 -> new CheckingAccount(number, OPENING_DATE, customer, 100_000, 50_000);
+            case 2 -> new HousingSavingsAccount(number, OPENING_DATE, customer, 0, 10_000_000, HousingClassification.VIS);
+            default -> new SalaryAccount(number, OPENING_DATE, customer, 100_000, 500_000);
+        };
+    }
+
+    /**
+     * Generador pseudoaleatorio xorshift, sin estado compartido entre hilos.
+     */
+    private static long next(long seed) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed;
+    }
+
+    /**
+     * Repositorio evaluado junto con los recursos que requiere.
+     */
+    private static final class Repository implements AutoCloseable {
+        private final ProductRepository repository;
+        private final Path file;
+
+        private Repository(ProductRepository repository, Path file) {
+            this.repository = repository;
+            this.file = file;
+        }
+
+        static Repository create(String type) throws IOException {
+            return switch (type) {
+                case "list" -> new Repository(new FinancialCompanyRepository(), null);
+                case "indexed" -> new Repository(new IndexedProductRepository(), null);
+                case "mapped" -> {
+                    Path file = Files.createTempFile("financial-benchmark", ".store");
+                    Files.delete(file);
+                    yield new Repository(new MappedProductRepository(file), file);
+                }
+                default -> throw new IllegalArgumentException("Repositorio desconocido: " + type);
+            };
+        }
+
+        ProductRepository get() {
+            return repository;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (repository instanceof MappedProductRepository mapped) {
+                mapped.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
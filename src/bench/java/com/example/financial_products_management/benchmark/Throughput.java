@@ -0,0 +1,104 @@
+package com.example.financial_products_management.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Mide el rendimiento de una operación ejecutada repetidamente por varios hilos durante un tiempo fijo.
+ * Todos los hilos comienzan a la vez y se detienen al vencer el tiempo de la iteración.
+ */
+final class Throughput {
+    /**
+     * Acumula los resultados de las operaciones para que el compilador no elimine el trabajo medido.
+     */
+    static volatile long sink;
+
+    private Throughput() {
+    }
+
+    /**
+     * Operación medida.
+     */
+    @FunctionalInterface
+    interface Operation {
+        /**
+         * Ejecuta una operación.
+         *
+         * @param thread    Índice del hilo que ejecuta la operación
+         * @param iteration Cantidad de operaciones que el hilo ya ejecutó
+         * @return Valor derivado del resultado de la operación
+         */
+        long run(int thread, long iteration);
+    }
+
+    /**
+     * Mide una iteración.
+     *
+     * @param threads         Cantidad de hilos
+     * @param iterationMillis Duración de la iteración en milisegundos
+     * @param operation       Operación medida
+     * @return Operaciones por segundo sumando todos los hilos
+     * @throws InterruptedException  Si el hilo que mide es interrumpido
+     * @throws IllegalStateException Si la operación medida lanza una excepción
+     */
+    static double measure(int threads, long iterationMillis, Operation operation) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] counts = new long[threads];
+        Thread[] workers = new Thread[threads];
+        Stop flag = new Stop();
+        Throwable[] failure = new Throwable[1];
+
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long iteration = 0;
+                long accumulated = 0;
+                try {
+                    while (!flag.stopped) {
+                        accumulated ^= operation.run(thread, iteration);
+                        iteration++;
+                    }
+                } catch (RuntimeException | Error e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                    flag.stopped = true;
+                }
+                counts[thread] = iteration;
+                sink ^= accumulated;
+            }, "benchmark-worker-" + t);
+            workers[t].start();
+        }
+
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(iterationMillis);
+        flag.stopped = true;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw new IllegalStateException("La operación medida falló", failure[0]);
+            }
+        }
+
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total * 1e9 / elapsed;
+    }
+
+    private static final class Stop {
+        private volatile boolean stopped;
+    }
+}
@@ -2,38 +2,214 @@ package com.example.financial_products_management.application;
 
 import com.example.financial_products_management.domain.customer.Customer;
 import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_company.IdempotencyCache;
+import com.example.financial_products_management.domain.financial_company.InterestAccrualEngine;
+import com.example.financial_products_management.domain.financial_company.OperationMetrics;
+import com.example.financial_products_management.domain.financial_company.OperationPipeline;
+import com.example.financial_products_management.domain.financial_company.PortfolioAggregates;
+import com.example.financial_products_management.domain.financial_product.event.AccountEvent;
+import com.example.financial_products_management.domain.financial_product.event.EventSourcedLedger;
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
-import com.example.financial_products_management.domain.repository.FinancialCompanyRepository;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.IndexedProductRepository;
+import com.example.financial_products_management.domain.repository.ProductPage;
 import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.repository.index.SecondaryIndexes;
+import com.example.financial_products_management.domain.shared.BusinessDate;
 import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.Money;
 import com.example.financial_products_management.exception.InsufficientFundsException;
 import com.example.financial_products_management.exception.ProductNotFoundException;
+import com.example.financial_products_management.infrastructure.history.AccountStatement;
+import com.example.financial_products_management.infrastructure.history.HistoryEntry;
+import com.example.financial_products_management.infrastructure.history.MonthlySummary;
+import com.example.financial_products_management.infrastructure.history.TransactionHistoryStore;
+import com.example.financial_products_management.infrastructure.payroll.PayrollReport;
+import com.example.financial_products_management.infrastructure.payroll.PayrollRunner;
+import com.example.financial_products_management.infrastructure.persistence.BulkImportReport;
+import com.example.financial_products_management.infrastructure.persistence.BulkImporter;
+import com.example.financial_products_management.infrastructure.persistence.MappedProductRepository;
+import com.example.financial_products_management.infrastructure.persistence.SnapshotManager;
+import com.example.financial_products_management.infrastructure.persistence.TransactionJournal;
+import com.example.financial_products_management.infrastructure.server.FinancialServer;
 import com.example.financial_products_management.infrastructure.validation.InputValidator;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 /**
  * Clase principal de la aplicación de Gestión de Productos Financieros.
  * Maneja la interfaz de usuario.
+ * Si se define la propiedad del sistema {@code financial.journal} con la ruta de un directorio,
+ * el estado se recupera de ese diario de transacciones al iniciar y cada cambio se persiste en él.
+ * Con {@code financial.snapshot.interval} (en segundos) se generan además snapshots periódicos
+ * que acortan la recuperación.
+ * Con {@code financial.events=true} cada operación se registra además como evento en el historial
+ * de su producto, que puede consultarse junto con los datos del producto.
+ * Con {@code financial.indexes=true} se mantienen índices secundarios por tipo, fecha de apertura
+ * y saldo, que habilitan las consultas por índices del menú.
+ * Con {@code financial.history} se registra el historial de transacciones de cada cuenta en ese
+ * directorio para emitir extractos; los meses anteriores a {@code financial.history.retention}
+ * (12 por defecto) se compactan diariamente en resúmenes mensuales.
+ * Con {@code financial.idempotency=true} se recuerdan los resultados de las operaciones enviadas con
+ * clave de idempotencia, de modo que sus reintentos no se aplican dos veces.
+ * Con {@code financial.server.port} se atienden además solicitudes de red en ese puerto local
+ * (ver {@link com.example.financial_products_management.infrastructure.server.ProtocolSession}), y con
+ * {@code financial.server.headless=true} solo se atienden esas solicitudes, sin menú interactivo.
+ * Con {@code financial.pipeline=true} las operaciones se aplican en un
+ * {@link com.example.financial_products_management.domain.financial_company.OperationPipeline}, cuya
+ * etapa de negocio es el único hilo que modifica los productos.
+ * Si en cambio se define {@code financial.store} con la ruta de un archivo, los productos se
+ * almacenan fuera del heap en ese archivo mapeado en memoria y se conservan entre ejecuciones.
  *
  * @author 200582 Alexander Sandoval
  * @since 2025-09-20
  */
 public class FinancialCompanyManagementApp {
+    /**
+     * Cantidad de productos que se leen del repositorio por página al listar los titulares.
+     */
+    private static final int LIST_PAGE_SIZE = 500;
+
+    private final ProductRepository repository;
     private final FinancialCompany financialCompany;
     private final InputValidator validator;
+    private EventSourcedLedger ledger;
+    private SecondaryIndexes indexes;
+    private PortfolioAggregates aggregates;
+    private TransactionHistoryStore history;
 
     /**
      * Crea una nueva instancia de la aplicación.
      */
     public FinancialCompanyManagementApp() {
-        ProductRepository repository = new FinancialCompanyRepository();
+        this(new IndexedProductRepository());
+    }
+
+    /**
+     * Crea una nueva instancia de la aplicación sobre el repositorio indicado.
+     *
+     * @param repository Repositorio de productos financieros
+     */
+    public FinancialCompanyManagementApp(ProductRepository repository) {
+        this.repository = repository;
         this.financialCompany = new FinancialCompany(repository);
+        this.financialCompany.setMetrics(new OperationMetrics());
         Scanner scanner = new Scanner(System.in);
         this.validator = new InputValidator(scanner);
     }
 
+    /**
+     * Recupera el estado desde un diario de transacciones y registra en él los cambios posteriores.
+     * Debe invocarse antes de crear productos.
+     *
+     * @param journalDirectory Directorio del diario de transacciones
+     * @param snapshotInterval Intervalo entre snapshots, o null para no generarlos
+     * @throws IOException Si el diario no puede leerse o abrirse
+     */
+    private void enableJournal(Path journalDirectory, Duration snapshotInterval) throws IOException {
+        TransactionJournal journal = TransactionJournal.recover(journalDirectory, repository);
+        financialCompany.addListener(journal);
+        SnapshotManager snapshots = new SnapshotManager(financialCompany, repository, journal);
+        if (snapshotInterval != null) {
+            snapshots.startPeriodicSnapshots(snapshotInterval);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            snapshots.close();
+            // Las operaciones que lleguen desde ahora se aplican sin registrarse, en lugar de fallar a medias
+            financialCompany.removeListener(journal);
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando el diario de transacciones: " + e.getMessage());
+            }
+        }));
+        log("Diario de transacciones recuperado: " + repository.size() + " productos.\n");
+    }
+
+    /**
+     * Registra el historial de eventos de cada producto a partir de su estado actual.
+     * Debe invocarse después de recuperar el estado y antes de operar.
+     */
+    private void enableEventLog() {
+        ledger = new EventSourcedLedger();
+        repository.stream().forEach(ledger::track);
+        financialCompany.addListener(ledger);
+    }
+
+    /**
+     * Calcula los totales de la cartera con los productos existentes y los mantiene con cada operación.
+     * Debe invocarse después de recuperar el estado y antes de operar.
+     */
+    private void enableAggregates() {
+        aggregates = new PortfolioAggregates();
+        repository.stream().forEach(aggregates::track);
+        financialCompany.addListener(aggregates);
+    }
+
+    /**
+     * Construye los índices secundarios con los productos existentes y los mantiene con cada operación.
+     * Debe invocarse después de recuperar el estado y antes de operar.
+     */
+    private void enableIndexes() {
+        indexes = new SecondaryIndexes(repository);
+        repository.stream().forEach(indexes::track);
+        financialCompany.addListener(indexes);
+    }
+
+    /**
+     * Registra el historial de transacciones de cada cuenta y compacta diariamente los meses
+     * anteriores a la retención indicada.
+     *
+     * @param historyDirectory Directorio de los archivos del historial
+     * @param retainedMonths   Meses, contando el actual, que se conservan en detalle
+     * @throws IOException Si el directorio no puede prepararse
+     */
+    private void enableHistory(Path historyDirectory, int retainedMonths) throws IOException {
+        TransactionHistoryStore store = new TransactionHistoryStore(historyDirectory);
+        store.startPeriodicCompaction(retainedMonths, Duration.ofDays(1));
+        financialCompany.addListener(store);
+        history = store;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando el historial de transacciones: " + e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Abre el almacén de productos mapeado en memoria y registra su cierre al terminar.
+     *
+     * @param storeFile Archivo del almacén
+     * @return Repositorio mapeado
+     * @throws IOException Si el archivo no puede abrirse
+     */
+    private static MappedProductRepository openStore(Path storeFile) throws IOException {
+        MappedProductRepository store = new MappedProductRepository(storeFile);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando el almacén de productos: " + e.getMessage());
+            }
+        }));
+        log("Almacén de productos abierto: " + store.size() + " productos.\n");
+        return store;
+    }
+
     /**
      * Registra un mensaje con timestamp.
      *
@@ -51,17 +227,109 @@ public class FinancialCompanyManagementApp {
     public static void main(String[] args) {
         log("Inicializando sistema de la Entidad Financiera...\n");
 
-        FinancialCompanyManagementApp app = new FinancialCompanyManagementApp();
-        
-        app.createInitialProducts();
+        String storeFile = System.getProperty("financial.store");
+        String journalDirectory = System.getProperty("financial.journal");
+        if (storeFile != null && journalDirectory != null) {
+            System.err.println("Las propiedades financial.store y financial.journal no pueden usarse juntas");
+            return;
+        }
+
+        FinancialCompanyManagementApp app;
+        if (storeFile != null) {
+            try {
+                app = new FinancialCompanyManagementApp(openStore(Path.of(storeFile)));
+            } catch (IOException e) {
+                System.err.println("Error abriendo el almacén de productos: " + e.getMessage());
+                return;
+            }
+        } else {
+            app = new FinancialCompanyManagementApp();
+        }
+
+        if (journalDirectory != null) {
+            Long snapshotSeconds = Long.getLong("financial.snapshot.interval");
+            try {
+                app.enableJournal(Path.of(journalDirectory),
+                        snapshotSeconds == null ? null : Duration.ofSeconds(snapshotSeconds));
+            } catch (IOException e) {
+                System.err.println("Error recuperando el diario de transacciones: " + e.getMessage());
+                return;
+            }
+        }
 
-        app.executeInitialOperations();
+        if (Boolean.getBoolean("financial.events")) {
+            app.enableEventLog();
+        }
+
+        if (Boolean.getBoolean("financial.indexes")) {
+            app.enableIndexes();
+        }
+
+        if (Boolean.getBoolean("financial.idempotency")) {
+            app.financialCompany.setIdempotencyCache(new IdempotencyCache());
+        }
+
+        String historyDirectory = System.getProperty("financial.history");
+        if (historyDirectory != null) {
+            try {
+                app.enableHistory(Path.of(historyDirectory), Integer.getInteger("financial.history.retention", 12));
+            } catch (IOException e) {
+                System.err.println("Error abriendo el historial de transacciones: " + e.getMessage());
+                return;
+            }
+        }
 
-        app.showInteractiveMenu();
+        app.enableAggregates();
+
+        if (Boolean.getBoolean("financial.pipeline")) {
+            // Las etapas son hilos daemon: el pipeline atiende las operaciones hasta que termina el proceso
+            new OperationPipeline(app.financialCompany);
+        }
+
+        // Los datos de ejemplo solo se crean cuando no se recuperó estado previo
+        if (app.repository.size() == 0) {
+            app.createInitialProducts();
+
+            app.executeInitialOperations();
+        }
+
+        Integer serverPort = Integer.getInteger("financial.server.port");
+        if (serverPort == null) {
+            app.showInteractiveMenu();
+        } else {
+            try (FinancialServer server = new FinancialServer(app.financialCompany, serverPort)) {
+                server.start();
+                log("Servidor de solicitudes escuchando en el puerto " + server.getPort() + " (hilos "
+                        + (FinancialServer.usesVirtualThreads() ? "virtuales" : "de plataforma") + ").\n");
+                if (Boolean.getBoolean("financial.server.headless")) {
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> closeServer(server)));
+                    server.awaitTermination();
+                } else {
+                    app.showInteractiveMenu();
+                }
+            } catch (IOException e) {
+                System.err.println("Error abriendo el servidor de solicitudes: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
 
         log("\n¡Gracias por usar el Sistema de Gestión de Productos Financieros!");
     }
 
+    /**
+     * Cierra el servidor de solicitudes al terminar el proceso en modo sin menú.
+     *
+     * @param server Servidor a cerrar
+     */
+    private static void closeServer(FinancialServer server) {
+        try {
+            server.close();
+        } catch (IOException e) {
+            System.err.println("Error cerrando el servidor: " + e.getMessage());
+        }
+    }
+
     /**
      * Crea productos financieros de ejemplo.
      */
@@ -76,10 +344,10 @@ public class FinancialCompanyManagementApp {
             log("Creando productos financieros...\n");
 
             // Create financial products (accounts)
-            financialCompany.createSavingsAccount("001", customer1, 500000.0);
-            financialCompany.createCheckingAccount("002", customer2, 1000000.0, 200000.0);
-            financialCompany.createHousingSavingsAccount("003", customer3, 2000000.0, 150000000.0, HousingClassification.VIS);
-            financialCompany.createSalaryAccount("004", customer4, 1500000.0, 2500000.0);
+            financialCompany.createSavingsAccount("001", customer1, Money.of(500000));
+            financialCompany.createCheckingAccount("002", customer2, Money.of(1000000), Money.of(200000));
+            financialCompany.createHousingSavingsAccount("003", customer3, Money.of(2000000), Money.of(150000000), HousingClassification.VIS);
+            financialCompany.createSalaryAccount("004", customer4, Money.of(1500000), Money.of(2500000));
 
         } catch (Exception e) {
             System.err.println("Error creando datos de ejemplo: " + e.getMessage());
@@ -98,11 +366,11 @@ public class FinancialCompanyManagementApp {
             FinancialProduct savings = financialCompany.consultByProductNumber("001");
             System.out.println("Estado inicial: " + savings);
 
-            String result1 = financialCompany.performDeposit("001", 100000.0);
+            String result1 = financialCompany.performDeposit("001", Money.of(100000));
             System.out.println("Depósito de $100,000: " + result1);
             System.out.println("Estado actual: " + financialCompany.consultByProductNumber("001"));
 
-            String result2 = financialCompany.performWithdrawal("001", 50000.0);
+            String result2 = financialCompany.performWithdrawal("001", Money.of(50000));
             System.out.println("Retiro de $50,000: " + result2);
             System.out.println("Estado final: " + financialCompany.consultByProductNumber("001") + "\n");
 
@@ -111,13 +379,13 @@ public class FinancialCompanyManagementApp {
             FinancialProduct checking = financialCompany.consultByProductNumber("002");
             System.out.println("Estado inicial: " + checking);
 
-            String result3 = financialCompany.performWithdrawal("002", 1100000.0);
+            String result3 = financialCompany.performWithdrawal("002", Money.of(1100000));
             System.out.println("Retiro de $1,100,000 (con sobregiro): " + result3);
             System.out.println("Estado actual: " + financialCompany.consultByProductNumber("002"));
 
             // Try to exceed limit
             try {
-                financialCompany.performWithdrawal("002", 200000.0);
+                financialCompany.performWithdrawal("002", Money.of(200000));
             } catch (InsufficientFundsException e) {
                 System.out.println("Intento de retiro de $200,000 adicionales: " + e.getMessage());
             }
@@ -129,13 +397,13 @@ public class FinancialCompanyManagementApp {
             System.out.println("Estado inicial: " + housing);
 
             // Deposit in Housing Savings Account
-            String result4 = financialCompany.performDeposit("003", 5000000.0);
+            String result4 = financialCompany.performDeposit("003", Money.of(5000000));
             System.out.println("Depósito de $5,000,000: " + result4);
             System.out.println("Estado actual: " + financialCompany.consultByProductNumber("003"));
 
             // Withdrawal from Housing Savings Account
             try {
-                financialCompany.performWithdrawal("003", 1000000.0);
+                financialCompany.performWithdrawal("003", Money.of(1000000));
             } catch (UnsupportedOperationException e) {
                 System.out.println("Intento de retiro en Cuenta de Ahorro Vivienda: " + e.getMessage());
             }
@@ -159,6 +427,13 @@ public class FinancialCompanyManagementApp {
             System.out.println("3. Consultar producto por número");
             System.out.println("4. Consultar producto por titular");
             System.out.println("5. Lista de todos los titulares");
+            System.out.println("6. Causar intereses del día");
+            System.out.println("7. Procesar archivo de nómina");
+            System.out.println("8. Importar productos desde archivo");
+            System.out.println("9. Consultas por índices");
+            System.out.println("10. Resumen de la cartera");
+            System.out.println("11. Métricas de operaciones");
+            System.out.println("12. Extracto de cuenta");
             System.out.println("0. Salir");
 
             option = validator.getValidInteger("Seleccione una opción: ");
@@ -170,6 +445,13 @@ public class FinancialCompanyManagementApp {
                     case 3 -> consultByProductNumberMenu();
                     case 4 -> consultByCustomerMenu();
                     case 5 -> listAllCustomersMenu();
+                    case 6 -> accrueInterestMenu();
+                    case 7 -> payrollMenu();
+                    case 8 -> bulkImportMenu();
+                    case 9 -> indexQueryMenu();
+                    case 10 -> portfolioSummaryMenu();
+                    case 11 -> metricsMenu();
+                    case 12 -> statementMenu();
                     case 0 -> System.out.println("¡Gracias por usar nuestros servicios!");
                     default -> System.out.println("Opción no válida. Intente nuevamente.");
                 }
@@ -193,24 +475,23 @@ public class FinancialCompanyManagementApp {
             int accountType = validator.getValidPositiveInteger("Seleccione el tipo de cuenta: ");
 
             // Datos comunes
-            ProductRepository repository = new FinancialCompanyRepository();
             String productNumber = validator.getValidUniqueProductNumber("Ingrese el número del producto: ", repository);
             Customer customer = createCustomerMenu();
-            double initialBalance = validator.getValidAmount("Ingrese el saldo inicial: ");
+            long initialBalance = validator.getValidAmount("Ingrese el saldo inicial: ");
 
             FinancialProduct product = switch (accountType) {
                 case 1 -> financialCompany.createSavingsAccount(productNumber, customer, initialBalance);
                 case 2 -> {
-                    double overdraftLimit = validator.getValidAmount("Ingrese el límite de sobregiro: ");
+                    long overdraftLimit = validator.getValidAmount("Ingrese el límite de sobregiro: ");
                     yield financialCompany.createCheckingAccount(productNumber, customer, initialBalance, overdraftLimit);
                 }
                 case 3 -> {
-                    double housingValue = validator.getValidAmount("Ingrese el valor total de la vivienda: ");
+                    long housingValue = validator.getValidAmount("Ingrese el valor total de la vivienda: ");
                     HousingClassification classification = getHousingClassificationMenu();
                     yield financialCompany.createHousingSavingsAccount(productNumber, customer, initialBalance, housingValue, classification);
                 }
                 case 4 -> {
-                    double salaryAmount = validator.getValidAmount("Ingrese el valor del salario: ");
+                    long salaryAmount = validator.getValidAmount("Ingrese el valor del salario: ");
                     yield financialCompany.createSalaryAccount(productNumber, customer, initialBalance, salaryAmount);
                 }
                 default -> {
@@ -246,17 +527,22 @@ public class FinancialCompanyManagementApp {
 
             System.out.println("\n1. Depósito");
             System.out.println("2. Retiro");
+            System.out.println("3. Transferencia");
             int operationType = validator.getValidPositiveInteger("Seleccione la operación: ");
 
-            if (operationType != 1 && operationType != 2) {
+            if (operationType < 1 || operationType > 3) {
                 System.out.println("Operación no válida.");
                 return;
             }
 
-            double amount = validator.getValidAmount("Ingrese el monto: ");
+            String targetProductNumber = operationType == 3
+                    ? validator.getValidString("Ingrese el número del producto de destino: ")
+                    : null;
+            long amount = validator.getValidAmount("Ingrese el monto: ");
             String result = switch (operationType) {
                 case 1 -> financialCompany.performDeposit(productNumber, amount);
                 case 2 -> financialCompany.performWithdrawal(productNumber, amount);
+                case 3 -> financialCompany.performTransfer(productNumber, targetProductNumber, amount);
                 default -> throw new IllegalStateException("Tipo de operación inválido: " + operationType);
             };
             System.out.println("Resultado: " + result);
@@ -289,6 +575,19 @@ public class FinancialCompanyManagementApp {
             System.out.println("\nDatos del producto:");
             System.out.println(product);
 
+            if (ledger != null) {
+                List<AccountEvent> history = ledger.getHistory(product.getProductNumber());
+                System.out.println("\nHistorial de operaciones (" + history.size() + " eventos):");
+                for (AccountEvent event : history.subList(Math.max(0, history.size() - 10), history.size())) {
+                    System.out.printf("%d. %s %s%n", event.version(), event.date(), switch (event.operationType()) {
+                        case DEPOSIT -> "Depósito por $" + Money.format(event.amount());
+                        case WITHDRAWAL -> "Retiro por $" + Money.format(event.amount());
+                        case TRANSFER -> "Transferencia por $" + Money.format(event.amount());
+                        case INTEREST_ACCRUAL -> "Interés causado de $" + Money.format(event.interest());
+                    });
+                }
+            }
+
         } catch (ProductNotFoundException e) {
             System.err.println("Producto no encontrado: " + e.getMessage());
         } catch (Exception e) {
@@ -318,30 +617,27 @@ public class FinancialCompanyManagementApp {
     }
 
     /**
-     * Menú para listar todos los clientes.
+     * Menú para listar todos los clientes, opcionalmente solo los de un tipo de producto.
+     * Los productos se recorren por páginas sin copiar el libro.
      */
     private void listAllCustomersMenu() {
         try {
             System.out.println("\n=== LISTA DE TODOS LOS TITULARES ===");
+            Class<? extends FinancialProduct> type = getProductTypeMenu();
 
-            List<FinancialProduct> products = financialCompany.getAllProducts();
-
-            if (products.isEmpty()) {
+            ProductPage<? extends FinancialProduct> page = financialCompany.findProductPage(type, 0, LIST_PAGE_SIZE);
+            if (page.products().isEmpty()) {
                 System.out.println("No hay productos registrados en la financiera.");
                 return;
             }
 
-            System.out.printf("%-40s %-15s %-15s %-35s %-15s%n",
-                    "Datos del Titular", "Número Producto", "Fecha Apertura", "Tipo de Producto", "Saldo");
-            System.out.println("=".repeat(120));
-
-            for (FinancialProduct product : products) {
-                System.out.printf("%-40s %-15s %-15s %-35s $%-14.2f%n",
-                        product.getCustomer().toString(),
-                        product.getProductNumber(),
-                        product.getOpeningDate(),
-                        product.getProductType(),
-                        product.getBalance());
+            printProductHeader();
+            while (true) {
+                page.products().forEach(this::printProductRow);
+                if (!page.hasMore()) {
+                    break;
+                }
+                page = financialCompany.findProductPage(type, page.nextCursor(), LIST_PAGE_SIZE);
             }
 
         } catch (Exception e) {
@@ -349,6 +645,243 @@ public class FinancialCompanyManagementApp {
         }
     }
 
+    /**
+     * Menú para causar el interés diario de todas las cuentas de ahorro.
+     * Repetir la causación del mismo día solo causa las cuentas que quedaron pendientes.
+     */
+    private void accrueInterestMenu() {
+        try {
+            System.out.println("\n=== CAUSAR INTERESES DEL DÍA ===");
+            InterestAccrualEngine.Summary summary = new InterestAccrualEngine(financialCompany).accrue(BusinessDate.today());
+            System.out.printf("Día causado: %s%n", summary.businessDate());
+            System.out.printf("Cuentas de ahorro: %d (causadas: %d, ya causadas: %d)%n",
+                    summary.accounts(), summary.accrued(), summary.alreadyAccrued());
+            System.out.println("Interés total causado: $" + Money.format(summary.totalInterest()));
+        } catch (Exception e) {
+            System.err.println("Error al causar los intereses: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menú para acreditar un archivo de nómina en las cuentas de salario de los empleados.
+     * Las líneas no acreditadas y el resumen de la conciliación se escriben en el archivo de reporte.
+     */
+    private void payrollMenu() {
+        try {
+            System.out.println("\n=== PROCESAR ARCHIVO DE NÓMINA ===");
+            Path payrollFile = Path.of(validator.getValidString("Ruta del archivo de nómina: "));
+            Path reportFile = Path.of(validator.getValidString("Ruta del archivo de reporte: "));
+            PayrollReport report = new PayrollRunner(financialCompany, repository).run(payrollFile, reportFile);
+            System.out.println(report);
+            System.out.println("Reporte generado en: " + reportFile.toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("Error al procesar la nómina: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menú para importar clientes y productos desde un archivo CSV o binario de carga masiva.
+     * Las filas rechazadas se escriben con su motivo en el archivo de rechazos.
+     */
+    private void bulkImportMenu() {
+        try {
+            System.out.println("\n=== IMPORTAR PRODUCTOS DESDE ARCHIVO ===");
+            Path source = Path.of(validator.getValidString("Ruta del archivo a importar: "));
+            Path rejectFile = Path.of(validator.getValidString("Ruta del archivo de rechazos: "));
+            BulkImportReport report = new BulkImporter(financialCompany, repository).importFile(source, rejectFile);
+            System.out.println(report);
+            System.out.println("Rechazos registrados en: " + rejectFile.toAbsolutePath());
+        } catch (Exception e) {
+            System.err.println("Error al importar los productos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menú para consultar productos con los índices secundarios.
+     * Muestra la cantidad de productos encontrados y los primeros de ellos.
+     */
+    private void indexQueryMenu() {
+        if (indexes == null) {
+            System.out.println("Los índices secundarios no están habilitados (financial.indexes=true).");
+            return;
+        }
+        try {
+            System.out.println("\n=== CONSULTAS POR ÍNDICES ===");
+            System.out.println("1. Cuentas corrientes en sobregiro");
+            System.out.println("2. Productos abiertos entre dos fechas");
+            System.out.println("3. Cuentas de vivienda por clasificación");
+            System.out.println("4. Productos por rango de saldo");
+
+            Stream<? extends FinancialProduct> products;
+            long count;
+            switch (validator.getValidInteger("Seleccione la consulta: ")) {
+                case 1 -> {
+                    products = indexes.findOverdrawnCheckingAccounts();
+                    count = indexes.countByBalance(CheckingAccount.class, Long.MIN_VALUE, -1);
+                }
+                case 2 -> {
+                    Class<? extends FinancialProduct> type = getProductTypeMenu();
+                    LocalDate from = LocalDate.parse(validator.getValidString("Fecha inicial (AAAA-MM-DD): "));
+                    LocalDate to = LocalDate.parse(validator.getValidString("Fecha final (AAAA-MM-DD): "));
+                    products = indexes.findOpenedBetween(type, from, to);
+                    count = indexes.countOpenedBetween(type, from, to);
+                }
+                case 3 -> {
+                    HousingClassification classification = getHousingClassificationMenu();
+                    products = indexes.findByClassification(classification);
+                    count = indexes.countByClassification(classification);
+                }
+                case 4 -> {
+                    Class<? extends FinancialProduct> type = getProductTypeMenu();
+                    long min = validator.getValidAmount("Saldo mínimo: ");
+                    long max = validator.getValidAmount("Saldo máximo: ");
+                    products = indexes.findByBalance(type, min, max);
+                    count = indexes.countByBalance(type, min, max);
+                }
+                default -> {
+                    System.out.println("Opción no válida.");
+                    return;
+                }
+            }
+
+            System.out.printf("Productos encontrados: %d%s%n", count,
+                    count > LIST_PAGE_SIZE ? " (se muestran los primeros " + LIST_PAGE_SIZE + ")" : "");
+            if (count > 0) {
+                printProductHeader();
+                products.limit(LIST_PAGE_SIZE).forEach(this::printProductRow);
+            }
+        } catch (Exception e) {
+            System.err.println("Error al consultar los índices: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Menú para mostrar los totales de la cartera sin recorrer los productos.
+     */
+    private void portfolioSummaryMenu() {
+        System.out.println("\n=== RESUMEN DE LA CARTERA ===");
+        System.out.printf("%-45s %12s %20s%n", "Tipo de Producto", "Cantidad", "Saldo Total");
+        System.out.println("=".repeat(79));
+        List<Class<? extends FinancialProduct>> types = List.of(SavingsAccount.class, CheckingAccount.class,
+                HousingSavingsAccount.class, SalaryAccount.class, FinancialProduct.class);
+        List<String> names = List.of("Cuentas de Ahorro", "Cuentas Corrientes",
+                "Cuentas de Ahorro Programado para Vivienda", "Cuentas Especiales para Pago de Salario", "Total");
+        for (int i = 0; i < types.size(); i++) {
+            System.out.printf("%-45s %12d %20s%n", names.get(i),
+                    aggregates.getProductCount(types.get(i)), "$" + Money.format(aggregates.getTotalBalance(types.get(i))));
+        }
+
+        System.out.printf("%nCuentas corrientes en sobregiro: %d (sobregiro usado: $%s)%n",
+                aggregates.getOverdrawnAccounts(), Money.format(aggregates.getOverdraftUsed()));
+        System.out.println("Interés acumulado de las cuentas de ahorro: $" + Money.format(aggregates.getAccumulatedInterest()));
+
+        System.out.println("\nAvance del ahorro para vivienda:");
+        for (HousingClassification classification : HousingClassification.values()) {
+            PortfolioAggregates.HousingProgress progress = aggregates.getHousingProgress(classification);
+            System.out.printf("%-16s %8d cuentas  pagado $%s de $%s (%s%%)%n", classification, progress.accounts(),
+                    Money.format(progress.totalPaid()), Money.format(progress.housingValue()),
+                    Money.format(progress.paidBasisPoints()));
+        }
+    }
+
+    /**
+     * Menú para mostrar las métricas de las operaciones en formato de texto.
+     */
+    private void metricsMenu() {
+        System.out.println("\n=== MÉTRICAS DE OPERACIONES ===");
+        System.out.print(financialCompany.getMetrics().export());
+        IdempotencyCache idempotencyCache = financialCompany.getIdempotencyCache();
+        if (idempotencyCache != null) {
+            System.out.printf("%nClaves de idempotencia: %d guardadas, %d reintentos respondidos, %d conflictos, %d descartadas%n",
+                    idempotencyCache.size(), idempotencyCache.getReplays(), idempotencyCache.getConflicts(),
+                    idempotencyCache.getEvictions());
+        }
+    }
+
+    /**
+     * Menú para emitir el extracto de una cuenta entre dos fechas a partir del historial de transacciones.
+     */
+    private void statementMenu() {
+        if (history == null) {
+            System.out.println("El historial de transacciones no está habilitado (financial.history).");
+            return;
+        }
+        try {
+            System.out.println("\n=== EXTRACTO DE CUENTA ===");
+            // El historial se indexa por el número tal como quedó registrado en el producto
+            String productNumber = financialCompany.consultByProductNumber(
+                    validator.getValidString("Número de producto: ")).getProductNumber();
+            LocalDate from = LocalDate.parse(validator.getValidString("Fecha inicial (AAAA-MM-DD): "));
+            LocalDate to = LocalDate.parse(validator.getValidString("Fecha final (AAAA-MM-DD): "));
+            AccountStatement statement = history.getStatement(productNumber, from, to);
+
+            for (MonthlySummary summary : statement.summaries()) {
+                System.out.printf("Resumen %s: %d créditos por $%s, %d débitos por $%s, intereses $%s, saldo final $%s%n",
+                        summary.month(), summary.creditCount(), Money.format(summary.creditTotal()),
+                        summary.debitCount(), Money.format(summary.debitTotal()), Money.format(summary.interest()),
+                        Money.format(summary.closingBalance()));
+            }
+            if (statement.entries().isEmpty()) {
+                System.out.println("No hay movimientos detallados en el rango.");
+                return;
+            }
+            System.out.printf("%-20s %-18s %18s %18s%n", "Fecha", "Operación", "Monto", "Saldo");
+            System.out.println("=".repeat(77));
+            ZoneId zone = ZoneId.systemDefault();
+            for (HistoryEntry entry : statement.entries()) {
+                System.out.printf("%-20s %-18s %18s %18s%n",
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.timestamp()), zone).withNano(0),
+                        entry.operationType(), "$" + Money.format(entry.amount()), "$" + Money.format(entry.balance()));
+            }
+        } catch (Exception e) {
+            System.err.println("Error al emitir el extracto: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imprime el encabezado de la tabla de productos.
+     */
+    private void printProductHeader() {
+        System.out.printf("%-40s %-15s %-15s %-35s %-15s%n",
+                "Datos del Titular", "Número Producto", "Fecha Apertura", "Tipo de Producto", "Saldo");
+        System.out.println("=".repeat(120));
+    }
+
+    /**
+     * Imprime un producto como fila de la tabla de productos.
+     *
+     * @param product Producto a imprimir
+     */
+    private void printProductRow(FinancialProduct product) {
+        System.out.printf("%-40s %-15s %-15s %-35s $%-14s%n",
+                product.getCustomer().toString(),
+                product.getProductNumber(),
+                product.getOpeningDate(),
+                product.getProductType(),
+                Money.format(product.getBalance()));
+    }
+
+    /**
+     * Menú para seleccionar un tipo de producto.
+     *
+     * @return Tipo de producto seleccionado; cualquier otra opción selecciona todos los productos
+     */
+    private Class<? extends FinancialProduct> getProductTypeMenu() {
+        System.out.println("0. Todos los productos");
+        System.out.println("1. Cuentas de Ahorro");
+        System.out.println("2. Cuentas Corrientes");
+        System.out.println("3. Cuentas de Ahorro Programado para Vivienda");
+        System.out.println("4. Cuentas Especiales para Pago de Salario");
+
+        return switch (validator.getValidInteger("Seleccione el tipo de producto: ")) {
+            case 1 -> SavingsAccount.class;
+            case 2 -> CheckingAccount.class;
+            case 3 -> HousingSavingsAccount.class;
+            case 4 -> SalaryAccount.class;
+            default -> FinancialProduct.class;
+        };
+    }
+
     /**
      * Menú para crear un nuevo cliente.
      */
@@ -6,23 +6,64 @@ import com.example.financial_products_management.domain.financial_product.model.
 import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
 import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
 import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.ProductPage;
 import com.example.financial_products_management.domain.repository.ProductRepository;
 import com.example.financial_products_management.domain.shared.Depositable;
 import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationBatch;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
 import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
 import com.example.financial_products_management.domain.shared.Withdrawable;
 import com.example.financial_products_management.exception.InsufficientFundsException;
 import com.example.financial_products_management.exception.ProductNotFoundException;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Clase de servicio que gestiona las operaciones de negocio de productos financieros.
  * Utiliza el patrón Repository para el acceso a datos y se enfoca únicamente en la lógica de negocio.
+ * Es segura para uso concurrente: las operaciones sobre un mismo producto se serializan mediante
+ * candados repartidos por número de producto, y las operaciones sobre productos distintos se
+ * ejecutan en paralelo. El repositorio utilizado debe admitir consultas concurrentes.
+ * Todos los montos se expresan en centavos (ver {@link com.example.financial_products_management.domain.shared.Money}).
+ * Los cambios aplicados se notifican a los {@link OperationListener} registrados, y si se asignan
+ * {@link OperationMetrics} cada operación se cuenta y una muestra de ellas se mide.
+ * Si se asigna una {@link IdempotencyCache}, las operaciones enviadas con clave de idempotencia
+ * se aplican una sola vez y sus reintentos reciben el resultado original.
+ * Mientras hay un {@link OperationPipeline} en marcha, las operaciones que modifican productos no
+ * adquieren los candados desde el hilo que las invoca: se envían al pipeline, cuya etapa de negocio
+ * es el único hilo que modifica los productos.
  */
 public class FinancialCompany {
+    /**
+     * Cantidad mínima de productos distintos por porción de un lote procesada en paralelo.
+     */
+    private static final int BATCH_SLICE_PRODUCTS = 256;
+
+    /**
+     * Resultado de {@link #accrueInterest(String, LocalDate, long)} cuando no se causó interés.
+     */
+    static final long ALREADY_ACCRUED = -1;
+
     private final ProductRepository repository;
+    private final StripedLocks locks = new StripedLocks();
+    private volatile boolean stacklessRejections;
+    private volatile OperationListener[] listeners = new OperationListener[0];
+    private volatile OperationMetrics metrics;
+    private volatile IdempotencyCache idempotencyCache;
+    private volatile OperationPipeline pipeline;
 
     /**
      * Crea una nueva instancia de FinancialCompany.
@@ -33,22 +74,192 @@ public class FinancialCompany {
         this.repository = repository;
     }
 
+    /**
+     * Activa o desactiva el modo de rechazos de alto rendimiento.
+     * En este modo los retiros por fondos insuficientes y las búsquedas de productos inexistentes
+     * lanzan excepciones sin traza de pila y con mensaje diferido, de modo que un rechazo cuesta
+     * aproximadamente lo mismo que una operación exitosa.
+     *
+     * @param stacklessRejections true para lanzar excepciones sin traza de pila
+     */
+    public void setStacklessRejections(boolean stacklessRejections) {
+        this.stacklessRejections = stacklessRejections;
+    }
+
+    /**
+     * Asigna las métricas donde se registran las operaciones, o las desactiva.
+     *
+     * @param metrics Métricas a usar, o null para no registrar métricas
+     */
+    public void setMetrics(OperationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Obtiene las métricas donde se registran las operaciones.
+     *
+     * @return Métricas, o null si no se registran
+     */
+    public OperationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Asigna la caché donde se recuerdan los resultados de las operaciones con clave de idempotencia.
+     *
+     * @param idempotencyCache Caché a usar, o null para no admitir claves de idempotencia
+     */
+    public void setIdempotencyCache(IdempotencyCache idempotencyCache) {
+        this.idempotencyCache = idempotencyCache;
+    }
+
+    /**
+     * Obtiene la caché de resultados de las operaciones con clave de idempotencia.
+     *
+     * @return Caché de idempotencia, o null si no se admiten claves
+     */
+    public IdempotencyCache getIdempotencyCache() {
+        return idempotencyCache;
+    }
+
+    /**
+     * Registra un observador de los cambios aplicados por la compañía.
+     *
+     * @param listener Observador a registrar
+     */
+    public synchronized void addListener(OperationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("El observador no puede ser nulo");
+        }
+
+        OperationListener[] current = listeners;
+        OperationListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    /**
+     * Retira un observador registrado. Al volver, ninguna operación lo está notificando ni lo notificará,
+     * por lo que puede cerrarse: las operaciones que ya lo habían leído se esperan tomando y soltando
+     * cada candado y, con un pipeline en marcha, ejecutando una tarea vacía en su etapa de negocio.
+     * No debe invocarse desde un observador ni con candados de la compañía adquiridos.
+     *
+     * @param listener Observador a retirar
+     * @return true si el observador estaba registrado
+     */
+    public boolean removeListener(OperationListener listener) {
+        synchronized (this) {
+            OperationListener[] current = listeners;
+            int index = Arrays.asList(current).indexOf(listener);
+            if (index < 0) {
+                return false;
+            }
+            OperationListener[] updated = new OperationListener[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, updated.length - index);
+            listeners = updated;
+        }
+
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            routed.call(() -> null);
+        }
+        for (int stripe = 0; stripe < locks.size(); stripe++) {
+            ReentrantLock lock = locks.lockAt(stripe);
+            lock.lock();
+            lock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Asocia el pipeline que desde ahora aplica las operaciones.
+     *
+     * @param pipeline Pipeline puesto en marcha
+     * @throws IllegalStateException Si ya hay un pipeline en marcha
+     */
+    synchronized void attachPipeline(OperationPipeline pipeline) {
+        if (this.pipeline != null) {
+            throw new IllegalStateException("La compañía ya tiene un pipeline de operaciones en marcha");
+        }
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * Desasocia un pipeline detenido; desde ahora las operaciones se aplican directamente.
+     *
+     * @param pipeline Pipeline detenido
+     */
+    synchronized void detachPipeline(OperationPipeline pipeline) {
+        if (this.pipeline == pipeline) {
+            this.pipeline = null;
+        }
+    }
+
+    /**
+     * Obtiene los observadores registrados.
+     *
+     * @return Observadores en el orden en que se registraron; no debe modificarse
+     */
+    OperationListener[] listeners() {
+        return listeners;
+    }
+
+    /**
+     * Obtiene el pipeline al que deben enviarse las operaciones invocadas desde el hilo actual.
+     *
+     * @return Pipeline en marcha, o null si no hay uno o el hilo actual es su etapa de negocio
+     */
+    private OperationPipeline pipelineForCaller() {
+        OperationPipeline current = pipeline;
+        return current == null || current.isBusinessThread() ? null : current;
+    }
+
+    /**
+     * Ejecuta una lectura sobre un producto con su candado adquirido.
+     * Permite obtener una vista consistente del estado del producto, incluidos los campos
+     * propios de cada tipo de cuenta, mientras otras cuentas siguen operando.
+     * El lector recibe el estado vigente del producto según el repositorio. Con un pipeline en
+     * marcha la lectura se ejecuta en su etapa de negocio, entre dos operaciones.
+     *
+     * @param product Producto a leer
+     * @param reader  Acción de lectura; no debe modificar el producto
+     */
+    public void readLocked(FinancialProduct product, Consumer<FinancialProduct> reader) {
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            routed.call(() -> {
+                readLocked(product, reader);
+                return null;
+            });
+            return;
+        }
+
+        ReentrantLock lock = locks.lockFor(product);
+        lock.lock();
+        try {
+            FinancialProduct current = repository.findByProductNumber(product.getProductNumber());
+            reader.accept(current != null ? current : product);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Crea una nueva cuenta de ahorro.
      *
      * @param productNumber  Número del producto
      * @param customer       Cliente titular
-     * @param initialBalance Saldo inicial
+     * @param initialBalance Saldo inicial en centavos
      * @return Producto creado
      * @throws IllegalArgumentException Si los parámetros son inválidos
      */
-    public SavingsAccount createSavingsAccount(String productNumber, Customer customer, double initialBalance)
+    public SavingsAccount createSavingsAccount(String productNumber, Customer customer, long initialBalance)
             throws IllegalArgumentException {
         validateProductCreation(productNumber, customer, initialBalance);
 
         SavingsAccount account = new SavingsAccount(productNumber, LocalDate.now(), customer, initialBalance);
-        repository.addProduct(account);
-        return account;
+        return register(account);
     }
 
     /**
@@ -56,13 +267,13 @@ public class FinancialCompany {
      *
      * @param productNumber  Número del producto
      * @param customer       Cliente titular
-     * @param initialBalance Saldo inicial
-     * @param overdraftLimit Límite de sobregiro
+     * @param initialBalance Saldo inicial en centavos
+     * @param overdraftLimit Límite de sobregiro en centavos
      * @return Producto creado
      * @throws IllegalArgumentException Si los parámetros son inválidos
      */
     public CheckingAccount createCheckingAccount(String productNumber, Customer customer,
-                                                 double initialBalance, double overdraftLimit) throws IllegalArgumentException {
+                                                 long initialBalance, long overdraftLimit) throws IllegalArgumentException {
         validateProductCreation(productNumber, customer, initialBalance);
 
         if (overdraftLimit < 0) {
@@ -70,8 +281,7 @@ public class FinancialCompany {
         }
 
         CheckingAccount account = new CheckingAccount(productNumber, LocalDate.now(), customer, initialBalance, overdraftLimit);
-        repository.addProduct(account);
-        return account;
+        return register(account);
     }
 
     /**
@@ -79,14 +289,14 @@ public class FinancialCompany {
      *
      * @param productNumber  Número del producto
      * @param customer       Cliente titular
-     * @param initialBalance Saldo inicial
-     * @param housingValue   Valor total de la vivienda
+     * @param initialBalance Saldo inicial en centavos
+     * @param housingValue   Valor total de la vivienda en centavos
      * @param classification Clasificación de la vivienda
      * @return Producto creado
      * @throws IllegalArgumentException Si los parámetros son inválidos
      */
     public HousingSavingsAccount createHousingSavingsAccount(String productNumber, Customer customer,
-                                                             double initialBalance, double housingValue, HousingClassification classification)
+                                                             long initialBalance, long housingValue, HousingClassification classification)
             throws IllegalArgumentException {
         validateProductCreation(productNumber, customer, initialBalance);
 
@@ -100,8 +310,7 @@ public class FinancialCompany {
 
         HousingSavingsAccount account = new HousingSavingsAccount(productNumber, LocalDate.now(),
                 customer, initialBalance, housingValue, classification);
-        repository.addProduct(account);
-        return account;
+        return register(account);
     }
 
     /**
@@ -109,13 +318,13 @@ public class FinancialCompany {
      *
      * @param productNumber  Número del producto
      * @param customer       Cliente titular
-     * @param initialBalance Saldo inicial
-     * @param salaryAmount   Valor del salario
+     * @param initialBalance Saldo inicial en centavos
+     * @param salaryAmount   Valor del salario en centavos
      * @return Producto creado
      * @throws IllegalArgumentException Si los parámetros son inválidos
      */
     public SalaryAccount createSalaryAccount(String productNumber, Customer customer,
-                                             double initialBalance, double salaryAmount) throws IllegalArgumentException {
+                                             long initialBalance, long salaryAmount) throws IllegalArgumentException {
         validateProductCreation(productNumber, customer, initialBalance);
 
         if (salaryAmount <= 0) {
@@ -123,51 +332,161 @@ public class FinancialCompany {
         }
 
         SalaryAccount account = new SalaryAccount(productNumber, LocalDate.now(), customer, initialBalance, salaryAmount);
-        repository.addProduct(account);
-        return account;
+        return register(account);
+    }
+
+    /**
+     * Registra un lote de productos ya construidos, por ejemplo los leídos de un archivo de carga masiva.
+     * Cada producto debe cumplir las mismas reglas que al crearlo individualmente. El lote se
+     * agrega al repositorio en una sola operación y los observadores se notifican una vez por
+     * producto, con todos los candados adquiridos para que ninguna operación sobre los productos
+     * nuevos se adelante a su notificación de creación.
+     *
+     * @param products Productos a registrar
+     * @throws IllegalArgumentException Si algún producto es inválido o el repositorio rechaza el lote;
+     *                                  en ese caso no se registra ninguno
+     */
+    public void registerAll(List<? extends FinancialProduct> products) throws IllegalArgumentException {
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            routed.call(() -> {
+                registerAll(products);
+                return null;
+            });
+            return;
+        }
+
+        for (FinancialProduct product : products) {
+            if (product == null) {
+                throw new IllegalArgumentException("El producto no puede ser nulo");
+            }
+            validateProductCreation(product.getProductNumber(), product.getCustomer(), product.getBalance());
+            validateAccountTerms(product);
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        int stripes = locks.size();
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            locks.lockAt(stripe).lock();
+        }
+        try {
+            repository.addAll(products);
+            for (FinancialProduct product : products) {
+                for (OperationListener listener : listeners) {
+                    listener.onProductCreated(product);
+                }
+            }
+        } finally {
+            for (int stripe = stripes - 1; stripe >= 0; stripe--) {
+                locks.lockAt(stripe).unlock();
+            }
+        }
+        afterOperation();
     }
 
     /**
      * Realiza una operación de depósito en un producto.
      *
      * @param productNumber Número del producto
-     * @param amount        Monto a depositar
+     * @param amount        Monto a depositar en centavos
      * @return Mensaje resultado de la operación
      * @throws ProductNotFoundException      Si el producto no existe
      * @throws IllegalArgumentException      Si los parámetros son inválidos
      * @throws UnsupportedOperationException Si el producto no soporta depósitos
      */
-    public String performDeposit(String productNumber, double amount)
+    public String performDeposit(String productNumber, long amount)
             throws ProductNotFoundException, IllegalArgumentException, UnsupportedOperationException {
-        FinancialProduct product = findProduct(productNumber);
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            try {
+                return routed.execute(() -> performDeposit(productNumber, amount));
+            } catch (InsufficientFundsException e) {
+                throw new IllegalStateException("Un depósito no puede rechazarse por fondos insuficientes", e);
+            }
+        }
 
-        if (product instanceof Depositable depositable) {
-            return depositable.deposit(amount);
-        } else {
-            throw new UnsupportedOperationException("Este tipo de producto no soporta operaciones de depósito");
+        long start = startSample();
+        OperationResult result = new OperationResult();
+        FinancialProduct product = null;
+        long number = ProductNumbers.parse(productNumber);
+        ReentrantLock lock = locks.lockFor(number);
+        lock.lock();
+        try {
+            product = findProduct(productNumber, number, OperationType.DEPOSIT, amount, result, start);
+            if (!(product instanceof Depositable)) {
+                result.record(OperationStatus.UNSUPPORTED_OPERATION, OperationType.DEPOSIT, productNumber, amount,
+                        product.getBalance());
+                throw new UnsupportedOperationException("Este tipo de producto no soporta operaciones de depósito");
+            }
+            applyOperation(product, OperationType.DEPOSIT, amount, result);
+        } finally {
+            lock.unlock();
+            recordMetrics(OperationType.DEPOSIT, product, result, start);
         }
+        afterOperation();
+
+        return switch (result.getStatus()) {
+            // La cuenta de nómina informa un monto inválido con un mensaje; las demás, con una excepción
+            case INVALID_AMOUNT -> {
+                if (product instanceof SalaryAccount) {
+                    yield SalaryAccount.INVALID_DEPOSIT_MESSAGE;
+                }
+                throw new IllegalArgumentException(result.getMessage());
+            }
+            default -> result.getMessage();
+        };
     }
 
     /**
      * Realiza una operación de retiro en un producto.
      *
      * @param productNumber Número del producto
-     * @param amount        Monto a retirar
+     * @param amount        Monto a retirar en centavos
      * @return Mensaje resultado de la operación
      * @throws ProductNotFoundException      Si el producto no existe
      * @throws IllegalArgumentException      Si los parámetros son inválidos
      * @throws InsufficientFundsException    Si no hay fondos suficientes
      * @throws UnsupportedOperationException Si el producto no soporta retiros
      */
-    public String performWithdrawal(String productNumber, double amount)
+    public String performWithdrawal(String productNumber, long amount)
             throws ProductNotFoundException, IllegalArgumentException, InsufficientFundsException, UnsupportedOperationException {
-        FinancialProduct product = findProduct(productNumber);
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            return routed.execute(() -> performWithdrawal(productNumber, amount));
+        }
 
-        if (product instanceof Withdrawable withdrawable) {
-            return withdrawable.withdraw(amount);
-        } else {
-            throw new UnsupportedOperationException("Este tipo de producto no soporta operaciones de retiro");
+        long start = startSample();
+        OperationResult result = new OperationResult();
+        FinancialProduct product = null;
+        long number = ProductNumbers.parse(productNumber);
+        ReentrantLock lock = locks.lockFor(number);
+        lock.lock();
+        try {
+            product = findProduct(productNumber, number, OperationType.WITHDRAWAL, amount, result, start);
+            if (!(product instanceof Withdrawable)) {
+                result.record(OperationStatus.UNSUPPORTED_OPERATION, OperationType.WITHDRAWAL, productNumber, amount,
+                        product.getBalance());
+                throw new UnsupportedOperationException("Este tipo de producto no soporta operaciones de retiro");
+            }
+            applyOperation(product, OperationType.WITHDRAWAL, amount, result);
+        } finally {
+            lock.unlock();
+            recordMetrics(OperationType.WITHDRAWAL, product, result, start);
         }
+        afterOperation();
+
+        return switch (result.getStatus()) {
+            case INSUFFICIENT_FUNDS -> throw stacklessRejections
+                    ? InsufficientFundsException.stackless()
+                    : new InsufficientFundsException();
+            case OVERDRAFT_LIMIT_EXCEEDED -> throw stacklessRejections
+                    ? InsufficientFundsException.stackless(result.getBalance(), result.getLimit(), result.getAmount())
+                    : new InsufficientFundsException(result.getBalance(), result.getLimit(), result.getAmount());
+            case INVALID_AMOUNT, SALARY_LIMIT_EXCEEDED -> throw new IllegalArgumentException(result.getMessage());
+            default -> result.getMessage();
+        };
     }
 
     /**
@@ -175,34 +494,688 @@ public class FinancialCompany {
      *
      * @param productNumber Número del producto
      * @param operationType Tipo de operación
-     * @param amount        Monto de la operación
+     * @param amount        Monto de la operación en centavos
      * @return Mensaje resultado de la operación
      * @throws ProductNotFoundException      Si el producto no existe
      * @throws IllegalArgumentException      Si los parámetros son inválidos
      * @throws InsufficientFundsException    Si no hay fondos suficientes
      * @throws UnsupportedOperationException Si el producto no soporta la operación
      */
-    public String performOperation(String productNumber, OperationType operationType, double amount)
+    public String performOperation(String productNumber, OperationType operationType, long amount)
             throws ProductNotFoundException, IllegalArgumentException, InsufficientFundsException, UnsupportedOperationException {
 
         return switch (operationType) {
             case DEPOSIT -> performDeposit(productNumber, amount);
             case WITHDRAWAL -> performWithdrawal(productNumber, amount);
+            case TRANSFER -> throw new UnsupportedOperationException("La transferencia requiere un producto de destino");
+            case INTEREST_ACCRUAL -> throw new UnsupportedOperationException(
+                    "La causación de intereses se realiza para todas las cuentas con InterestAccrualEngine");
+        };
+    }
+
+    /**
+     * Transfiere un monto de un producto a otro de forma atómica.
+     *
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @return Mensaje resultado de la operación
+     * @throws ProductNotFoundException      Si alguno de los productos no existe
+     * @throws IllegalArgumentException      Si los parámetros son inválidos
+     * @throws InsufficientFundsException    Si el origen no tiene fondos suficientes
+     * @throws UnsupportedOperationException Si el origen no soporta retiros o el destino no soporta depósitos
+     */
+    public String performTransfer(String sourceProductNumber, String targetProductNumber, long amount)
+            throws ProductNotFoundException, IllegalArgumentException, InsufficientFundsException, UnsupportedOperationException {
+        OperationResult result = new OperationResult();
+
+        return switch (performTransfer(sourceProductNumber, targetProductNumber, amount, result)) {
+            case PRODUCT_NOT_FOUND -> throw stacklessRejections
+                    ? ProductNotFoundException.stackless(result.getProductNumber())
+                    : new ProductNotFoundException(ProductNotFoundException.notFoundMessage(result.getProductNumber()));
+            case UNSUPPORTED_OPERATION -> throw new UnsupportedOperationException(
+                    result.getOperationType() == OperationType.DEPOSIT
+                            ? "El producto de destino no soporta operaciones de depósito"
+                            : "El producto de origen no soporta operaciones de retiro");
+            case INSUFFICIENT_FUNDS -> throw stacklessRejections
+                    ? InsufficientFundsException.stackless()
+                    : new InsufficientFundsException();
+            case OVERDRAFT_LIMIT_EXCEEDED -> throw stacklessRejections
+                    ? InsufficientFundsException.stackless(result.getBalance(), result.getLimit(), result.getAmount())
+                    : new InsufficientFundsException(result.getBalance(), result.getLimit(), result.getAmount());
+            case INVALID_AMOUNT, SALARY_LIMIT_EXCEEDED, SAME_PRODUCT_TRANSFER ->
+                    throw new IllegalArgumentException(result.getMessage());
+            default -> result.getMessage();
+        };
+    }
+
+    /**
+     * Transfiere un monto de un producto a otro de forma atómica, sin construir mensajes ni lanzar excepciones.
+     * El retiro del origen y el depósito en el destino se aplican con los candados de ambos
+     * productos adquiridos, de modo que ningún otro hilo observa el dinero en tránsito. Los
+     * candados se adquieren siempre en orden ascendente de franja, por lo que dos transferencias
+     * cruzadas entre los mismos productos no pueden bloquearse mutuamente.
+     * Si el retiro es rechazado (fondos, sobregiro o límite de salario) ningún producto cambia y
+     * el resultado describe el rechazo del origen. Si un producto no soporta su parte de la
+     * transferencia, el tipo de operación del resultado indica cuál la rechaza (retiro o depósito).
+     * En una transferencia exitosa el interés del resultado es el generado por el depósito en el destino.
+     *
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado reutilizable donde se registra la operación
+     * @return Estado de la operación
+     */
+    public OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                           OperationResult result) {
+        return performTransfer(sourceProductNumber, targetProductNumber, amount, result, null);
+    }
+
+    /**
+     * Transfiere un monto de un producto a otro de forma atómica, una sola vez por clave de idempotencia.
+     * Si la clave ya tiene un resultado vigente para la misma transferencia, ese resultado se copia
+     * en el indicado y la transferencia no se vuelve a aplicar; si la clave se usó con otra operación,
+     * el resultado es {@link OperationStatus#IDEMPOTENCY_KEY_REUSED}.
+     *
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado reutilizable donde se registra la operación
+     * @param idempotencyKey      Clave de idempotencia, o null para aplicar la transferencia sin clave
+     * @return Estado de la operación
+     * @throws IllegalStateException Si se indica una clave y no hay caché de idempotencia asignada
+     * @see #performTransfer(String, String, long, OperationResult)
+     */
+    public OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                           OperationResult result, String idempotencyKey) {
+        IdempotencyCache cache = idempotencyCacheFor(idempotencyKey);
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            return routed.submitTransfer(sourceProductNumber, targetProductNumber, amount, result, idempotencyKey,
+                    cache);
+        }
+
+        long start = startSample();
+        long sourceNumber = ProductNumbers.parse(sourceProductNumber);
+        long targetNumber = ProductNumbers.parse(targetProductNumber);
+        int sourceStripe = locks.stripeOf(sourceNumber);
+        int targetStripe = locks.stripeOf(targetNumber);
+        ReentrantLock first = locks.lockAt(Math.min(sourceStripe, targetStripe));
+        ReentrantLock second = locks.lockAt(Math.max(sourceStripe, targetStripe));
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        FinancialProduct source = null;
+        boolean replayed = false;
+        try {
+            replayed = cache != null && cache.replay(idempotencyKey, OperationType.TRANSFER, sourceProductNumber,
+                    sourceNumber, targetNumber, amount, result) != null;
+            if (!replayed) {
+                source = transferRemembered(sourceNumber, sourceProductNumber, targetNumber, targetProductNumber,
+                        amount, result, idempotencyKey, cache, start);
+            }
+        } finally {
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+            if (!replayed) {
+                recordMetrics(OperationType.TRANSFER, source, result, start);
+            }
+        }
+        afterOperation();
+        return result.getStatus();
+    }
+
+    /**
+     * Aplica una transferencia enviada a un pipeline. Se invoca desde su etapa de negocio, el único
+     * hilo que modifica los productos, por lo que no adquiere candados.
+     *
+     * @see #performTransfer(String, String, long, OperationResult, String)
+     */
+    void transferFromPipeline(long sourceNumber, String sourceProductNumber, long targetNumber,
+                              String targetProductNumber, long amount, OperationResult result,
+                              String idempotencyKey, IdempotencyCache cache) {
+        long start = startSample();
+        if (cache != null && cache.replay(idempotencyKey, OperationType.TRANSFER, sourceProductNumber,
+                sourceNumber, targetNumber, amount, result) != null) {
+            return;
+        }
+        FinancialProduct source = transferRemembered(sourceNumber, sourceProductNumber, targetNumber,
+                targetProductNumber, amount, result, idempotencyKey, cache, start);
+        recordMetrics(OperationType.TRANSFER, source, result, start);
+    }
+
+    /**
+     * Localiza el origen, aplica la transferencia y recuerda su resultado si tiene clave de idempotencia.
+     * Debe invocarse con los candados del origen y del destino adquiridos, o desde la etapa de negocio
+     * de un pipeline.
+     *
+     * @param sourceNumber        Valor numérico del número del producto de origen
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetNumber        Valor numérico del número del producto de destino
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado donde se registra la operación
+     * @param idempotencyKey      Clave de idempotencia, o null si la transferencia no tiene
+     * @param cache               Caché de idempotencia, o null si la transferencia no tiene clave
+     * @param start               Inicio de la operación según {@link #startSample()}
+     * @return Producto de origen, o null si no existe
+     */
+    private FinancialProduct transferRemembered(long sourceNumber, String sourceProductNumber, long targetNumber,
+                                                String targetProductNumber, long amount, OperationResult result,
+                                                String idempotencyKey, IdempotencyCache cache, long start) {
+        FinancialProduct source = lookup(sourceNumber, start);
+        if (source == null) {
+            result.record(OperationStatus.PRODUCT_NOT_FOUND, OperationType.TRANSFER, sourceProductNumber, amount, 0);
+        } else {
+            applyTransfer(source, targetProductNumber, targetNumber, amount, result, start);
+        }
+        if (cache != null) {
+            cache.remember(idempotencyKey, OperationType.TRANSFER, sourceNumber, targetNumber, amount, result);
+        }
+        return source;
+    }
+
+    /**
+     * Aplica una transferencia y, si tuvo éxito, persiste ambos productos y notifica a los observadores.
+     * Debe invocarse con los candados del origen y del destino adquiridos.
+     *
+     * @param source              Producto de origen, obtenido con los candados adquiridos
+     * @param targetProductNumber Número del producto de destino
+     * @param targetNumber        Valor numérico del número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado donde se registra la operación
+     * @param start               Inicio de la operación según {@link #startSample()}
+     * @return Estado de la operación
+     */
+    private OperationStatus applyTransfer(FinancialProduct source, String targetProductNumber, long targetNumber,
+                                          long amount, OperationResult result, long start) {
+        FinancialProduct target = lookup(targetNumber, start);
+        if (target == null) {
+            return result.record(OperationStatus.PRODUCT_NOT_FOUND, OperationType.TRANSFER, targetProductNumber, amount, 0);
+        }
+        if (source == target) {
+            return result.record(OperationStatus.SAME_PRODUCT_TRANSFER, OperationType.TRANSFER,
+                    source.getProductNumber(), amount, source.getBalance());
+        }
+        if (amount <= 0) {
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.TRANSFER,
+                    source.getProductNumber(), amount, source.getBalance());
+        }
+        if (!(source instanceof Withdrawable withdrawable)) {
+            return result.record(OperationStatus.UNSUPPORTED_OPERATION, OperationType.WITHDRAWAL,
+                    source.getProductNumber(), amount, source.getBalance());
+        }
+        if (!(target instanceof Depositable depositable)) {
+            return result.record(OperationStatus.UNSUPPORTED_OPERATION, OperationType.DEPOSIT,
+                    target.getProductNumber(), amount, target.getBalance());
+        }
+        // El destino se valida antes de debitar el origen: un rechazo aquí no modifica ningún producto
+        if (!depositable.acceptsDeposit(amount)) {
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.DEPOSIT,
+                    target.getProductNumber(), amount, target.getBalance());
+        }
+
+        OperationStatus withdrawal = withdrawable.tryWithdraw(amount, result);
+        if (!withdrawal.isSuccess()) {
+            return withdrawal;
+        }
+        long sourceBalance = result.getBalance();
+
+        // Un destino que aceptó el monto no puede rechazar el depósito; hacerlo incumple acceptsDeposit
+        if (!depositable.tryDeposit(amount, result).isSuccess()) {
+            throw new IllegalStateException("El producto de destino rechazó un depósito que había aceptado");
+        }
+        long targetBalance = result.getBalance();
+        long targetInterest = result.getInterest();
+
+        result.record(OperationStatus.TRANSFERRED, OperationType.TRANSFER, source.getProductNumber(), amount, sourceBalance);
+        result.setTarget(target.getProductNumber(), targetBalance);
+        result.setInterest(targetInterest);
+        repository.save(source);
+        repository.save(target);
+        for (OperationListener listener : listeners) {
+            listener.onTransferApplied(source, target, result);
+        }
+        return OperationStatus.TRANSFERRED;
+    }
+
+    /**
+     * Realiza una operación bancaria sin construir mensajes ni lanzar excepciones.
+     * El estado y el nuevo saldo quedan registrados en el resultado; el mensaje descriptivo
+     * solo se genera si se solicita mediante {@link OperationResult#getMessage()}.
+     * Pensado para procesos masivos que no necesitan el texto de cada operación.
+     *
+     * @param productNumber Número del producto
+     * @param operationType Tipo de operación
+     * @param amount        Monto de la operación en centavos
+     * @param result        Resultado reutilizable donde se registra la operación
+     * @return Estado de la operación
+     */
+    public OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                            OperationResult result) {
+        return performOperation(productNumber, operationType, amount, result, null);
+    }
+
+    /**
+     * Realiza una operación bancaria una sola vez por clave de idempotencia, sin construir mensajes
+     * ni lanzar excepciones.
+     * Si la clave ya tiene un resultado vigente para la misma operación, ese resultado se copia en el
+     * indicado y la operación no se vuelve a aplicar; si la clave se usó con otra operación, el
+     * resultado es {@link OperationStatus#IDEMPOTENCY_KEY_REUSED}. La consulta y el registro de la
+     * clave se hacen con el candado del producto adquirido, por lo que dos reintentos simultáneos
+     * no pueden aplicar la operación dos veces.
+     *
+     * @param productNumber  Número del producto
+     * @param operationType  Tipo de operación
+     * @param amount         Monto de la operación en centavos
+     * @param result         Resultado reutilizable donde se registra la operación
+     * @param idempotencyKey Clave de idempotencia, o null para aplicar la operación sin clave
+     * @return Estado de la operación
+     * @throws IllegalStateException Si se indica una clave y no hay caché de idempotencia asignada
+     * @see #performOperation(String, OperationType, long, OperationResult)
+     */
+    public OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                            OperationResult result, String idempotencyKey) {
+        IdempotencyCache cache = idempotencyCacheFor(idempotencyKey);
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            return routed.submitOperation(productNumber, operationType, amount, result, idempotencyKey, cache);
+        }
+
+        long start = startSample();
+        FinancialProduct product = null;
+        boolean replayed = false;
+        long number = ProductNumbers.parse(productNumber);
+        ReentrantLock lock = locks.lockFor(number);
+        lock.lock();
+        try {
+            replayed = cache != null
+                    && cache.replay(idempotencyKey, operationType, productNumber, number, ProductNumbers.NONE, amount,
+                    result) != null;
+            if (!replayed) {
+                product = applyRemembered(number, productNumber, operationType, amount, result, idempotencyKey,
+                        cache, start);
+            }
+        } finally {
+            lock.unlock();
+            if (!replayed) {
+                recordMetrics(operationType, product, result, start);
+            }
+        }
+        afterOperation();
+        return result.getStatus();
+    }
+
+    /**
+     * Aplica una operación enviada a un pipeline. Se invoca desde su etapa de negocio, el único
+     * hilo que modifica los productos, por lo que no adquiere candados.
+     *
+     * @see #performOperation(String, OperationType, long, OperationResult, String)
+     */
+    void applyFromPipeline(long number, String productNumber, OperationType operationType, long amount,
+                           OperationResult result, String idempotencyKey, IdempotencyCache cache) {
+        long start = startSample();
+        if (cache != null && cache.replay(idempotencyKey, operationType, productNumber, number, ProductNumbers.NONE,
+                amount, result) != null) {
+            return;
+        }
+        FinancialProduct product = applyRemembered(number, productNumber, operationType, amount, result,
+                idempotencyKey, cache, start);
+        recordMetrics(operationType, product, result, start);
+    }
+
+    /**
+     * Localiza el producto, aplica la operación y recuerda su resultado si tiene clave de idempotencia.
+     * Debe invocarse con el candado del producto adquirido, o desde la etapa de negocio de un pipeline.
+     *
+     * @param number         Valor numérico del número del producto
+     * @param productNumber  Número del producto
+     * @param operationType  Tipo de operación
+     * @param amount         Monto de la operación en centavos
+     * @param result         Resultado donde se registra la operación
+     * @param idempotencyKey Clave de idempotencia, o null si la operación no tiene
+     * @param cache          Caché de idempotencia, o null si la operación no tiene clave
+     * @param start          Inicio de la operación según {@link #startSample()}
+     * @return Producto sobre el que se operó, o null si no existe
+     */
+    private FinancialProduct applyRemembered(long number, String productNumber, OperationType operationType,
+                                             long amount, OperationResult result, String idempotencyKey,
+                                             IdempotencyCache cache, long start) {
+        FinancialProduct product = lookup(number, start);
+        if (product == null) {
+            result.record(OperationStatus.PRODUCT_NOT_FOUND, operationType, productNumber, amount, 0);
+        } else {
+            applyOperation(product, operationType, amount, result);
+        }
+        if (cache != null) {
+            cache.remember(idempotencyKey, operationType, number, ProductNumbers.NONE, amount, result);
+        }
+        return product;
+    }
+
+    /**
+     * Procesa un lote de operaciones bancarias.
+     * Las operaciones se agrupan por producto: cada producto se localiza una sola vez y todas
+     * sus operaciones se aplican con su candado adquirido, en el mismo orden en que aparecen en
+     * el lote. Los grupos de productos distintos se reparten en porciones que se procesan en
+     * paralelo. El estado y el saldo resultante de cada operación quedan registrados en el lote.
+     *
+     * @param batch Lote de operaciones a procesar
+     */
+    public void performBatch(OperationBatch batch) {
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            routed.call(() -> {
+                performBatch(batch);
+                return null;
+            });
+            return;
+        }
+
+        int size = batch.size();
+        if (size == 0) {
+            return;
+        }
+
+        // Agrupa las posiciones del lote por producto conservando su orden relativo; el grupo se
+        // identifica por el valor numérico del número, igual que el candado y el repositorio
+        Map<Long, Integer> groups = new HashMap<>();
+        int[] groupOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            Long key = ProductNumbers.parse(batch.getProductNumber(i));
+            Integer group = groups.get(key);
+            if (group == null) {
+                group = groups.size();
+                groups.put(key, group);
+            }
+            groupOf[i] = group;
+        }
+
+        int groupCount = groups.size();
+        int[] groupStart = new int[groupCount + 1];
+        for (int group : groupOf) {
+            groupStart[group + 1]++;
+        }
+        for (int group = 0; group < groupCount; group++) {
+            groupStart[group + 1] += groupStart[group];
+        }
+        int[] order = new int[size];
+        int[] next = Arrays.copyOf(groupStart, groupCount);
+        for (int i = 0; i < size; i++) {
+            order[next[groupOf[i]]++] = i;
+        }
+
+        int slices = Math.max(1, Math.min(groupCount / BATCH_SLICE_PRODUCTS,
+                (ForkJoinPool.getCommonPoolParallelism() + 1) * 4));
+        if (slices == 1) {
+            applyBatchGroups(batch, order, groupStart, 0, groupCount);
+            return;
+        }
+        IntStream.range(0, slices).parallel().forEach(slice -> applyBatchGroups(batch, order, groupStart,
+                (int) ((long) groupCount * slice / slices), (int) ((long) groupCount * (slice + 1) / slices)));
+    }
+
+    /**
+     * Aplica las operaciones de un rango de grupos de un lote.
+     * Cada grupo reúne las operaciones de un mismo producto.
+     *
+     * @param batch      Lote de operaciones
+     * @param order      Posiciones del lote ordenadas por grupo
+     * @param groupStart Inicio de cada grupo dentro de {@code order}
+     * @param fromGroup  Primer grupo a procesar (incluido)
+     * @param toGroup    Último grupo a procesar (excluido)
+     */
+    private void applyBatchGroups(OperationBatch batch, int[] order, int[] groupStart, int fromGroup, int toGroup) {
+        OperationResult result = new OperationResult();
+        for (int group = fromGroup; group < toGroup; group++) {
+            long productNumber = ProductNumbers.parse(batch.getProductNumber(order[groupStart[group]]));
+            long start = startSample();
+            ReentrantLock lock = locks.lockFor(productNumber);
+            lock.lock();
+            try {
+                FinancialProduct product = lookup(productNumber, start);
+                for (int k = groupStart[group]; k < groupStart[group + 1]; k++) {
+                    int item = order[k];
+                    if (k > groupStart[group]) {
+                        start = startSample();
+                    }
+                    if (product == null) {
+                        batch.recordOutcome(item, OperationStatus.PRODUCT_NOT_FOUND, 0);
+                        recordMetrics(batch.getOperationType(item), null, OperationStatus.PRODUCT_NOT_FOUND, start);
+                    } else {
+                        OperationStatus status = applyOperation(product, batch.getOperationType(item),
+                                batch.getAmount(item), result);
+                        batch.recordOutcome(item, status, result.getBalance());
+                        recordMetrics(batch.getOperationType(item), product, status, start);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        afterOperation();
+    }
+
+    /**
+     * Aplica una operación sobre un producto ya localizado y, si tuvo éxito, la persiste en el
+     * repositorio y notifica a los observadores.
+     * Debe invocarse con el candado del producto adquirido, y el producto debe haberse obtenido
+     * del repositorio con ese candado ya adquirido.
+     *
+     * @param product       Producto sobre el que se opera
+     * @param operationType Tipo de operación
+     * @param amount        Monto de la operación en centavos
+     * @param result        Resultado donde se registra la operación
+     * @return Estado de la operación
+     */
+    private OperationStatus applyOperation(FinancialProduct product, OperationType operationType, long amount,
+                                           OperationResult result) {
+        OperationStatus status = switch (operationType) {
+            case DEPOSIT -> product instanceof Depositable depositable
+                    ? depositable.tryDeposit(amount, result)
+                    : result.record(OperationStatus.UNSUPPORTED_OPERATION, operationType, product.getProductNumber(),
+                    amount, product.getBalance());
+            case WITHDRAWAL -> product instanceof Withdrawable withdrawable
+                    ? withdrawable.tryWithdraw(amount, result)
+                    : result.record(OperationStatus.UNSUPPORTED_OPERATION, operationType, product.getProductNumber(),
+                    amount, product.getBalance());
+            case TRANSFER, INTEREST_ACCRUAL -> result.record(OperationStatus.UNSUPPORTED_OPERATION, operationType,
+                    product.getProductNumber(), amount, product.getBalance());
         };
+
+        if (status.isSuccess()) {
+            repository.save(product);
+            for (OperationListener listener : listeners) {
+                listener.onOperationApplied(product, result);
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Causa el interés diario de una cuenta de ahorro con su candado adquirido y, si se causó,
+     * lo persiste en el repositorio y notifica a los observadores.
+     * No notifica el fin de la operación; quien invoca debe llamar a {@link #afterOperation()}.
+     *
+     * @param productNumber     Número de la cuenta de ahorro
+     * @param businessDate      Día a causar
+     * @param annualBasisPoints Tasa anual en puntos básicos
+     * @return Interés causado en centavos, o {@link #ALREADY_ACCRUED} si el producto no es una
+     * cuenta de ahorro o ya tenía causado ese día
+     */
+    long accrueInterest(String productNumber, LocalDate businessDate, long annualBasisPoints) {
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            return routed.call(() -> accrueInterest(productNumber, businessDate, annualBasisPoints));
+        }
+
+        long start = startSample();
+        SavingsAccount accrued = null;
+        long number = ProductNumbers.parse(productNumber);
+        ReentrantLock lock = locks.lockFor(number);
+        lock.lock();
+        try {
+            FinancialProduct product = lookup(number, start);
+            if (!(product instanceof SavingsAccount savings) || !savings.isAccrualPending(businessDate)) {
+                return ALREADY_ACCRUED;
+            }
+            long interest = Money.dailyInterest(Math.max(0, savings.getBalance()), annualBasisPoints);
+            savings.accrueInterest(interest, businessDate);
+            repository.save(savings);
+            for (OperationListener listener : listeners) {
+                listener.onInterestAccrued(savings, interest, businessDate);
+            }
+            accrued = savings;
+            return interest;
+        } finally {
+            lock.unlock();
+            OperationMetrics current = metrics;
+            if (accrued != null && current != null) {
+                current.recordSuccess(OperationType.INTEREST_ACCRUAL, accrued, start);
+            }
+        }
+    }
+
+    /**
+     * Registra un producto nuevo en el repositorio y notifica a los observadores.
+     * El registro se hace con el candado del producto adquirido para que la notificación de
+     * creación preceda a la de cualquier operación posterior sobre el mismo producto.
+     *
+     * @param product Producto a registrar
+     * @param <T>     Tipo concreto del producto
+     * @return Producto registrado
+     * @throws IllegalArgumentException Si el repositorio rechaza el producto
+     */
+    private <T extends FinancialProduct> T register(T product) throws IllegalArgumentException {
+        OperationPipeline routed = pipelineForCaller();
+        if (routed != null) {
+            return routed.call(() -> register(product));
+        }
+
+        ReentrantLock lock = locks.lockFor(product);
+        lock.lock();
+        try {
+            repository.addProduct(product);
+            for (OperationListener listener : listeners) {
+                listener.onProductCreated(product);
+            }
+        } finally {
+            lock.unlock();
+        }
+        afterOperation();
+        return product;
+    }
+
+    /**
+     * Notifica a los observadores que la operación del hilo actual terminó.
+     * Se invoca siempre sin candados adquiridos. En la etapa de negocio de un pipeline no hace nada:
+     * allí la confirmación la espera la etapa de registro para todo un grupo de operaciones.
+     */
+    void afterOperation() {
+        OperationPipeline current = pipeline;
+        if (current != null && current.isBusinessThread()) {
+            return;
+        }
+        for (OperationListener listener : listeners) {
+            listener.afterOperation();
+        }
+    }
+
+    /**
+     * Obtiene la caché de idempotencia para una operación.
+     *
+     * @param idempotencyKey Clave de idempotencia de la operación, o null si no tiene
+     * @return Caché asignada, o null si la operación no tiene clave
+     * @throws IllegalStateException Si se indica una clave y no hay caché de idempotencia asignada
+     */
+    private IdempotencyCache idempotencyCacheFor(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        IdempotencyCache cache = idempotencyCache;
+        if (cache == null) {
+            throw new IllegalStateException("No hay una caché de idempotencia asignada para admitir claves");
+        }
+        return cache;
+    }
+
+    /**
+     * Decide si la operación que empieza se mide.
+     *
+     * @return Instante de inicio, o {@link OperationMetrics#NOT_SAMPLED} si no se mide o no hay métricas
+     */
+    private long startSample() {
+        OperationMetrics current = metrics;
+        return current == null ? OperationMetrics.NOT_SAMPLED : current.startSample();
+    }
+
+    /**
+     * Busca un producto en el repositorio, midiendo la búsqueda si la operación se muestrea.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @param start         Inicio de la operación según {@link #startSample()}
+     * @return Producto encontrado, o null si no existe
+     */
+    private FinancialProduct lookup(long productNumber, long start) {
+        if (start == OperationMetrics.NOT_SAMPLED) {
+            return repository.findByProductNumber(productNumber);
+        }
+        long lookupStart = System.nanoTime();
+        FinancialProduct product = repository.findByProductNumber(productNumber);
+        OperationMetrics current = metrics;
+        if (current != null) {
+            current.recordLookup(System.nanoTime() - lookupStart);
+        }
+        return product;
+    }
+
+    /**
+     * Registra en las métricas una operación terminada, si hay métricas asignadas.
+     *
+     * @param operationType Tipo de operación
+     * @param product       Producto sobre el que se operó, o null si no se encontró
+     * @param result        Resultado de la operación; si no tiene estado la operación no se registra
+     * @param start         Inicio de la operación según {@link #startSample()}
+     */
+    private void recordMetrics(OperationType operationType, FinancialProduct product, OperationResult result, long start) {
+        OperationStatus status = result.getStatus();
+        if (status != null) {
+            recordMetrics(operationType, product, status, start);
+        }
+    }
+
+    private void recordMetrics(OperationType operationType, FinancialProduct product, OperationStatus status, long start) {
+        OperationMetrics current = metrics;
+        if (current != null) {
+            current.record(operationType, product, status, start);
+        }
     }
 
     /**
      * Método auxiliar para encontrar un producto y manejar la excepción.
+     * Si el producto no existe, el rechazo queda registrado en el resultado antes de lanzar la excepción.
      *
      * @param productNumber Número del producto
+     * @param number        Valor numérico del número del producto
+     * @param operationType Tipo de operación solicitada
+     * @param amount        Monto de la operación en centavos
+     * @param result        Resultado donde se registra el rechazo
+     * @param start         Inicio de la operación según {@link #startSample()}
      * @return Producto encontrado
      * @throws ProductNotFoundException Si el producto no existe
      */
-    private FinancialProduct findProduct(String productNumber) throws ProductNotFoundException {
-        FinancialProduct product = repository.findByProductNumber(productNumber);
+    private FinancialProduct findProduct(String productNumber, long number, OperationType operationType, long amount,
+                                         OperationResult result, long start) throws ProductNotFoundException {
+        FinancialProduct product = lookup(number, start);
 
         if (product == null) {
-            throw new ProductNotFoundException("No se encontró un producto con el número: " + productNumber);
+            result.record(OperationStatus.PRODUCT_NOT_FOUND, operationType, productNumber, amount, 0);
+            throw stacklessRejections
+                    ? ProductNotFoundException.stackless(productNumber)
+                    : new ProductNotFoundException(ProductNotFoundException.notFoundMessage(productNumber));
         }
 
         return product;
@@ -219,7 +1192,7 @@ public class FinancialCompany {
         FinancialProduct product = repository.findByProductNumber(productNumber);
 
         if (product == null) {
-            throw new ProductNotFoundException("No se encontró un producto con el número: " + productNumber);
+            throw new ProductNotFoundException(ProductNotFoundException.notFoundMessage(productNumber));
         }
 
         return product;
@@ -252,15 +1225,40 @@ public class FinancialCompany {
         return repository.getAllProducts();
     }
 
+    /**
+     * Recorre en orden de registro los productos de un tipo, sin copiar el libro.
+     *
+     * @param type Tipo de producto; {@code FinancialProduct.class} incluye todos
+     * @param <T>  Tipo de producto
+     * @return Flujo de los productos del tipo indicado
+     */
+    public <T extends FinancialProduct> Stream<T> streamProducts(Class<T> type) {
+        return repository.stream(type);
+    }
+
+    /**
+     * Obtiene una página de productos de un tipo a partir de un cursor.
+     *
+     * @param type   Tipo de producto; {@code FinancialProduct.class} incluye todos
+     * @param cursor Posición desde la que se continúa; cero para la primera página
+     * @param limit  Cantidad máxima de productos de la página
+     * @param <T>    Tipo de producto
+     * @return Página de productos con el cursor de la página siguiente
+     * @throws IllegalArgumentException Si el cursor es negativo o el límite no es positivo
+     */
+    public <T extends FinancialProduct> ProductPage<T> findProductPage(Class<T> type, int cursor, int limit) {
+        return repository.findPage(type, cursor, limit);
+    }
+
     /**
      * Valida los parámetros comunes para la creación de productos.
      *
      * @param productNumber  Número del producto
      * @param customer       Cliente titular
-     * @param initialBalance Saldo inicial
+     * @param initialBalance Saldo inicial en centavos
      * @throws IllegalArgumentException Si algún parámetro es inválido
      */
-    private void validateProductCreation(String productNumber, Customer customer, double initialBalance)
+    private void validateProductCreation(String productNumber, Customer customer, long initialBalance)
             throws IllegalArgumentException {
         if (productNumber == null || productNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("El número del producto es obligatorio");
@@ -274,11 +1272,34 @@ public class FinancialCompany {
             throw new IllegalArgumentException("El saldo inicial no puede ser negativo");
         }
 
-        try {
-            Integer.parseInt(productNumber.trim());
-        } catch (NumberFormatException e) {
+        if (ProductNumbers.parse(productNumber) == ProductNumbers.NONE) {
             throw new IllegalArgumentException("El número del producto debe ser un número entero válido");
         }
     }
 
+    /**
+     * Valida las condiciones propias del tipo de cuenta de un producto ya construido.
+     *
+     * @param product Producto a validar
+     * @throws IllegalArgumentException Si alguna condición es inválida
+     */
+    private void validateAccountTerms(FinancialProduct product) throws IllegalArgumentException {
+        if (product instanceof CheckingAccount checking && checking.getOverdraftLimit() < 0) {
+            throw new IllegalArgumentException("El límite de sobregiro no puede ser negativo");
+        }
+
+        if (product instanceof HousingSavingsAccount housing) {
+            if (housing.getTotalHousingValue() <= 0) {
+                throw new IllegalArgumentException("El valor de la vivienda debe ser positivo");
+            }
+            if (housing.getClassification() == null) {
+                throw new IllegalArgumentException("La clasificación de vivienda es obligatoria");
+            }
+        }
+
+        if (product instanceof SalaryAccount salary && salary.getSalaryAmount() <= 0) {
+            throw new IllegalArgumentException("El valor del salario debe ser positivo");
+        }
+    }
+
 }
@@ -0,0 +1,356 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.time.Duration;
+
+/**
+ * Caché acotada de los resultados de operaciones enviadas con clave de idempotencia.
+ * Cuando una operación se reenvía con la misma clave (por ejemplo, un reintento tras un tiempo de
+ * espera agotado), FinancialCompany devuelve el resultado original en lugar de aplicarla de nuevo.
+ * La caché se reparte en franjas por clave, cada una con su propio monitor; dentro de una franja los
+ * resultados se guardan en orden de llegada en un anillo de arreglos primitivos, con los campos de
+ * cada resultado contiguos, y se localizan con una tabla de direccionamiento abierto. Registrar o
+ * consultar una clave no crea objetos.
+ * Cada resultado vence al cumplirse el tiempo de retención; si una franja se llena antes, se
+ * descarta su resultado más antiguo aunque no haya vencido.
+ * Se guardan los resultados de todas las operaciones, aplicadas o rechazadas. Los productos de la
+ * solicitud se comparan por el valor numérico de su número, de modo que un reintento que envía "1"
+ * coincide con la solicitud original que envió "001".
+ */
+public class IdempotencyCache {
+    /**
+     * Cantidad máxima de resultados por defecto.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * Tiempo de retención por defecto de cada resultado.
+     */
+    public static final Duration DEFAULT_RETENTION = Duration.ofMinutes(15);
+
+    // Campos primitivos por resultado: vencimiento, encabezado, solicitud (montos y productos) y resultado
+    private static final int EXPIRES_AT = 0;
+    private static final int HEADER = 1;
+    private static final int REQUEST_AMOUNT = 2;
+    private static final int REQUEST_PRODUCT = 3;
+    private static final int REQUEST_TARGET = 4;
+    private static final int AMOUNT = 5;
+    private static final int BALANCE = 6;
+    private static final int INTEREST = 7;
+    private static final int TOTAL_PAID = 8;
+    private static final int LIMIT = 9;
+    private static final int TARGET_BALANCE = 10;
+    private static final int VALUE_FIELDS = 11;
+
+    // Referencias por resultado: clave y productos del resultado
+    private static final int KEY = 0;
+    private static final int PRODUCT = 1;
+    private static final int TARGET = 2;
+    private static final int REF_FIELDS = 3;
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+    private static final OperationStatus[] STATUSES = OperationStatus.values();
+
+    private final Stripe[] stripes;
+    private final int stripeBits;
+    private final long retentionNanos;
+
+    /**
+     * Crea una caché con la capacidad y la retención por defecto.
+     */
+    public IdempotencyCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_RETENTION);
+    }
+
+    /**
+     * Crea una caché repartida en franjas según los procesadores disponibles.
+     *
+     * @param capacity  Cantidad máxima de resultados guardados
+     * @param retention Tiempo durante el cual se recuerda el resultado de una clave
+     * @throws IllegalArgumentException Si la capacidad o la retención no son positivas
+     */
+    public IdempotencyCache(int capacity, Duration retention) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché de idempotencia debe ser mayor a cero");
+        }
+        if (retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("La retención de la caché de idempotencia debe ser positiva");
+        }
+
+        int minimumStripes = Math.min(capacity, Runtime.getRuntime().availableProcessors() * 16);
+        this.stripeBits = 32 - Integer.numberOfLeadingZeros(Math.max(1, minimumStripes - 1));
+        this.stripes = new Stripe[1 << stripeBits];
+        int stripeCapacity = (capacity + stripes.length - 1) / stripes.length;
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+        this.retentionNanos = retention.toNanos();
+    }
+
+    /**
+     * Busca el resultado guardado para una clave y, si existe, lo copia en el resultado indicado.
+     * Si la clave ya se usó con otra operación, el resultado registra
+     * {@link OperationStatus#IDEMPOTENCY_KEY_REUSED} sin modificar el guardado.
+     * Debe invocarse con los candados de los productos de la operación adquiridos, para que la
+     * consulta y el registro de una misma operación no se intercalen con un reintento.
+     *
+     * @param key           Clave de idempotencia
+     * @param operationType Tipo de operación solicitada
+     * @param productNumber Número del producto solicitado (el origen en una transferencia), para el
+     *                      resultado de un conflicto
+     * @param number        Valor numérico del número del producto solicitado
+     * @param targetNumber  Valor numérico del número del producto de destino, o
+     *                      {@link ProductNumbers#NONE} si no es una transferencia
+     * @param amount        Monto solicitado en centavos
+     * @param result        Resultado donde se copia el resultado guardado
+     * @return Estado guardado, o null si la clave no tiene un resultado vigente
+     */
+    OperationStatus replay(String key, OperationType operationType, String productNumber, long number,
+                           long targetNumber, long amount, OperationResult result) {
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            int slot = stripe.find(key, hash, stripeBits);
+            if (slot < 0) {
+                return null;
+            }
+            long[] values = stripe.values;
+            Object[] refs = stripe.refs;
+            int v = slot * VALUE_FIELDS;
+            int r = slot * REF_FIELDS;
+            if (values[v + EXPIRES_AT] - System.nanoTime() <= 0) {
+                return null;
+            }
+
+            long header = values[v + HEADER];
+            if (OPERATION_TYPES[(int) (header >>> 32) & 0xFF] != operationType || values[v + REQUEST_AMOUNT] != amount
+                    || values[v + REQUEST_PRODUCT] != number || values[v + REQUEST_TARGET] != targetNumber) {
+                stripe.conflicts++;
+                return result.record(OperationStatus.IDEMPOTENCY_KEY_REUSED, operationType, productNumber, amount, 0);
+            }
+
+            OperationStatus status = STATUSES[(int) (header >>> 40) & 0xFF];
+            result.record(status, OPERATION_TYPES[(int) (header >>> 48) & 0xFF], (String) refs[r + PRODUCT],
+                    values[v + AMOUNT], values[v + BALANCE]);
+            result.setInterest(values[v + INTEREST]);
+            result.setTotalPaid(values[v + TOTAL_PAID]);
+            result.setLimit(values[v + LIMIT]);
+            result.setTarget((String) refs[r + TARGET], values[v + TARGET_BALANCE]);
+            stripe.replays++;
+            return status;
+        }
+    }
+
+    /**
+     * Guarda el resultado de una operación bajo su clave. Si la clave ya tiene un resultado vigente,
+     * se conserva el primero.
+     * Debe invocarse con los candados de los productos de la operación adquiridos.
+     *
+     * @param key           Clave de idempotencia
+     * @param operationType Tipo de operación solicitada
+     * @param number        Valor numérico del número del producto solicitado (el origen en una transferencia)
+     * @param targetNumber  Valor numérico del número del producto de destino, o
+     *                      {@link ProductNumbers#NONE} si no es una transferencia
+     * @param amount        Monto solicitado en centavos
+     * @param result        Resultado de la operación
+     */
+    void remember(String key, OperationType operationType, long number, long targetNumber, long amount,
+                  OperationResult result) {
+        int hash = hash(key);
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            long now = System.nanoTime();
+            stripe.expire(now, stripeBits);
+            if (stripe.find(key, hash, stripeBits) >= 0) {
+                return;
+            }
+            if (stripe.size == stripe.capacity) {
+                stripe.removeOldest(stripeBits);
+                stripe.evictions++;
+            }
+
+            int slot = stripe.head + stripe.size;
+            if (slot >= stripe.capacity) {
+                slot -= stripe.capacity;
+            }
+            long[] values = stripe.values;
+            Object[] refs = stripe.refs;
+            int v = slot * VALUE_FIELDS;
+            int r = slot * REF_FIELDS;
+            values[v + EXPIRES_AT] = now + retentionNanos;
+            values[v + HEADER] = (hash & 0xFFFFFFFFL) | (long) operationType.ordinal() << 32
+                    | (long) result.getStatus().ordinal() << 40 | (long) result.getOperationType().ordinal() << 48;
+            values[v + REQUEST_AMOUNT] = amount;
+            values[v + REQUEST_PRODUCT] = number;
+            values[v + REQUEST_TARGET] = targetNumber;
+            values[v + AMOUNT] = result.getAmount();
+            values[v + BALANCE] = result.getBalance();
+            values[v + INTEREST] = result.getInterest();
+            values[v + TOTAL_PAID] = result.getTotalPaid();
+            values[v + LIMIT] = result.getLimit();
+            values[v + TARGET_BALANCE] = result.getTargetBalance();
+            refs[r + KEY] = key;
+            refs[r + PRODUCT] = result.getProductNumber();
+            refs[r + TARGET] = result.getTargetProductNumber();
+            stripe.insert(slot, hash, stripeBits);
+            stripe.size++;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de resultados guardados, incluidos los vencidos que aún no se descartan.
+     *
+     * @return Cantidad de resultados
+     */
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones respondidas con un resultado guardado.
+     *
+     * @return Cantidad de reintentos respondidos
+     */
+    public long getReplays() {
+        long replays = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                replays += stripe.replays;
+            }
+        }
+        return replays;
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones rechazadas por reutilizar una clave con otra operación.
+     *
+     * @return Cantidad de conflictos
+     */
+    public long getConflicts() {
+        long conflicts = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                conflicts += stripe.conflicts;
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Obtiene la cantidad de resultados descartados antes de vencer por falta de capacidad.
+     * Si crece, la capacidad es insuficiente para la retención y el volumen de operaciones.
+     *
+     * @return Cantidad de resultados descartados
+     */
+    public long getEvictions() {
+        long evictions = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                evictions += stripe.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    private static int hash(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Franja de la caché: anillo de resultados en orden de llegada y tabla de direccionamiento
+     * abierto con sondeo lineal que guarda, por posición, la ranura del anillo más uno (cero es vacío).
+     * Como todos los resultados tienen la misma retención, los vencidos forman siempre un prefijo del anillo.
+     */
+    private static final class Stripe {
+        private final int capacity;
+        private final long[] values;
+        private final Object[] refs;
+        private final int[] index;
+        private final int indexMask;
+        private int head;
+        private int size;
+        private long replays;
+        private long conflicts;
+        private long evictions;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            this.values = new long[capacity * VALUE_FIELDS];
+            this.refs = new Object[capacity * REF_FIELDS];
+            // Factor de carga máximo de un medio
+            this.index = new int[Integer.highestOneBit(capacity) << 2];
+            this.indexMask = index.length - 1;
+        }
+
+        private int find(String key, int hash, int stripeBits) {
+            int position = (hash >>> stripeBits) & indexMask;
+            while (true) {
+                int entry = index[position];
+                if (entry == 0) {
+                    return -1;
+                }
+                int slot = entry - 1;
+                if ((int) values[slot * VALUE_FIELDS + HEADER] == hash && key.equals(refs[slot * REF_FIELDS + KEY])) {
+                    return slot;
+                }
+                position = (position + 1) & indexMask;
+            }
+        }
+
+        private void insert(int slot, int hash, int stripeBits) {
+            int position = (hash >>> stripeBits) & indexMask;
+            while (index[position] != 0) {
+                position = (position + 1) & indexMask;
+            }
+            index[position] = slot + 1;
+        }
+
+        private void expire(long now, int stripeBits) {
+            while (size > 0 && values[head * VALUE_FIELDS + EXPIRES_AT] - now <= 0) {
+                removeOldest(stripeBits);
+            }
+        }
+
+        /**
+         * Descarta el resultado más antiguo del anillo y lo retira de la tabla, desplazando hacia
+         * atrás las entradas siguientes del mismo grupo de sondeo para no dejar huecos.
+         */
+        private void removeOldest(int stripeBits) {
+            int slot = head;
+            int position = ((int) values[slot * VALUE_FIELDS + HEADER] >>> stripeBits) & indexMask;
+            while (index[position] != slot + 1) {
+                position = (position + 1) & indexMask;
+            }
+
+            int hole = position;
+            int next = (hole + 1) & indexMask;
+            while (index[next] != 0) {
+                int moved = index[next] - 1;
+                int ideal = ((int) values[moved * VALUE_FIELDS + HEADER] >>> stripeBits) & indexMask;
+                if (((next - ideal) & indexMask) >= ((next - hole) & indexMask)) {
+                    index[hole] = index[next];
+                    hole = next;
+                }
+                next = (next + 1) & indexMask;
+            }
+            index[hole] = 0;
+
+            int r = slot * REF_FIELDS;
+            for (int i = 0; i < REF_FIELDS; i++) {
+                refs[r + i] = null;
+            }
+            head = slot + 1 == capacity ? 0 : slot + 1;
+            size--;
+        }
+    }
+}
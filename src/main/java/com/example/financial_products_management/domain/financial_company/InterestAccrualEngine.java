@@ -0,0 +1,115 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Proceso de cierre diario que causa el interés de todas las cuentas de ahorro.
+ * Recorre el libro completo una sola vez: las cuentas se reparten en porciones que se procesan
+ * en paralelo, y cada cuenta se causa con su candado adquirido, por lo que el proceso puede
+ * ejecutarse mientras se atienden otras operaciones. El interés del día se calcula sobre el saldo
+ * de la cuenta con la tasa anual indicada (convención actual/365).
+ * Cada cuenta registra el último día causado, de modo que si el proceso se interrumpe basta con
+ * repetirlo para el mismo día: las cuentas ya causadas se omiten y solo se causan las pendientes.
+ */
+public class InterestAccrualEngine {
+    /**
+     * Cantidad mínima de cuentas por porción procesada en paralelo.
+     */
+    private static final int SLICE_ACCOUNTS = 4096;
+
+    private final FinancialCompany company;
+
+    /**
+     * Crea un proceso de causación sobre las cuentas de una entidad financiera.
+     *
+     * @param company Entidad financiera
+     */
+    public InterestAccrualEngine(FinancialCompany company) {
+        this.company = company;
+    }
+
+    /**
+     * Resumen de un proceso de causación.
+     *
+     * @param businessDate   Día causado
+     * @param accounts       Cantidad de cuentas de ahorro recorridas
+     * @param accrued        Cantidad de cuentas causadas en esta ejecución
+     * @param alreadyAccrued Cantidad de cuentas omitidas por tener ya causado el día
+     * @param totalInterest  Interés total causado en esta ejecución, en centavos
+     */
+    public record Summary(LocalDate businessDate, int accounts, int accrued, int alreadyAccrued, long totalInterest) {
+    }
+
+    /**
+     * Causa el interés de un día con la tasa de las cuentas de ahorro.
+     *
+     * @param businessDate Día a causar
+     * @return Resumen del proceso
+     */
+    public Summary accrue(LocalDate businessDate) {
+        return accrue(businessDate, SavingsAccount.INTEREST_RATE_BASIS_POINTS);
+    }
+
+    /**
+     * Causa el interés de un día en todas las cuentas de ahorro.
+     *
+     * @param businessDate      Día a causar
+     * @param annualBasisPoints Tasa anual en puntos básicos (300 = 3%)
+     * @return Resumen del proceso
+     * @throws IllegalArgumentException Si la fecha es nula o la tasa es negativa
+     */
+    public Summary accrue(LocalDate businessDate, long annualBasisPoints) {
+        if (businessDate == null) {
+            throw new IllegalArgumentException("La fecha a causar no puede ser nula");
+        }
+        if (annualBasisPoints < 0) {
+            throw new IllegalArgumentException("La tasa de interés no puede ser negativa");
+        }
+
+        String[] productNumbers = savingsAccountNumbers();
+        int count = productNumbers.length;
+        int slices = Math.max(1, Math.min(count / SLICE_ACCOUNTS, (ForkJoinPool.getCommonPoolParallelism() + 1) * 4));
+        int[] accrued = new int[slices];
+        long[] interest = new long[slices];
+
+        IntStream.range(0, slices).parallel().forEach(slice -> {
+            int from = (int) ((long) count * slice / slices);
+            int to = (int) ((long) count * (slice + 1) / slices);
+            int sliceAccrued = 0;
+            long sliceInterest = 0;
+            for (int i = from; i < to; i++) {
+                long accountInterest = company.accrueInterest(productNumbers[i], businessDate, annualBasisPoints);
+                if (accountInterest != FinancialCompany.ALREADY_ACCRUED) {
+                    sliceAccrued++;
+                    sliceInterest += accountInterest;
+                }
+            }
+            accrued[slice] = sliceAccrued;
+            interest[slice] = sliceInterest;
+            company.afterOperation();
+        });
+
+        int totalAccrued = 0;
+        long totalInterest = 0;
+        for (int slice = 0; slice < slices; slice++) {
+            totalAccrued += accrued[slice];
+            totalInterest += interest[slice];
+        }
+        return new Summary(businessDate, count, totalAccrued, count - totalAccrued, totalInterest);
+    }
+
+    /**
+     * Obtiene los números de las cuentas de ahorro del libro.
+     *
+     * @return Números de producto de las cuentas de ahorro
+     */
+    private String[] savingsAccountNumbers() {
+        return company.streamProducts(SavingsAccount.class)
+                .map(FinancialProduct::getProductNumber)
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias en nanosegundos con cubetas log-lineales, al estilo de HdrHistogram.
+ * Cada potencia de dos se divide en 32 cubetas, por lo que el valor informado para un percentil
+ * difiere del real en menos de un 3,2%; los valores mayores a unos 18 minutos se acumulan en la
+ * última cubeta. Las cuentas se reparten en franjas según el hilo que registra, de modo que hilos
+ * distintos rara vez incrementan la misma posición. Registrar un valor no asigna memoria ni
+ * adquiere candados.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = SUB_BUCKETS * (MAX_EXPONENT - SUB_BUCKET_BITS + 1);
+    private static final int STRIPES = 8;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+
+    /**
+     * Registra una latencia.
+     *
+     * @param nanos Latencia en nanosegundos; los valores negativos se registran como cero
+     */
+    public void record(long nanos) {
+        int stripe = Thread.currentThread().hashCode() & (STRIPES - 1);
+        counts.getAndIncrement(stripe * BUCKETS + bucketOf(nanos));
+    }
+
+    /**
+     * Obtiene la cantidad de latencias registradas.
+     *
+     * @return Cantidad de registros
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene la latencia por debajo de la cual queda un porcentaje de los registros.
+     *
+     * @param percentile Percentil entre 0 y 100
+     * @return Límite superior de la cubeta del percentil en nanosegundos, o cero si no hay registros
+     * @throws IllegalArgumentException Si el percentil está fuera de rango
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100");
+        }
+        long[] merged = merge();
+        long total = 0;
+        for (long count : merged) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += merged[bucket];
+            if (seen >= target) {
+                return upperBound(bucket);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * Obtiene la mayor latencia registrada.
+     *
+     * @return Límite superior de la cubeta más alta con registros, o cero si no hay registros
+     */
+    public long getMax() {
+        long[] merged = merge();
+        for (int bucket = BUCKETS - 1; bucket >= 0; bucket--) {
+            if (merged[bucket] != 0) {
+                return upperBound(bucket);
+            }
+        }
+        return 0;
+    }
+
+    private long[] merge() {
+        long[] merged = new long[BUCKETS];
+        for (int i = 0; i < counts.length(); i++) {
+            merged[i % BUCKETS] += counts.get(i);
+        }
+        return merged;
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = Math.min(Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT - 1);
+        if (exponent == MAX_EXPONENT - 1 && nanos >>> MAX_EXPONENT != 0) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import java.time.LocalDate;
+
+/**
+ * Interfaz para observar los cambios de estado aplicados por FinancialCompany.
+ * Los métodos de notificación se invocan con el candado del producto adquirido, por lo que
+ * el orden de las notificaciones de un mismo producto coincide con el orden en que se aplicaron
+ * los cambios. Las implementaciones deben ser rápidas y no bloquear dentro de esos métodos.
+ */
+public interface OperationListener {
+
+    /**
+     * Notifica que un producto fue creado y registrado en el repositorio.
+     *
+     * @param product Producto creado
+     */
+    default void onProductCreated(FinancialProduct product) {
+    }
+
+    /**
+     * Notifica que una operación fue aplicada con éxito sobre un producto.
+     *
+     * @param product Producto modificado
+     * @param result  Resultado de la operación aplicada
+     */
+    default void onOperationApplied(FinancialProduct product, OperationResult result) {
+    }
+
+    /**
+     * Notifica que una transferencia fue aplicada con éxito sobre ambos productos.
+     *
+     * @param source Producto de origen
+     * @param target Producto de destino
+     * @param result Resultado de la transferencia aplicada
+     */
+    default void onTransferApplied(FinancialProduct source, FinancialProduct target, OperationResult result) {
+    }
+
+    /**
+     * Notifica que se causó el interés diario de una cuenta de ahorro.
+     *
+     * @param account      Cuenta de ahorro modificada
+     * @param interest     Interés causado en centavos
+     * @param businessDate Día causado
+     */
+    default void onInterestAccrued(SavingsAccount account, long interest, LocalDate businessDate) {
+    }
+
+    /**
+     * Notifica, ya sin candados adquiridos, que la operación en curso del hilo actual terminó.
+     * Permite, por ejemplo, esperar a que la operación quede persistida antes de responder.
+     */
+    default void afterOperation() {
+    }
+
+    /**
+     * Entrega lo que el hilo actual tiene pendiente de confirmar y lo olvida, en lugar de esperarlo
+     * con {@link #afterOperation()}. Lo usa {@link OperationPipeline} para que la etapa de negocio
+     * no espere y la de registro confirme de una vez todo un grupo de operaciones.
+     *
+     * @return Marca a entregar a {@link #awaitOperations(long)}, o 0 si no hay nada pendiente
+     */
+    default long handOffOperations() {
+        return 0;
+    }
+
+    /**
+     * Espera, desde cualquier hilo, a que quede confirmado lo entregado por {@link #handOffOperations()}.
+     *
+     * @param mark Marca obtenida de {@link #handOffOperations()}
+     */
+    default void awaitOperations(long mark) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de las operaciones aplicadas por FinancialCompany.
+ * Cuenta todas las operaciones por tipo de operación y tipo de producto, y los rechazos por motivo.
+ * Las latencias se miden sobre una muestra de las operaciones, porque leer el reloj cuesta más que
+ * el resto del registro: con el intervalo de muestreo por defecto se mide una de cada ocho, elegida
+ * al azar. De cada operación muestreada se registra su latencia total, incluida la espera por el
+ * candado, y el tiempo de la búsqueda en el repositorio, en histogramas {@link LatencyHistogram}.
+ * Los contadores usan {@link LongAdder}, por lo que los hilos que operan no compiten entre sí.
+ * Las métricas se exportan en formato de texto con {@link #export()}.
+ */
+public class OperationMetrics {
+    /**
+     * Marca de inicio de una operación que no se muestrea.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    /**
+     * Intervalo de muestreo por defecto: se mide una de cada ocho operaciones.
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 8;
+
+    private static final List<Class<? extends FinancialProduct>> ACCOUNT_TYPES = List.of(
+            SavingsAccount.class, CheckingAccount.class, HousingSavingsAccount.class, SalaryAccount.class);
+    private static final double[] EXPORTED_PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] EXPORTED_QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+    private static final OperationStatus[] STATUSES = OperationStatus.values();
+
+    private final int sampleMask;
+    private final LongAdder[] operations = new LongAdder[OPERATION_TYPES.length * (ACCOUNT_TYPES.size() + 1)];
+    private final LongAdder[] rejections = new LongAdder[STATUSES.length];
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATION_TYPES.length];
+    private final LatencyHistogram lookups = new LatencyHistogram();
+
+    /**
+     * Crea las métricas con el intervalo de muestreo por defecto.
+     */
+    public OperationMetrics() {
+        this(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Crea las métricas con un intervalo de muestreo de latencias.
+     *
+     * @param sampleInterval Se mide en promedio una de cada {@code sampleInterval} operaciones;
+     *                       debe ser una potencia de dos (1 mide todas)
+     * @throws IllegalArgumentException Si el intervalo no es una potencia de dos positiva
+     */
+    public OperationMetrics(int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("El intervalo de muestreo debe ser una potencia de dos positiva");
+        }
+        this.sampleMask = sampleInterval - 1;
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new LongAdder();
+        }
+        for (int i = 0; i < rejections.length; i++) {
+            rejections[i] = new LongAdder();
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Decide si una operación que empieza se muestrea.
+     *
+     * @return Instante de inicio en nanosegundos, o {@link #NOT_SAMPLED} si la operación no se mide
+     */
+    public long startSample() {
+        return sampleMask == 0 || (ThreadLocalRandom.current().nextInt() & sampleMask) == 0
+                ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * Registra una operación terminada.
+     *
+     * @param operationType Tipo de operación
+     * @param product       Producto sobre el que se operó, o null si no se encontró
+     * @param status        Estado de la operación
+     * @param start         Valor devuelto por {@link #startSample()} al empezar la operación
+     */
+    public void record(OperationType operationType, FinancialProduct product, OperationStatus status, long start) {
+        if (!status.isSuccess()) {
+            rejections[status.ordinal()].increment();
+        }
+        recordSuccess(operationType, product, start);
+    }
+
+    /**
+     * Registra una operación terminada que no tiene estado propio, como la causación de intereses.
+     *
+     * @param operationType Tipo de operación
+     * @param product       Producto sobre el que se operó
+     * @param start         Valor devuelto por {@link #startSample()} al empezar la operación
+     */
+    public void recordSuccess(OperationType operationType, FinancialProduct product, long start) {
+        operations[operationType.ordinal() * (ACCOUNT_TYPES.size() + 1) + typeOf(product)].increment();
+        if (start != NOT_SAMPLED) {
+            latencies[operationType.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Registra el tiempo de una búsqueda en el repositorio.
+     *
+     * @param nanos Duración de la búsqueda en nanosegundos
+     */
+    public void recordLookup(long nanos) {
+        lookups.record(nanos);
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones de un tipo sobre productos de un tipo.
+     *
+     * @param operationType Tipo de operación
+     * @param productType   Tipo de producto; FinancialProduct suma todos los tipos
+     * @return Cantidad de operaciones, aceptadas o rechazadas
+     */
+    public long getOperationCount(OperationType operationType, Class<? extends FinancialProduct> productType) {
+        int base = operationType.ordinal() * (ACCOUNT_TYPES.size() + 1);
+        if (productType == FinancialProduct.class) {
+            long total = 0;
+            for (int i = 0; i <= ACCOUNT_TYPES.size(); i++) {
+                total += operations[base + i].sum();
+            }
+            return total;
+        }
+        int index = ACCOUNT_TYPES.indexOf(productType);
+        return index < 0 ? 0 : operations[base + index].sum();
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones rechazadas por un motivo.
+     *
+     * @param status Estado de rechazo
+     * @return Cantidad de rechazos
+     */
+    public long getRejectionCount(OperationStatus status) {
+        return rejections[status.ordinal()].sum();
+    }
+
+    /**
+     * Obtiene el histograma de latencias de un tipo de operación.
+     *
+     * @param operationType Tipo de operación
+     * @return Histograma de las operaciones muestreadas
+     */
+    public LatencyHistogram getLatency(OperationType operationType) {
+        return latencies[operationType.ordinal()];
+    }
+
+    /**
+     * Obtiene el histograma de tiempos de búsqueda en el repositorio.
+     *
+     * @return Histograma de las búsquedas muestreadas
+     */
+    public LatencyHistogram getLookupLatency() {
+        return lookups;
+    }
+
+    /**
+     * Exporta las métricas en formato de texto, una métrica por línea con sus etiquetas entre llaves.
+     * El formato es compatible con la exposición de texto de Prometheus.
+     *
+     * @return Métricas en texto
+     */
+    public String export() {
+        StringBuilder text = new StringBuilder();
+        text.append("# TYPE financial_operations_total counter\n");
+        for (OperationType operationType : OPERATION_TYPES) {
+            int base = operationType.ordinal() * (ACCOUNT_TYPES.size() + 1);
+            for (int i = 0; i <= ACCOUNT_TYPES.size(); i++) {
+                long count = operations[base + i].sum();
+                if (count != 0) {
+                    String product = i < ACCOUNT_TYPES.size() ? ACCOUNT_TYPES.get(i).getSimpleName() : "Unknown";
+                    text.append("financial_operations_total{operation=\"").append(operationType)
+                            .append("\",product=\"").append(product).append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+
+        text.append("# TYPE financial_rejections_total counter\n");
+        for (OperationStatus status : STATUSES) {
+            if (!status.isSuccess()) {
+                text.append("financial_rejections_total{reason=\"").append(status).append("\"} ")
+                        .append(rejections[status.ordinal()].sum()).append('\n');
+            }
+        }
+
+        text.append("# TYPE financial_operation_latency_ns summary\n");
+        for (OperationType operationType : OPERATION_TYPES) {
+            appendSummary(text, "financial_operation_latency_ns",
+                    "operation=\"" + operationType + "\"", latencies[operationType.ordinal()]);
+        }
+        text.append("# TYPE financial_repository_lookup_ns summary\n");
+        appendSummary(text, "financial_repository_lookup_ns", null, lookups);
+        return text.toString();
+    }
+
+    private static void appendSummary(StringBuilder text, String name, String labels, LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        if (count == 0) {
+            return;
+        }
+        String prefix = labels == null ? "" : labels + ",";
+        for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+            text.append(name).append("{").append(prefix).append("quantile=\"").append(EXPORTED_QUANTILES[i]).append("\"} ")
+                    .append(histogram.getValueAtPercentile(EXPORTED_PERCENTILES[i])).append('\n');
+        }
+        text.append(name).append("_max").append(labels == null ? "" : "{" + labels + "}").append(' ')
+                .append(histogram.getMax()).append('\n');
+        text.append(name).append("_count").append(labels == null ? "" : "{" + labels + "}").append(' ')
+                .append(count).append('\n');
+    }
+
+    /**
+     * Obtiene la posición del tipo de un producto; los productos de otros tipos y los no encontrados van en la última.
+     */
+    private static int typeOf(FinancialProduct product) {
+        if (product instanceof SavingsAccount) {
+            return 0;
+        }
+        if (product instanceof CheckingAccount) {
+            return 1;
+        }
+        if (product instanceof HousingSavingsAccount) {
+            return 2;
+        }
+        return product instanceof SalaryAccount ? 3 : ACCOUNT_TYPES.size();
+    }
+}
@@ -0,0 +1,565 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import com.example.financial_products_management.exception.InsufficientFundsException;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Modo de ejecución de FinancialCompany en el que las operaciones se publican en un búfer circular
+ * preasignado y las procesa una cadena de etapas, cada una en su propio hilo: validación, lógica de
+ * negocio, registro y respuesta.
+ * La etapa de negocio es un solo hilo y es el único que modifica los productos mientras el pipeline
+ * está en marcha, por lo que aplica las operaciones sin adquirir candados. Cada etapa es la única que
+ * escribe su secuencia y procesa de una vez todo lo que la etapa anterior ya publicó, de modo que con
+ * carga el trabajo se agrupa: la etapa de registro espera una sola vez por grupo a que los observadores
+ * (por ejemplo el diario de transacciones) persistan lo aplicado.
+ * Los productores reclaman una posición con una operación atómica, la escriben, la publican y esperan
+ * la respuesta; una posición se reutiliza cuando la etapa de respuesta ya la liberó.
+ * Mientras está en marcha, FinancialCompany envía por el pipeline las operaciones con resultado
+ * reutilizable y ejecuta en la etapa de negocio las demás operaciones que modifican productos.
+ */
+public class OperationPipeline implements AutoCloseable {
+    /**
+     * Cantidad por defecto de posiciones del búfer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 14;
+
+    private static final int VALIDATED = 0;
+    private static final int APPLIED = 1;
+    private static final int JOURNALED = 2;
+    private static final int REPLIED = 3;
+    private static final int STAGES = 4;
+    /**
+     * Separación entre secuencias dentro del arreglo, para que cada una ocupe su propia línea de caché.
+     */
+    private static final int PADDING = 16;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 50_000;
+
+    private static final byte OPERATION = 0;
+    private static final byte TRANSFER = 1;
+    private static final byte TASK = 2;
+    private static final byte CANCELLED = 3;
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final FinancialCompany company;
+    private final Slot[] slots;
+    private final int mask;
+    private final int indexShift;
+    private final int[] available;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private final AtomicLongArray sequences = new AtomicLongArray((STAGES + 1) * PADDING);
+    private final ThreadLocal<Call> calls = ThreadLocal.withInitial(Call::new);
+    private final Thread[] stages;
+    private volatile boolean closed;
+    private volatile boolean stopped;
+    /**
+     * Primera posición cuyo grupo aún no confirmó la etapa de registro. Solo la usa esa etapa.
+     */
+    private long unconfirmedFrom;
+
+    /**
+     * Crea un pipeline con la cantidad de posiciones por defecto y lo pone en marcha.
+     *
+     * @param company Compañía cuyas operaciones se procesan
+     * @throws IllegalStateException Si la compañía ya tiene un pipeline en marcha
+     */
+    public OperationPipeline(FinancialCompany company) {
+        this(company, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Crea un pipeline y lo pone en marcha. Desde ese momento la compañía envía sus operaciones por él.
+     * Debe ponerse en marcha antes de que otros hilos operen sobre la compañía, y cerrarse cuando ya no
+     * se le envían operaciones: una operación aplicada directamente en paralelo con la etapa de negocio
+     * no estaría serializada con ella.
+     *
+     * @param company    Compañía cuyas operaciones se procesan
+     * @param bufferSize Cantidad mínima de posiciones del búfer; se redondea a la siguiente potencia de dos
+     * @throws IllegalArgumentException Si la cantidad de posiciones es menor que dos
+     * @throws IllegalStateException    Si la compañía ya tiene un pipeline en marcha
+     */
+    public OperationPipeline(FinancialCompany company, int bufferSize) {
+        if (bufferSize < 2 || bufferSize > 1 << 30) {
+            throw new IllegalArgumentException("El búfer debe tener entre 2 y 2^30 posiciones");
+        }
+
+        int size = Integer.highestOneBit(bufferSize - 1) << 1;
+        this.company = company;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(size);
+        this.available = new int[size];
+        Arrays.fill(available, -1);
+        for (int stage = 0; stage < STAGES; stage++) {
+            sequences.set(offsetOf(stage), -1);
+        }
+
+        this.stages = new Thread[]{
+                stage("validacion", VALIDATED, this::validate),
+                stage("negocio", APPLIED, this::apply),
+                stage("registro", JOURNALED, this::journal),
+                stage("respuesta", REPLIED, this::reply)
+        };
+        company.attachPipeline(this);
+        for (Thread stage : stages) {
+            stage.start();
+        }
+    }
+
+    /**
+     * Envía una operación bancaria y espera su resultado.
+     *
+     * @see FinancialCompany#performOperation(String, OperationType, long, OperationResult, String)
+     */
+    OperationStatus submitOperation(String productNumber, OperationType operationType, long amount,
+                                    OperationResult result, String idempotencyKey, IdempotencyCache cache) {
+        Call call = calls.get();
+        long sequence = claim(call);
+        Slot slot = slots[(int) sequence & mask];
+        slot.kind = OPERATION;
+        slot.productNumber = productNumber;
+        slot.operationType = operationType;
+        slot.amount = amount;
+        slot.result = result;
+        slot.idempotencyKey = idempotencyKey;
+        slot.cache = cache;
+        slot.call = call;
+        publish(sequence);
+        awaitRuntime(call);
+        return result.getStatus();
+    }
+
+    /**
+     * Envía una transferencia y espera su resultado.
+     *
+     * @see FinancialCompany#performTransfer(String, String, long, OperationResult, String)
+     */
+    OperationStatus submitTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                   OperationResult result, String idempotencyKey, IdempotencyCache cache) {
+        Call call = calls.get();
+        long sequence = claim(call);
+        Slot slot = slots[(int) sequence & mask];
+        slot.kind = TRANSFER;
+        slot.productNumber = sourceProductNumber;
+        slot.targetProductNumber = targetProductNumber;
+        slot.operationType = OperationType.TRANSFER;
+        slot.amount = amount;
+        slot.result = result;
+        slot.idempotencyKey = idempotencyKey;
+        slot.cache = cache;
+        slot.call = call;
+        publish(sequence);
+        awaitRuntime(call);
+        return result.getStatus();
+    }
+
+    /**
+     * Ejecuta una tarea en la etapa de negocio y espera su resultado. Permite que las operaciones
+     * que no tienen un camino propio en el pipeline sigan siendo las únicas que modifican los productos.
+     *
+     * @param task Tarea a ejecutar
+     * @param <T>  Tipo del resultado
+     * @return Resultado de la tarea
+     * @throws ProductNotFoundException   Si la tarea lo lanza
+     * @throws InsufficientFundsException Si la tarea lo lanza
+     */
+    <T> T execute(Task<T> task) throws ProductNotFoundException, InsufficientFundsException {
+        Call call = calls.get();
+        long sequence = claim(call);
+        Slot slot = slots[(int) sequence & mask];
+        slot.kind = TASK;
+        slot.task = task;
+        slot.call = call;
+        publish(sequence);
+        await(call);
+        Throwable failure = call.failure;
+        if (failure instanceof ProductNotFoundException notFound) {
+            throw notFound;
+        }
+        if (failure instanceof InsufficientFundsException insufficientFunds) {
+            throw insufficientFunds;
+        }
+        rethrowUnchecked(failure);
+        @SuppressWarnings("unchecked")
+        T value = (T) call.value;
+        call.value = null;
+        return value;
+    }
+
+    /**
+     * Ejecuta en la etapa de negocio una tarea que no lanza excepciones comprobadas y espera su resultado.
+     *
+     * @param task Tarea a ejecutar
+     * @param <T>  Tipo del resultado
+     * @return Resultado de la tarea
+     */
+    <T> T call(Supplier<T> task) {
+        try {
+            return execute((Task<T>) task::get);
+        } catch (ProductNotFoundException | InsufficientFundsException e) {
+            throw new IllegalStateException("La tarea lanzó una excepción que no declara", e);
+        }
+    }
+
+    /**
+     * Indica si el hilo actual es el de la etapa de negocio.
+     *
+     * @return true si el hilo actual aplica las operaciones del pipeline
+     */
+    boolean isBusinessThread() {
+        return Thread.currentThread() == stages[APPLIED];
+    }
+
+    /**
+     * Obtiene la cantidad de posiciones del búfer.
+     *
+     * @return Cantidad de posiciones
+     */
+    public int getBufferSize() {
+        return slots.length;
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones y tareas respondidas desde que se puso en marcha.
+     *
+     * @return Cantidad de envíos respondidos
+     */
+    public long getProcessed() {
+        return sequence(REPLIED) + 1;
+    }
+
+    /**
+     * Deja de aceptar envíos, espera a que se respondan los ya reclamados y detiene las etapas.
+     * Desde ese momento la compañía vuelve a aplicar las operaciones directamente.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        int idle = 0;
+        while (sequence(REPLIED) < claimed.get()) {
+            idle = idle(idle);
+        }
+        stopped = true;
+        boolean interrupted = false;
+        for (Thread stage : stages) {
+            LockSupport.unpark(stage);
+            while (stage.isAlive()) {
+                try {
+                    stage.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        company.detachPipeline(this);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Etapa de validación: convierte los números de producto a su valor numérico, el mismo con el que
+     * los busca la etapa de negocio, para sacar esa conversión del hilo que modifica los productos.
+     */
+    private void validate(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        if (slot.kind == OPERATION || slot.kind == TRANSFER) {
+            slot.number = ProductNumbers.parse(slot.productNumber);
+            slot.targetNumber = slot.kind == TRANSFER ? ProductNumbers.parse(slot.targetProductNumber) : ProductNumbers.NONE;
+        }
+    }
+
+    /**
+     * Etapa de negocio: aplica la operación sin candados y, al final de cada grupo, entrega a la etapa
+     * de registro lo que los observadores tienen pendiente de persistir.
+     */
+    private void apply(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        try {
+            switch (slot.kind) {
+                case OPERATION -> company.applyFromPipeline(slot.number, slot.productNumber, slot.operationType,
+                        slot.amount, slot.result, slot.idempotencyKey, slot.cache);
+                case TRANSFER -> company.transferFromPipeline(slot.number, slot.productNumber, slot.targetNumber,
+                        slot.targetProductNumber, slot.amount, slot.result, slot.idempotencyKey, slot.cache);
+                case TASK -> slot.call.value = slot.task.run();
+                default -> {
+                }
+            }
+        } catch (Exception | Error e) {
+            // El fallo se entrega a quien envió la operación; la etapa sigue procesando
+            slot.call.failure = e;
+        }
+    }
+
+    private void endOfApplyBatch(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        OperationListener[] listeners = company.listeners();
+        if (slot.marks.length < listeners.length) {
+            slot.marks = new long[listeners.length];
+        }
+        for (int i = 0; i < listeners.length; i++) {
+            slot.marks[i] = listeners[i].handOffOperations();
+        }
+        slot.listeners = listeners;
+    }
+
+    /**
+     * Etapa de registro: al llegar al final de un grupo de la etapa de negocio espera a que los
+     * observadores persistan todo lo aplicado en él.
+     */
+    private void journal(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        OperationListener[] listeners = slot.listeners;
+        if (listeners == null) {
+            return;
+        }
+        slot.listeners = null;
+        try {
+            for (int i = 0; i < listeners.length; i++) {
+                listeners[i].awaitOperations(slot.marks[i]);
+            }
+        } catch (RuntimeException | Error e) {
+            // Todas las operaciones del grupo quedan sin confirmar; se informa a quienes las enviaron
+            for (long pending = unconfirmedFrom; pending <= sequence; pending++) {
+                Call call = slots[(int) pending & mask].call;
+                if (call != null && call.failure == null) {
+                    call.failure = e;
+                }
+            }
+        }
+        unconfirmedFrom = sequence + 1;
+    }
+
+    /**
+     * Etapa de respuesta: despierta a quien envió la operación y libera la posición.
+     */
+    private void reply(long sequence) {
+        Slot slot = slots[(int) sequence & mask];
+        Call call = slot.call;
+        slot.clear();
+        if (call != null) {
+            call.complete();
+        }
+    }
+
+    /**
+     * Crea el hilo de una etapa, que procesa en orden cada posición que la etapa anterior ya publicó.
+     */
+    private Thread stage(String name, int stage, SequenceHandler handler) {
+        Thread thread = new Thread(() -> {
+            int idle = 0;
+            while (true) {
+                long next = sequence(stage) + 1;
+                long last = stage == VALIDATED ? lastPublished(next) : sequence(stage - 1);
+                if (last < next) {
+                    if (stopped) {
+                        return;
+                    }
+                    idle = idle(idle);
+                    continue;
+                }
+                for (long sequence = next; sequence <= last; sequence++) {
+                    handler.handle(sequence);
+                }
+                if (stage == APPLIED) {
+                    endOfApplyBatch(last);
+                }
+                sequences.lazySet(offsetOf(stage), last);
+                idle = 0;
+            }
+        }, "operation-pipeline-" + name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Reclama la siguiente posición, esperando a que la etapa de respuesta la haya liberado.
+     */
+    private long claim(Call call) {
+        call.prepare();
+        long sequence = claimed.incrementAndGet();
+        if (closed) {
+            cancel(sequence);
+            throw new IllegalStateException("El pipeline de operaciones está cerrado");
+        }
+        int idle = 0;
+        while (sequence - slots.length > sequence(REPLIED)) {
+            idle = idle(idle);
+        }
+        return sequence;
+    }
+
+    /**
+     * Publica una posición reclamada después de cerrar el pipeline como vacía, para que las etapas
+     * no se detengan en ella mientras terminan las anteriores.
+     */
+    private void cancel(long sequence) {
+        int idle = 0;
+        while (sequence - slots.length > sequence(REPLIED)) {
+            if (stopped) {
+                return;
+            }
+            idle = idle(idle);
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.kind = CANCELLED;
+        publish(sequence);
+    }
+
+    private void publish(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    /**
+     * Obtiene la última posición publicada sin huecos a partir de la indicada.
+     */
+    private long lastPublished(long from) {
+        long sequence = from;
+        while ((int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> indexShift)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    private long sequence(int stage) {
+        return sequences.get(offsetOf(stage));
+    }
+
+    private static int offsetOf(int stage) {
+        return (stage + 1) * PADDING;
+    }
+
+    private void awaitRuntime(Call call) {
+        await(call);
+        rethrowUnchecked(call.failure);
+    }
+
+    private static void await(Call call) {
+        int tries = 0;
+        while (!call.done) {
+            if (tries < SPIN_TRIES) {
+                Thread.onSpinWait();
+                tries++;
+            } else {
+                LockSupport.park(call);
+            }
+        }
+    }
+
+    private static void rethrowUnchecked(Throwable failure) {
+        if (failure instanceof RuntimeException runtime) {
+            throw runtime;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("La operación falló en el pipeline", failure);
+        }
+    }
+
+    /**
+     * Espera sin trabajo: primero activamente, luego cediendo el procesador y por último durmiendo
+     * brevemente, para no consumir un núcleo completo cuando no hay operaciones.
+     */
+    private static int idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return tries;
+        }
+        return tries + 1;
+    }
+
+    /**
+     * Tarea ejecutada en la etapa de negocio.
+     *
+     * @param <T> Tipo del resultado
+     */
+    @FunctionalInterface
+    interface Task<T> {
+        T run() throws ProductNotFoundException, InsufficientFundsException;
+    }
+
+    @FunctionalInterface
+    private interface SequenceHandler {
+        void handle(long sequence);
+    }
+
+    /**
+     * Posición del búfer. Se crea una vez por posición y se reutiliza en cada vuelta.
+     */
+    private static final class Slot {
+        private byte kind;
+        private String productNumber;
+        private String targetProductNumber;
+        private long number;
+        private long targetNumber;
+        private OperationType operationType;
+        private long amount;
+        private OperationResult result;
+        private String idempotencyKey;
+        private IdempotencyCache cache;
+        private Task<?> task;
+        private Call call;
+        private OperationListener[] listeners;
+        private long[] marks = new long[0];
+
+        private void clear() {
+            productNumber = null;
+            targetProductNumber = null;
+            result = null;
+            idempotencyKey = null;
+            cache = null;
+            task = null;
+            call = null;
+        }
+    }
+
+    /**
+     * Espera de un hilo productor por su envío en curso. Cada hilo reutiliza la suya, por lo que
+     * enviar una operación no crea objetos; el resultado y el fallo se leen aquí y no en la posición,
+     * que puede reutilizarse en cuanto se responde.
+     */
+    private static final class Call {
+        private Thread waiter;
+        private volatile boolean done;
+        private Throwable failure;
+        private Object value;
+
+        private void prepare() {
+            waiter = Thread.currentThread();
+            failure = null;
+            done = false;
+        }
+
+        private void complete() {
+            Thread thread = waiter;
+            done = true;
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totales de la cartera mantenidos a medida que FinancialCompany aplica las operaciones.
+ * Lleva el saldo total y la cantidad de productos por tipo de cuenta, el sobregiro usado por las
+ * cuentas corrientes, el interés acumulado de las cuentas de ahorro y el avance del ahorro para
+ * vivienda por clasificación. Cada operación suma solo su diferencia, calculada con el resultado
+ * de la operación, así que no se guarda ningún dato por producto ni se recorre el libro.
+ * Los totales usan contadores {@link LongAdder}, que reparten las sumas concurrentes en celdas
+ * distintas, por lo que los hilos que operan no compiten entre sí; leer un total cuesta una suma
+ * de pocas celdas, independiente de la cantidad de productos. Las lecturas hechas mientras hay
+ * operaciones en curso pueden no reflejar todavía las más recientes.
+ * Los productos creados antes de registrar este observador deben incorporarse una sola vez con
+ * {@link #track(FinancialProduct)}. Todos los montos se expresan en centavos.
+ */
+public class PortfolioAggregates implements OperationListener {
+    private static final List<Class<? extends FinancialProduct>> ACCOUNT_TYPES = List.of(
+            SavingsAccount.class, CheckingAccount.class, HousingSavingsAccount.class, SalaryAccount.class);
+
+    private final LongAdder[] balances = adders(ACCOUNT_TYPES.size() + 1);
+    private final LongAdder[] products = adders(ACCOUNT_TYPES.size() + 1);
+    private final LongAdder overdraftUsed = new LongAdder();
+    private final LongAdder overdrawnAccounts = new LongAdder();
+    private final LongAdder accumulatedInterest = new LongAdder();
+    private final Map<HousingClassification, HousingTotals> housing = new EnumMap<>(HousingClassification.class);
+
+    /**
+     * Crea los totales en cero, sin productos incorporados.
+     */
+    public PortfolioAggregates() {
+        for (HousingClassification classification : HousingClassification.values()) {
+            housing.put(classification, new HousingTotals());
+        }
+    }
+
+    /**
+     * Avance del ahorro para vivienda de una clasificación.
+     *
+     * @param accounts     Cantidad de cuentas
+     * @param totalPaid    Total pagado por las cuentas
+     * @param housingValue Valor total de las viviendas
+     */
+    public record HousingProgress(long accounts, long totalPaid, long housingValue) {
+
+        /**
+         * Calcula en punto flotante el porcentaje pagado del valor de las viviendas, porque con los totales
+         * de toda la cartera el producto exacto puede desbordarse.
+         *
+         * @return Porcentaje en puntos básicos, o cero si no hay viviendas
+         */
+        public long paidBasisPoints() {
+            return housingValue == 0 ? 0 : (long) ((double) totalPaid * Money.BASIS_POINTS_PER_UNIT / housingValue);
+        }
+    }
+
+    /**
+     * Incorpora a los totales un producto existente.
+     * Debe invocarse con el candado del producto adquirido o antes de operar sobre él, y una sola vez
+     * por producto.
+     *
+     * @param product Producto a incorporar
+     */
+    public void track(FinancialProduct product) {
+        int type = typeOf(product);
+        products[type].increment();
+        balances[type].add(product.getBalance());
+        if (product instanceof CheckingAccount) {
+            changeOverdraft(0, product.getBalance());
+        } else if (product instanceof SavingsAccount savings) {
+            accumulatedInterest.add(savings.getAccumulatedInterest());
+        } else if (product instanceof HousingSavingsAccount account) {
+            HousingTotals totals = housing.get(account.getClassification());
+            totals.accounts.increment();
+            totals.totalPaid.add(account.getTotalPaid());
+            totals.housingValue.add(account.getTotalHousingValue());
+        }
+    }
+
+    @Override
+    public void onProductCreated(FinancialProduct product) {
+        track(product);
+    }
+
+    @Override
+    public void onOperationApplied(FinancialProduct product, OperationResult result) {
+        long amount = result.getOperationType() == OperationType.WITHDRAWAL ? -result.getAmount() : result.getAmount();
+        applyChange(product, result.getBalance(), amount, result.getInterest());
+    }
+
+    @Override
+    public void onTransferApplied(FinancialProduct source, FinancialProduct target, OperationResult result) {
+        applyChange(source, result.getBalance(), -result.getAmount(), 0);
+        applyChange(target, result.getTargetBalance(), result.getAmount(), result.getInterest());
+    }
+
+    @Override
+    public void onInterestAccrued(SavingsAccount account, long interest, LocalDate businessDate) {
+        accumulatedInterest.add(interest);
+    }
+
+    /**
+     * Obtiene el saldo total de los productos de un tipo.
+     *
+     * @param type Tipo de producto; FinancialProduct suma todos los productos
+     * @return Saldo total
+     */
+    public long getTotalBalance(Class<? extends FinancialProduct> type) {
+        return sum(balances, type);
+    }
+
+    /**
+     * Obtiene la cantidad de productos de un tipo.
+     *
+     * @param type Tipo de producto; FinancialProduct cuenta todos los productos
+     * @return Cantidad de productos
+     */
+    public long getProductCount(Class<? extends FinancialProduct> type) {
+        return sum(products, type);
+    }
+
+    /**
+     * Obtiene el sobregiro usado por todas las cuentas corrientes, es decir, la suma de sus saldos negativos.
+     *
+     * @return Sobregiro usado, como monto positivo
+     */
+    public long getOverdraftUsed() {
+        return overdraftUsed.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de cuentas corrientes en sobregiro.
+     *
+     * @return Cantidad de cuentas
+     */
+    public long getOverdrawnAccounts() {
+        return overdrawnAccounts.sum();
+    }
+
+    /**
+     * Obtiene el interés acumulado por todas las cuentas de ahorro.
+     *
+     * @return Interés acumulado
+     */
+    public long getAccumulatedInterest() {
+        return accumulatedInterest.sum();
+    }
+
+    /**
+     * Obtiene el avance del ahorro para vivienda de una clasificación.
+     *
+     * @param classification Clasificación de la vivienda
+     * @return Avance de la clasificación
+     */
+    public HousingProgress getHousingProgress(HousingClassification classification) {
+        HousingTotals totals = housing.get(classification);
+        return new HousingProgress(totals.accounts.sum(), totals.totalPaid.sum(), totals.housingValue.sum());
+    }
+
+    /**
+     * Suma a los totales el efecto de un depósito o retiro ya aplicado sobre un producto.
+     *
+     * @param product  Producto afectado
+     * @param balance  Saldo del producto después de la operación
+     * @param amount   Monto con signo: positivo si entró dinero al producto, negativo si salió
+     * @param interest Interés generado por la operación
+     */
+    private void applyChange(FinancialProduct product, long balance, long amount, long interest) {
+        balances[typeOf(product)].add(amount);
+        if (product instanceof CheckingAccount) {
+            changeOverdraft(balance - amount, balance);
+        } else if (product instanceof SavingsAccount) {
+            accumulatedInterest.add(interest);
+        } else if (product instanceof HousingSavingsAccount account && amount > 0) {
+            housing.get(account.getClassification()).totalPaid.add(amount);
+        }
+    }
+
+    private void changeOverdraft(long previousBalance, long balance) {
+        long previousUsed = Math.max(0, -previousBalance);
+        long used = Math.max(0, -balance);
+        if (used != previousUsed) {
+            overdraftUsed.add(used - previousUsed);
+        }
+        if (previousBalance >= 0 && balance < 0) {
+            overdrawnAccounts.increment();
+        } else if (previousBalance < 0 && balance >= 0) {
+            overdrawnAccounts.decrement();
+        }
+    }
+
+    private long sum(LongAdder[] adders, Class<? extends FinancialProduct> type) {
+        if (type == FinancialProduct.class) {
+            long total = 0;
+            for (LongAdder adder : adders) {
+                total += adder.sum();
+            }
+            return total;
+        }
+        int index = ACCOUNT_TYPES.indexOf(type);
+        return index < 0 ? 0 : adders[index].sum();
+    }
+
+    /**
+     * Obtiene la posición del tipo de un producto; los productos de otros tipos van en la última.
+     */
+    private static int typeOf(FinancialProduct product) {
+        for (int i = 0; i < ACCOUNT_TYPES.size(); i++) {
+            if (ACCOUNT_TYPES.get(i).isInstance(product)) {
+                return i;
+            }
+        }
+        return ACCOUNT_TYPES.size();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Totales de las cuentas de ahorro para vivienda de una clasificación.
+     */
+    private static final class HousingTotals {
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder totalPaid = new LongAdder();
+        private final LongAdder housingValue = new LongAdder();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.financial_products_management.domain.financial_company;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de candados repartidos por número de producto (lock striping).
+ * Las operaciones sobre un mismo producto siempre usan el mismo candado, por lo que
+ * son linealizables, mientras que las operaciones sobre productos distintos se
+ * reparten entre franjas diferentes y pueden ejecutarse en paralelo.
+ * La franja se elige por el valor numérico del número de producto, el mismo con el que lo
+ * indexa el repositorio, de modo que dos textos del mismo producto ("001" y "1") comparten candado.
+ */
+class StripedLocks {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * Crea un conjunto de candados con al menos la cantidad de franjas indicada.
+     * La cantidad se redondea a la siguiente potencia de dos.
+     *
+     * @param minimumStripes Cantidad mínima de franjas
+     */
+    StripedLocks(int minimumStripes) {
+        int stripes = Integer.highestOneBit(Math.max(1, minimumStripes - 1)) << 1;
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Crea un conjunto de candados dimensionado según los procesadores disponibles.
+     */
+    StripedLocks() {
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    /**
+     * Obtiene el candado que protege a un producto.
+     *
+     * @param product Producto a proteger
+     * @return Candado de la franja del producto
+     */
+    ReentrantLock lockFor(FinancialProduct product) {
+        return lockFor(product.getProductNumber());
+    }
+
+    /**
+     * Obtiene el candado que protege al producto con el número indicado.
+     *
+     * @param productNumber Número del producto
+     * @return Candado de la franja del producto
+     */
+    ReentrantLock lockFor(String productNumber) {
+        return locks[stripeOf(productNumber)];
+    }
+
+    /**
+     * Obtiene el candado que protege al producto con el valor numérico indicado.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Candado de la franja del producto
+     */
+    ReentrantLock lockFor(long productNumber) {
+        return locks[stripeOf(productNumber)];
+    }
+
+    /**
+     * Obtiene la franja que corresponde a un número de producto.
+     * Las franjas definen el orden global en que deben adquirirse varios candados.
+     *
+     * @param productNumber Número del producto
+     * @return Índice de la franja
+     */
+    int stripeOf(String productNumber) {
+        return stripeOf(ProductNumbers.parse(productNumber));
+    }
+
+    /**
+     * Obtiene la franja que corresponde al valor numérico de un número de producto.
+     * Los números que no son enteros válidos comparten una franja.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Índice de la franja
+     */
+    int stripeOf(long productNumber) {
+        return (int) (ProductNumbers.hash(productNumber) >>> Integer.SIZE) & mask;
+    }
+
+    /**
+     * Obtiene la cantidad de franjas.
+     *
+     * @return Cantidad de franjas
+     */
+    int size() {
+        return locks.length;
+    }
+
+    /**
+     * Obtiene el candado de una franja.
+     *
+     * @param stripe Índice de la franja
+     * @return Candado de la franja
+     */
+    ReentrantLock lockAt(int stripe) {
+        return locks[stripe];
+    }
+}
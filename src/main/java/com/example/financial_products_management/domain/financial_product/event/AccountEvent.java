@@ -0,0 +1,19 @@
+package com.example.financial_products_management.domain.financial_product.event;
+
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.time.LocalDate;
+
+/**
+ * Evento inmutable del historial de un producto financiero.
+ * Registra los hechos de una operación aplicada tal como ocurrieron, incluido el interés
+ * calculado en ese momento, de modo que reproducir el historial no depende de las reglas vigentes.
+ * Todos los montos se expresan en centavos.
+ *
+ * @param version       Posición del evento en el historial del producto, comenzando en 1
+ * @param operationType Tipo de operación (depósito, retiro o causación de intereses)
+ * @param amount        Monto de la operación (cero en causaciones de intereses)
+ * @param interest      Interés generado por la operación (cero si no aplica)
+ * @param date          Fecha en que se aplicó la operación
+ */
+public record AccountEvent(long version, OperationType operationType, long amount, long interest, LocalDate date) {
+}
@@ -0,0 +1,146 @@
+package com.example.financial_products_management.domain.financial_product.event;
+
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Historial de eventos de un producto financiero, de solo anexado.
+ * Los eventos se almacenan por columnas en arreglos primitivos, de modo que anexar un evento
+ * es una escritura secuencial sin crear objetos por evento. Junto al historial se mantiene la
+ * proyección del estado actual, actualizada en cada anexado, por lo que consultar el estado
+ * no requiere recorrer los eventos.
+ * Un solo hilo anexa a la vez (el que tiene adquirido el candado del producto); las consultas
+ * pueden hacerse desde cualquier hilo sin candados y observan un prefijo consistente del historial.
+ */
+public class AccountEventLog {
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    private final AccountProjection initial;
+    private byte[] operationTypes;
+    private long[] amounts;
+    private long[] interests;
+    private long[] dates;
+    private volatile int size;
+    private volatile AccountProjection current;
+
+    /**
+     * Crea un historial vacío.
+     *
+     * @param initial Estado del producto al comenzar el historial
+     */
+    public AccountEventLog(AccountProjection initial) {
+        this.initial = initial;
+        this.current = initial;
+        this.operationTypes = new byte[4];
+        this.amounts = new long[4];
+        this.interests = new long[4];
+        this.dates = new long[4];
+    }
+
+    /**
+     * Anexa un evento y actualiza la proyección.
+     * Debe invocarse con el candado del producto adquirido.
+     *
+     * @param operationType Tipo de operación (depósito, retiro o causación de intereses)
+     * @param amount        Monto de la operación en centavos
+     * @param interest      Interés generado en centavos
+     * @param date          Fecha de la operación
+     * @return Proyección con el evento aplicado
+     * @throws IllegalArgumentException Si el tipo de operación es una transferencia
+     */
+    public AccountProjection append(OperationType operationType, long amount, long interest, LocalDate date) {
+        AccountProjection next = current.apply(operationType, amount, interest, date);
+        int index = size;
+        if (index == amounts.length) {
+            int capacity = index * 2;
+            operationTypes = Arrays.copyOf(operationTypes, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            interests = Arrays.copyOf(interests, capacity);
+            dates = Arrays.copyOf(dates, capacity);
+        }
+        operationTypes[index] = (byte) operationType.ordinal();
+        amounts[index] = amount;
+        interests[index] = interest;
+        dates[index] = date.toEpochDay();
+        current = next;
+        // Publica el evento: quien lea el nuevo tamaño observa también los arreglos escritos
+        size = index + 1;
+        return next;
+    }
+
+    /**
+     * Obtiene la cantidad de eventos del historial.
+     *
+     * @return Cantidad de eventos
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Obtiene un evento del historial.
+     *
+     * @param index Posición del evento, comenzando en cero
+     * @return Evento en esa posición
+     * @throws IndexOutOfBoundsException Si la posición no existe
+     */
+    public AccountEvent get(int index) {
+        int count = size;
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Evento inexistente: " + index);
+        }
+        return new AccountEvent(initial.version() + index + 1, OPERATION_TYPES[operationTypes[index]],
+                amounts[index], interests[index], LocalDate.ofEpochDay(dates[index]));
+    }
+
+    /**
+     * Obtiene los eventos del historial.
+     *
+     * @return Copia de los eventos en el orden en que se aplicaron
+     */
+    public List<AccountEvent> events() {
+        int count = size;
+        List<AccountEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(get(i));
+        }
+        return events;
+    }
+
+    /**
+     * Obtiene el estado del producto al comenzar el historial.
+     *
+     * @return Proyección inicial
+     */
+    public AccountProjection getInitial() {
+        return initial;
+    }
+
+    /**
+     * Obtiene el estado actual del producto sin recorrer el historial.
+     *
+     * @return Proyección actual
+     */
+    public AccountProjection getCurrent() {
+        return current;
+    }
+
+    /**
+     * Reconstruye el estado aplicando todos los eventos sobre el estado inicial.
+     * Permite auditar que la proyección mantenida coincide con el historial.
+     *
+     * @return Proyección reconstruida
+     */
+    public AccountProjection replay() {
+        int count = size;
+        AccountProjection projection = initial;
+        for (int i = 0; i < count; i++) {
+            projection = projection.apply(OPERATION_TYPES[operationTypes[i]], amounts[i], interests[i],
+                    LocalDate.ofEpochDay(dates[i]));
+        }
+        return projection;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.financial_products_management.domain.financial_product.event;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.time.LocalDate;
+
+/**
+ * Estado de un producto financiero obtenido a partir de su historial de eventos.
+ * Es inmutable: aplicar un evento produce una nueva proyección, por lo que puede publicarse
+ * y consultarse desde cualquier hilo sin candados.
+ * Reúne los datos que cada tipo de cuenta mantiene: el interés acumulado de la cuenta de ahorro,
+ * el total pagado de la cuenta de vivienda (total depositado), la última operación de la cuenta
+ * corriente y el último retiro de la cuenta salario.
+ * Todos los montos se expresan en centavos.
+ *
+ * @param version              Cantidad de eventos aplicados desde el estado inicial del historial
+ * @param balance              Saldo
+ * @param accumulatedInterest  Intereses acumulados
+ * @param totalDeposited       Total depositado
+ * @param lastDepositDate      Fecha del último depósito, o null si no hay
+ * @param lastDepositAmount    Monto del último depósito
+ * @param lastWithdrawalDate   Fecha del último retiro, o null si no hay
+ * @param lastWithdrawalAmount Monto del último retiro
+ * @param lastOperationType    Tipo de la última operación, o null si no hay
+ */
+public record AccountProjection(long version, long balance, long accumulatedInterest, long totalDeposited,
+                                LocalDate lastDepositDate, long lastDepositAmount,
+                                LocalDate lastWithdrawalDate, long lastWithdrawalAmount,
+                                OperationType lastOperationType) {
+
+    /**
+     * Captura el estado actual de un producto como punto de partida de su historial.
+     * Debe invocarse con el candado del producto adquirido.
+     *
+     * @param product Producto a capturar
+     * @return Proyección con versión cero
+     */
+    public static AccountProjection of(FinancialProduct product) {
+        long balance = product.getBalance();
+        if (product instanceof SavingsAccount savings) {
+            return new AccountProjection(0, balance, savings.getAccumulatedInterest(), 0,
+                    savings.getLastDepositDate(), savings.getLastDepositAmount(), null, 0,
+                    savings.getLastDepositDate() != null ? OperationType.DEPOSIT : null);
+        }
+        if (product instanceof CheckingAccount checking) {
+            OperationType type = checking.getLastOperationType();
+            return type == OperationType.WITHDRAWAL
+                    ? new AccountProjection(0, balance, 0, 0, null, 0,
+                    checking.getLastOperationDate(), checking.getLastOperationAmount(), type)
+                    : new AccountProjection(0, balance, 0, 0,
+                    checking.getLastOperationDate(), checking.getLastOperationAmount(), null, 0, type);
+        }
+        if (product instanceof HousingSavingsAccount housing) {
+            return new AccountProjection(0, balance, 0, housing.getTotalPaid(),
+                    housing.getLastPaymentDate(), housing.getLastPaymentAmount(), null, 0,
+                    housing.getLastPaymentDate() != null ? OperationType.DEPOSIT : null);
+        }
+        if (product instanceof SalaryAccount salary) {
+            return new AccountProjection(0, balance, 0, 0, null, 0,
+                    salary.getLastWithdrawalDate(), salary.getLastWithdrawalAmount(),
+                    salary.getLastWithdrawalDate() != null ? OperationType.WITHDRAWAL : null);
+        }
+        return new AccountProjection(0, balance, 0, 0, null, 0, null, 0, null);
+    }
+
+    /**
+     * Aplica un evento sobre la proyección.
+     *
+     * @param event Evento a aplicar
+     * @return Nueva proyección con el evento aplicado
+     */
+    public AccountProjection apply(AccountEvent event) {
+        return apply(event.operationType(), event.amount(), event.interest(), event.date());
+    }
+
+    /**
+     * Aplica una operación sobre la proyección.
+     *
+     * @param operationType Tipo de operación (depósito, retiro o causación de intereses)
+     * @param amount        Monto de la operación en centavos
+     * @param interest      Interés generado en centavos
+     * @param date          Fecha de la operación
+     * @return Nueva proyección con la operación aplicada
+     * @throws IllegalArgumentException Si el tipo de operación es una transferencia
+     */
+    AccountProjection apply(OperationType operationType, long amount, long interest, LocalDate date) {
+        return switch (operationType) {
+            case DEPOSIT -> new AccountProjection(version + 1, balance + amount, accumulatedInterest + interest,
+                    totalDeposited + amount, date, amount, lastWithdrawalDate, lastWithdrawalAmount, operationType);
+            case WITHDRAWAL -> new AccountProjection(version + 1, balance - amount, accumulatedInterest,
+                    totalDeposited, lastDepositDate, lastDepositAmount, date, amount, operationType);
+            case INTEREST_ACCRUAL -> new AccountProjection(version + 1, balance, accumulatedInterest + interest,
+                    totalDeposited, lastDepositDate, lastDepositAmount, lastWithdrawalDate, lastWithdrawalAmount,
+                    lastOperationType);
+            case TRANSFER -> throw new IllegalArgumentException(
+                    "Las transferencias se registran como un retiro y un depósito");
+        };
+    }
+
+    /**
+     * Obtiene la fecha de la última operación, sea depósito o retiro.
+     *
+     * @return Fecha de la última operación, o null si no hay
+     */
+    public LocalDate lastOperationDate() {
+        return lastOperationType == OperationType.WITHDRAWAL ? lastWithdrawalDate : lastDepositDate;
+    }
+
+    /**
+     * Obtiene el monto de la última operación, sea depósito o retiro.
+     *
+     * @return Monto de la última operación en centavos
+     */
+    public long lastOperationAmount() {
+        return lastOperationType == OperationType.WITHDRAWAL ? lastWithdrawalAmount : lastDepositAmount;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.financial_products_management.domain.financial_product.event;
+
+import com.example.financial_products_management.domain.financial_company.OperationListener;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.BusinessDate;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro de eventos de todos los productos financieros.
+ * Cada operación aplicada por FinancialCompany se convierte en un evento inmutable del historial
+ * de su producto, y la proyección del estado de ese producto se actualiza en el mismo momento.
+ * Una transferencia se registra como un retiro en el historial del origen y un depósito en el
+ * del destino, y la causación diaria de intereses como un evento propio. Como las notificaciones
+ * llegan con el candado del producto adquirido, el orden de cada historial coincide con el orden
+ * en que se aplicaron las operaciones.
+ * Los productos creados antes de registrar este observador deben incorporarse con
+ * {@link #track(FinancialProduct)}.
+ */
+public class EventSourcedLedger implements OperationListener {
+    // Historiales por valor numérico del número: "001" y "1" son el mismo producto
+    private final Map<Long, AccountEventLog> logs = new ConcurrentHashMap<>();
+
+    /**
+     * Comienza el historial de un producto a partir de su estado actual.
+     * Si el producto ya tiene historial, se conserva el existente.
+     * Debe invocarse con el candado del producto adquirido o antes de operar sobre él.
+     *
+     * @param product Producto a incorporar
+     * @return Historial del producto
+     */
+    public AccountEventLog track(FinancialProduct product) {
+        return logs.computeIfAbsent(ProductNumbers.parse(product.getProductNumber()),
+                number -> new AccountEventLog(AccountProjection.of(product)));
+    }
+
+    /**
+     * Obtiene el historial de un producto.
+     *
+     * @param productNumber Número del producto
+     * @return Historial del producto, o null si no se registra
+     */
+    public AccountEventLog getLog(String productNumber) {
+        return logs.get(ProductNumbers.parse(productNumber));
+    }
+
+    /**
+     * Obtiene el estado actual de un producto según su historial.
+     *
+     * @param productNumber Número del producto
+     * @return Proyección actual, o null si el producto no se registra
+     */
+    public AccountProjection getProjection(String productNumber) {
+        AccountEventLog log = getLog(productNumber);
+        return log == null ? null : log.getCurrent();
+    }
+
+    /**
+     * Obtiene los eventos registrados para un producto.
+     *
+     * @param productNumber Número del producto
+     * @return Eventos del producto, vacío si no se registra
+     */
+    public List<AccountEvent> getHistory(String productNumber) {
+        AccountEventLog log = getLog(productNumber);
+        return log == null ? List.of() : log.events();
+    }
+
+    /**
+     * Obtiene la cantidad de productos con historial.
+     *
+     * @return Cantidad de productos
+     */
+    public int size() {
+        return logs.size();
+    }
+
+    @Override
+    public void onProductCreated(FinancialProduct product) {
+        track(product);
+    }
+
+    @Override
+    public void onOperationApplied(FinancialProduct product, OperationResult result) {
+        append(product, result.getOperationType(), result.getAmount(), result.getInterest());
+    }
+
+    @Override
+    public void onTransferApplied(FinancialProduct source, FinancialProduct target, OperationResult result) {
+        append(source, OperationType.WITHDRAWAL, result.getAmount(), 0);
+        append(target, OperationType.DEPOSIT, result.getAmount(), result.getInterest());
+    }
+
+    @Override
+    public void onInterestAccrued(SavingsAccount account, long interest, LocalDate businessDate) {
+        AccountEventLog log = logs.get(ProductNumbers.parse(account.getProductNumber()));
+        if (log == null) {
+            track(account);
+            return;
+        }
+        log.append(OperationType.INTEREST_ACCRUAL, 0, interest, businessDate);
+    }
+
+    /**
+     * Anexa un evento al historial de un producto.
+     * Si el producto no tenía historial, este comienza con su estado actual, que ya incluye la operación.
+     *
+     * @param product       Producto modificado
+     * @param operationType Tipo de operación
+     * @param amount        Monto de la operación en centavos
+     * @param interest      Interés generado en centavos
+     */
+    private void append(FinancialProduct product, OperationType operationType, long amount, long interest) {
+        AccountEventLog log = logs.get(ProductNumbers.parse(product.getProductNumber()));
+        if (log == null) {
+            track(product);
+            return;
+        }
+        log.append(operationType, amount, interest, BusinessDate.today());
+    }
+}
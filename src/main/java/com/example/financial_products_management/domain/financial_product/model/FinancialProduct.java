@@ -1,6 +1,7 @@
 package com.example.financial_products_management.domain.financial_product.model;
 
 import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.shared.Money;
 import java.time.LocalDate;
 
 /**
@@ -8,12 +9,15 @@ import java.time.LocalDate;
  * Provee atributos y métodos comunes para todos los productos financieros.
  * Las operaciones bancarias específicas son implementadas por las clases derivadas
  * mediante las interfaces Depositable y Withdrawable según corresponda.
+ * Los montos se expresan en centavos (ver {@link Money}).
+ * El saldo es volátil para que las consultas concurrentes observen siempre el último valor;
+ * las modificaciones deben realizarse bajo el candado del producto que administra FinancialCompany.
  */
 public class FinancialProduct {
     private final String productNumber;
     private final LocalDate openingDate;
     private final Customer customer;
-    private double balance;
+    private volatile long balance;
 
     /**
      * Crea una nueva instancia de Producto Financiero.
@@ -21,9 +25,9 @@ public class FinancialProduct {
      * @param productNumber Número único que identifica el producto
      * @param openingDate   Fecha de apertura del producto
      * @param customer      Datos del titular del producto
-     * @param balance       Saldo inicial del producto
+     * @param balance       Saldo inicial del producto en centavos
      */
-    public FinancialProduct(String productNumber, LocalDate openingDate, Customer customer, double balance) {
+    public FinancialProduct(String productNumber, LocalDate openingDate, Customer customer, long balance) {
         this.productNumber = productNumber;
         this.openingDate = openingDate;
         this.customer = customer;
@@ -60,18 +64,18 @@ public class FinancialProduct {
     /**
      * Obtiene el saldo actual del producto.
      *
-     * @return Saldo actual
+     * @return Saldo actual en centavos
      */
-    public double getBalance() {
+    public long getBalance() {
         return balance;
     }
 
     /**
      * Establece el saldo del producto.
      *
-     * @param balance Nuevo saldo
+     * @param balance Nuevo saldo en centavos
      */
-    protected void setBalance(double balance) {
+    protected void setBalance(long balance) {
         this.balance = balance;
     }
 
@@ -89,7 +93,7 @@ public class FinancialProduct {
 
     @Override
     public String toString() {
-        return String.format("Número: %s; Fecha Apertura: %s; Tipo: %s; Saldo: $%.2f", 
-                productNumber, openingDate, getProductType(), balance);
+        return String.format("Número: %s; Fecha Apertura: %s; Tipo: %s; Saldo: $%s", 
+                productNumber, openingDate, getProductType(), Money.format(balance));
     }
 }
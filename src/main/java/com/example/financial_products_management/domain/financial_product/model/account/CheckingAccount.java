@@ -2,10 +2,13 @@ package com.example.financial_products_management.domain.financial_product.model
 
 import com.example.financial_products_management.domain.customer.Customer;
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.BusinessDate;
 import com.example.financial_products_management.domain.shared.Depositable;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
 import com.example.financial_products_management.domain.shared.Withdrawable;
 import com.example.financial_products_management.domain.shared.OperationType;
-import com.example.financial_products_management.exception.InsufficientFundsException;
 import java.time.LocalDate;
 
 /**
@@ -13,11 +16,12 @@ import java.time.LocalDate;
  * Incluye valor de sobregiro, fecha de la última operación, valor de la última operación y tipo de operación.
  * Permite sobregiro cuando el monto a retirar supera al saldo actual.
  * Implementa las interfaces Depositable y Withdrawable para operaciones bancarias completas.
+ * Todos los montos se expresan en centavos.
  */
 public class CheckingAccount extends FinancialProduct implements Depositable, Withdrawable {
-    private final double overdraftLimit;
+    private final long overdraftLimit;
     private LocalDate lastOperationDate;
-    private double lastOperationAmount;
+    private long lastOperationAmount;
     private OperationType lastOperationType;
 
     /**
@@ -29,11 +33,11 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
      * @param balance         Saldo inicial
      * @param overdraftLimit  Límite de sobregiro permitido
      */
-    public CheckingAccount(String productNumber, LocalDate openingDate, Customer customer, double balance, double overdraftLimit) {
+    public CheckingAccount(String productNumber, LocalDate openingDate, Customer customer, long balance, long overdraftLimit) {
         super(productNumber, openingDate, customer, balance);
         this.overdraftLimit = overdraftLimit;
         this.lastOperationDate = null;
-        this.lastOperationAmount = 0.0;
+        this.lastOperationAmount = 0;
         this.lastOperationType = null;
     }
 
@@ -42,7 +46,7 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
      *
      * @return Límite de sobregiro
      */
-    public double getOverdraftLimit() {
+    public long getOverdraftLimit() {
         return overdraftLimit;
     }
 
@@ -60,7 +64,7 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
      *
      * @return Valor de la última operación
      */
-    public double getLastOperationAmount() {
+    public long getLastOperationAmount() {
         return lastOperationAmount;
     }
 
@@ -73,6 +77,20 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
         return lastOperationType;
     }
 
+    /**
+     * Restaura la información de la última operación, por ejemplo al cargar la cuenta desde un snapshot.
+     * No realiza validaciones de negocio; no debe usarse para operar la cuenta.
+     *
+     * @param lastOperationDate   Fecha de la última operación o null si no hay
+     * @param lastOperationAmount Valor de la última operación en centavos
+     * @param lastOperationType   Tipo de la última operación o null si no hay
+     */
+    public void restoreState(LocalDate lastOperationDate, long lastOperationAmount, OperationType lastOperationType) {
+        this.lastOperationDate = lastOperationDate;
+        this.lastOperationAmount = lastOperationAmount;
+        this.lastOperationType = lastOperationType;
+    }
+
     @Override
     public String getProductType() {
         return "Cuenta Corriente";
@@ -82,18 +100,19 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
      * Realiza una operación de depósito.
      *
      * @param amount Monto a depositar
-     * @return Mensaje resultado de la operación
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
      */
     @Override
-    public String deposit(double amount) throws IllegalArgumentException {
+    public OperationStatus tryDeposit(long amount, OperationResult result) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("El monto a depositar debe ser mayor a cero");
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
         }
 
         setBalance(getBalance() + amount);
         updateLastOperation(amount, OperationType.DEPOSIT);
 
-        return String.format("Depósito exitoso. Nuevo saldo: $%.2f", getBalance());
+        return result.record(OperationStatus.DEPOSITED, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
     }
 
     /**
@@ -101,26 +120,29 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
      * Valida que el monto a retirar no supere al saldo más el sobregiro.
      *
      * @param amount Monto a retirar
-     * @return Mensaje resultado de la operación
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
      */
     @Override
-    public String withdraw(double amount) throws IllegalArgumentException, InsufficientFundsException {
+    public OperationStatus tryWithdraw(long amount, OperationResult result) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("El monto a retirar debe ser mayor a cero");
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
         }
 
         // Validar que el monto no supere el saldo
         if (amount > getBalance()) {
             // Validar que el monto no supere el saldo más el sobregiro
             if (amount > (getBalance() + overdraftLimit)) {
-                throw new InsufficientFundsException(getBalance(), overdraftLimit, amount);
+                result.record(OperationStatus.OVERDRAFT_LIMIT_EXCEEDED, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
+                result.setLimit(overdraftLimit);
+                return result.getStatus();
             }
         }
 
         setBalance(getBalance() - amount);
         updateLastOperation(amount, OperationType.WITHDRAWAL);
 
-        return String.format("Retiro exitoso. Nuevo saldo: $%.2f", getBalance());
+        return result.record(OperationStatus.WITHDRAWN, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
     }
 
     /**
@@ -129,18 +151,18 @@ public class CheckingAccount extends FinancialProduct implements Depositable, Wi
      * @param amount        Monto de la operación
      * @param operationType Tipo de operación
      */
-    private void updateLastOperation(double amount, OperationType operationType) {
-        this.lastOperationDate = LocalDate.now();
+    private void updateLastOperation(long amount, OperationType operationType) {
+        this.lastOperationDate = BusinessDate.today();
         this.lastOperationAmount = amount;
         this.lastOperationType = operationType;
     }
 
     @Override
     public String toString() {
-        return super.toString() + String.format("; Sobregiro: $%.2f; Última Operación: %s el %s por $%.2f", 
-                overdraftLimit,
+        return super.toString() + String.format("; Sobregiro: $%s; Última Operación: %s el %s por $%s", 
+                Money.format(overdraftLimit),
                 lastOperationType != null ? lastOperationType : "N/A",
                 lastOperationDate != null ? lastOperationDate : "N/A", 
-                lastOperationAmount);
+                Money.format(lastOperationAmount));
     }
 }
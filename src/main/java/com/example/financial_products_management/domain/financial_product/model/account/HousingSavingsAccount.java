@@ -2,8 +2,13 @@ package com.example.financial_products_management.domain.financial_product.model
 
 import com.example.financial_products_management.domain.customer.Customer;
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.BusinessDate;
 import com.example.financial_products_management.domain.shared.Depositable;
+import com.example.financial_products_management.domain.shared.Money;
 import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
 import java.time.LocalDate;
 
 /**
@@ -12,13 +17,14 @@ import java.time.LocalDate;
  * Valida que el valor total pagado no supere el valor total de la vivienda.
  * Esta cuenta solo permite depósitos, no retiros.
  * Implementa únicamente la interfaz Depositable, ya que no permite operaciones de retiro.
+ * Todos los montos se expresan en centavos.
  */
 public class HousingSavingsAccount extends FinancialProduct implements Depositable {
-    private final double totalHousingValue;
+    private final long totalHousingValue;
     private final HousingClassification classification;
     private LocalDate lastPaymentDate;
-    private double lastPaymentAmount;
-    private double totalPaid;
+    private long lastPaymentAmount;
+    private long totalPaid;
 
     /**
      * Crea una nueva instancia de Cuenta de Ahorro Programado para Vivienda.
@@ -31,13 +37,13 @@ public class HousingSavingsAccount extends FinancialProduct implements Depositab
      * @param classification     Clasificación comercial de la vivienda
      */
     public HousingSavingsAccount(String productNumber, LocalDate openingDate, Customer customer, 
-                                double balance, double totalHousingValue, HousingClassification classification) {
+                                long balance, long totalHousingValue, HousingClassification classification) {
         super(productNumber, openingDate, customer, balance);
         this.totalHousingValue = totalHousingValue;
         this.classification = classification;
         this.lastPaymentDate = null;
-        this.lastPaymentAmount = 0.0;
-        this.totalPaid = 0.0;
+        this.lastPaymentAmount = 0;
+        this.totalPaid = 0;
     }
 
     /**
@@ -45,7 +51,7 @@ public class HousingSavingsAccount extends FinancialProduct implements Depositab
      *
      * @return Valor total de la vivienda
      */
-    public double getTotalHousingValue() {
+    public long getTotalHousingValue() {
         return totalHousingValue;
     }
 
@@ -72,7 +78,7 @@ public class HousingSavingsAccount extends FinancialProduct implements Depositab
      *
      * @return Valor del último pago
      */
-    public double getLastPaymentAmount() {
+    public long getLastPaymentAmount() {
         return lastPaymentAmount;
     }
 
@@ -81,10 +87,24 @@ public class HousingSavingsAccount extends FinancialProduct implements Depositab
      *
      * @return Total pagado
      */
-    public double getTotalPaid() {
+    public long getTotalPaid() {
         return totalPaid;
     }
 
+    /**
+     * Restaura el estado de pagos de la cuenta, por ejemplo al cargarla desde un snapshot.
+     * No realiza validaciones de negocio; no debe usarse para operar la cuenta.
+     *
+     * @param lastPaymentDate   Fecha del último pago o null si no hay
+     * @param lastPaymentAmount Valor del último pago en centavos
+     * @param totalPaid         Total pagado en centavos
+     */
+    public void restoreState(LocalDate lastPaymentDate, long lastPaymentAmount, long totalPaid) {
+        this.lastPaymentDate = lastPaymentDate;
+        this.lastPaymentAmount = lastPaymentAmount;
+        this.totalPaid = totalPaid;
+    }
+
     @Override
     public String getProductType() {
         return "Cuenta de Ahorro Programado para Vivienda";
@@ -95,37 +115,39 @@ public class HousingSavingsAccount extends FinancialProduct implements Depositab
      * Valida que el valor total pagado no supere el valor total de la vivienda.
      *
      * @param amount Monto a depositar
-     * @return Mensaje resultado de la operación
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
      */
     @Override
-    public String deposit(double amount) throws IllegalArgumentException {
+    public OperationStatus tryDeposit(long amount, OperationResult result) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("El monto a depositar debe ser mayor a cero");
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
         }
 
         setBalance(getBalance() + amount);
         totalPaid += amount;
-        lastPaymentDate = LocalDate.now();
+        lastPaymentDate = BusinessDate.today();
         lastPaymentAmount = amount;
 
         // Validar si el valor total pagado supera el valor de la vivienda
-        if (totalPaid > totalHousingValue) {
-            return String.format("Depósito exitoso. Nuevo saldo: $%.2f. VALOR TOTAL PAGADO SUPERA EL VALOR DE LA VIVIENDA.", 
-                    getBalance());
-        }
+        OperationStatus status = totalPaid > totalHousingValue
+                ? OperationStatus.HOUSING_VALUE_EXCEEDED
+                : OperationStatus.HOUSING_PAYMENT_APPLIED;
 
-        return String.format("Depósito exitoso. Nuevo saldo: $%.2f. Total pagado: $%.2f de $%.2f", 
-                getBalance(), totalPaid, totalHousingValue);
+        result.record(status, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
+        result.setTotalPaid(totalPaid);
+        result.setLimit(totalHousingValue);
+        return status;
     }
 
 
     @Override
     public String toString() {
-        return super.toString() + String.format("; Valor Vivienda: $%.2f; Clasificación: %s; Total Pagado: $%.2f; Último Pago: %s por $%.2f", 
-                totalHousingValue,
+        return super.toString() + String.format("; Valor Vivienda: $%s; Clasificación: %s; Total Pagado: $%s; Último Pago: %s por $%s", 
+                Money.format(totalHousingValue),
                 classification,
-                totalPaid,
+                Money.format(totalPaid),
                 lastPaymentDate != null ? lastPaymentDate : "N/A", 
-                lastPaymentAmount);
+                Money.format(lastPaymentAmount));
     }
 }
@@ -2,9 +2,13 @@ package com.example.financial_products_management.domain.financial_product.model
 
 import com.example.financial_products_management.domain.customer.Customer;
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.BusinessDate;
 import com.example.financial_products_management.domain.shared.Depositable;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
 import com.example.financial_products_management.domain.shared.Withdrawable;
-import com.example.financial_products_management.exception.InsufficientFundsException;
 import java.time.LocalDate;
 
 /**
@@ -12,11 +16,17 @@ import java.time.LocalDate;
  * Incluye valor pagado como salario, fecha del último retiro y valor del último retiro.
  * Los retiros no deben superar al valor pagado como salario.
  * Implementa las interfaces Depositable y Withdrawable para operaciones bancarias completas.
+ * Todos los montos se expresan en centavos.
  */
 public class SalaryAccount extends FinancialProduct implements Depositable, Withdrawable {
-    private double salaryAmount;
+    /**
+     * Mensaje con que {@link #deposit(long)} informa un monto inválido.
+     */
+    public static final String INVALID_DEPOSIT_MESSAGE = "El monto a depositar debe ser mayor a cero.";
+
+    private long salaryAmount;
     private LocalDate lastWithdrawalDate;
-    private double lastWithdrawalAmount;
+    private long lastWithdrawalAmount;
 
     /**
      * Crea una nueva instancia de Cuenta Especial para Pago de Salario.
@@ -27,11 +37,11 @@ public class SalaryAccount extends FinancialProduct implements Depositable, With
      * @param balance       Saldo inicial
      * @param salaryAmount  Valor pagado como salario
      */
-    public SalaryAccount(String productNumber, LocalDate openingDate, Customer customer, double balance, double salaryAmount) {
+    public SalaryAccount(String productNumber, LocalDate openingDate, Customer customer, long balance, long salaryAmount) {
         super(productNumber, openingDate, customer, balance);
         this.salaryAmount = salaryAmount;
         this.lastWithdrawalDate = null;
-        this.lastWithdrawalAmount = 0.0;
+        this.lastWithdrawalAmount = 0;
     }
 
     /**
@@ -39,7 +49,7 @@ public class SalaryAccount extends FinancialProduct implements Depositable, With
      *
      * @return Valor del salario
      */
-    public double getSalaryAmount() {
+    public long getSalaryAmount() {
         return salaryAmount;
     }
 
@@ -48,7 +58,7 @@ public class SalaryAccount extends FinancialProduct implements Depositable, With
      *
      * @param salaryAmount Nuevo valor del salario
      */
-    public void setSalaryAmount(double salaryAmount) {
+    public void setSalaryAmount(long salaryAmount) {
         this.salaryAmount = salaryAmount;
     }
 
@@ -66,10 +76,22 @@ public class SalaryAccount extends FinancialProduct implements Depositable, With
      *
      * @return Valor del último retiro
      */
-    public double getLastWithdrawalAmount() {
+    public long getLastWithdrawalAmount() {
         return lastWithdrawalAmount;
     }
 
+    /**
+     * Restaura la información del último retiro, por ejemplo al cargar la cuenta desde un snapshot.
+     * No realiza validaciones de negocio; no debe usarse para operar la cuenta.
+     *
+     * @param lastWithdrawalDate   Fecha del último retiro o null si no hay
+     * @param lastWithdrawalAmount Valor del último retiro en centavos
+     */
+    public void restoreState(LocalDate lastWithdrawalDate, long lastWithdrawalAmount) {
+        this.lastWithdrawalDate = lastWithdrawalDate;
+        this.lastWithdrawalAmount = lastWithdrawalAmount;
+    }
+
     @Override
     public String getProductType() {
         return "Cuenta Especial para Pago de Salario";
@@ -77,19 +99,36 @@ public class SalaryAccount extends FinancialProduct implements Depositable, With
 
     /**
      * Realiza una operación de depósito.
+     * Un monto inválido se informa en el mensaje resultado en lugar de lanzar una excepción.
      *
      * @param amount Monto a depositar
      * @return Mensaje resultado de la operación
      */
     @Override
-    public String deposit(double amount) {
+    public String deposit(long amount) {
+        if (amount <= 0) {
+            return INVALID_DEPOSIT_MESSAGE;
+        }
+
+        return Depositable.super.deposit(amount);
+    }
+
+    /**
+     * Realiza una operación de depósito.
+     *
+     * @param amount Monto a depositar
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
+     */
+    @Override
+    public OperationStatus tryDeposit(long amount, OperationResult result) {
         if (amount <= 0) {
-            return "El monto a depositar debe ser mayor a cero.";
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
         }
 
         setBalance(getBalance() + amount);
 
-        return String.format("Depósito exitoso. Nuevo saldo: $%.2f", getBalance());
+        return result.record(OperationStatus.DEPOSITED, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
     }
 
     /**
@@ -97,38 +136,39 @@ public class SalaryAccount extends FinancialProduct implements Depositable, With
      * Valida que el retiro no supere al valor pagado como salario y que no supere al saldo.
      *
      * @param amount Monto a retirar
-     * @return Mensaje resultado de la operación
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
      */
     @Override
-    public String withdraw(double amount) throws IllegalArgumentException, InsufficientFundsException {
+    public OperationStatus tryWithdraw(long amount, OperationResult result) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("El monto a retirar debe ser mayor a cero");
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
         }
 
         // Validar que el retiro no supere al saldo
         if (amount > getBalance()) {
-            throw new InsufficientFundsException();
+            return result.record(OperationStatus.INSUFFICIENT_FUNDS, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
         }
 
         // Validar que el retiro no supere al valor pagado como salario (regla de negocio)
         if (amount > salaryAmount) {
-            throw new IllegalArgumentException(
-                String.format("El retiro ($%.2f) no puede superar el límite del salario ($%.2f)", 
-                    amount, salaryAmount));
+            result.record(OperationStatus.SALARY_LIMIT_EXCEEDED, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
+            result.setLimit(salaryAmount);
+            return result.getStatus();
         }
 
         setBalance(getBalance() - amount);
-        lastWithdrawalDate = LocalDate.now();
+        lastWithdrawalDate = BusinessDate.today();
         lastWithdrawalAmount = amount;
 
-        return String.format("Retiro exitoso. Nuevo saldo: $%.2f", getBalance());
+        return result.record(OperationStatus.WITHDRAWN, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
     }
 
     @Override
     public String toString() {
-        return super.toString() + String.format("; Salario: $%.2f; Último Retiro: %s por $%.2f", 
-                salaryAmount,
+        return super.toString() + String.format("; Salario: $%s; Último Retiro: %s por $%s", 
+                Money.format(salaryAmount),
                 lastWithdrawalDate != null ? lastWithdrawalDate : "N/A", 
-                lastWithdrawalAmount);
+                Money.format(lastWithdrawalAmount));
     }
 }
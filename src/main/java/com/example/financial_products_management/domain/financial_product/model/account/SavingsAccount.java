@@ -2,21 +2,33 @@ package com.example.financial_products_management.domain.financial_product.model
 
 import com.example.financial_products_management.domain.customer.Customer;
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.BusinessDate;
 import com.example.financial_products_management.domain.shared.Depositable;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
 import com.example.financial_products_management.domain.shared.Withdrawable;
-import com.example.financial_products_management.exception.InsufficientFundsException;
 import java.time.LocalDate;
 
 /**
  * Representa una cuenta de ahorro.
  * Incluye valor acumulado por intereses, fecha del último depósito y valor del último depósito.
- * Calcula interés del 3% sobre el saldo en cada depósito.
+ * Calcula interés del 3% sobre el saldo en cada depósito, y acumula además el interés diario
+ * causado por el cierre de cada día hábil.
  * Implementa las interfaces Depositable y Withdrawable para operaciones bancarias completas.
+ * Todos los montos se expresan en centavos.
  */
 public class SavingsAccount extends FinancialProduct implements Depositable, Withdrawable {
-    private double accumulatedInterest;
+    /**
+     * Tasa de interés aplicada en cada depósito, en puntos básicos (300 = 3%).
+     */
+    public static final long INTEREST_RATE_BASIS_POINTS = 300;
+
+    private long accumulatedInterest;
     private LocalDate lastDepositDate;
-    private double lastDepositAmount;
+    private long lastDepositAmount;
+    private LocalDate lastAccrualDate;
 
     /**
      * Crea una nueva instancia de Cuenta de Ahorro.
@@ -26,11 +38,11 @@ public class SavingsAccount extends FinancialProduct implements Depositable, Wit
      * @param customer      Datos del titular
      * @param balance       Saldo inicial
      */
-    public SavingsAccount(String productNumber, LocalDate openingDate, Customer customer, double balance) {
+    public SavingsAccount(String productNumber, LocalDate openingDate, Customer customer, long balance) {
         super(productNumber, openingDate, customer, balance);
-        this.accumulatedInterest = 0.0;
+        this.accumulatedInterest = 0;
         this.lastDepositDate = null;
-        this.lastDepositAmount = 0.0;
+        this.lastDepositAmount = 0;
     }
 
     /**
@@ -38,7 +50,7 @@ public class SavingsAccount extends FinancialProduct implements Depositable, Wit
      *
      * @return Valor acumulado por intereses
      */
-    public double getAccumulatedInterest() {
+    public long getAccumulatedInterest() {
         return accumulatedInterest;
     }
 
@@ -56,10 +68,64 @@ public class SavingsAccount extends FinancialProduct implements Depositable, Wit
      *
      * @return Valor del último depósito
      */
-    public double getLastDepositAmount() {
+    public long getLastDepositAmount() {
         return lastDepositAmount;
     }
 
+    /**
+     * Obtiene la fecha del último día cuyo interés diario ya fue causado.
+     *
+     * @return Fecha de la última causación, o null si nunca se causaron intereses
+     */
+    public LocalDate getLastAccrualDate() {
+        return lastAccrualDate;
+    }
+
+    /**
+     * Restaura el estado acumulado de la cuenta, por ejemplo al cargarla desde un snapshot.
+     * No realiza validaciones de negocio; no debe usarse para operar la cuenta.
+     *
+     * @param accumulatedInterest Intereses acumulados en centavos
+     * @param lastDepositDate     Fecha del último depósito o null si no hay
+     * @param lastDepositAmount   Valor del último depósito en centavos
+     * @param lastAccrualDate     Fecha de la última causación de intereses o null si no hay
+     */
+    public void restoreState(long accumulatedInterest, LocalDate lastDepositDate, long lastDepositAmount,
+                             LocalDate lastAccrualDate) {
+        this.accumulatedInterest = accumulatedInterest;
+        this.lastDepositDate = lastDepositDate;
+        this.lastDepositAmount = lastDepositAmount;
+        this.lastAccrualDate = lastAccrualDate;
+    }
+
+    /**
+     * Indica si el interés diario del día indicado aún no ha sido causado.
+     *
+     * @param businessDate Día a causar
+     * @return true si la cuenta no tiene causado ese día ni uno posterior
+     */
+    public boolean isAccrualPending(LocalDate businessDate) {
+        return lastAccrualDate == null || lastAccrualDate.isBefore(businessDate);
+    }
+
+    /**
+     * Suma el interés causado de un día a los intereses acumulados.
+     * Como la fecha queda registrada, causar nuevamente el mismo día no tiene efecto, lo que
+     * permite repetir un proceso de causación interrumpido.
+     *
+     * @param interest     Interés causado en centavos
+     * @param businessDate Día al que corresponde el interés
+     * @return true si se causó, false si ese día ya estaba causado
+     */
+    public boolean accrueInterest(long interest, LocalDate businessDate) {
+        if (!isAccrualPending(businessDate)) {
+            return false;
+        }
+        accumulatedInterest += interest;
+        lastAccrualDate = businessDate;
+        return true;
+    }
+
     @Override
     public String getProductType() {
         return "Cuenta de Ahorro";
@@ -70,26 +136,27 @@ public class SavingsAccount extends FinancialProduct implements Depositable, Wit
      * Calcula un interés del 3% sobre el saldo y lo suma al valor acumulado por intereses.
      *
      * @param amount Monto a depositar
-     * @return Mensaje resultado de la operación
-     * @throws IllegalArgumentException Si el monto es inválido
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
      */
     @Override
-    public String deposit(double amount) throws IllegalArgumentException {
+    public OperationStatus tryDeposit(long amount, OperationResult result) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("El monto a depositar debe ser mayor a cero");
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
         }
 
         setBalance(getBalance() + amount);
         
         // Calcular interés del 3% sobre el saldo
-        double interest = getBalance() * 0.03;
+        long interest = Money.percentage(getBalance(), INTEREST_RATE_BASIS_POINTS);
         accumulatedInterest += interest;
         
-        lastDepositDate = LocalDate.now();
+        lastDepositDate = BusinessDate.today();
         lastDepositAmount = amount;
 
-        return String.format("Depósito exitoso. Nuevo saldo: $%.2f. Interés generado: $%.2f", 
-                getBalance(), interest);
+        result.record(OperationStatus.DEPOSITED_WITH_INTEREST, OperationType.DEPOSIT, getProductNumber(), amount, getBalance());
+        result.setInterest(interest);
+        return result.getStatus();
     }
 
     /**
@@ -97,29 +164,28 @@ public class SavingsAccount extends FinancialProduct implements Depositable, Wit
      * Valida que el monto a retirar no supere al saldo.
      *
      * @param amount Monto a retirar
-     * @return Mensaje resultado de la operación
-     * @throws IllegalArgumentException Si el monto es inválido
-     * @throws InsufficientFundsException Si no hay fondos suficientes
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
      */
     @Override
-    public String withdraw(double amount) throws IllegalArgumentException, InsufficientFundsException {
+    public OperationStatus tryWithdraw(long amount, OperationResult result) {
         if (amount <= 0) {
-            throw new IllegalArgumentException("El monto a retirar debe ser mayor a cero");
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
         }
 
         if (amount > getBalance()) {
-            throw new InsufficientFundsException();
+            return result.record(OperationStatus.INSUFFICIENT_FUNDS, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
         }
 
         setBalance(getBalance() - amount);
-        return String.format("Retiro exitoso. Nuevo saldo: $%.2f", getBalance());
+        return result.record(OperationStatus.WITHDRAWN, OperationType.WITHDRAWAL, getProductNumber(), amount, getBalance());
     }
 
     @Override
     public String toString() {
-        return super.toString() + String.format("; Intereses Acumulados: $%.2f; Último Depósito: %s por $%.2f", 
-                accumulatedInterest, 
+        return super.toString() + String.format("; Intereses Acumulados: $%s; Último Depósito: %s por $%s", 
+                Money.format(accumulatedInterest), 
                 lastDepositDate != null ? lastDepositDate : "N/A", 
-                lastDepositAmount);
+                Money.format(lastDepositAmount));
     }
 }
@@ -1,44 +1,96 @@
 package com.example.financial_products_management.domain.repository;
 
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementación del repositorio de productos financieros.
  * Gestiona el almacenamiento y consulta de productos financieros de manera simplificada.
  * Implementa el patrón Repository para separar la lógica de acceso a datos.
+ * Las búsquedas por número de producto usan una tabla indexada por el valor numérico del número y
+ * las búsquedas por cliente una tabla hash por identificación normalizada, de modo que ni las
+ * consultas ni la validación de un producto nuevo recorren la lista.
  *
  * @author 200582 Alexander Sandoval
  * @since 2025-09-20
  */
 public class FinancialCompanyRepository implements ProductRepository {
     private final List<FinancialProduct> products = new ArrayList<>();
+    private final ProductNumberMap productsByNumber = new ProductNumberMap();
+    private final Map<String, FinancialProduct> productsByCustomer = new HashMap<>();
 
     /**
      * Agrega un producto financiero al repositorio.
      * Valida que el cliente no tenga ya un producto registrado.
      *
      * @param product Producto a agregar
-     * @throws IllegalArgumentException Si el producto es nulo, ya existe, o el cliente ya tiene un producto
+     * @throws IllegalArgumentException Si el producto es nulo, su número no es un entero, ya existe,
+     *                                  el cliente no tiene identificación o ya tiene un producto
      */
     @Override
     public void addProduct(FinancialProduct product) throws IllegalArgumentException {
         if (product == null) {
             throw new IllegalArgumentException("El producto no puede ser nulo");
         }
-        
-        if (existsByProductNumber(product.getProductNumber())) {
+
+        long productNumber = numberOf(product);
+        if (productsByNumber.containsKey(productNumber)) {
             throw new IllegalArgumentException("Ya existe un producto con el número: " + product.getProductNumber());
         }
         
-        if (existsByCustomerIdentification(product.getCustomer().getIdentification())) {
+        String customerIdentification = identificationOf(product);
+        if (productsByCustomer.containsKey(customerIdentification)) {
             throw new IllegalArgumentException("El cliente ya tiene un producto registrado. Cada cliente puede tener solo un producto.");
         }
         
+        productsByNumber.putIfAbsent(productNumber, product);
+        productsByCustomer.put(customerIdentification, product);
         products.add(product);
     }
 
+    /**
+     * Agrega un lote de productos financieros al repositorio.
+     * Los números y los clientes se validan contra las tablas del repositorio y contra tablas
+     * propias del lote, sin recorrer la lista de productos registrados.
+     *
+     * @param products Productos a agregar
+     * @throws IllegalArgumentException Si algún producto es rechazado; en ese caso no se agrega ninguno
+     */
+    @Override
+    public void addAll(List<? extends FinancialProduct> products) throws IllegalArgumentException {
+        ProductNumberMap numbers = new ProductNumberMap(products.size());
+        Set<String> customers = new HashSet<>(products.size() * 2);
+
+        for (FinancialProduct product : products) {
+            if (product == null) {
+                throw new IllegalArgumentException("El producto no puede ser nulo");
+            }
+
+            long productNumber = numberOf(product);
+            if (productsByNumber.containsKey(productNumber) || !numbers.putIfAbsent(productNumber, product)) {
+                throw new IllegalArgumentException("Ya existe un producto con el número: " + product.getProductNumber());
+            }
+
+            String customerIdentification = identificationOf(product);
+            if (productsByCustomer.containsKey(customerIdentification) || !customers.add(customerIdentification)) {
+                throw new IllegalArgumentException("El cliente ya tiene un producto registrado. Cada cliente puede tener solo un producto.");
+            }
+        }
+
+        productsByNumber.ensureCapacity(productsByNumber.size() + products.size());
+        for (FinancialProduct product : products) {
+            productsByNumber.putIfAbsent(ProductNumbers.parse(product.getProductNumber()), product);
+            productsByCustomer.put(IndexedProductRepository.normalize(product.getCustomer().getIdentification()), product);
+        }
+        this.products.addAll(products);
+    }
+
     /**
      * Busca un producto por su número.
      *
@@ -47,14 +99,18 @@ public class FinancialCompanyRepository implements ProductRepository {
      */
     @Override
     public FinancialProduct findByProductNumber(String productNumber) {
-        if (productNumber == null || productNumber.trim().isEmpty()) {
-            return null;
-        }
-        
-        return products.stream()
-                .filter(product -> product.getProductNumber().equals(productNumber.trim()))
-                .findFirst()
-                .orElse(null);
+        return productsByNumber.get(ProductNumbers.parse(productNumber));
+    }
+
+    /**
+     * Busca un producto por el valor numérico de su número.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Producto encontrado o null si no existe
+     */
+    @Override
+    public FinancialProduct findByProductNumber(long productNumber) {
+        return productsByNumber.get(productNumber);
     }
 
     /**
@@ -66,14 +122,8 @@ public class FinancialCompanyRepository implements ProductRepository {
      */
     @Override
     public FinancialProduct findByCustomerIdentification(String customerIdentification) {
-        if (customerIdentification == null || customerIdentification.trim().isEmpty()) {
-            return null;
-        }
-        
-        return products.stream()
-                .filter(product -> product.getCustomer().getIdentification().equals(customerIdentification.trim()))
-                .findFirst()
-                .orElse(null);
+        String key = IndexedProductRepository.normalize(customerIdentification);
+        return key == null ? null : productsByCustomer.get(key);
     }
 
     /**
@@ -97,6 +147,28 @@ public class FinancialCompanyRepository implements ProductRepository {
         return new ArrayList<>(products);
     }
 
+    /**
+     * Obtiene la cantidad de productos registrados.
+     *
+     * @return Cantidad de productos
+     */
+    @Override
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Obtiene el producto registrado en una posición del orden de registro.
+     *
+     * @param position Posición del producto
+     * @return Producto de la posición
+     * @throws IndexOutOfBoundsException Si la posición está fuera de rango
+     */
+    @Override
+    public FinancialProduct findByPosition(int position) {
+        return products.get(position);
+    }
+
     /**
      * Verifica si existe un producto con el número dado.
      *
@@ -108,4 +180,33 @@ public class FinancialCompanyRepository implements ProductRepository {
         return findByProductNumber(productNumber) != null;
     }
 
+    /**
+     * Obtiene el valor numérico del número de un producto a registrar.
+     *
+     * @param product Producto a registrar
+     * @return Valor numérico del número del producto
+     * @throws IllegalArgumentException Si el número no es un entero válido
+     */
+    private static long numberOf(FinancialProduct product) {
+        long productNumber = ProductNumbers.parse(product.getProductNumber());
+        if (productNumber == ProductNumbers.NONE) {
+            throw new IllegalArgumentException("El número del producto debe ser un número entero válido");
+        }
+        return productNumber;
+    }
+
+    /**
+     * Obtiene la identificación normalizada del titular de un producto a registrar.
+     *
+     * @param product Producto a registrar
+     * @return Identificación del titular sin espacios en los extremos
+     * @throws IllegalArgumentException Si la identificación es nula o vacía
+     */
+    private static String identificationOf(FinancialProduct product) {
+        String customerIdentification = IndexedProductRepository.normalize(product.getCustomer().getIdentification());
+        if (customerIdentification == null) {
+            throw new IllegalArgumentException("La identificación del cliente es obligatoria");
+        }
+        return customerIdentification;
+    }
 }
@@ -0,0 +1,263 @@
+package com.example.financial_products_management.domain.repository;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación indexada del repositorio de productos financieros.
+ * Mantiene un índice primario por número de producto y un índice secundario por
+ * identificación del cliente, ambos basados en tablas hash, de modo que las consultas
+ * y las inserciones se resuelven en tiempo constante en lugar de recorrer toda la lista.
+ * El índice primario se indexa por el valor numérico del número, en una tabla de claves
+ * primitivas, para que las búsquedas no recorten ni comparen textos.
+ * Conserva la restricción de un producto por cliente.
+ * El orden de registro se guarda en páginas de tamaño fijo que solo crecen, de modo que el
+ * recorrido por posición no adquiere candados ni copia la lista de productos.
+ */
+public class IndexedProductRepository implements ProductRepository {
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final ProductNumberMap productsByNumber = new ProductNumberMap();
+    private final Map<String, FinancialProduct> productsByCustomer = new ConcurrentHashMap<>();
+    private volatile FinancialProduct[][] pages = new FinancialProduct[0][];
+    private volatile int count;
+
+    /**
+     * Agrega un producto financiero al repositorio.
+     * Valida que el número de producto y el cliente no estén registrados y actualiza
+     * ambos índices dentro de la misma sección crítica para mantenerlos sincronizados.
+     *
+     * @param product Producto a agregar
+     * @throws IllegalArgumentException Si el producto es nulo, su número no es un entero, ya existe,
+     *                                  el cliente no tiene identificación o ya tiene un producto
+     */
+    @Override
+    public synchronized void addProduct(FinancialProduct product) throws IllegalArgumentException {
+        if (product == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+
+        long productNumber = numberOf(product);
+        String customerIdentification = identificationOf(product);
+
+        if (productsByNumber.containsKey(productNumber)) {
+            throw new IllegalArgumentException("Ya existe un producto con el número: " + product.getProductNumber());
+        }
+
+        if (productsByCustomer.containsKey(customerIdentification)) {
+            throw new IllegalArgumentException("El cliente ya tiene un producto registrado. Cada cliente puede tener solo un producto.");
+        }
+
+        productsByCustomer.put(customerIdentification, product);
+        productsByNumber.putIfAbsent(productNumber, product);
+        append(product);
+    }
+
+    /**
+     * Agrega un lote de productos financieros al repositorio.
+     * Valida todo el lote contra los índices y contra los demás productos del lote antes de
+     * agregarlo, dentro de una única sección crítica.
+     *
+     * @param products Productos a agregar
+     * @throws IllegalArgumentException Si algún producto es rechazado; en ese caso no se agrega ninguno
+     */
+    @Override
+    public synchronized void addAll(List<? extends FinancialProduct> products) throws IllegalArgumentException {
+        ProductNumberMap numbers = new ProductNumberMap(products.size());
+        Set<String> customers = new HashSet<>(products.size() * 2);
+        for (FinancialProduct product : products) {
+            if (product == null) {
+                throw new IllegalArgumentException("El producto no puede ser nulo");
+            }
+
+            long productNumber = numberOf(product);
+            if (productsByNumber.containsKey(productNumber) || !numbers.putIfAbsent(productNumber, product)) {
+                throw new IllegalArgumentException("Ya existe un producto con el número: " + product.getProductNumber());
+            }
+
+            String customerIdentification = identificationOf(product);
+            if (productsByCustomer.containsKey(customerIdentification) || !customers.add(customerIdentification)) {
+                throw new IllegalArgumentException("El cliente ya tiene un producto registrado. Cada cliente puede tener solo un producto.");
+            }
+        }
+
+        productsByNumber.ensureCapacity(count + products.size());
+        for (FinancialProduct product : products) {
+            productsByCustomer.put(normalize(product.getCustomer().getIdentification()), product);
+            productsByNumber.putIfAbsent(ProductNumbers.parse(product.getProductNumber()), product);
+            append(product);
+        }
+    }
+
+    /**
+     * Busca un producto por su número.
+     *
+     * @param productNumber Número del producto
+     * @return Producto encontrado o null si no existe
+     */
+    @Override
+    public FinancialProduct findByProductNumber(String productNumber) {
+        return productsByNumber.get(ProductNumbers.parse(productNumber));
+    }
+
+    /**
+     * Busca un producto por el valor numérico de su número sin adquirir candados.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Producto encontrado o null si no existe
+     */
+    @Override
+    public FinancialProduct findByProductNumber(long productNumber) {
+        return productsByNumber.get(productNumber);
+    }
+
+    /**
+     * Busca el producto de un cliente por su identificación.
+     * Cada cliente puede tener solo un producto.
+     *
+     * @param customerIdentification Identificación del cliente
+     * @return Producto del cliente o null si no existe
+     */
+    @Override
+    public FinancialProduct findByCustomerIdentification(String customerIdentification) {
+        String key = normalize(customerIdentification);
+        return key == null ? null : productsByCustomer.get(key);
+    }
+
+    /**
+     * Verifica si un cliente ya tiene un producto registrado.
+     *
+     * @param customerIdentification Identificación del cliente
+     * @return true si el cliente ya tiene un producto, false en caso contrario
+     */
+    @Override
+    public boolean existsByCustomerIdentification(String customerIdentification) {
+        return findByCustomerIdentification(customerIdentification) != null;
+    }
+
+    /**
+     * Obtiene todos los productos en orden de registro.
+     *
+     * @return Lista de todos los productos
+     */
+    @Override
+    public List<FinancialProduct> getAllProducts() {
+        int total = count;
+        List<FinancialProduct> products = new ArrayList<>(total);
+        for (int position = 0; position < total; position++) {
+            products.add(findByPosition(position));
+        }
+        return products;
+    }
+
+    /**
+     * Obtiene la cantidad de productos registrados.
+     *
+     * @return Cantidad de productos
+     */
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Obtiene el producto registrado en una posición del orden de registro sin adquirir candados.
+     *
+     * @param position Posición del producto
+     * @return Producto de la posición
+     * @throws IndexOutOfBoundsException Si la posición está fuera de rango
+     */
+    @Override
+    public FinancialProduct findByPosition(int position) {
+        // La lectura de count publica los productos y páginas escritos antes de incrementarlo
+        int published = count;
+        if (position < 0 || position >= published) {
+            throw new IndexOutOfBoundsException("Posición fuera de rango: " + position);
+        }
+        return pages[position >>> PAGE_SHIFT][position & PAGE_MASK];
+    }
+
+    /**
+     * Verifica si existe un producto con el número dado.
+     *
+     * @param productNumber Número del producto
+     * @return true si existe, false en caso contrario
+     */
+    @Override
+    public boolean existsByProductNumber(String productNumber) {
+        return findByProductNumber(productNumber) != null;
+    }
+
+    /**
+     * Agrega un producto al final del orden de registro. Debe invocarse dentro de la sección crítica.
+     *
+     * @param product Producto a agregar
+     */
+    private void append(FinancialProduct product) {
+        int position = count;
+        int page = position >>> PAGE_SHIFT;
+        FinancialProduct[][] current = pages;
+        if (page == current.length) {
+            current = Arrays.copyOf(current, page + 1);
+            current[page] = new FinancialProduct[PAGE_SIZE];
+            pages = current;
+        }
+        current[page][position & PAGE_MASK] = product;
+        count = position + 1;
+    }
+
+    /**
+     * Obtiene el valor numérico del número de un producto a registrar.
+     *
+     * @param product Producto a registrar
+     * @return Valor numérico del número del producto
+     * @throws IllegalArgumentException Si el número no es un entero válido
+     */
+    private static long numberOf(FinancialProduct product) {
+        long productNumber = ProductNumbers.parse(product.getProductNumber());
+        if (productNumber == ProductNumbers.NONE) {
+            throw new IllegalArgumentException("El número del producto debe ser un número entero válido");
+        }
+        return productNumber;
+    }
+
+    /**
+     * Obtiene la identificación normalizada del titular de un producto a registrar.
+     *
+     * @param product Producto a registrar
+     * @return Identificación del titular sin espacios en los extremos
+     * @throws IllegalArgumentException Si la identificación es nula o vacía
+     */
+    private static String identificationOf(FinancialProduct product) {
+        String customerIdentification = normalize(product.getCustomer().getIdentification());
+        if (customerIdentification == null) {
+            throw new IllegalArgumentException("La identificación del cliente es obligatoria");
+        }
+        return customerIdentification;
+    }
+
+    /**
+     * Normaliza una clave de búsqueda eliminando espacios en los extremos.
+     * Los demás repositorios del paquete la usan para comparar identificaciones de la misma forma.
+     *
+     * @param key Clave a normalizar
+     * @return Clave normalizada o null si es nula o vacía
+     */
+    static String normalize(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        String trimmed = key.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
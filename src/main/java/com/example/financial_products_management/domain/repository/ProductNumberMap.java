@@ -0,0 +1,174 @@
+package com.example.financial_products_management.domain.repository;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto de números de producto a productos.
+ * Las claves se guardan en un arreglo de {@code long} y los productos en un arreglo paralelo, por lo
+ * que cada entrada ocupa una clave primitiva y una referencia, sin nodos ni claves en objetos.
+ * La ocupación nunca supera la mitad y las colisiones se resuelven por sondeo lineal.
+ * Un solo hilo inserta a la vez (el que serializa las altas del repositorio); las consultas no
+ * adquieren candados: cada producto se escribe antes de publicar su clave, y una tabla ampliada se
+ * publica completa.
+ */
+final class ProductNumberMap {
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private volatile Table table;
+    private int size;
+
+    /**
+     * Crea una tabla con capacidad para la cantidad de entradas indicada sin ampliarse.
+     *
+     * @param expectedSize Cantidad de entradas esperada
+     */
+    ProductNumberMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad mínima.
+     */
+    ProductNumberMap() {
+        this(0);
+    }
+
+    /**
+     * Busca el producto de un número sin adquirir candados.
+     *
+     * @param productNumber Valor numérico del número de producto
+     * @return Producto registrado o null si no existe
+     */
+    FinancialProduct get(long productNumber) {
+        if (productNumber == ProductNumbers.NONE) {
+            return null;
+        }
+
+        Table current = table;
+        long[] keys = current.keys;
+        int mask = keys.length - 1;
+        for (int slot = current.slotOf(productNumber); ; slot = (slot + 1) & mask) {
+            long key = (long) KEYS.getAcquire(keys, slot);
+            if (key == productNumber) {
+                return current.products[slot];
+            }
+            if (key == ProductNumbers.NONE) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Verifica si un número está registrado.
+     *
+     * @param productNumber Valor numérico del número de producto
+     * @return true si el número está registrado
+     */
+    boolean containsKey(long productNumber) {
+        return get(productNumber) != null;
+    }
+
+    /**
+     * Registra el producto de un número si este no estaba registrado.
+     * Debe invocarse desde un solo hilo a la vez.
+     *
+     * @param productNumber Valor numérico del número de producto; no puede ser {@link ProductNumbers#NONE}
+     * @param product       Producto a registrar
+     * @return true si se registró, false si el número ya estaba registrado
+     */
+    boolean putIfAbsent(long productNumber, FinancialProduct product) {
+        Table current = table;
+        if ((size + 1) * 2L > current.keys.length) {
+            current = resize(current, capacityFor(size + 1));
+        }
+
+        long[] keys = current.keys;
+        int mask = keys.length - 1;
+        int slot = current.slotOf(productNumber);
+        while (keys[slot] != ProductNumbers.NONE) {
+            if (keys[slot] == productNumber) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        current.products[slot] = product;
+        // La clave se publica después del producto para que una consulta que la vea también vea el producto
+        KEYS.setRelease(keys, slot, productNumber);
+        size++;
+        return true;
+    }
+
+    /**
+     * Amplía la tabla, si es necesario, para recibir la cantidad de entradas indicada sin volver a
+     * ampliarse. Permite insertar un lote con una sola reubicación.
+     *
+     * @param entries Cantidad total de entradas esperada
+     */
+    void ensureCapacity(int entries) {
+        Table current = table;
+        if (entries * 2L > current.keys.length) {
+            resize(current, capacityFor(entries));
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de entradas.
+     *
+     * @return Cantidad de entradas
+     */
+    int size() {
+        return size;
+    }
+
+    private Table resize(Table current, int capacity) {
+        Table larger = new Table(capacity);
+        long[] keys = current.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != ProductNumbers.NONE) {
+                larger.place(keys[i], current.products[i]);
+            }
+        }
+        table = larger;
+        return larger;
+    }
+
+    private static int capacityFor(int entries) {
+        return Math.max(MINIMUM_CAPACITY, Integer.highestOneBit(Math.max(1, entries * 2 - 1)) << 1);
+    }
+
+    /**
+     * Arreglos de una tabla de capacidad fija. La posición de cada clave se toma de los bits altos
+     * de su hash.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final FinancialProduct[] products;
+        private final int shift;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.products = new FinancialProduct[capacity];
+            this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+            Arrays.fill(keys, ProductNumbers.NONE);
+        }
+
+        private int slotOf(long productNumber) {
+            return (int) (ProductNumbers.hash(productNumber) >>> shift);
+        }
+
+        private void place(long productNumber, FinancialProduct product) {
+            int mask = keys.length - 1;
+            int slot = slotOf(productNumber);
+            while (keys[slot] != ProductNumbers.NONE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = productNumber;
+            products[slot] = product;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.financial_products_management.domain.repository;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import java.util.List;
+
+/**
+ * Página de productos obtenida de un repositorio a partir de un cursor.
+ * El cursor es una posición en el orden de registro; como los productos no se eliminan,
+ * una misma posición identifica siempre al mismo producto y las páginas son estables aunque
+ * se registren productos nuevos entre una consulta y la siguiente.
+ *
+ * @param products   Productos de la página, en orden de registro
+ * @param nextCursor Cursor para consultar la página siguiente, o -1 si el recorrido llegó al final
+ * @param <T>        Tipo de producto de la página
+ */
+public record ProductPage<T extends FinancialProduct>(List<T> products, int nextCursor) {
+
+    /**
+     * Indica si puede haber más productos después de esta página.
+     *
+     * @return true si existe un cursor para la página siguiente
+     */
+    public boolean hasMore() {
+        return nextCursor >= 0;
+    }
+}
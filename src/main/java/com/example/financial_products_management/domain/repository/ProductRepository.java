@@ -1,7 +1,11 @@
 package com.example.financial_products_management.domain.repository;
 
 import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Interfaz que define las operaciones de repositorio para productos financieros.
@@ -12,7 +16,8 @@ public interface ProductRepository {
      * Agrega un producto financiero al repositorio.
      *
      * @param product Producto a agregar
-     * @throws IllegalArgumentException Si el producto es nulo o inválido
+     * @throws IllegalArgumentException Si el producto es nulo o inválido, su cliente no tiene
+     *                                  identificación o ya tiene un producto
      */
     void addProduct(FinancialProduct product) throws IllegalArgumentException;
     
@@ -23,6 +28,19 @@ public interface ProductRepository {
      * @return Producto encontrado o null si no existe
      */
     FinancialProduct findByProductNumber(String productNumber);
+
+    /**
+     * Busca un producto por el valor numérico de su número, ya convertido con
+     * {@link ProductNumbers#parse(String)}.
+     * Permite que quien ya convirtió el número, por ejemplo para elegir un candado, no vuelva a
+     * convertirlo. Las implementaciones indexadas por número lo sobrescriben para no crear texto.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Producto encontrado o null si no existe
+     */
+    default FinancialProduct findByProductNumber(long productNumber) {
+        return productNumber == ProductNumbers.NONE ? null : findByProductNumber(Long.toString(productNumber));
+    }
     
     /**
      * Busca el producto de un cliente por su identificación.
@@ -43,10 +61,78 @@ public interface ProductRepository {
     
     /**
      * Obtiene todos los productos.
+     * Devuelve una copia del libro completo; para recorrerlo sin copiarlo debe usarse
+     * {@link #stream()} o {@link #findPage(Class, int, int)}.
      *
      * @return Lista de todos los productos
      */
     List<FinancialProduct> getAllProducts();
+
+    /**
+     * Obtiene la cantidad de productos registrados.
+     *
+     * @return Cantidad de productos
+     */
+    int size();
+
+    /**
+     * Obtiene el producto registrado en una posición del orden de registro.
+     * Los productos no se eliminan, por lo que una posición identifica siempre al mismo producto.
+     *
+     * @param position Posición del producto, entre cero y {@link #size()} excluido
+     * @return Producto de la posición
+     * @throws IndexOutOfBoundsException Si la posición está fuera de rango
+     */
+    FinancialProduct findByPosition(int position);
+
+    /**
+     * Recorre los productos en orden de registro sin copiarlos.
+     * El recorrido incluye los productos registrados al momento de invocarlo.
+     *
+     * @return Flujo de los productos
+     */
+    default Stream<FinancialProduct> stream() {
+        return StreamSupport.stream(new ProductSpliterator(this::findByPosition, 0, size()), false);
+    }
+
+    /**
+     * Recorre en orden de registro los productos de un tipo, sin copiarlos.
+     *
+     * @param type Tipo de producto; {@code FinancialProduct.class} incluye todos
+     * @param <T>  Tipo de producto
+     * @return Flujo de los productos del tipo indicado
+     */
+    default <T extends FinancialProduct> Stream<T> stream(Class<T> type) {
+        return stream().filter(type::isInstance).map(type::cast);
+    }
+
+    /**
+     * Obtiene una página de productos de un tipo a partir de un cursor.
+     * La página se construye leyendo solo las posiciones necesarias, sin copiar el libro.
+     *
+     * @param type   Tipo de producto; {@code FinancialProduct.class} incluye todos
+     * @param cursor Posición desde la que se continúa; cero para la primera página
+     * @param limit  Cantidad máxima de productos de la página
+     * @param <T>    Tipo de producto
+     * @return Página de productos con el cursor de la página siguiente
+     * @throws IllegalArgumentException Si el cursor es negativo o el límite no es positivo
+     */
+    default <T extends FinancialProduct> ProductPage<T> findPage(Class<T> type, int cursor, int limit) {
+        if (cursor < 0 || limit <= 0) {
+            throw new IllegalArgumentException("El cursor no puede ser negativo y el límite debe ser positivo");
+        }
+
+        int end = size();
+        List<T> products = new ArrayList<>(Math.min(limit, Math.max(0, end - cursor)));
+        int position = cursor;
+        while (position < end && products.size() < limit) {
+            FinancialProduct product = findByPosition(position++);
+            if (type.isInstance(product)) {
+                products.add(type.cast(product));
+            }
+        }
+        return new ProductPage<>(products, position < end ? position : -1);
+    }
     
     /**
      * Verifica si existe un producto con el número dado.
@@ -55,4 +141,31 @@ public interface ProductRepository {
      * @return true si existe, false en caso contrario
      */
     boolean existsByProductNumber(String productNumber);
+
+    /**
+     * Agrega un lote de productos financieros al repositorio.
+     * Las implementaciones validan todo el lote antes de agregarlo, de modo que si algún producto
+     * es rechazado no se agrega ninguno. La implementación por defecto agrega los productos uno a
+     * uno, por lo que ante un rechazo los anteriores del lote quedan agregados.
+     *
+     * @param products Productos a agregar
+     * @throws IllegalArgumentException Si algún producto es nulo, ya existe, repite un número o
+     *                                  un cliente del lote, o su cliente no tiene identificación o ya
+     *                                  tiene un producto
+     */
+    default void addAll(List<? extends FinancialProduct> products) throws IllegalArgumentException {
+        for (FinancialProduct product : products) {
+            addProduct(product);
+        }
+    }
+
+    /**
+     * Persiste el estado actual de un producto ya registrado después de modificarlo.
+     * Los repositorios que guardan los propios objetos no necesitan hacer nada; los que
+     * almacenan los datos fuera de los objetos deben copiar en ellos el nuevo estado.
+     *
+     * @param product Producto modificado
+     */
+    default void save(FinancialProduct product) {
+    }
 }
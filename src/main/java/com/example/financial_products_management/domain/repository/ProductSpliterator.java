@@ -0,0 +1,76 @@
+package com.example.financial_products_management.domain.repository;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Recorrido de los productos de un repositorio por su posición en el orden de registro, sin
+ * copiarlos a una colección intermedia. Cubre un rango fijo de posiciones, por lo que los
+ * productos registrados durante el recorrido no se incluyen. Puede dividirse en mitades para
+ * procesar el rango en paralelo.
+ */
+public final class ProductSpliterator implements Spliterator<FinancialProduct> {
+    /**
+     * Cantidad mínima de posiciones de cada parte al dividir el recorrido.
+     */
+    private static final int MINIMUM_SPLIT = 1024;
+
+    private final IntFunction<? extends FinancialProduct> reader;
+    private int position;
+    private final int end;
+
+    /**
+     * Crea un recorrido sobre un rango de posiciones.
+     *
+     * @param reader Función que obtiene el producto de una posición
+     * @param from   Primera posición del rango, incluida
+     * @param to     Última posición del rango, excluida
+     */
+    public ProductSpliterator(IntFunction<? extends FinancialProduct> reader, int from, int to) {
+        this.reader = reader;
+        this.position = from;
+        this.end = to;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super FinancialProduct> action) {
+        if (position >= end) {
+            return false;
+        }
+        action.accept(reader.apply(position++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super FinancialProduct> action) {
+        int current = position;
+        position = end;
+        for (; current < end; current++) {
+            action.accept(reader.apply(current));
+        }
+    }
+
+    @Override
+    public Spliterator<FinancialProduct> trySplit() {
+        int remaining = end - position;
+        if (remaining < MINIMUM_SPLIT * 2) {
+            return null;
+        }
+        int middle = position + remaining / 2;
+        ProductSpliterator prefix = new ProductSpliterator(reader, position, middle);
+        position = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
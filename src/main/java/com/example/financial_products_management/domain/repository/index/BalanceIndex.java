@@ -0,0 +1,127 @@
+package com.example.financial_products_management.domain.repository.index;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.IntStream;
+
+/**
+ * Índice por rango de saldo.
+ * Reparte los productos en cubetas logarítmicas según su saldo en centavos, con ocho subdivisiones
+ * por cada potencia de dos, y guarda el último saldo conocido de cada producto. Una consulta recorre
+ * solo las cubetas del rango y descarta con el saldo exacto los productos que quedan fuera.
+ * Un producto cambia de cubeta únicamente cuando su saldo cruza el límite de la cubeta, así que la
+ * mayoría de las operaciones solo actualizan el saldo guardado.
+ */
+public final class BalanceIndex implements SecondaryIndex {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int POSITIVE_BUCKETS = SUB_BUCKETS * (Long.SIZE - SUB_BUCKET_BITS);
+    private static final int PAGE_SHIFT = 14;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private final AtomicReferenceArray<ConcurrentBitmap> buckets =
+            new AtomicReferenceArray<>(2 * POSITIVE_BUCKETS);
+    private volatile long[][] balances = new long[0][];
+
+    @Override
+    public void insert(int id, FinancialProduct product) {
+        ensureCapacity(id);
+        long balance = product.getBalance();
+        balances[id >>> PAGE_SHIFT][id & (PAGE_SIZE - 1)] = balance;
+        bucket(bucketOf(balance)).set(id);
+    }
+
+    @Override
+    public void update(int id, FinancialProduct product) {
+        long[] page = balances[id >>> PAGE_SHIFT];
+        int offset = id & (PAGE_SIZE - 1);
+        long previous = page[offset];
+        long balance = product.getBalance();
+        if (previous == balance) {
+            return;
+        }
+        // El saldo se publica antes de mover el bit, para que las consultas descarten la cubeta anterior
+        page[offset] = balance;
+        int from = bucketOf(previous);
+        int to = bucketOf(balance);
+        if (from != to) {
+            bucket(to).set(id);
+            bucket(from).clear(id);
+        }
+    }
+
+    /**
+     * Obtiene el último saldo conocido de un producto.
+     *
+     * @param id Identificador del producto
+     * @return Saldo en centavos
+     */
+    public long balanceOf(int id) {
+        return balances[id >>> PAGE_SHIFT][id & (PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Obtiene los identificadores de los productos con saldo dentro de un rango, ordenados por cubeta.
+     *
+     * @param min Saldo mínimo en centavos, inclusive
+     * @param max Saldo máximo en centavos, inclusive
+     * @return Identificadores de los productos
+     * @throws IllegalArgumentException Si el saldo mínimo es mayor que el máximo
+     */
+    public IntStream ids(long min, long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("El saldo mínimo no puede ser mayor que el saldo máximo");
+        }
+        return IntStream.rangeClosed(bucketOf(min), bucketOf(max)).flatMap(index -> {
+            ConcurrentBitmap bucket = buckets.get(index);
+            return bucket == null ? IntStream.empty() : bucket.stream().filter(id -> {
+                long balance = balanceOf(id);
+                // Un producto que se está moviendo puede aparecer en dos cubetas; solo cuenta en la de su saldo
+                return bucketOf(balance) == index && balance >= min && balance <= max;
+            });
+        });
+    }
+
+    /**
+     * Calcula la cubeta de un saldo. El orden de las cubetas sigue el orden de los saldos.
+     *
+     * @param balance Saldo en centavos
+     * @return Índice de la cubeta
+     */
+    static int bucketOf(long balance) {
+        return balance >= 0 ? POSITIVE_BUCKETS + magnitudeBucket(balance)
+                : POSITIVE_BUCKETS - 1 - magnitudeBucket(~balance);
+    }
+
+    private static int magnitudeBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private ConcurrentBitmap bucket(int index) {
+        ConcurrentBitmap bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new ConcurrentBitmap());
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    private synchronized void ensureCapacity(int id) {
+        int page = id >>> PAGE_SHIFT;
+        long[][] current = balances;
+        if (page < current.length) {
+            return;
+        }
+        long[][] grown = Arrays.copyOf(current, Math.max(page + 1, current.length * 2));
+        for (int i = current.length; i < grown.length; i++) {
+            grown[i] = new long[PAGE_SIZE];
+        }
+        balances = grown;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.financial_products_management.domain.repository.index;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Mapa de bits sobre identificadores de productos que admite escrituras concurrentes sin candados.
+ * Los bits se guardan en páginas de tamaño fijo que solo se reservan cuando se marca alguno de sus
+ * identificadores, por lo que un mapa con pocos identificadores dispersos ocupa poca memoria.
+ * Las lecturas son de consistencia débil: un recorrido concurrente con escrituras puede reflejar o
+ * no los cambios hechos durante el recorrido.
+ */
+public final class ConcurrentBitmap {
+    private static final int PAGE_SHIFT = 13;
+    private static final int PAGE_BITS = 1 << PAGE_SHIFT;
+    private static final int WORDS_PER_PAGE = PAGE_BITS / Long.SIZE;
+
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+
+    /**
+     * Marca un identificador.
+     *
+     * @param id Identificador a marcar
+     */
+    public void set(int id) {
+        AtomicLongArray page = pageFor(id);
+        int word = (id & (PAGE_BITS - 1)) >>> 6;
+        long mask = 1L << id;
+        long current;
+        while (((current = page.get(word)) & mask) == 0 && !page.compareAndSet(word, current, current | mask)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Desmarca un identificador.
+     *
+     * @param id Identificador a desmarcar
+     */
+    public void clear(int id) {
+        AtomicLongArray page = pageAt(id >>> PAGE_SHIFT);
+        if (page == null) {
+            return;
+        }
+        int word = (id & (PAGE_BITS - 1)) >>> 6;
+        long mask = 1L << id;
+        long current;
+        while (((current = page.get(word)) & mask) != 0 && !page.compareAndSet(word, current, current & ~mask)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Indica si un identificador está marcado.
+     *
+     * @param id Identificador a consultar
+     * @return true si está marcado
+     */
+    public boolean get(int id) {
+        AtomicLongArray page = pageAt(id >>> PAGE_SHIFT);
+        return page != null && (page.get((id & (PAGE_BITS - 1)) >>> 6) & (1L << id)) != 0;
+    }
+
+    /**
+     * Obtiene el siguiente identificador marcado a partir de uno dado.
+     *
+     * @param from Primer identificador a considerar
+     * @return Identificador marcado, o -1 si no hay más
+     */
+    public int nextSetBit(int from) {
+        AtomicLongArray[] current = pages;
+        int pageIndex = from >>> PAGE_SHIFT;
+        int word = (from & (PAGE_BITS - 1)) >>> 6;
+        long mask = -1L << from;
+        for (; pageIndex < current.length; pageIndex++, word = 0, mask = -1L) {
+            AtomicLongArray page = current[pageIndex];
+            if (page == null) {
+                continue;
+            }
+            for (; word < WORDS_PER_PAGE; word++, mask = -1L) {
+                long bits = page.get(word) & mask;
+                if (bits != 0) {
+                    return (pageIndex << PAGE_SHIFT) + (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Cuenta los identificadores marcados.
+     *
+     * @return Cantidad de identificadores marcados
+     */
+    public long cardinality() {
+        long count = 0;
+        for (AtomicLongArray page : pages) {
+            if (page != null) {
+                for (int word = 0; word < WORDS_PER_PAGE; word++) {
+                    count += Long.bitCount(page.get(word));
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Recorre los identificadores marcados en orden ascendente.
+     *
+     * @return Flujo de identificadores
+     */
+    public IntStream stream() {
+        PrimitiveIterator.OfInt iterator = new PrimitiveIterator.OfInt() {
+            private int next = nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                int id = next;
+                next = id == Integer.MAX_VALUE ? -1 : nextSetBit(id + 1);
+                return id;
+            }
+        };
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL), false);
+    }
+
+    private AtomicLongArray pageAt(int index) {
+        AtomicLongArray[] current = pages;
+        return index < current.length ? current[index] : null;
+    }
+
+    private AtomicLongArray pageFor(int id) {
+        int index = id >>> PAGE_SHIFT;
+        AtomicLongArray page = pageAt(index);
+        return page != null ? page : allocate(index);
+    }
+
+    private synchronized AtomicLongArray allocate(int index) {
+        AtomicLongArray[] current = pages;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+        } else if (current[index] != null) {
+            return current[index];
+        } else {
+            current = current.clone();
+        }
+        AtomicLongArray page = new AtomicLongArray(WORDS_PER_PAGE);
+        current[index] = page;
+        pages = current;
+        return page;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.financial_products_management.domain.repository.index;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.IntStream;
+
+/**
+ * Índice ordenado por fecha de apertura.
+ * Agrupa los identificadores por día, de modo que un rango de fechas se resuelve recorriendo solo
+ * los días del rango. Como la fecha de apertura no cambia, los productos se agregan una sola vez.
+ */
+public final class OpeningDateIndex implements SecondaryIndex {
+    private final ConcurrentSkipListMap<Long, DayBucket> days = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void insert(int id, FinancialProduct product) {
+        LocalDate openingDate = product.getOpeningDate();
+        if (openingDate != null) {
+            days.computeIfAbsent(openingDate.toEpochDay(), day -> new DayBucket()).add(id);
+        }
+    }
+
+    /**
+     * Obtiene los identificadores de los productos abiertos en un rango de fechas, ordenados por fecha.
+     *
+     * @param from Fecha inicial, inclusive
+     * @param to   Fecha final, inclusive
+     * @return Identificadores de los productos
+     */
+    public IntStream ids(LocalDate from, LocalDate to) {
+        return range(from, to).values().stream().flatMapToInt(DayBucket::stream);
+    }
+
+    /**
+     * Cuenta los productos abiertos en un rango de fechas.
+     *
+     * @param from Fecha inicial, inclusive
+     * @param to   Fecha final, inclusive
+     * @return Cantidad de productos
+     */
+    public long count(LocalDate from, LocalDate to) {
+        long count = 0;
+        for (DayBucket bucket : range(from, to).values()) {
+            count += bucket.size;
+        }
+        return count;
+    }
+
+    private NavigableMap<Long, DayBucket> range(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        return days.subMap(from.toEpochDay(), true, to.toEpochDay(), true);
+    }
+
+    /**
+     * Identificadores de los productos abiertos en un mismo día.
+     * Las lecturas no usan candado: leen la cantidad publicada antes que el arreglo.
+     */
+    private static final class DayBucket {
+        private volatile int[] ids = new int[4];
+        private volatile int size;
+
+        synchronized void add(int id) {
+            int[] current = ids;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+                ids = current;
+            }
+            current[size] = id;
+            size = size + 1;
+        }
+
+        IntStream stream() {
+            int count = size;
+            return Arrays.stream(ids, 0, count);
+        }
+    }
+}
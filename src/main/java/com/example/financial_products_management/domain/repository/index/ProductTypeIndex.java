@@ -0,0 +1,135 @@
+package com.example.financial_products_management.domain.repository.index;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Índice por tipo de cuenta y por clasificación de vivienda.
+ * Guarda un mapa de bits por cada tipo de cuenta y otro por cada clasificación de las cuentas de
+ * ahorro para vivienda. Como el tipo de un producto no cambia, los bits se marcan solo al crearlo.
+ */
+public final class ProductTypeIndex implements SecondaryIndex {
+    private static final List<Class<? extends FinancialProduct>> ACCOUNT_TYPES = List.of(
+            SavingsAccount.class, CheckingAccount.class, HousingSavingsAccount.class, SalaryAccount.class);
+
+    private final ConcurrentBitmap all = new ConcurrentBitmap();
+    private final ConcurrentBitmap[] byType = new ConcurrentBitmap[ACCOUNT_TYPES.size()];
+    private final Map<HousingClassification, ConcurrentBitmap> byClassification =
+            new EnumMap<>(HousingClassification.class);
+
+    /**
+     * Crea el índice vacío, con un mapa de bits por tipo de cuenta y por clasificación de vivienda.
+     */
+    public ProductTypeIndex() {
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new ConcurrentBitmap();
+        }
+        for (HousingClassification classification : HousingClassification.values()) {
+            byClassification.put(classification, new ConcurrentBitmap());
+        }
+    }
+
+    @Override
+    public void insert(int id, FinancialProduct product) {
+        all.set(id);
+        for (int i = 0; i < byType.length; i++) {
+            if (ACCOUNT_TYPES.get(i).isInstance(product)) {
+                byType[i].set(id);
+            }
+        }
+        if (product instanceof HousingSavingsAccount housing) {
+            byClassification.get(housing.getClassification()).set(id);
+        }
+    }
+
+    /**
+     * Indica si un producto es de un tipo.
+     *
+     * @param id   Identificador del producto
+     * @param type Tipo de producto
+     * @return true si el producto es de ese tipo
+     */
+    public boolean contains(int id, Class<?> type) {
+        if (type.isAssignableFrom(FinancialProduct.class)) {
+            return all.get(id);
+        }
+        for (int i = 0; i < byType.length; i++) {
+            if (type.isAssignableFrom(ACCOUNT_TYPES.get(i)) && byType[i].get(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene los identificadores de los productos de un tipo, en orden ascendente.
+     *
+     * @param type Tipo de producto
+     * @return Identificadores de los productos
+     */
+    public IntStream ids(Class<?> type) {
+        ConcurrentBitmap bitmap = bitmapFor(type);
+        return bitmap != null ? bitmap.stream() : all.stream().filter(id -> contains(id, type));
+    }
+
+    /**
+     * Cuenta los productos de un tipo.
+     *
+     * @param type Tipo de producto
+     * @return Cantidad de productos
+     */
+    public long count(Class<?> type) {
+        ConcurrentBitmap bitmap = bitmapFor(type);
+        return bitmap != null ? bitmap.cardinality() : ids(type).count();
+    }
+
+    /**
+     * Obtiene los identificadores de las cuentas de ahorro para vivienda con una clasificación.
+     *
+     * @param classification Clasificación de la vivienda
+     * @return Identificadores de las cuentas, en orden ascendente
+     */
+    public IntStream ids(HousingClassification classification) {
+        return byClassification.get(classification).stream();
+    }
+
+    /**
+     * Cuenta las cuentas de ahorro para vivienda con una clasificación.
+     *
+     * @param classification Clasificación de la vivienda
+     * @return Cantidad de cuentas
+     */
+    public long count(HousingClassification classification) {
+        return byClassification.get(classification).cardinality();
+    }
+
+    /**
+     * Busca el único mapa de bits que cubre exactamente un tipo.
+     *
+     * @param type Tipo de producto
+     * @return Mapa de bits, o null si el tipo abarca varios tipos de cuenta
+     */
+    private ConcurrentBitmap bitmapFor(Class<?> type) {
+        if (type.isAssignableFrom(FinancialProduct.class)) {
+            return all;
+        }
+        ConcurrentBitmap match = null;
+        for (int i = 0; i < byType.length; i++) {
+            if (type.isAssignableFrom(ACCOUNT_TYPES.get(i))) {
+                if (match != null) {
+                    return null;
+                }
+                match = byType[i];
+            }
+        }
+        return match != null ? match : new ConcurrentBitmap();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.financial_products_management.domain.repository.index;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+
+/**
+ * Índice secundario sobre los productos de un repositorio.
+ * Cada producto se identifica con un número entero denso asignado por {@link SecondaryIndexes},
+ * de modo que los índices pueden guardarse en mapas de bits y arreglos en lugar de colecciones de objetos.
+ * Las notificaciones llegan con el candado del producto adquirido, por lo que las de un mismo
+ * producto nunca son concurrentes, pero sí pueden serlo las de productos distintos.
+ */
+public interface SecondaryIndex {
+
+    /**
+     * Incorpora un producto al índice.
+     *
+     * @param id      Identificador asignado al producto
+     * @param product Producto incorporado
+     */
+    void insert(int id, FinancialProduct product);
+
+    /**
+     * Actualiza el índice después de una operación sobre el producto.
+     * Por defecto no hace nada, para los índices sobre datos que no cambian.
+     *
+     * @param id      Identificador del producto
+     * @param product Producto con su estado después de la operación
+     */
+    default void update(int id, FinancialProduct product) {
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.financial_products_management.domain.repository.index;
+
+import com.example.financial_products_management.domain.financial_company.OperationListener;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Índices secundarios de un repositorio de productos.
+ * Asigna a cada producto un identificador entero denso y mantiene con él los índices por tipo de
+ * cuenta, por fecha de apertura y por saldo, además de los que se registren con
+ * {@link #register(SecondaryIndex)}. Se mantiene como observador de FinancialCompany: cada creación
+ * y cada operación aplicada actualiza los índices en el mismo momento, con el candado del producto
+ * adquirido. Las consultas no usan candados y son de consistencia débil: reflejan las operaciones
+ * terminadas antes de empezar la consulta y pueden reflejar o no las que ocurran durante ella.
+ * Los productos creados antes de registrar este observador deben incorporarse con
+ * {@link #track(FinancialProduct)}.
+ */
+public class SecondaryIndexes implements OperationListener {
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private final ProductRepository repository;
+    // Identificadores por valor numérico del número: "001" y "1" son el mismo producto
+    private final Map<Long, Integer> ids = new ConcurrentHashMap<>();
+    private final List<SecondaryIndex> indexes = new CopyOnWriteArrayList<>();
+    private final ProductTypeIndex typeIndex = new ProductTypeIndex();
+    private final OpeningDateIndex openingDateIndex = new OpeningDateIndex();
+    private final BalanceIndex balanceIndex = new BalanceIndex();
+    private volatile long[][] numbers = new long[0][];
+    private volatile int count;
+
+    /**
+     * Crea los índices vacíos de un repositorio, con los índices por tipo, fecha de apertura y saldo.
+     *
+     * @param repository Repositorio de donde se resuelven los productos de cada consulta
+     */
+    public SecondaryIndexes(ProductRepository repository) {
+        this.repository = repository;
+        indexes.add(typeIndex);
+        indexes.add(openingDateIndex);
+        indexes.add(balanceIndex);
+    }
+
+    /**
+     * Registra un índice adicional y lo llena con los productos ya incorporados.
+     *
+     * @param index Índice a registrar
+     */
+    public synchronized void register(SecondaryIndex index) {
+        for (int id = 0; id < count; id++) {
+            FinancialProduct product = productAt(id);
+            if (product != null) {
+                index.insert(id, product);
+            }
+        }
+        indexes.add(index);
+    }
+
+    /**
+     * Incorpora un producto a los índices. Si ya está incorporado, conserva su identificador.
+     * Debe invocarse con el candado del producto adquirido o antes de operar sobre él.
+     *
+     * @param product Producto a incorporar
+     * @return Identificador asignado al producto
+     */
+    public int track(FinancialProduct product) {
+        Integer id = ids.get(ProductNumbers.parse(product.getProductNumber()));
+        return id != null ? id : insert(product);
+    }
+
+    @Override
+    public void onProductCreated(FinancialProduct product) {
+        track(product);
+    }
+
+    @Override
+    public void onOperationApplied(FinancialProduct product, OperationResult result) {
+        update(product);
+    }
+
+    @Override
+    public void onTransferApplied(FinancialProduct source, FinancialProduct target, OperationResult result) {
+        update(source);
+        update(target);
+    }
+
+    @Override
+    public void onInterestAccrued(SavingsAccount account, long interest, LocalDate businessDate) {
+        update(account);
+    }
+
+    /**
+     * Obtiene el identificador asignado a un producto.
+     *
+     * @param productNumber Número del producto
+     * @return Identificador, o -1 si el producto no está incorporado
+     */
+    public int idOf(String productNumber) {
+        Integer id = ids.get(ProductNumbers.parse(productNumber));
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtiene la cantidad de productos incorporados.
+     *
+     * @return Cantidad de productos
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Obtiene los productos correspondientes a un conjunto de identificadores.
+     * Permite resolver las consultas de los índices registrados con {@link #register(SecondaryIndex)}.
+     *
+     * @param productIds Identificadores de los productos
+     * @return Productos, en el mismo orden de los identificadores
+     */
+    public Stream<FinancialProduct> resolve(IntStream productIds) {
+        return productIds.mapToObj(this::productAt).filter(Objects::nonNull);
+    }
+
+    /**
+     * Busca los productos de un tipo.
+     *
+     * @param type Tipo de producto
+     * @param <T>  Tipo de producto
+     * @return Productos del tipo
+     */
+    public <T extends FinancialProduct> Stream<T> findByType(Class<T> type) {
+        return resolve(typeIndex.ids(type), type);
+    }
+
+    /**
+     * Cuenta los productos de un tipo.
+     *
+     * @param type Tipo de producto
+     * @return Cantidad de productos
+     */
+    public long countByType(Class<? extends FinancialProduct> type) {
+        return typeIndex.count(type);
+    }
+
+    /**
+     * Busca las cuentas de ahorro para vivienda con una clasificación.
+     *
+     * @param classification Clasificación de la vivienda
+     * @return Cuentas con la clasificación
+     */
+    public Stream<HousingSavingsAccount> findByClassification(HousingClassification classification) {
+        return resolve(typeIndex.ids(classification), HousingSavingsAccount.class);
+    }
+
+    /**
+     * Cuenta las cuentas de ahorro para vivienda con una clasificación.
+     *
+     * @param classification Clasificación de la vivienda
+     * @return Cantidad de cuentas
+     */
+    public long countByClassification(HousingClassification classification) {
+        return typeIndex.count(classification);
+    }
+
+    /**
+     * Busca los productos de un tipo abiertos en un rango de fechas, ordenados por fecha de apertura.
+     *
+     * @param type Tipo de producto
+     * @param from Fecha inicial, inclusive
+     * @param to   Fecha final, inclusive
+     * @param <T>  Tipo de producto
+     * @return Productos abiertos en el rango
+     */
+    public <T extends FinancialProduct> Stream<T> findOpenedBetween(Class<T> type, LocalDate from, LocalDate to) {
+        return resolve(openingDateIndex.ids(from, to).filter(id -> typeIndex.contains(id, type)), type);
+    }
+
+    /**
+     * Cuenta los productos de un tipo abiertos en un rango de fechas.
+     *
+     * @param type Tipo de producto
+     * @param from Fecha inicial, inclusive
+     * @param to   Fecha final, inclusive
+     * @return Cantidad de productos
+     */
+    public long countOpenedBetween(Class<? extends FinancialProduct> type, LocalDate from, LocalDate to) {
+        return type == FinancialProduct.class ? openingDateIndex.count(from, to)
+                : openingDateIndex.ids(from, to).filter(id -> typeIndex.contains(id, type)).count();
+    }
+
+    /**
+     * Busca los productos de un tipo con saldo dentro de un rango.
+     *
+     * @param type Tipo de producto
+     * @param min  Saldo mínimo en centavos, inclusive
+     * @param max  Saldo máximo en centavos, inclusive
+     * @param <T>  Tipo de producto
+     * @return Productos con saldo en el rango
+     */
+    public <T extends FinancialProduct> Stream<T> findByBalance(Class<T> type, long min, long max) {
+        return resolve(balanceIndex.ids(min, max).filter(id -> typeIndex.contains(id, type)), type);
+    }
+
+    /**
+     * Cuenta los productos de un tipo con saldo dentro de un rango.
+     *
+     * @param type Tipo de producto
+     * @param min  Saldo mínimo en centavos, inclusive
+     * @param max  Saldo máximo en centavos, inclusive
+     * @return Cantidad de productos
+     */
+    public long countByBalance(Class<? extends FinancialProduct> type, long min, long max) {
+        return balanceIndex.ids(min, max).filter(id -> typeIndex.contains(id, type)).count();
+    }
+
+    /**
+     * Busca las cuentas corrientes en sobregiro, es decir, con saldo negativo.
+     *
+     * @return Cuentas corrientes en sobregiro
+     */
+    public Stream<CheckingAccount> findOverdrawnCheckingAccounts() {
+        return findByBalance(CheckingAccount.class, Long.MIN_VALUE, -1);
+    }
+
+    /**
+     * Obtiene el índice por tipo de cuenta y clasificación de vivienda.
+     *
+     * @return Índice por tipo
+     */
+    public ProductTypeIndex getTypeIndex() {
+        return typeIndex;
+    }
+
+    /**
+     * Obtiene el índice por fecha de apertura.
+     *
+     * @return Índice por fecha de apertura
+     */
+    public OpeningDateIndex getOpeningDateIndex() {
+        return openingDateIndex;
+    }
+
+    /**
+     * Obtiene el índice por saldo.
+     *
+     * @return Índice por saldo
+     */
+    public BalanceIndex getBalanceIndex() {
+        return balanceIndex;
+    }
+
+    private <T extends FinancialProduct> Stream<T> resolve(IntStream productIds, Class<T> type) {
+        return resolve(productIds).filter(type::isInstance).map(type::cast);
+    }
+
+    private void update(FinancialProduct product) {
+        Integer id = ids.get(ProductNumbers.parse(product.getProductNumber()));
+        if (id == null) {
+            insert(product);
+            return;
+        }
+        for (SecondaryIndex index : indexes) {
+            index.update(id, product);
+        }
+    }
+
+    private synchronized int insert(FinancialProduct product) {
+        long number = ProductNumbers.parse(product.getProductNumber());
+        Integer existing = ids.get(number);
+        if (existing != null) {
+            return existing;
+        }
+        int id = count;
+        long[][] current = numbers;
+        if (id >>> PAGE_SHIFT == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = new long[PAGE_SIZE];
+            numbers = current;
+        }
+        current[id >>> PAGE_SHIFT][id & (PAGE_SIZE - 1)] = number;
+        for (SecondaryIndex index : indexes) {
+            index.insert(id, product);
+        }
+        // El identificador se publica cuando todos los índices ya tienen el producto
+        ids.put(number, id);
+        count = id + 1;
+        return id;
+    }
+
+    private FinancialProduct productAt(int id) {
+        if (id < 0 || id >= count) {
+            return null;
+        }
+        return repository.findByProductNumber(numbers[id >>> PAGE_SHIFT][id & (PAGE_SIZE - 1)]);
+    }
+}
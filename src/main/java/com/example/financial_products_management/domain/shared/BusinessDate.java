@@ -0,0 +1,52 @@
+package com.example.financial_products_management.domain.shared;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Proporciona la fecha actual del negocio sin crear objetos en cada consulta.
+ * La fecha se calcula una vez por día en la zona horaria del sistema y se reutiliza
+ * hasta la medianoche siguiente.
+ */
+public final class BusinessDate {
+    private static volatile CachedDay cachedDay = computeDay(System.currentTimeMillis());
+
+    private BusinessDate() {
+    }
+
+    /**
+     * Obtiene la fecha actual.
+     *
+     * @return Fecha actual en la zona horaria del sistema
+     */
+    public static LocalDate today() {
+        long now = System.currentTimeMillis();
+        CachedDay day = cachedDay;
+        if (now < day.startMillis() || now >= day.endMillis()) {
+            day = computeDay(now);
+            cachedDay = day;
+        }
+        return day.date();
+    }
+
+    /**
+     * Calcula el día que contiene el instante indicado.
+     *
+     * @param nowMillis Instante en milisegundos desde la época
+     * @return Día calculado con sus límites
+     */
+    private static CachedDay computeDay(long nowMillis) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate date = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        long start = date.atStartOfDay(zone).toInstant().toEpochMilli();
+        long end = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new CachedDay(date, start, end);
+    }
+
+    /**
+     * Fecha calculada junto con el intervalo de milisegundos en que es válida.
+     */
+    private record CachedDay(LocalDate date, long startMillis, long endMillis) {
+    }
+}
@@ -9,9 +9,37 @@ public interface Depositable {
     /**
      * Realiza una operación de depósito.
      *
-     * @param amount Monto a depositar
+     * @param amount Monto a depositar en centavos
      * @return Mensaje resultado de la operación
      * @throws IllegalArgumentException Si el monto es inválido
      */
-    String deposit(double amount) throws IllegalArgumentException;
+    default String deposit(long amount) throws IllegalArgumentException {
+        OperationResult result = new OperationResult();
+        if (!tryDeposit(amount, result).isSuccess()) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+        return result.getMessage();
+    }
+
+    /**
+     * Realiza una operación de depósito sin construir mensajes ni lanzar excepciones.
+     * El estado, el nuevo saldo y los detalles de la operación quedan registrados en el resultado.
+     *
+     * @param amount Monto a depositar en centavos
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
+     */
+    OperationStatus tryDeposit(long amount, OperationResult result);
+
+    /**
+     * Indica, sin modificar el producto, si un depósito del monto indicado se aplicaría.
+     * Permite validar el destino de una transferencia antes de debitar el origen, por lo que una
+     * implementación que rechace otros depósitos debe rechazarlos también aquí.
+     *
+     * @param amount Monto a depositar en centavos
+     * @return true si {@link #tryDeposit(long, OperationResult)} aceptaría el monto
+     */
+    default boolean acceptsDeposit(long amount) {
+        return amount > 0;
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.financial_products_management.domain.shared;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utilidades para montos de dinero representados en punto fijo.
+ * Todos los montos del dominio se manejan como un {@code long} expresado en centavos
+ * (unidades menores), lo que evita los errores de redondeo de {@code double},
+ * permite aritmética exacta sin crear objetos y facilita actualizaciones atómicas del saldo.
+ * La conversión desde y hacia texto solo debe ocurrir en los bordes de la aplicación.
+ */
+public final class Money {
+    /**
+     * Cantidad de centavos que conforman una unidad monetaria.
+     */
+    public static final long CENTS_PER_UNIT = 100;
+
+    /**
+     * Cantidad de puntos básicos que equivalen al 100%.
+     */
+    public static final long BASIS_POINTS_PER_UNIT = 10_000;
+
+    /**
+     * Días del año usados para convertir una tasa anual en diaria (convención actual/365).
+     */
+    public static final long DAYS_PER_YEAR = 365;
+
+    private Money() {
+    }
+
+    /**
+     * Convierte una cantidad entera de unidades monetarias a centavos.
+     *
+     * @param units Cantidad de unidades monetarias
+     * @return Monto en centavos
+     * @throws ArithmeticException Si el resultado desborda un long
+     */
+    public static long of(long units) {
+        return Math.multiplyExact(units, CENTS_PER_UNIT);
+    }
+
+    /**
+     * Convierte un texto decimal (por ejemplo "1500.25") a centavos.
+     * Los decimales adicionales se redondean al centavo más cercano.
+     *
+     * @param text Texto con el monto
+     * @return Monto en centavos
+     * @throws NumberFormatException Si el texto no es un monto válido o no cabe en un long
+     */
+    public static long parse(String text) throws NumberFormatException {
+        try {
+            return new BigDecimal(text.trim())
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .movePointRight(2)
+                    .longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Monto fuera de rango: " + text);
+        }
+    }
+
+    /**
+     * Calcula un porcentaje expresado en puntos básicos sobre un monto,
+     * redondeando al centavo más cercano.
+     *
+     * @param amount      Monto en centavos
+     * @param basisPoints Porcentaje en puntos básicos (300 = 3%)
+     * @return Resultado en centavos
+     * @throws ArithmeticException Si el cálculo desborda un long
+     */
+    public static long percentage(long amount, long basisPoints) {
+        long product = Math.multiplyExact(amount, basisPoints);
+        return Math.floorDiv(Math.addExact(product, BASIS_POINTS_PER_UNIT / 2), BASIS_POINTS_PER_UNIT);
+    }
+
+    /**
+     * Calcula el interés de un día sobre un monto a partir de una tasa anual en puntos básicos,
+     * redondeando al centavo más cercano.
+     *
+     * @param amount            Monto en centavos
+     * @param annualBasisPoints Tasa anual en puntos básicos (300 = 3%)
+     * @return Interés del día en centavos
+     * @throws ArithmeticException Si el cálculo desborda un long
+     */
+    public static long dailyInterest(long amount, long annualBasisPoints) {
+        long divisor = BASIS_POINTS_PER_UNIT * DAYS_PER_YEAR;
+        long product = Math.multiplyExact(amount, annualBasisPoints);
+        return Math.floorDiv(Math.addExact(product, divisor / 2), divisor);
+    }
+
+    /**
+     * Da formato a un monto en centavos con dos decimales (por ejemplo "-1500.05").
+     *
+     * @param cents Monto en centavos
+     * @return Representación textual del monto
+     */
+    public static String format(long cents) {
+        StringBuilder builder = new StringBuilder(24);
+        if (cents < 0) {
+            builder.append('-');
+        }
+
+        long units = Math.abs(cents / CENTS_PER_UNIT);
+        long fraction = Math.abs(cents % CENTS_PER_UNIT);
+        builder.append(units).append('.');
+        if (fraction < 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction).toString();
+    }
+}
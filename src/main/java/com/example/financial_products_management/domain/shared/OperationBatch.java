@@ -0,0 +1,181 @@
+package com.example.financial_products_management.domain.shared;
+
+import java.util.Arrays;
+
+/**
+ * Lote de operaciones bancarias almacenado por columnas.
+ * Cada elemento del lote es un número de producto, un tipo de operación y un monto en centavos;
+ * tras procesarlo, el lote guarda para cada elemento su estado y el saldo resultante en arreglos
+ * compactos, sin crear objetos ni mensajes por operación.
+ * Un lote puede reutilizarse llamando a {@link #clear()}. No debe modificarse mientras se procesa.
+ */
+public class OperationBatch {
+    private static final OperationStatus[] STATUSES = OperationStatus.values();
+    private static final byte NOT_PROCESSED = -1;
+
+    private String[] productNumbers;
+    private OperationType[] operationTypes;
+    private long[] amounts;
+    private byte[] statuses;
+    private long[] balances;
+    private int size;
+
+    /**
+     * Crea un lote vacío con la capacidad inicial por defecto.
+     */
+    public OperationBatch() {
+        this(16);
+    }
+
+    /**
+     * Crea un lote vacío.
+     *
+     * @param expectedSize Cantidad de operaciones esperada
+     */
+    public OperationBatch(int expectedSize) {
+        int capacity = Math.max(1, expectedSize);
+        this.productNumbers = new String[capacity];
+        this.operationTypes = new OperationType[capacity];
+        this.amounts = new long[capacity];
+        this.statuses = new byte[capacity];
+        this.balances = new long[capacity];
+    }
+
+    /**
+     * Agrega una operación al lote.
+     *
+     * @param productNumber Número del producto
+     * @param operationType Tipo de operación
+     * @param amount        Monto de la operación en centavos
+     * @return Posición de la operación dentro del lote
+     * @throws IllegalArgumentException Si el tipo de operación es nulo
+     */
+    public int add(String productNumber, OperationType operationType, long amount) {
+        if (operationType == null) {
+            throw new IllegalArgumentException("El tipo de operación es obligatorio");
+        }
+
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            productNumbers = Arrays.copyOf(productNumbers, capacity);
+            operationTypes = Arrays.copyOf(operationTypes, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+        }
+
+        productNumbers[size] = productNumber;
+        operationTypes[size] = operationType;
+        amounts[size] = amount;
+        statuses[size] = NOT_PROCESSED;
+        balances[size] = 0;
+        return size++;
+    }
+
+    /**
+     * Obtiene la cantidad de operaciones del lote.
+     *
+     * @return Cantidad de operaciones
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Elimina todas las operaciones para reutilizar el lote.
+     */
+    public void clear() {
+        Arrays.fill(productNumbers, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Obtiene el número de producto de una operación.
+     *
+     * @param index Posición de la operación
+     * @return Número del producto
+     */
+    public String getProductNumber(int index) {
+        checkIndex(index);
+        return productNumbers[index];
+    }
+
+    /**
+     * Obtiene el tipo de una operación.
+     *
+     * @param index Posición de la operación
+     * @return Tipo de operación
+     */
+    public OperationType getOperationType(int index) {
+        checkIndex(index);
+        return operationTypes[index];
+    }
+
+    /**
+     * Obtiene el monto de una operación.
+     *
+     * @param index Posición de la operación
+     * @return Monto en centavos
+     */
+    public long getAmount(int index) {
+        checkIndex(index);
+        return amounts[index];
+    }
+
+    /**
+     * Obtiene el estado resultante de una operación.
+     *
+     * @param index Posición de la operación
+     * @return Estado de la operación, o null si el lote aún no se procesó
+     */
+    public OperationStatus getStatus(int index) {
+        checkIndex(index);
+        byte status = statuses[index];
+        return status == NOT_PROCESSED ? null : STATUSES[status];
+    }
+
+    /**
+     * Obtiene el saldo del producto después de aplicar una operación.
+     *
+     * @param index Posición de la operación
+     * @return Saldo en centavos, o cero si el producto no existe
+     */
+    public long getBalance(int index) {
+        checkIndex(index);
+        return balances[index];
+    }
+
+    /**
+     * Cuenta las operaciones del lote que fueron aplicadas.
+     *
+     * @return Cantidad de operaciones aplicadas
+     */
+    public int countSuccessful() {
+        int successful = 0;
+        for (int i = 0; i < size; i++) {
+            if (statuses[i] != NOT_PROCESSED && STATUSES[statuses[i]].isSuccess()) {
+                successful++;
+            }
+        }
+        return successful;
+    }
+
+    /**
+     * Registra el resultado de una operación del lote.
+     *
+     * @param index   Posición de la operación
+     * @param status  Estado de la operación
+     * @param balance Saldo del producto después de la operación en centavos
+     */
+    public void recordOutcome(int index, OperationStatus status, long balance) {
+        checkIndex(index);
+        statuses[index] = (byte) status.ordinal();
+        balances[index] = balance;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Posición fuera del lote: " + index);
+        }
+    }
+}
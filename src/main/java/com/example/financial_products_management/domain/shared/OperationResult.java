@@ -0,0 +1,237 @@
+package com.example.financial_products_management.domain.shared;
+
+import com.example.financial_products_management.exception.InsufficientFundsException;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+
+/**
+ * Resultado reutilizable de una operación bancaria.
+ * Almacena un estado compacto junto con el nuevo saldo y los valores necesarios para
+ * describir la operación, sin construir mensajes al momento de operar. El mensaje
+ * descriptivo solo se genera cuando se solicita mediante {@link #getMessage()}.
+ * Una misma instancia puede reutilizarse entre operaciones para evitar crear objetos,
+ * pero no debe compartirse entre hilos.
+ */
+public class OperationResult {
+    private OperationStatus status;
+    private OperationType operationType;
+    private String productNumber;
+    private long amount;
+    private long balance;
+    private long interest;
+    private long totalPaid;
+    private long limit;
+    private String targetProductNumber;
+    private long targetBalance;
+
+    /**
+     * Registra el resultado de una operación y limpia los valores de detalle anteriores.
+     *
+     * @param status        Estado de la operación
+     * @param operationType Tipo de operación
+     * @param productNumber Número del producto
+     * @param amount        Monto de la operación en centavos
+     * @param balance       Saldo del producto después de la operación en centavos
+     * @return Estado registrado
+     */
+    public OperationStatus record(OperationStatus status, OperationType operationType, String productNumber,
+                                  long amount, long balance) {
+        this.status = status;
+        this.operationType = operationType;
+        this.productNumber = productNumber;
+        this.amount = amount;
+        this.balance = balance;
+        this.interest = 0;
+        this.totalPaid = 0;
+        this.limit = 0;
+        this.targetProductNumber = null;
+        this.targetBalance = 0;
+        return status;
+    }
+
+    /**
+     * Obtiene el estado de la operación.
+     *
+     * @return Estado de la operación o null si no se ha registrado ninguna
+     */
+    public OperationStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Indica si la operación fue aplicada.
+     *
+     * @return true si la operación fue aplicada, false en caso contrario
+     */
+    public boolean isSuccess() {
+        return status != null && status.isSuccess();
+    }
+
+    /**
+     * Obtiene el tipo de operación.
+     *
+     * @return Tipo de operación
+     */
+    public OperationType getOperationType() {
+        return operationType;
+    }
+
+    /**
+     * Obtiene el número del producto.
+     *
+     * @return Número del producto
+     */
+    public String getProductNumber() {
+        return productNumber;
+    }
+
+    /**
+     * Obtiene el monto de la operación.
+     *
+     * @return Monto en centavos
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Obtiene el saldo del producto después de la operación.
+     *
+     * @return Saldo en centavos
+     */
+    public long getBalance() {
+        return balance;
+    }
+
+    /**
+     * Obtiene el interés generado por la operación.
+     *
+     * @return Interés en centavos
+     */
+    public long getInterest() {
+        return interest;
+    }
+
+    /**
+     * Establece el interés generado por la operación.
+     *
+     * @param interest Interés en centavos
+     */
+    public void setInterest(long interest) {
+        this.interest = interest;
+    }
+
+    /**
+     * Obtiene el total pagado en una cuenta de ahorro para vivienda.
+     *
+     * @return Total pagado en centavos
+     */
+    public long getTotalPaid() {
+        return totalPaid;
+    }
+
+    /**
+     * Establece el total pagado en una cuenta de ahorro para vivienda.
+     *
+     * @param totalPaid Total pagado en centavos
+     */
+    public void setTotalPaid(long totalPaid) {
+        this.totalPaid = totalPaid;
+    }
+
+    /**
+     * Obtiene el límite aplicado por la operación (sobregiro, salario o valor de la vivienda).
+     *
+     * @return Límite en centavos
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Establece el límite aplicado por la operación (sobregiro, salario o valor de la vivienda).
+     *
+     * @param limit Límite en centavos
+     */
+    public void setLimit(long limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Obtiene el número del producto de destino de una transferencia.
+     *
+     * @return Número del producto de destino, o null si la operación no es una transferencia
+     */
+    public String getTargetProductNumber() {
+        return targetProductNumber;
+    }
+
+    /**
+     * Obtiene el saldo del producto de destino de una transferencia después de aplicarla.
+     *
+     * @return Saldo del producto de destino en centavos
+     */
+    public long getTargetBalance() {
+        return targetBalance;
+    }
+
+    /**
+     * Establece el producto de destino de una transferencia y su saldo después de aplicarla.
+     *
+     * @param targetProductNumber Número del producto de destino
+     * @param targetBalance       Saldo del producto de destino en centavos
+     */
+    public void setTarget(String targetProductNumber, long targetBalance) {
+        this.targetProductNumber = targetProductNumber;
+        this.targetBalance = targetBalance;
+    }
+
+    /**
+     * Construye el mensaje descriptivo de la operación.
+     * El mensaje se genera únicamente al invocar este método.
+     *
+     * @return Mensaje resultado de la operación
+     */
+    public String getMessage() {
+        if (status == null) {
+            return "Sin operación registrada";
+        }
+
+        return switch (status) {
+            case DEPOSITED -> String.format("Depósito exitoso. Nuevo saldo: $%s", Money.format(balance));
+            case DEPOSITED_WITH_INTEREST -> String.format("Depósito exitoso. Nuevo saldo: $%s. Interés generado: $%s",
+                    Money.format(balance), Money.format(interest));
+            case HOUSING_PAYMENT_APPLIED -> String.format("Depósito exitoso. Nuevo saldo: $%s. Total pagado: $%s de $%s",
+                    Money.format(balance), Money.format(totalPaid), Money.format(limit));
+            case HOUSING_VALUE_EXCEEDED -> String.format(
+                    "Depósito exitoso. Nuevo saldo: $%s. VALOR TOTAL PAGADO SUPERA EL VALOR DE LA VIVIENDA.",
+                    Money.format(balance));
+            case WITHDRAWN -> String.format("Retiro exitoso. Nuevo saldo: $%s", Money.format(balance));
+            case TRANSFERRED -> String.format("Transferencia exitosa. Nuevo saldo del origen: $%s. Nuevo saldo del destino: $%s",
+                    Money.format(balance), Money.format(targetBalance));
+            case INVALID_AMOUNT -> switch (operationType) {
+                case DEPOSIT -> "El monto a depositar debe ser mayor a cero";
+                case WITHDRAWAL -> "El monto a retirar debe ser mayor a cero";
+                case TRANSFER -> "El monto a transferir debe ser mayor a cero";
+                case INTEREST_ACCRUAL -> "El interés causado no puede ser negativo";
+            };
+            case INSUFFICIENT_FUNDS -> InsufficientFundsException.defaultMessage();
+            case OVERDRAFT_LIMIT_EXCEEDED -> InsufficientFundsException.overdraftMessage(balance, limit, amount);
+            case SALARY_LIMIT_EXCEEDED -> String.format("El retiro ($%s) no puede superar el límite del salario ($%s)",
+                    Money.format(amount), Money.format(limit));
+            case PRODUCT_NOT_FOUND -> ProductNotFoundException.notFoundMessage(productNumber);
+            case UNSUPPORTED_OPERATION -> switch (operationType) {
+                case DEPOSIT -> "Este tipo de producto no soporta operaciones de depósito";
+                case WITHDRAWAL -> "Este tipo de producto no soporta operaciones de retiro";
+                case TRANSFER -> "La transferencia requiere un producto de destino";
+                case INTEREST_ACCRUAL -> "La causación de intereses solo aplica a cuentas de ahorro";
+            };
+            case SAME_PRODUCT_TRANSFER -> "El producto de origen y el de destino deben ser distintos";
+            case IDEMPOTENCY_KEY_REUSED -> "La clave de idempotencia ya se usó con una operación distinta";
+        };
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.financial_products_management.domain.shared;
+
+/**
+ * Enumeración que representa el resultado compacto de una operación bancaria.
+ * Permite informar el resultado sin construir mensajes ni lanzar excepciones.
+ */
+public enum OperationStatus {
+    /**
+     * Depósito aplicado
+     */
+    DEPOSITED(true),
+
+    /**
+     * Depósito aplicado en una cuenta de ahorro con generación de intereses
+     */
+    DEPOSITED_WITH_INTEREST(true),
+
+    /**
+     * Pago aplicado a una cuenta de ahorro para vivienda
+     */
+    HOUSING_PAYMENT_APPLIED(true),
+
+    /**
+     * Pago aplicado cuyo total pagado supera el valor de la vivienda
+     */
+    HOUSING_VALUE_EXCEEDED(true),
+
+    /**
+     * Retiro aplicado
+     */
+    WITHDRAWN(true),
+
+    /**
+     * Transferencia aplicada en ambos productos
+     */
+    TRANSFERRED(true),
+
+    /**
+     * El monto de la operación no es válido
+     */
+    INVALID_AMOUNT(false),
+
+    /**
+     * Saldo insuficiente para el retiro
+     */
+    INSUFFICIENT_FUNDS(false),
+
+    /**
+     * El retiro excede el saldo más el límite de sobregiro
+     */
+    OVERDRAFT_LIMIT_EXCEEDED(false),
+
+    /**
+     * El retiro excede el valor pagado como salario
+     */
+    SALARY_LIMIT_EXCEEDED(false),
+
+    /**
+     * No existe un producto con el número indicado
+     */
+    PRODUCT_NOT_FOUND(false),
+
+    /**
+     * El producto no soporta la operación solicitada
+     */
+    UNSUPPORTED_OPERATION(false),
+
+    /**
+     * El producto de origen y el de destino de una transferencia son el mismo
+     */
+    SAME_PRODUCT_TRANSFER(false),
+
+    /**
+     * La clave de idempotencia ya se usó con una operación distinta
+     */
+    IDEMPOTENCY_KEY_REUSED(false);
+
+    private final boolean success;
+
+    OperationStatus(boolean success) {
+        this.success = success;
+    }
+
+    /**
+     * Indica si el estado corresponde a una operación aplicada.
+     *
+     * @return true si la operación fue aplicada, false si fue rechazada
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+}
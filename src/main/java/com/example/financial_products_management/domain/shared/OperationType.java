@@ -13,4 +13,14 @@ public enum OperationType {
      * Operación de retiro
      */
     WITHDRAWAL,
+
+    /**
+     * Transferencia entre dos productos: retiro del origen y depósito en el destino
+     */
+    TRANSFER,
+
+    /**
+     * Causación del interés diario de una cuenta de ahorro
+     */
+    INTEREST_ACCRUAL,
 }
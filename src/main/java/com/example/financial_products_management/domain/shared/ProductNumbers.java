@@ -0,0 +1,78 @@
+package com.example.financial_products_management.domain.shared;
+
+/**
+ * Utilidades para números de producto representados como {@code long}.
+ * Los números de producto son enteros, por lo que los índices y candados se indexan por su valor
+ * numérico en lugar de comparar textos: buscar un producto no recorta ni crea objetos, y las claves
+ * ocupan ocho bytes. El texto del número se conserva en el producto para mostrarlo; la conversión
+ * desde texto solo debe ocurrir en los bordes de la aplicación.
+ * Dos textos con el mismo valor numérico, como "001" y "1", identifican al mismo producto.
+ */
+public final class ProductNumbers {
+    /**
+     * Valor que indica que un texto no es un número de producto válido.
+     * Ningún número válido lo toma, por lo que también sirve para marcar posiciones vacías.
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private static final long MAX_PREFIX = Long.MAX_VALUE / 10;
+    private static final int MAX_LAST_DIGIT = (int) (Long.MAX_VALUE % 10);
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private ProductNumbers() {
+    }
+
+    /**
+     * Convierte el texto de un número de producto a su valor numérico.
+     * Ignora los espacios al inicio y al final como {@link String#trim()}, acepta un signo y
+     * dígitos ASCII, y recorre el texto una sola vez sin crear objetos.
+     *
+     * @param productNumber Texto del número de producto
+     * @return Valor numérico, o {@link #NONE} si el texto es nulo, vacío, no es un entero o no cabe en un long
+     */
+    public static long parse(String productNumber) {
+        if (productNumber == null) {
+            return NONE;
+        }
+
+        int start = 0;
+        int end = productNumber.length();
+        while (start < end && productNumber.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && productNumber.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        boolean negative = false;
+        if (start < end && (productNumber.charAt(start) == '-' || productNumber.charAt(start) == '+')) {
+            negative = productNumber.charAt(start) == '-';
+            start++;
+        }
+        if (start == end) {
+            return NONE;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = productNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > MAX_PREFIX || (value == MAX_PREFIX && digit > MAX_LAST_DIGIT)) {
+                return NONE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Calcula el hash de un número de producto por el método multiplicativo de Fibonacci.
+     * Los bits altos del resultado son los mejor distribuidos, incluso para números consecutivos,
+     * por lo que las tablas deben tomar su posición de ellos.
+     *
+     * @param productNumber Valor numérico del número de producto
+     * @return Hash del número
+     */
+    public static long hash(long productNumber) {
+        return productNumber * GOLDEN_RATIO;
+    }
+}
@@ -11,10 +11,31 @@ public interface Withdrawable {
     /**
      * Realiza una operación de retiro.
      *
-     * @param amount Monto a retirar
+     * @param amount Monto a retirar en centavos
      * @return Mensaje resultado de la operación
      * @throws IllegalArgumentException Si el monto es inválido
      * @throws InsufficientFundsException Si no hay fondos suficientes
      */
-    String withdraw(double amount) throws IllegalArgumentException, InsufficientFundsException;
+    default String withdraw(long amount) throws IllegalArgumentException, InsufficientFundsException {
+        OperationResult result = new OperationResult();
+        switch (tryWithdraw(amount, result)) {
+            case INSUFFICIENT_FUNDS -> throw new InsufficientFundsException();
+            case OVERDRAFT_LIMIT_EXCEEDED -> throw new InsufficientFundsException(
+                    result.getBalance(), result.getLimit(), result.getAmount());
+            case INVALID_AMOUNT, SALARY_LIMIT_EXCEEDED -> throw new IllegalArgumentException(result.getMessage());
+            default -> {
+                return result.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Realiza una operación de retiro sin construir mensajes ni lanzar excepciones.
+     * El estado, el nuevo saldo y los detalles de la operación quedan registrados en el resultado.
+     *
+     * @param amount Monto a retirar en centavos
+     * @param result Resultado donde se registra la operación
+     * @return Estado de la operación
+     */
+    OperationStatus tryWithdraw(long amount, OperationResult result);
 }
@@ -1,13 +1,18 @@
 package com.example.financial_products_management.exception;
 
+import com.example.financial_products_management.domain.shared.Money;
+
 /**
  * Excepción personalizada para casos de fondos insuficientes.
  * Maneja internamente los mensajes de error según el contexto.
+ * Para escenarios de alto volumen ofrece variantes sin traza de pila (ver {@link #stackless()}),
+ * ya que un retiro rechazado es un resultado de negocio habitual y no un error del programa.
  */
 public class InsufficientFundsException extends Exception {
     
     private static final String DEFAULT_MESSAGE = "SALDO INSUFICIENTE";
     private static final String OVERDRAFT_MESSAGE = "SALDO INSUFICIENTE - Límite de sobregiro excedido";
+    private static final InsufficientFundsException STACKLESS = new InsufficientFundsException(DEFAULT_MESSAGE, false);
     
     /**
      * Crea una excepción de fondos insuficientes con mensaje por defecto.
@@ -19,13 +24,12 @@ public class InsufficientFundsException extends Exception {
     /**
      * Crea una excepción de fondos insuficientes para cuentas corrientes con sobregiro.
      *
-     * @param currentBalance Saldo actual
-     * @param overdraftLimit Límite de sobregiro
-     * @param attemptedAmount Monto que se intentó retirar
+     * @param currentBalance Saldo actual en centavos
+     * @param overdraftLimit Límite de sobregiro en centavos
+     * @param attemptedAmount Monto que se intentó retirar en centavos
      */
-    public InsufficientFundsException(double currentBalance, double overdraftLimit, double attemptedAmount) {
-        super(String.format("%s (Saldo: $%.2f, Sobregiro: $%.2f, Intentado: $%.2f)", 
-                OVERDRAFT_MESSAGE, currentBalance, overdraftLimit, attemptedAmount));
+    public InsufficientFundsException(long currentBalance, long overdraftLimit, long attemptedAmount) {
+        super(overdraftMessage(currentBalance, overdraftLimit, attemptedAmount));
     }
     
     
@@ -39,6 +43,62 @@ public class InsufficientFundsException extends Exception {
         super(customMessage);
     }
     
+    /**
+     * Crea una excepción sin traza de pila ni excepciones suprimidas.
+     *
+     * @param message            Mensaje de la excepción
+     * @param writableStackTrace Indica si se captura la traza de pila
+     */
+    protected InsufficientFundsException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Obtiene una instancia compartida y preasignada, sin traza de pila, con el mensaje por defecto.
+     * Es inmutable, por lo que puede lanzarse desde varios hilos a la vez.
+     *
+     * @return Excepción de fondos insuficientes compartida
+     */
+    public static InsufficientFundsException stackless() {
+        return STACKLESS;
+    }
+
+    /**
+     * Crea una excepción sin traza de pila para cuentas corrientes con sobregiro.
+     * El mensaje detallado solo se construye si se consulta.
+     *
+     * @param currentBalance Saldo actual en centavos
+     * @param overdraftLimit Límite de sobregiro en centavos
+     * @param attemptedAmount Monto que se intentó retirar en centavos
+     * @return Excepción de fondos insuficientes sin traza de pila
+     */
+    public static InsufficientFundsException stackless(long currentBalance, long overdraftLimit, long attemptedAmount) {
+        return new StacklessOverdraftException(currentBalance, overdraftLimit, attemptedAmount);
+    }
+
+    /**
+     * Obtiene el mensaje por defecto de fondos insuficientes.
+     *
+     * @return Mensaje por defecto
+     */
+    public static String defaultMessage() {
+        return DEFAULT_MESSAGE;
+    }
+
+    /**
+     * Construye el mensaje de fondos insuficientes para cuentas corrientes con sobregiro.
+     *
+     * @param currentBalance Saldo actual en centavos
+     * @param overdraftLimit Límite de sobregiro en centavos
+     * @param attemptedAmount Monto que se intentó retirar en centavos
+     * @return Mensaje detallado
+     */
+    public static String overdraftMessage(long currentBalance, long overdraftLimit, long attemptedAmount) {
+        return String.format("%s (Saldo: $%s, Sobregiro: $%s, Intentado: $%s)", 
+                OVERDRAFT_MESSAGE, Money.format(currentBalance), Money.format(overdraftLimit),
+                Money.format(attemptedAmount));
+    }
+
     /**
      * Crea una excepción de fondos insuficientes con causa.
      *
@@ -47,4 +107,25 @@ public class InsufficientFundsException extends Exception {
     public InsufficientFundsException(Throwable cause) {
         super(DEFAULT_MESSAGE, cause);
     }
+
+    /**
+     * Variante sin traza de pila que construye el mensaje de sobregiro de forma diferida.
+     */
+    private static final class StacklessOverdraftException extends InsufficientFundsException {
+        private final long currentBalance;
+        private final long overdraftLimit;
+        private final long attemptedAmount;
+
+        private StacklessOverdraftException(long currentBalance, long overdraftLimit, long attemptedAmount) {
+            super(null, false);
+            this.currentBalance = currentBalance;
+            this.overdraftLimit = overdraftLimit;
+            this.attemptedAmount = attemptedAmount;
+        }
+
+        @Override
+        public String getMessage() {
+            return overdraftMessage(currentBalance, overdraftLimit, attemptedAmount);
+        }
+    }
 }
@@ -2,9 +2,13 @@ package com.example.financial_products_management.exception;
 
 /**
  * Excepción personalizada para casos donde no se encuentra un producto.
+ * Para escenarios de alto volumen ofrece una variante sin traza de pila
+ * (ver {@link #stackless(String)}) cuyo mensaje se construye solo si se consulta.
  */
 public class ProductNotFoundException extends Exception {
     
+    private static final String NOT_FOUND_MESSAGE = "No se encontró un producto con el número: ";
+
     /**
      * Crea una nueva excepción de producto no encontrado.
      *
@@ -14,4 +18,50 @@ public class ProductNotFoundException extends Exception {
         super(message);
     }
 
+    /**
+     * Crea una excepción sin traza de pila ni excepciones suprimidas.
+     *
+     * @param message            Mensaje descriptivo del error
+     * @param writableStackTrace Indica si se captura la traza de pila
+     */
+    protected ProductNotFoundException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    /**
+     * Crea una excepción de producto no encontrado sin traza de pila.
+     *
+     * @param productNumber Número del producto buscado
+     * @return Excepción de producto no encontrado sin traza de pila
+     */
+    public static ProductNotFoundException stackless(String productNumber) {
+        return new StacklessProductNotFoundException(productNumber);
+    }
+
+    /**
+     * Construye el mensaje de producto no encontrado por número.
+     *
+     * @param productNumber Número del producto buscado
+     * @return Mensaje descriptivo del error
+     */
+    public static String notFoundMessage(String productNumber) {
+        return NOT_FOUND_MESSAGE + productNumber;
+    }
+
+    /**
+     * Variante sin traza de pila que construye el mensaje de forma diferida.
+     */
+    private static final class StacklessProductNotFoundException extends ProductNotFoundException {
+        private final String productNumber;
+
+        private StacklessProductNotFoundException(String productNumber) {
+            super(null, false);
+            this.productNumber = productNumber;
+        }
+
+        @Override
+        public String getMessage() {
+            return notFoundMessage(productNumber);
+        }
+    }
 }
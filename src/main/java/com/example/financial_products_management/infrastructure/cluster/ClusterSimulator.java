@@ -0,0 +1,195 @@
+package com.example.financial_products_management.infrastructure.cluster;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulador de un clúster local que mide el rendimiento a medida que se agregan nodos.
+ * Para cada cantidad de nodos crea un {@link LocalCluster}, reparte en él cuentas corrientes de
+ * prueba y ejecuta durante un tiempo fijo una mezcla de depósitos, retiros y transferencias entre
+ * cuentas elegidas al azar, con varios hilos que envían cada operación al enrutador y esperan su
+ * resultado. Al terminar cada ronda verifica que la suma de los saldos de todos los nodos sea la
+ * inicial más los depósitos y menos los retiros aplicados, es decir, que las transferencias entre
+ * nodos no crearon ni perdieron dinero.
+ * <p>
+ * Opciones:
+ * <ul>
+ *   <li>{@code --shards <n,n,...>}: cantidades de nodos a medir (por defecto 1,2,4,8)</li>
+ *   <li>{@code --mode <proceso|red>}: nodos en el mismo proceso o con un servidor por nodo en la
+ *       interfaz local (por defecto proceso)</li>
+ *   <li>{@code --threads <n>}: hilos que envían operaciones (por defecto 16)</li>
+ *   <li>{@code --accounts <n>}: cuentas de prueba (por defecto 100000)</li>
+ *   <li>{@code --transfers <porcentaje>}: porcentaje de transferencias en la mezcla (por defecto 20)</li>
+ *   <li>{@code --seconds <n>}: duración de cada ronda (por defecto 5)</li>
+ * </ul>
+ */
+public final class ClusterSimulator {
+    private static final long INITIAL_BALANCE = 100_000_000;
+    private static final LocalDate OPENING_DATE = LocalDate.of(2025, 1, 1);
+
+    private int[] shardCounts = {1, 2, 4, 8};
+    private boolean network;
+    private int threads = 16;
+    private int accounts = 100_000;
+    private int transferPercent = 20;
+    private int seconds = 5;
+
+    private ClusterSimulator() {
+    }
+
+    /**
+     * Ejecuta las rondas del simulador.
+     *
+     * @param args Opciones de ejecución
+     * @throws Exception Si alguna ronda no puede ejecutarse
+     */
+    public static void main(String[] args) throws Exception {
+        ClusterSimulator simulator = new ClusterSimulator();
+        simulator.parse(args);
+        simulator.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de la opción " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--shards" -> shardCounts = parseList(value);
+                case "--mode" -> network = switch (value) {
+                    case "proceso" -> false;
+                    case "red" -> true;
+                    default -> throw new IllegalArgumentException("Modo desconocido: " + value);
+                };
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--accounts" -> accounts = Integer.parseInt(value);
+                case "--transfers" -> transferPercent = Integer.parseInt(value);
+                case "--seconds" -> seconds = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        if (threads <= 0 || accounts < 2 || seconds <= 0 || transferPercent < 0 || transferPercent > 100) {
+            throw new IllegalArgumentException(
+                    "Se requieren hilos y duración positivos, al menos dos cuentas y un porcentaje entre 0 y 100");
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Modo: %s, hilos: %d, cuentas: %d, transferencias: %d%%, ronda: %d s%n",
+                network ? "red local" : "mismo proceso", threads, accounts, transferPercent, seconds);
+        for (int shards : shardCounts) {
+            try (LocalCluster cluster = network ? LocalCluster.onLocalhost(shards) : LocalCluster.inProcess(shards)) {
+                runRound(cluster);
+            }
+        }
+    }
+
+    private void runRound(LocalCluster cluster) throws Exception {
+        ShardRouter router = cluster.getRouter();
+        String[] numbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            numbers[i] = Integer.toString(1_000_000 + i);
+            router.register(new CheckingAccount(numbers[i], OPENING_DATE,
+                    new Customer("CS" + numbers[i], "Cliente", "Del Simulador", "3000000000"), INITIAL_BALANCE, 0));
+        }
+
+        LongAdder completed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder netDeposits = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        List<Throwable> failures = new ArrayList<>();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    runClient(router, numbers, deadline, completed, rejected, netDeposits);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            }, "cluster-client-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Falló un hilo del simulador", failures.get(0));
+        }
+
+        long expected = INITIAL_BALANCE * accounts + netDeposits.sum();
+        long total = totalBalance(router, numbers);
+        long operations = completed.sum() + rejected.sum();
+        System.out.printf("Nodos: %d, operaciones: %d (rechazadas: %d), rendimiento: %.0f ops/s, "
+                        + "transferencias entre nodos: %d, depósitos pendientes: %d, retiros en duda: %d, "
+                        + "sin resolver: %d, saldos %s%n",
+                cluster.size(), operations, rejected.sum(), operations / (elapsed / 1e9),
+                router.getCrossShardTransfers(), router.getPendingDeposits(), router.getInDoubtWithdrawals(),
+                router.getUnresolvedTransfers().size(),
+                total == expected ? "consistentes" : "INCONSISTENTES (diferencia " + (total - expected) + ")");
+    }
+
+    private void runClient(ShardRouter router, String[] numbers, long deadline, LongAdder completed,
+                           LongAdder rejected, LongAdder netDeposits) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        OperationResult result = new OperationResult();
+        while (System.nanoTime() < deadline) {
+            int source = random.nextInt(accounts);
+            long amount = 1 + random.nextInt(10_000);
+            OperationStatus status;
+            if (random.nextInt(100) < transferPercent) {
+                int target = (source + 1 + random.nextInt(accounts - 1)) % accounts;
+                status = router.performTransfer(numbers[source], numbers[target], amount, result);
+            } else if (random.nextBoolean()) {
+                status = router.performOperation(numbers[source], OperationType.DEPOSIT, amount, result);
+                if (status.isSuccess()) {
+                    netDeposits.add(amount);
+                }
+            } else {
+                status = router.performOperation(numbers[source], OperationType.WITHDRAWAL, amount, result);
+                if (status.isSuccess()) {
+                    netDeposits.add(-amount);
+                }
+            }
+            (status.isSuccess() ? completed : rejected).increment();
+        }
+    }
+
+    private static long totalBalance(ShardRouter router, String[] numbers) throws ProductNotFoundException {
+        long total = 0;
+        for (String number : numbers) {
+            total += router.getBalance(number);
+        }
+        return total;
+    }
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].strip());
+            if (values[i] <= 0) {
+                throw new IllegalArgumentException("La cantidad de nodos debe ser mayor a cero");
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.financial_products_management.infrastructure.cluster;
+
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_company.IdempotencyCache;
+import com.example.financial_products_management.domain.repository.IndexedProductRepository;
+import com.example.financial_products_management.infrastructure.server.FinancialServer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clúster local para pruebas: varios nodos, cada uno con su propia FinancialCompany, y un
+ * {@link ShardRouter} sobre ellos.
+ * Los nodos pueden atenderse en el mismo proceso o cada uno con su propio {@link FinancialServer}
+ * en un puerto libre de la interfaz local, en cuyo caso el enrutador se comunica con ellos por la red.
+ */
+public final class LocalCluster implements Closeable {
+    /**
+     * Claves de idempotencia recordadas por nodo. Alcanza para los reintentos de las transferencias
+     * en curso sin reservar la capacidad por defecto en cada nodo.
+     */
+    private static final int IDEMPOTENCY_KEYS = 1 << 18;
+
+    private final List<FinancialCompany> companies;
+    private final List<FinancialServer> servers;
+    private final ShardRouter router;
+
+    private LocalCluster(List<FinancialCompany> companies, List<FinancialServer> servers, List<ShardNode> nodes) {
+        this.companies = companies;
+        this.servers = servers;
+        this.router = new ShardRouter(nodes);
+    }
+
+    /**
+     * Crea un clúster con nodos en el mismo proceso.
+     *
+     * @param shards Cantidad de nodos
+     * @return Clúster creado
+     */
+    public static LocalCluster inProcess(int shards) {
+        List<FinancialCompany> companies = newCompanies(shards);
+        List<ShardNode> nodes = new ArrayList<>(shards);
+        for (FinancialCompany company : companies) {
+            nodes.add(new LocalShardNode(company));
+        }
+        return new LocalCluster(companies, List.of(), nodes);
+    }
+
+    /**
+     * Crea un clúster con un servidor de solicitudes por nodo en la interfaz local.
+     *
+     * @param shards Cantidad de nodos
+     * @return Clúster creado, con los servidores ya aceptando conexiones
+     * @throws IOException Si algún servidor no puede abrirse; los ya abiertos se cierran
+     */
+    public static LocalCluster onLocalhost(int shards) throws IOException {
+        List<FinancialCompany> companies = newCompanies(shards);
+        List<FinancialServer> servers = new ArrayList<>(shards);
+        List<ShardNode> nodes = new ArrayList<>(shards);
+        try {
+            for (FinancialCompany company : companies) {
+                FinancialServer server = new FinancialServer(company, 0);
+                servers.add(server);
+                server.start();
+                nodes.add(new RemoteShardNode("localhost", server.getPort()));
+            }
+        } catch (IOException e) {
+            for (FinancialServer server : servers) {
+                try {
+                    server.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        return new LocalCluster(companies, servers, nodes);
+    }
+
+    /**
+     * Obtiene el enrutador del clúster.
+     *
+     * @return Enrutador
+     */
+    public ShardRouter getRouter() {
+        return router;
+    }
+
+    /**
+     * Obtiene la compañía de un nodo, para inspeccionar su estado.
+     *
+     * @param shard Posición del nodo
+     * @return Compañía del nodo
+     */
+    public FinancialCompany getCompany(int shard) {
+        return companies.get(shard);
+    }
+
+    /**
+     * Obtiene la cantidad de nodos.
+     *
+     * @return Cantidad de nodos
+     */
+    public int size() {
+        return companies.size();
+    }
+
+    /**
+     * Cierra el enrutador y los servidores de los nodos.
+     *
+     * @throws IOException Si algún recurso no puede cerrarse
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        try {
+            router.close();
+        } catch (IOException e) {
+            failure = e;
+        }
+        for (FinancialServer server : servers) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static List<FinancialCompany> newCompanies(int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("El clúster debe tener al menos un nodo");
+        }
+        List<FinancialCompany> companies = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            FinancialCompany company = new FinancialCompany(new IndexedProductRepository());
+            company.setIdempotencyCache(new IdempotencyCache(IDEMPOTENCY_KEYS, IdempotencyCache.DEFAULT_RETENTION));
+            companies.add(company);
+        }
+        return companies;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.financial_products_management.infrastructure.cluster;
+
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.Depositable;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.util.List;
+
+/**
+ * Nodo del clúster en el mismo proceso: invoca directamente a su FinancialCompany.
+ * La compañía debe tener una caché de idempotencia asignada, que el nodo usa para las fases de las
+ * transferencias entre nodos.
+ */
+public class LocalShardNode implements ShardNode {
+    private final FinancialCompany financialCompany;
+
+    /**
+     * Crea un nodo sobre una compañía existente.
+     *
+     * @param financialCompany Compañía dueña de los productos del nodo
+     * @throws IllegalArgumentException Si la compañía no tiene una caché de idempotencia asignada
+     */
+    public LocalShardNode(FinancialCompany financialCompany) {
+        if (financialCompany.getIdempotencyCache() == null) {
+            throw new IllegalArgumentException("El nodo requiere una compañía con caché de idempotencia");
+        }
+        this.financialCompany = financialCompany;
+    }
+
+    /**
+     * Obtiene la compañía dueña de los productos del nodo.
+     *
+     * @return Compañía del nodo
+     */
+    public FinancialCompany getFinancialCompany() {
+        return financialCompany;
+    }
+
+    @Override
+    public OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                            OperationResult result, String idempotencyKey) {
+        return financialCompany.performOperation(productNumber, operationType, amount, result, idempotencyKey);
+    }
+
+    @Override
+    public OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                           OperationResult result, String idempotencyKey) {
+        return financialCompany.performTransfer(sourceProductNumber, targetProductNumber, amount, result,
+                idempotencyKey);
+    }
+
+    @Override
+    public boolean prepareDeposit(String productNumber, long amount, OperationResult result) {
+        FinancialProduct product;
+        try {
+            product = financialCompany.consultByProductNumber(productNumber);
+        } catch (ProductNotFoundException e) {
+            result.record(OperationStatus.PRODUCT_NOT_FOUND, OperationType.TRANSFER, productNumber, amount, 0);
+            return false;
+        }
+        if (!(product instanceof Depositable depositable)) {
+            result.record(OperationStatus.UNSUPPORTED_OPERATION, OperationType.TRANSFER, productNumber, amount,
+                    product.getBalance());
+            return false;
+        }
+        if (!depositable.acceptsDeposit(amount)) {
+            result.record(OperationStatus.INVALID_AMOUNT, OperationType.TRANSFER, productNumber, amount,
+                    product.getBalance());
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void register(FinancialProduct product) {
+        financialCompany.registerAll(List.of(product));
+    }
+
+    @Override
+    public long getBalance(String productNumber) throws ProductNotFoundException {
+        return financialCompany.consultByProductNumber(productNumber).getBalance();
+    }
+}
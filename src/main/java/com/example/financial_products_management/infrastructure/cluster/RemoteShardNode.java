@@ -0,0 +1,257 @@
+package com.example.financial_products_management.infrastructure.cluster;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import com.example.financial_products_management.infrastructure.server.FinancialServer;
+import com.example.financial_products_management.infrastructure.server.ProtocolSession;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Nodo del clúster en otro proceso, atendido por un {@link FinancialServer} con el protocolo de texto
+ * de {@link ProtocolSession}.
+ * Cada solicitud toma una conexión libre, o abre una nueva si no hay, y la devuelve al recibir la
+ * respuesta, de modo que los hilos concurrentes no comparten conexiones. Una conexión que falla se
+ * descarta y el fallo se informa con {@link UncheckedIOException}.
+ * Los resultados registran el estado y los saldos que informa el servidor; el interés y los límites
+ * de las operaciones no viajan en el protocolo. El servidor debe tener una caché de idempotencia
+ * asignada ({@code financial.idempotency=true}).
+ */
+public class RemoteShardNode implements ShardNode {
+    private static final String OK = "OK ";
+    private static final String ERROR = "ERROR ";
+
+    private final String host;
+    private final int port;
+    private final Queue<Connection> idle = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * Crea un nodo remoto. Las conexiones se abren al enviar la primera solicitud.
+     *
+     * @param host Servidor del nodo
+     * @param port Puerto del servidor
+     */
+    public RemoteShardNode(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    public OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                            OperationResult result, String idempotencyKey) {
+        String command = switch (operationType) {
+            case DEPOSIT -> "DEPOSITAR ";
+            case WITHDRAWAL -> "RETIRAR ";
+            case TRANSFER, INTEREST_ACCRUAL -> throw new UnsupportedOperationException(
+                    "El nodo remoto solo admite depósitos y retiros como operaciones individuales");
+        };
+        String[] response = request(command + productNumber + ' ' + Money.format(amount) + keySuffix(idempotencyKey));
+        OperationStatus status = OperationStatus.valueOf(response[1]);
+        return result.record(status, operationType, productNumber, amount,
+                status.isSuccess() ? Money.parse(response[2]) : 0);
+    }
+
+    @Override
+    public OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                           OperationResult result, String idempotencyKey) {
+        String[] response = request("TRANSFERIR " + sourceProductNumber + ' ' + targetProductNumber + ' '
+                + Money.format(amount) + keySuffix(idempotencyKey));
+        OperationStatus status = OperationStatus.valueOf(response[1]);
+        if (!status.isSuccess()) {
+            return result.record(status, OperationType.TRANSFER, sourceProductNumber, amount, 0);
+        }
+        result.record(status, OperationType.TRANSFER, sourceProductNumber, amount, Money.parse(response[2]));
+        result.setTarget(targetProductNumber, Money.parse(response[3]));
+        return status;
+    }
+
+    @Override
+    public boolean prepareDeposit(String productNumber, long amount, OperationResult result) {
+        // Respuesta: OK número tipo saldo identificación; solo los productos sin tipo conocido no reciben depósitos
+        String[] response = request("CONSULTAR " + productNumber);
+        if (response[0].equals("ERROR")) {
+            result.record(OperationStatus.valueOf(response[1]), OperationType.TRANSFER, productNumber, amount, 0);
+            return false;
+        }
+        if (response[2].equals("OTRO")) {
+            result.record(OperationStatus.UNSUPPORTED_OPERATION, OperationType.TRANSFER, productNumber, amount,
+                    Money.parse(response[3]));
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void register(FinancialProduct product) {
+        request("CREAR " + rowOf(product));
+    }
+
+    @Override
+    public long getBalance(String productNumber) throws ProductNotFoundException {
+        String[] response = request("CONSULTAR " + productNumber);
+        if (response[0].equals("ERROR")) {
+            throw new ProductNotFoundException(ProductNotFoundException.notFoundMessage(productNumber));
+        }
+        return Money.parse(response[3]);
+    }
+
+    /**
+     * Cierra las conexiones libres. Las que están en uso se cierran al devolverse.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Envía una solicitud y separa la respuesta en sus campos.
+     * Las respuestas de error conservan su estado en el segundo campo y el detalle, sin separar, en el tercero.
+     *
+     * @throws IllegalArgumentException Si el servidor rechaza la solicitud por inválida
+     * @throws UncheckedIOException     Si la comunicación con el servidor falla
+     */
+    private String[] request(String line) {
+        if (closed) {
+            throw new IllegalStateException("El nodo remoto está cerrado");
+        }
+        Connection connection = idle.poll();
+        String response;
+        try {
+            if (connection == null) {
+                connection = new Connection(host, port);
+            }
+            connection.writer.write(line);
+            connection.writer.newLine();
+            connection.writer.flush();
+            response = connection.reader.readLine();
+            if (response == null) {
+                throw new IOException("El nodo " + host + ":" + port + " cerró la conexión");
+            }
+        } catch (IOException e) {
+            closeQuietly(connection);
+            throw new UncheckedIOException("No fue posible comunicarse con el nodo " + host + ":" + port, e);
+        }
+        release(connection);
+
+        if (response.startsWith(ERROR)) {
+            String[] fields = response.split(" ", 3);
+            if (fields.length < 2 || !isStatus(fields[1])) {
+                throw new IllegalArgumentException(fields.length == 3 ? fields[2] : response);
+            }
+            return fields;
+        }
+        if (!response.startsWith(OK)) {
+            throw new IllegalStateException("Respuesta inesperada del nodo: " + response);
+        }
+        return response.split(" ");
+    }
+
+    private void release(Connection connection) {
+        idle.add(connection);
+        // Si el nodo se cerró mientras la conexión estaba en uso, se cierra aquí
+        if (closed && idle.remove(connection)) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (IOException ignored) {
+            // La conexión ya no se usa
+        }
+    }
+
+    private static boolean isStatus(String name) {
+        for (OperationStatus status : OperationStatus.values()) {
+            if (status.name().equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String keySuffix(String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return "";
+        }
+        if (idempotencyKey.isEmpty() || idempotencyKey.chars().anyMatch(c -> c <= ' ')) {
+            throw new IllegalArgumentException("La clave de idempotencia no puede estar vacía ni tener espacios");
+        }
+        return " " + idempotencyKey;
+    }
+
+    /**
+     * Convierte un producto a la fila de creación del protocolo, con el formato de la carga masiva.
+     */
+    private static String rowOf(FinancialProduct product) {
+        String kind;
+        long value = 0;
+        String classification = "";
+        if (product instanceof SavingsAccount) {
+            kind = "AHORRO";
+        } else if (product instanceof CheckingAccount checking) {
+            kind = "CORRIENTE";
+            value = checking.getOverdraftLimit();
+        } else if (product instanceof SalaryAccount salary) {
+            kind = "SALARIO";
+            value = salary.getSalaryAmount();
+        } else if (product instanceof HousingSavingsAccount housing) {
+            kind = "VIVIENDA";
+            value = housing.getTotalHousingValue();
+            classification = housing.getClassification().name();
+        } else {
+            throw new IllegalArgumentException("El nodo remoto no admite productos de tipo "
+                    + product.getProductType());
+        }
+        return String.join(",", kind, product.getProductNumber(), product.getCustomer().getIdentification(),
+                product.getCustomer().getFirstName(), product.getCustomer().getLastName(),
+                product.getCustomer().getPhone(), Money.format(product.getBalance()), Money.format(value),
+                classification);
+    }
+
+    /**
+     * Conexión de texto con el servidor del nodo.
+     */
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Connection(String host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.financial_products_management.infrastructure.cluster;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Nodo de un clúster de productos financieros, dueño de los productos de una partición.
+ * Cada nodo aplica sus operaciones con su propia FinancialCompany, en el mismo proceso
+ * ({@link LocalShardNode}) o en otro a través del servidor de solicitudes ({@link RemoteShardNode}).
+ * Las operaciones con clave de idempotencia se aplican una sola vez en el nodo mientras su caché
+ * recuerda la clave, lo que permite a {@link ShardRouter} reintentar dentro de ese tiempo las fases
+ * de una transferencia entre nodos sin duplicarlas.
+ * Las implementaciones deben ser seguras para uso concurrente.
+ */
+public interface ShardNode extends Closeable {
+
+    /**
+     * Realiza una operación bancaria sobre un producto del nodo, una sola vez por clave de idempotencia.
+     *
+     * @param productNumber  Número del producto
+     * @param operationType  Tipo de operación
+     * @param amount         Monto de la operación en centavos
+     * @param result         Resultado donde se registra la operación
+     * @param idempotencyKey Clave de idempotencia, o null para aplicar la operación sin clave
+     * @return Estado de la operación
+     */
+    OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                     OperationResult result, String idempotencyKey);
+
+    /**
+     * Transfiere un monto entre dos productos del nodo de forma atómica.
+     *
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado donde se registra la operación
+     * @param idempotencyKey      Clave de idempotencia, o null para aplicar la transferencia sin clave
+     * @return Estado de la operación
+     */
+    OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                    OperationResult result, String idempotencyKey);
+
+    /**
+     * Verifica que un producto del nodo puede recibir el depósito de una transferencia entre nodos.
+     * No modifica el producto. Como los productos no se eliminan y un producto que acepta el monto
+     * según {@link com.example.financial_products_management.domain.shared.Depositable#acceptsDeposit(long)}
+     * no rechaza después el depósito, un producto preparado acepta la confirmación.
+     *
+     * @param productNumber Número del producto de destino
+     * @param amount        Monto a depositar en centavos
+     * @param result        Resultado donde se registra el rechazo, si lo hay
+     * @return true si el producto puede recibir el depósito
+     */
+    boolean prepareDeposit(String productNumber, long amount, OperationResult result);
+
+    /**
+     * Registra un producto nuevo en el nodo.
+     *
+     * @param product Producto a registrar
+     * @throws IllegalArgumentException Si el producto es inválido o el nodo lo rechaza
+     */
+    void register(FinancialProduct product);
+
+    /**
+     * Consulta el saldo de un producto del nodo.
+     *
+     * @param productNumber Número del producto
+     * @return Saldo en centavos
+     * @throws ProductNotFoundException Si el producto no existe
+     */
+    long getBalance(String productNumber) throws ProductNotFoundException;
+
+    /**
+     * Libera los recursos del nodo.
+     *
+     * @throws IOException Si la liberación falla
+     */
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,527 @@
+package com.example.financial_products_management.infrastructure.cluster;
+
+import com.example.financial_products_management.domain.financial_company.IdempotencyCache;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enrutador de operaciones de un clúster de productos financieros repartidos en particiones.
+ * Cada producto pertenece al nodo que indica el hash de su número, calculado sobre su valor numérico,
+ * por lo que "001" y "1" van al mismo nodo. Los depósitos, retiros y transferencias entre productos
+ * de un mismo nodo se envían a ese nodo tal cual.
+ * Las transferencias entre productos de nodos distintos siguen un protocolo de dos fases:
+ * <ol>
+ *   <li>Preparación: el nodo del destino verifica que el producto existe y admite depósitos, sin
+ *       modificarlo, y luego el nodo del origen aplica el retiro. El retiro es el voto del origen:
+ *       si lo rechaza (fondos, sobregiro, límite de salario) la transferencia se aborta y ningún
+ *       producto cambia.</li>
+ *   <li>Confirmación: el nodo del destino aplica el depósito, que ya no puede rechazarse.</li>
+ * </ol>
+ * Ambas fases se envían con claves de idempotencia derivadas de la transferencia. El retiro se
+ * registra como en duda, con su clave, antes de enviarlo: si el nodo del origen falla sin responder,
+ * no se sabe si lo aplicó, y {@link #completePendingDeposits()} lo reenvía con la misma clave para
+ * conocer su resultado y, si se aplicó, continuar con la confirmación. Si la confirmación falla (por
+ * ejemplo, el nodo no responde) el depósito queda pendiente y {@link #completePendingDeposits()} lo
+ * reintenta. Entre las dos fases el monto está en tránsito: ya salió del origen y aún no llega al
+ * destino.
+ * <p>Reenviar una fase no la aplica dos veces solo mientras la caché de idempotencia del nodo recuerda
+ * su clave. Por eso las fases se reenvían solo dentro de una ventana, que no debe superar la retención
+ * de esas cachés y, por defecto, es {@link IdempotencyCache#DEFAULT_RETENTION}; la capacidad de cada
+ * caché también debe alcanzar para todas las claves que el nodo recibe en ese tiempo, porque una clave
+ * descartada antes por falta de espacio vuelve a aplicarse. Las fases que siguen sin resolverse al
+ * vencer la ventana dejan de reenviarse y quedan en {@link #getUnresolvedTransfers()} para conciliarlas
+ * manualmente.
+ * <p>Los retiros en duda, los depósitos pendientes y las transferencias sin resolver se guardan solo
+ * en la memoria del enrutador: si se reinicia con transferencias incompletas, se pierden, y el dinero
+ * que ya salió de un origen no llega a su destino hasta que se concilie manualmente con los nodos.
+ * <p>El nodo de cada producto exige su propia restricción de un producto por cliente; la restricción no
+ * se verifica entre nodos.
+ */
+public class ShardRouter implements Closeable {
+    private final ShardNode[] nodes;
+    private final String transferPrefix;
+    private final AtomicLong transferSequence = new AtomicLong();
+    private final LongAdder crossShardTransfers = new LongAdder();
+    private final Queue<PendingDeposit> pendingDeposits = new ConcurrentLinkedQueue<>();
+    private final Map<String, InDoubtWithdrawal> inDoubtWithdrawals = new ConcurrentHashMap<>();
+    private final Queue<UnresolvedTransfer> unresolvedTransfers = new ConcurrentLinkedQueue<>();
+    private final long resendWindowNanos;
+    private final ThreadLocal<OperationResult> depositResults = ThreadLocal.withInitial(OperationResult::new);
+
+    /**
+     * Crea un enrutador sobre los nodos indicados. El orden de los nodos define la partición de
+     * cada producto, por lo que debe ser el mismo siempre que se use el mismo clúster.
+     *
+     * Las fases incompletas se reenvían durante {@link IdempotencyCache#DEFAULT_RETENTION}.
+     *
+     * @param nodes Nodos del clúster
+     * @throws IllegalArgumentException Si no se indica ningún nodo
+     */
+    public ShardRouter(List<? extends ShardNode> nodes) {
+        this(nodes, IdempotencyCache.DEFAULT_RETENTION);
+    }
+
+    /**
+     * Crea un enrutador sobre los nodos indicados con una ventana de reenvío propia.
+     *
+     * @param nodes        Nodos del clúster
+     * @param resendWindow Tiempo durante el cual se reenvían las fases incompletas; no debe superar la
+     *                     retención de las cachés de idempotencia de los nodos
+     * @throws IllegalArgumentException Si no se indica ningún nodo o la ventana no es positiva
+     */
+    public ShardRouter(List<? extends ShardNode> nodes, Duration resendWindow) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("El clúster debe tener al menos un nodo");
+        }
+        if (resendWindow.isNegative() || resendWindow.isZero()) {
+            throw new IllegalArgumentException("La ventana de reenvío debe ser positiva");
+        }
+        this.nodes = nodes.toArray(new ShardNode[0]);
+        this.resendWindowNanos = resendWindow.toNanos();
+        // Distingue las transferencias de este enrutador de las de otros sobre los mismos nodos
+        this.transferPrefix = "tx-" + Long.toHexString(ThreadLocalRandom.current().nextLong()) + "-";
+    }
+
+    /**
+     * Obtiene la cantidad de nodos del clúster.
+     *
+     * @return Cantidad de nodos
+     */
+    public int getShardCount() {
+        return nodes.length;
+    }
+
+    /**
+     * Obtiene un nodo del clúster.
+     *
+     * @param shard Posición del nodo
+     * @return Nodo
+     */
+    public ShardNode getNode(int shard) {
+        return nodes[shard];
+    }
+
+    /**
+     * Calcula el nodo dueño de un producto.
+     * Los números inválidos se asignan al primer nodo, que los rechaza como productos inexistentes.
+     *
+     * @param productNumber Número del producto
+     * @return Posición del nodo
+     */
+    public int shardOf(String productNumber) {
+        long number = ProductNumbers.parse(productNumber);
+        if (number == ProductNumbers.NONE) {
+            return 0;
+        }
+        // Reduce los 32 bits altos de la mezcla al rango de nodos sin divisiones
+        return (int) (((shardHash(number) >>> 32) * nodes.length) >>> 32);
+    }
+
+    /**
+     * Mezcla el número de un producto para elegir su nodo.
+     * No usa {@link ProductNumbers#hash(long)}: las tablas de cada nodo toman su posición de los bits
+     * altos de ese hash, y si el nodo también dependiera de ellos los productos de un nodo ocuparían
+     * solo una parte de su tabla y alargarían las búsquedas.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Mezcla del número
+     */
+    private static long shardHash(long productNumber) {
+        // Paso final de MurmurHash3
+        long hash = productNumber;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Registra un producto nuevo en el nodo que le corresponde.
+     *
+     * @param product Producto a registrar
+     * @throws IllegalArgumentException Si el producto es inválido o el nodo lo rechaza
+     */
+    public void register(FinancialProduct product) {
+        if (product == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+        nodes[shardOf(product.getProductNumber())].register(product);
+    }
+
+    /**
+     * Consulta el saldo de un producto en el nodo que le corresponde.
+     *
+     * @param productNumber Número del producto
+     * @return Saldo en centavos
+     * @throws ProductNotFoundException Si el producto no existe
+     */
+    public long getBalance(String productNumber) throws ProductNotFoundException {
+        return nodes[shardOf(productNumber)].getBalance(productNumber);
+    }
+
+    /**
+     * Realiza una operación bancaria en el nodo del producto.
+     *
+     * @param productNumber Número del producto
+     * @param operationType Tipo de operación
+     * @param amount        Monto de la operación en centavos
+     * @param result        Resultado donde se registra la operación
+     * @return Estado de la operación
+     */
+    public OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                            OperationResult result) {
+        return performOperation(productNumber, operationType, amount, result, null);
+    }
+
+    /**
+     * Realiza una operación bancaria en el nodo del producto, una sola vez por clave de idempotencia.
+     *
+     * @param productNumber  Número del producto
+     * @param operationType  Tipo de operación
+     * @param amount         Monto de la operación en centavos
+     * @param result         Resultado donde se registra la operación
+     * @param idempotencyKey Clave de idempotencia, o null para aplicar la operación sin clave
+     * @return Estado de la operación
+     */
+    public OperationStatus performOperation(String productNumber, OperationType operationType, long amount,
+                                            OperationResult result, String idempotencyKey) {
+        return nodes[shardOf(productNumber)].performOperation(productNumber, operationType, amount, result,
+                idempotencyKey);
+    }
+
+    /**
+     * Transfiere un monto entre dos productos, en un solo nodo o entre nodos.
+     *
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado donde se registra la operación
+     * @return Estado de la operación
+     * @see #performTransfer(String, String, long, OperationResult, String)
+     */
+    public OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                           OperationResult result) {
+        return performTransfer(sourceProductNumber, targetProductNumber, amount, result, null);
+    }
+
+    /**
+     * Transfiere un monto entre dos productos, una sola vez por clave de idempotencia.
+     * Si ambos productos están en el mismo nodo, la transferencia es atómica en ese nodo. Si no, se
+     * aplica con el protocolo de dos fases descrito en la clase: los rechazos se informan como en una
+     * transferencia local, y en una transferencia exitosa el resultado tiene los saldos de ambos productos.
+     * Con una clave, las fases usan claves derivadas de ella y de los productos, de modo que un
+     * reintento de la misma transferencia, mientras los nodos recuerdan esas claves, no la aplica de
+     * nuevo en ningún nodo.
+     *
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto a transferir en centavos
+     * @param result              Resultado donde se registra la operación
+     * @param idempotencyKey      Clave de idempotencia, o null para aplicar la transferencia sin clave
+     * @return Estado de la operación
+     * @throws RuntimeException Si el retiro en el nodo del origen falla, que queda en duda, o si la
+     *                          confirmación en el nodo del destino falla, que queda pendiente; en ambos
+     *                          casos {@link #completePendingDeposits()} termina la transferencia
+     */
+    public OperationStatus performTransfer(String sourceProductNumber, String targetProductNumber, long amount,
+                                           OperationResult result, String idempotencyKey) {
+        ShardNode source = nodes[shardOf(sourceProductNumber)];
+        ShardNode target = nodes[shardOf(targetProductNumber)];
+        if (source == target) {
+            return source.performTransfer(sourceProductNumber, targetProductNumber, amount, result, idempotencyKey);
+        }
+
+        // Un monto inválido se rechaza sin consultar a ningún nodo
+        if (amount <= 0) {
+            return result.record(OperationStatus.INVALID_AMOUNT, OperationType.TRANSFER, sourceProductNumber, amount, 0);
+        }
+        // Fase 1: el destino vota sin modificarse y el origen vota aplicando el retiro
+        if (!target.prepareDeposit(targetProductNumber, amount, result)) {
+            return result.getStatus();
+        }
+        String transfer = idempotencyKey != null ? idempotencyKey : transferPrefix + transferSequence.incrementAndGet();
+        // Cada clave incluye el producto del otro extremo: reutilizar la clave con otro destino u origen
+        // no puede confirmar un depósito cuyo retiro no se aplicó
+        InDoubtWithdrawal withdrawal = new InDoubtWithdrawal(source, sourceProductNumber, amount,
+                "retiro:" + transfer + ":" + targetProductNumber, target, targetProductNumber,
+                "deposito:" + transfer + ":" + sourceProductNumber);
+        // Se registra antes de enviarlo: si el nodo falla sin responder, la clave es lo único que
+        // permite saber después si el retiro se aplicó
+        inDoubtWithdrawals.put(withdrawal.idempotencyKey, withdrawal);
+        OperationStatus withdrawalStatus;
+        try {
+            withdrawalStatus = withdrawal.apply(result);
+        } catch (RuntimeException e) {
+            withdrawal.release();
+            throw e;
+        }
+        inDoubtWithdrawals.remove(withdrawal.idempotencyKey, withdrawal);
+        if (!withdrawalStatus.isSuccess()) {
+            return withdrawalStatus;
+        }
+        long sourceBalance = result.getBalance();
+        crossShardTransfers.increment();
+
+        // Fase 2: el depósito en el destino ya no puede rechazarse
+        PendingDeposit deposit = withdrawal.deposit();
+        OperationResult depositResult = depositResults.get();
+        try {
+            deposit.apply(depositResult);
+        } catch (RuntimeException e) {
+            pendingDeposits.add(deposit);
+            throw e;
+        }
+
+        result.record(OperationStatus.TRANSFERRED, OperationType.TRANSFER, sourceProductNumber, amount, sourceBalance);
+        result.setTarget(targetProductNumber, depositResult.getBalance());
+        result.setInterest(depositResult.getInterest());
+        return OperationStatus.TRANSFERRED;
+    }
+
+    /**
+     * Termina las transferencias entre nodos que quedaron incompletas.
+     * Primero reenvía los retiros en duda con su clave: si el nodo del origen ya los había aplicado
+     * devuelve el resultado original, y si no los aplica ahora o los rechaza. Un retiro aplicado deja
+     * su depósito pendiente y uno rechazado aborta la transferencia sin cambiar ningún producto.
+     * Luego reintenta los depósitos de las transferencias cuya confirmación falló.
+     * Los retiros y depósitos que vuelven a fallar siguen pendientes. Los que llevan más de la ventana
+     * de reenvío desde su primer envío ya no se reenvían, porque el nodo puede haber olvidado su clave,
+     * y pasan a {@link #getUnresolvedTransfers()}.
+     *
+     * @return Cantidad de depósitos aplicados
+     */
+    public int completePendingDeposits() {
+        int completed = 0;
+        OperationResult result = depositResults.get();
+        for (InDoubtWithdrawal withdrawal : inDoubtWithdrawals.values()) {
+            // Los retiros que su transferencia aún está enviando no están en duda
+            if (!withdrawal.claim()) {
+                continue;
+            }
+            if (expired(withdrawal.sentAt)) {
+                inDoubtWithdrawals.remove(withdrawal.idempotencyKey, withdrawal);
+                unresolvedTransfers.add(new UnresolvedTransfer(OperationType.WITHDRAWAL, withdrawal.productNumber,
+                        withdrawal.amount, withdrawal.idempotencyKey));
+                continue;
+            }
+            OperationStatus status;
+            try {
+                status = withdrawal.apply(result);
+            } catch (RuntimeException e) {
+                withdrawal.release();
+                continue;
+            }
+            inDoubtWithdrawals.remove(withdrawal.idempotencyKey, withdrawal);
+            if (status.isSuccess()) {
+                crossShardTransfers.increment();
+                pendingDeposits.add(withdrawal.deposit());
+            }
+        }
+        for (int remaining = pendingDeposits.size(); remaining > 0; remaining--) {
+            PendingDeposit deposit = pendingDeposits.poll();
+            if (deposit == null) {
+                break;
+            }
+            if (expired(deposit.sentAt())) {
+                unresolvedTransfers.add(new UnresolvedTransfer(OperationType.DEPOSIT, deposit.productNumber(),
+                        deposit.amount(), deposit.idempotencyKey()));
+                continue;
+            }
+            try {
+                deposit.apply(result);
+                completed++;
+            } catch (RuntimeException e) {
+                pendingDeposits.add(deposit);
+            }
+        }
+        return completed;
+    }
+
+    private boolean expired(long sentAt) {
+        return System.nanoTime() - sentAt >= resendWindowNanos;
+    }
+
+    /**
+     * Obtiene las fases de transferencias entre nodos que dejaron de reenviarse sin resolverse.
+     *
+     * @return Fases por conciliar manualmente, en el orden en que vencieron
+     */
+    public List<UnresolvedTransfer> getUnresolvedTransfers() {
+        return new ArrayList<>(unresolvedTransfers);
+    }
+
+    /**
+     * Descarta una fase sin resolver una vez conciliada manualmente con su nodo.
+     *
+     * @param transfer Fase conciliada
+     * @return true si la fase estaba sin resolver
+     */
+    public boolean markReconciled(UnresolvedTransfer transfer) {
+        return unresolvedTransfers.remove(transfer);
+    }
+
+    /**
+     * Obtiene la cantidad de depósitos de transferencias entre nodos pendientes de confirmar.
+     *
+     * @return Cantidad de depósitos pendientes
+     */
+    public int getPendingDeposits() {
+        return pendingDeposits.size();
+    }
+
+    /**
+     * Obtiene la cantidad de retiros de transferencias entre nodos cuyo resultado aún no se conoce,
+     * incluidos los que se están enviando.
+     *
+     * @return Cantidad de retiros en duda
+     */
+    public int getInDoubtWithdrawals() {
+        return inDoubtWithdrawals.size();
+    }
+
+    /**
+     * Obtiene la cantidad de transferencias entre nodos cuyo retiro se aplicó.
+     *
+     * @return Cantidad de transferencias entre nodos
+     */
+    public long getCrossShardTransfers() {
+        return crossShardTransfers.sum();
+    }
+
+    /**
+     * Cierra todos los nodos del clúster.
+     *
+     * @throws IOException Si algún nodo no puede cerrarse; se intenta cerrar el resto
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ShardNode node : nodes) {
+            try {
+                node.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Fase de una transferencia entre nodos que dejó de reenviarse sin conocer su resultado.
+     * Para un retiro ({@link OperationType#WITHDRAWAL}) no se sabe si el nodo del origen lo aplicó;
+     * para un depósito ({@link OperationType#DEPOSIT}) el origen ya se debitó y no se sabe si el nodo
+     * del destino aplicó el crédito.
+     *
+     * @param operationType  Fase de la transferencia
+     * @param productNumber  Número del producto de la fase
+     * @param amount         Monto de la transferencia en centavos
+     * @param idempotencyKey Clave con que se envió la fase
+     */
+    public record UnresolvedTransfer(OperationType operationType, String productNumber, long amount,
+                                     String idempotencyKey) {
+    }
+
+    /**
+     * Retiro de la fase de preparación de una transferencia entre nodos, registrado mientras no se
+     * conoce su resultado. Lo reclama quien lo envía, para que la transferencia que lo está enviando y
+     * {@link #completePendingDeposits()} no lo envíen a la vez.
+     */
+    private static final class InDoubtWithdrawal {
+        private final ShardNode node;
+        private final String productNumber;
+        private final long amount;
+        private final String idempotencyKey;
+        private final ShardNode targetNode;
+        private final String targetProductNumber;
+        private final String depositKey;
+        private final long sentAt = System.nanoTime();
+        private final AtomicBoolean claimed = new AtomicBoolean(true);
+
+        /**
+         * Crea el retiro reclamado por la transferencia que lo va a enviar.
+         *
+         * @param node                Nodo del producto de origen
+         * @param productNumber       Número del producto de origen
+         * @param amount              Monto a retirar en centavos
+         * @param idempotencyKey      Clave de la fase, que hace seguro reenviarla
+         * @param targetNode          Nodo del producto de destino
+         * @param targetProductNumber Número del producto de destino
+         * @param depositKey          Clave del depósito que confirma la transferencia
+         */
+        private InDoubtWithdrawal(ShardNode node, String productNumber, long amount, String idempotencyKey,
+                                  ShardNode targetNode, String targetProductNumber, String depositKey) {
+            this.node = node;
+            this.productNumber = productNumber;
+            this.amount = amount;
+            this.idempotencyKey = idempotencyKey;
+            this.targetNode = targetNode;
+            this.targetProductNumber = targetProductNumber;
+            this.depositKey = depositKey;
+        }
+
+        /**
+         * Crea el depósito que confirma la transferencia, a punto de enviarse por primera vez.
+         *
+         * @return Depósito de la confirmación
+         */
+        private PendingDeposit deposit() {
+            return new PendingDeposit(targetNode, targetProductNumber, amount, depositKey, System.nanoTime());
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        private void release() {
+            claimed.set(false);
+        }
+
+        private OperationStatus apply(OperationResult result) {
+            return node.performOperation(productNumber, OperationType.WITHDRAWAL, amount, result, idempotencyKey);
+        }
+    }
+
+    /**
+     * Depósito de la fase de confirmación de una transferencia entre nodos.
+     *
+     * @param node           Nodo del producto de destino
+     * @param productNumber  Número del producto de destino
+     * @param amount         Monto a depositar en centavos
+     * @param idempotencyKey Clave de la fase, que hace seguro reintentarla
+     * @param sentAt         Momento del primer envío según {@link System#nanoTime()}
+     */
+    private record PendingDeposit(ShardNode node, String productNumber, long amount, String idempotencyKey,
+                                  long sentAt) {
+        private void apply(OperationResult result) {
+            if (!node.performOperation(productNumber, OperationType.DEPOSIT, amount, result, idempotencyKey)
+                    .isSuccess()) {
+                throw new IllegalStateException("El producto de destino rechazó el depósito de una transferencia: "
+                        + result.getStatus());
+            }
+        }
+    }
+}
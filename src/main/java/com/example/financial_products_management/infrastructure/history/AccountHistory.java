@@ -0,0 +1,291 @@
+package com.example.financial_products_management.infrastructure.history;
+
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.nio.ByteBuffer;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Historial de transacciones de una cuenta dentro de TransactionHistoryStore.
+ * Los movimientos recientes se mantienen en memoria en un solo arreglo primitivo (la cola), con los
+ * campos de cada movimiento contiguos para que anexar toque una sola línea de caché; al llenarse, la
+ * cola se sella como un segmento en disco, organizado por columnas, y en memoria solo queda su
+ * referencia: ubicación, cantidad de movimientos e instantes del primero y del último. Los segmentos
+ * antiguos se reemplazan por resúmenes mensuales al compactar.
+ * Un solo hilo anexa a la vez (el que tiene adquirido el candado del producto); las consultas y la
+ * compactación se sincronizan con el monitor del historial y nunca hacen lectura de disco con él
+ * adquirido.
+ */
+final class AccountHistory {
+    /**
+     * Cantidad de valores que describen un segmento: ubicación, cantidad, primer y último instante.
+     */
+    static final int SEGMENT_FIELDS = 4;
+
+    /**
+     * Bytes que ocupa cada movimiento en un segmento: instante, tipo, monto y saldo.
+     */
+    static final int ENTRY_BYTES = Long.BYTES + Byte.BYTES + Long.BYTES + Long.BYTES;
+
+    /**
+     * Bytes de la cabecera de un segmento: número del producto, cantidad de movimientos y CRC de las columnas.
+     */
+    static final int SEGMENT_HEADER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * Posición de la cantidad de movimientos dentro de la cabecera de un segmento.
+     */
+    static final int COUNT_OFFSET = Long.BYTES;
+
+    /**
+     * Posición del CRC de las columnas dentro de la cabecera de un segmento.
+     */
+    static final int CHECKSUM_OFFSET = COUNT_OFFSET + Integer.BYTES;
+
+    /**
+     * Valores de la cola por movimiento: instante con el tipo de operación en el byte alto, monto y saldo.
+     */
+    private static final int TAIL_FIELDS = 3;
+    private static final int TYPE_SHIFT = 56;
+    private static final long TIMESTAMP_MASK = (1L << TYPE_SHIFT) - 1;
+    private static final int INITIAL_CAPACITY = 4;
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+    private static final long[] NO_SEGMENTS = new long[0];
+
+    private long[] tail = new long[INITIAL_CAPACITY * TAIL_FIELDS];
+    private int size;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private long[] segments = NO_SEGMENTS;
+    private int segmentCount;
+    private final List<MonthlySummary> summaries = new ArrayList<>();
+
+    /**
+     * Anexa un movimiento a la cola.
+     * Los instantes nunca retroceden dentro de un historial, aunque lo haga el reloj del sistema,
+     * para que las consultas por rango puedan hacer búsqueda binaria.
+     *
+     * @param timestamp      Instante del movimiento en milisegundos desde la época
+     * @param operationType  Tipo de operación
+     * @param amount         Monto del movimiento en centavos
+     * @param balance        Saldo después del movimiento en centavos
+     * @param segmentEntries Cantidad de movimientos por segmento
+     * @return true si la cola debe sellarse como segmento
+     */
+    synchronized boolean append(long timestamp, OperationType operationType, long amount, long balance,
+                                int segmentEntries) {
+        int offset = size * TAIL_FIELDS;
+        if (offset == tail.length) {
+            tail = Arrays.copyOf(tail, offset * 2);
+        }
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+        tail[offset] = ((long) operationType.ordinal() << TYPE_SHIFT) | lastTimestamp;
+        tail[offset + 1] = amount;
+        tail[offset + 2] = balance;
+        size++;
+        // Si un sellado anterior falló, se reintenta cada vez que la cola crece otro segmento completo
+        return size % segmentEntries == 0;
+    }
+
+    /**
+     * Codifica la cola como segmento: una cabecera con el número del producto, la cantidad de
+     * movimientos y el CRC de las columnas, seguida de una columna por campo. La cabecera permite
+     * reconstruir las referencias al reabrir los archivos de datos.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Segmento listo para escribirse
+     */
+    synchronized ByteBuffer encodeTail(long productNumber) {
+        int count = size;
+        ByteBuffer buffer = ByteBuffer.allocate(SEGMENT_HEADER_BYTES + count * ENTRY_BYTES);
+        buffer.putLong(productNumber);
+        buffer.putInt(count);
+        buffer.putInt(0);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(timestampAt(i));
+        }
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) (tail[i * TAIL_FIELDS] >>> TYPE_SHIFT));
+        }
+        for (int field = 1; field < TAIL_FIELDS; field++) {
+            for (int i = 0; i < count; i++) {
+                buffer.putLong(tail[i * TAIL_FIELDS + field]);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.flip().slice(SEGMENT_HEADER_BYTES, count * ENTRY_BYTES));
+        buffer.putInt(CHECKSUM_OFFSET, (int) crc.getValue());
+        return buffer;
+    }
+
+    /**
+     * Registra como segmento los primeros movimientos de la cola, ya escritos en disco, y los
+     * retira de la memoria.
+     *
+     * @param location Ubicación del segmento
+     * @param count    Cantidad de movimientos escritos
+     */
+    synchronized void completeSeal(long location, int count) {
+        addSegment(location, count, timestampAt(0), timestampAt(count - 1));
+        int remaining = size - count;
+        System.arraycopy(tail, count * TAIL_FIELDS, tail, 0, remaining * TAIL_FIELDS);
+        size = remaining;
+    }
+
+    /**
+     * Registra un segmento leído de un archivo de datos existente al reabrir el historial.
+     * Los segmentos deben registrarse en el orden en que se sellaron.
+     *
+     * @param location       Ubicación del segmento
+     * @param count          Cantidad de movimientos del segmento
+     * @param firstTimestamp Instante del primer movimiento
+     * @param lastTimestamp  Instante del último movimiento
+     */
+    synchronized void restoreSegment(long location, int count, long firstTimestamp, long lastTimestamp) {
+        addSegment(location, count, firstTimestamp, lastTimestamp);
+        this.lastTimestamp = Math.max(this.lastTimestamp, lastTimestamp);
+    }
+
+    /**
+     * Captura lo necesario para armar un extracto: los resúmenes de los meses del rango, las
+     * referencias de los segmentos que se cruzan con el rango y los movimientos de la cola dentro de él.
+     *
+     * @param fromMillis Inicio del rango en milisegundos, incluido
+     * @param toMillis   Fin del rango en milisegundos, excluido
+     * @param fromMonth  Primer mes del rango
+     * @param toMonth    Último mes del rango
+     * @return Datos capturados
+     */
+    synchronized Capture capture(long fromMillis, long toMillis, YearMonth fromMonth, YearMonth toMonth) {
+        List<MonthlySummary> matching = new ArrayList<>();
+        for (MonthlySummary summary : summaries) {
+            if (!summary.month().isBefore(fromMonth) && !summary.month().isAfter(toMonth)) {
+                matching.add(summary);
+            }
+        }
+
+        // Primer segmento cuyo último movimiento no es anterior al rango
+        int low = 0;
+        int high = segmentCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (segments[middle * SEGMENT_FIELDS + 3] < fromMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int end = low;
+        while (end < segmentCount && segments[end * SEGMENT_FIELDS + 2] < toMillis) {
+            end++;
+        }
+        long[] overlapping = Arrays.copyOfRange(segments, low * SEGMENT_FIELDS, end * SEGMENT_FIELDS);
+
+        List<HistoryEntry> recent = new ArrayList<>();
+        for (int i = firstAtOrAfter(fromMillis); i < size && timestampAt(i) < toMillis; i++) {
+            int offset = i * TAIL_FIELDS;
+            recent.add(new HistoryEntry(timestampAt(i), OPERATION_TYPES[(int) (tail[offset] >>> TYPE_SHIFT)],
+                    tail[offset + 1], tail[offset + 2]));
+        }
+        return new Capture(matching, overlapping, recent);
+    }
+
+    /**
+     * Obtiene las referencias de los segmentos cuyo último movimiento es anterior al instante indicado.
+     * Como los segmentos están en orden cronológico, forman un prefijo de la lista de segmentos.
+     *
+     * @param cutoffMillis Instante límite en milisegundos
+     * @return Referencias de los segmentos, SEGMENT_FIELDS valores por segmento
+     */
+    synchronized long[] segmentsBefore(long cutoffMillis) {
+        int count = 0;
+        while (count < segmentCount && segments[count * SEGMENT_FIELDS + 3] < cutoffMillis) {
+            count++;
+        }
+        return Arrays.copyOf(segments, count * SEGMENT_FIELDS);
+    }
+
+    /**
+     * Reemplaza los primeros segmentos por sus resúmenes mensuales.
+     *
+     * @param count          Cantidad de segmentos reemplazados
+     * @param monthSummaries Resúmenes de esos segmentos en orden cronológico
+     */
+    synchronized void replaceSegments(int count, List<MonthlySummary> monthSummaries) {
+        int removed = count * SEGMENT_FIELDS;
+        System.arraycopy(segments, removed, segments, 0, segmentCount * SEGMENT_FIELDS - removed);
+        segmentCount -= count;
+        if (segmentCount == 0) {
+            segments = NO_SEGMENTS;
+        }
+
+        for (MonthlySummary summary : monthSummaries) {
+            int last = summaries.size() - 1;
+            if (last >= 0 && summaries.get(last).month().equals(summary.month())) {
+                summaries.set(last, summaries.get(last).merge(summary));
+            } else {
+                summaries.add(summary);
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de segmentos en disco.
+     *
+     * @return Cantidad de segmentos
+     */
+    synchronized int getSegmentCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Obtiene la cantidad de movimientos de la cola.
+     *
+     * @return Cantidad de movimientos en memoria
+     */
+    synchronized int getTailSize() {
+        return size;
+    }
+
+    private void addSegment(long location, int count, long firstTimestamp, long lastTimestamp) {
+        if (segmentCount * SEGMENT_FIELDS == segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(SEGMENT_FIELDS, segments.length * 2));
+        }
+        int offset = segmentCount * SEGMENT_FIELDS;
+        segments[offset] = location;
+        segments[offset + 1] = count;
+        segments[offset + 2] = firstTimestamp;
+        segments[offset + 3] = lastTimestamp;
+        segmentCount++;
+    }
+
+    private long timestampAt(int index) {
+        return tail[index * TAIL_FIELDS] & TIMESTAMP_MASK;
+    }
+
+    private int firstAtOrAfter(long fromMillis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestampAt(middle) < fromMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Datos de un historial capturados para armar un extracto.
+     *
+     * @param summaries Resúmenes de los meses del rango
+     * @param segments  Referencias de los segmentos que se cruzan con el rango
+     * @param tail      Movimientos de la cola dentro del rango
+     */
+    record Capture(List<MonthlySummary> summaries, long[] segments, List<HistoryEntry> tail) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.financial_products_management.infrastructure.history;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Extracto de una cuenta para un rango de fechas.
+ * Los meses ya compactados aparecen como resúmenes y el resto como movimientos detallados;
+ * un mismo mes puede tener ambos si solo una parte de sus movimientos fue compactada.
+ *
+ * @param productNumber Número del producto
+ * @param from          Primera fecha del extracto
+ * @param to            Última fecha del extracto, incluida
+ * @param summaries     Resúmenes de los meses compactados, en orden cronológico
+ * @param entries       Movimientos detallados, en orden cronológico
+ */
+public record AccountStatement(String productNumber, LocalDate from, LocalDate to, List<MonthlySummary> summaries,
+                               List<HistoryEntry> entries) {
+}
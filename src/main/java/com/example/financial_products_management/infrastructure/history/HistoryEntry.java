@@ -0,0 +1,16 @@
+package com.example.financial_products_management.infrastructure.history;
+
+import com.example.financial_products_management.domain.shared.OperationType;
+
+/**
+ * Movimiento del historial de transacciones de una cuenta.
+ * Todos los montos se expresan en centavos.
+ *
+ * @param timestamp     Instante en que se aplicó la operación, en milisegundos desde la época
+ * @param operationType Tipo de operación
+ * @param amount        Monto del movimiento: positivo si acredita la cuenta, negativo si la debita;
+ *                      en una causación de intereses es el interés causado
+ * @param balance       Saldo de la cuenta después del movimiento
+ */
+public record HistoryEntry(long timestamp, OperationType operationType, long amount, long balance) {
+}
@@ -0,0 +1,32 @@
+package com.example.financial_products_management.infrastructure.history;
+
+import java.time.YearMonth;
+
+/**
+ * Resumen de los movimientos de una cuenta en un mes, que reemplaza a los movimientos
+ * detallados una vez compactados.
+ * Todos los montos se expresan en centavos.
+ *
+ * @param month          Mes resumido
+ * @param creditCount    Cantidad de movimientos que acreditaron la cuenta
+ * @param creditTotal    Total acreditado
+ * @param debitCount     Cantidad de movimientos que debitaron la cuenta
+ * @param debitTotal     Total debitado, como valor positivo
+ * @param interest       Interés causado en el mes
+ * @param closingBalance Saldo después del último movimiento resumido del mes
+ */
+public record MonthlySummary(YearMonth month, long creditCount, long creditTotal, long debitCount, long debitTotal,
+                             long interest, long closingBalance) {
+
+    /**
+     * Combina este resumen con el de movimientos posteriores del mismo mes.
+     *
+     * @param later Resumen de los movimientos posteriores
+     * @return Resumen combinado
+     */
+    MonthlySummary merge(MonthlySummary later) {
+        return new MonthlySummary(month, creditCount + later.creditCount, creditTotal + later.creditTotal,
+                debitCount + later.debitCount, debitTotal + later.debitTotal, interest + later.interest,
+                later.closingBalance);
+    }
+}
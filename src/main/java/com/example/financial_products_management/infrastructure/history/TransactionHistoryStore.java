@@ -0,0 +1,618 @@
+package com.example.financial_products_management.infrastructure.history;
+
+import com.example.financial_products_management.domain.financial_company.OperationListener;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Historial de transacciones por cuenta, de solo anexado, para emitir extractos por rango de fechas.
+ * Cada movimiento se guarda por columnas (instante, tipo, monto y saldo resultante) en la cola en
+ * memoria de su cuenta; cada {@link #DEFAULT_SEGMENT_ENTRIES} movimientos la cola se sella como un
+ * segmento que se anexa a los archivos de datos del directorio, y en memoria solo queda su referencia.
+ * Los archivos de datos se rotan al superar un tamaño máximo.
+ * Un extracto ubica por búsqueda binaria los segmentos que se cruzan con el rango y solo lee esos.
+ * {@link #compactBefore(YearMonth)} reemplaza los segmentos anteriores a un mes por resúmenes
+ * mensuales, lo que acota la memoria de las referencias, y elimina los archivos que ya no tienen
+ * segmentos vigentes.
+ * Al abrirse, el historial recorre los archivos de datos de ejecuciones anteriores y reconstruye las
+ * referencias de sus segmentos a partir de la cabecera de cada uno; las colas se sellan al cerrar.
+ * El historial es un registro de consulta y no reemplaza al diario de transacciones: los archivos no
+ * se sincronizan con el disco, por lo que una caída pierde las colas y los segmentos que no llegaron
+ * a escribirse, y los resúmenes mensuales de la compactación solo viven en memoria.
+ * Los productos no necesitan incorporarse de antemano; su historial comienza con su primer movimiento.
+ */
+public class TransactionHistoryStore implements OperationListener, AutoCloseable {
+    /**
+     * Cantidad de movimientos por segmento por defecto.
+     */
+    public static final int DEFAULT_SEGMENT_ENTRIES = 128;
+
+    /**
+     * Tamaño máximo por defecto de un archivo de datos antes de rotarlo.
+     */
+    public static final long DEFAULT_FILE_SIZE = 64L << 20;
+
+    private static final String FILE_PREFIX = "history-";
+    private static final String FILE_SUFFIX = ".dat";
+    private static final int POSITION_BITS = 40;
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    private final Path directory;
+    private final int segmentEntries;
+    private final long fileSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // Historiales por valor numérico del número: "001" y "1" son el mismo producto
+    private final Map<Long, AccountHistory> histories = new ConcurrentHashMap<>();
+    private final Map<Integer, DataFile> files = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock filesLock = new ReentrantReadWriteLock();
+    private final Object appendLock = new Object();
+
+    private DataFile current;
+    private long currentPosition;
+    private ScheduledExecutorService scheduler;
+    private volatile IOException failure;
+
+    /**
+     * Crea un historial con los tamaños por defecto.
+     *
+     * @param directory Directorio de los archivos de datos; se crea si no existe
+     * @throws IOException Si el directorio no puede prepararse o un archivo no puede abrirse
+     */
+    public TransactionHistoryStore(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_ENTRIES, DEFAULT_FILE_SIZE);
+    }
+
+    /**
+     * Crea el historial y reabre los archivos de datos de una ejecución anterior. La lectura de un
+     * archivo termina en el primer segmento incompleto o dañado; los movimientos nuevos se escriben
+     * siempre en un archivo nuevo.
+     *
+     * @param directory      Directorio de los archivos de datos; se crea si no existe
+     * @param segmentEntries Cantidad de movimientos por segmento
+     * @param fileSize       Tamaño máximo de un archivo de datos en bytes
+     * @throws IOException Si el directorio no puede prepararse o un archivo no puede abrirse
+     */
+    public TransactionHistoryStore(Path directory, int segmentEntries, long fileSize) throws IOException {
+        if (segmentEntries <= 0) {
+            throw new IllegalArgumentException("La cantidad de movimientos por segmento debe ser mayor a cero");
+        }
+        if (fileSize <= 0 || fileSize > POSITION_MASK) {
+            throw new IllegalArgumentException("Tamaño de archivo de historial inválido: " + fileSize);
+        }
+
+        this.directory = directory;
+        this.segmentEntries = segmentEntries;
+        this.fileSize = fileSize;
+        Files.createDirectories(directory);
+        this.current = openFile(reopenFiles() + 1);
+    }
+
+    @Override
+    public void onOperationApplied(FinancialProduct product, OperationResult result) {
+        long amount = result.getOperationType() == OperationType.WITHDRAWAL ? -result.getAmount() : result.getAmount();
+        append(product, result.getOperationType(), amount, result.getBalance());
+    }
+
+    @Override
+    public void onTransferApplied(FinancialProduct source, FinancialProduct target, OperationResult result) {
+        append(source, OperationType.TRANSFER, -result.getAmount(), result.getBalance());
+        append(target, OperationType.TRANSFER, result.getAmount(), result.getTargetBalance());
+    }
+
+    @Override
+    public void onInterestAccrued(SavingsAccount account, long interest, LocalDate businessDate) {
+        if (interest > 0) {
+            append(account, OperationType.INTEREST_ACCRUAL, interest, account.getBalance());
+        }
+    }
+
+    /**
+     * Obtiene el extracto de una cuenta entre dos fechas, ambas incluidas.
+     *
+     * @param productNumber Número del producto
+     * @param from          Primera fecha
+     * @param to            Última fecha
+     * @return Extracto de la cuenta; vacío si la cuenta no tiene movimientos
+     * @throws IOException              Si un segmento no puede leerse
+     * @throws IllegalArgumentException Si la primera fecha es posterior a la última
+     */
+    public AccountStatement getStatement(String productNumber, LocalDate from, LocalDate to) throws IOException {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la final");
+        }
+
+        String number = productNumber == null ? "" : productNumber.trim();
+        AccountHistory history = histories.get(ProductNumbers.parse(productNumber));
+        if (history == null) {
+            return new AccountStatement(number, from, to, List.of(), List.of());
+        }
+
+        long fromMillis = startOf(from);
+        long toMillis = startOf(to.plusDays(1));
+        // El candado de lectura impide que la compactación elimine un archivo entre la captura y la lectura
+        filesLock.readLock().lock();
+        try {
+            AccountHistory.Capture capture = history.capture(fromMillis, toMillis, YearMonth.from(from),
+                    YearMonth.from(to));
+            List<HistoryEntry> entries = new ArrayList<>();
+            long[] segments = capture.segments();
+            for (int i = 0; i < segments.length; i += AccountHistory.SEGMENT_FIELDS) {
+                readSegment(segments[i], (int) segments[i + 1], fromMillis, toMillis, entries);
+            }
+            entries.addAll(capture.tail());
+            return new AccountStatement(number, from, to, capture.summaries(), entries);
+        } finally {
+            filesLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza por resúmenes mensuales los segmentos cuyos movimientos son todos anteriores al
+     * mes indicado, y elimina los archivos de datos que quedan sin segmentos vigentes.
+     * Un segmento que cruza el límite se conserva completo, por lo que parte de un mes anterior
+     * puede seguir en detalle hasta una compactación posterior.
+     *
+     * @param month Primer mes que se conserva en detalle
+     * @return Cantidad de segmentos compactados
+     * @throws IOException Si un segmento no puede leerse o un archivo no puede eliminarse
+     */
+    public synchronized int compactBefore(YearMonth month) throws IOException {
+        long cutoff = startOf(month.atDay(1));
+        int compacted = 0;
+        filesLock.readLock().lock();
+        try {
+            List<HistoryEntry> entries = new ArrayList<>();
+            for (AccountHistory history : histories.values()) {
+                long[] segments = history.segmentsBefore(cutoff);
+                if (segments.length == 0) {
+                    continue;
+                }
+
+                entries.clear();
+                for (int i = 0; i < segments.length; i += AccountHistory.SEGMENT_FIELDS) {
+                    readSegment(segments[i], (int) segments[i + 1], Long.MIN_VALUE, Long.MAX_VALUE, entries);
+                }
+                int count = segments.length / AccountHistory.SEGMENT_FIELDS;
+                history.replaceSegments(count, summarize(entries));
+                for (int i = 0; i < segments.length; i += AccountHistory.SEGMENT_FIELDS) {
+                    files.get(fileId(segments[i])).liveSegments.decrementAndGet();
+                }
+                compacted += count;
+            }
+        } finally {
+            filesLock.readLock().unlock();
+        }
+
+        deleteUnusedFiles();
+        return compacted;
+    }
+
+    /**
+     * Compacta periódicamente los segmentos anteriores a la cantidad de meses indicada en un hilo aparte.
+     *
+     * @param retainedMonths Meses, contando el actual, que se conservan en detalle
+     * @param interval       Intervalo entre compactaciones
+     * @throws IllegalStateException Si la compactación periódica ya fue iniciada
+     */
+    public synchronized void startPeriodicCompaction(int retainedMonths, Duration interval) {
+        if (retainedMonths <= 0) {
+            throw new IllegalArgumentException("La cantidad de meses conservados debe ser mayor a cero");
+        }
+        if (scheduler != null) {
+            throw new IllegalStateException("La compactación periódica del historial ya fue iniciada");
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transaction-history-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compactBefore(YearMonth.now(zone).minusMonths(retainedMonths - 1));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error compactando el historial de transacciones: " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtiene la cantidad de cuentas con historial.
+     *
+     * @return Cantidad de cuentas
+     */
+    public int size() {
+        return histories.size();
+    }
+
+    /**
+     * Obtiene la cantidad de archivos de datos abiertos.
+     *
+     * @return Cantidad de archivos
+     */
+    public int getFileCount() {
+        return files.size();
+    }
+
+    /**
+     * Obtiene el último error de escritura de un segmento. Mientras la escritura falla, los
+     * movimientos se conservan en la cola en memoria y el sellado se reintenta más adelante.
+     *
+     * @return Último error de escritura, o null si no hubo
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Obtiene el directorio de los archivos de datos.
+     *
+     * @return Directorio del historial
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Detiene la compactación periódica, sella las colas de todas las cuentas y cierra los archivos
+     * de datos. No deben aplicarse operaciones después de cerrar el historial.
+     *
+     * @throws IOException Si una cola no puede escribirse o ocurre un error al cerrar un archivo
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = scheduler;
+            scheduler = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            for (Map.Entry<Long, AccountHistory> entry : histories.entrySet()) {
+                AccountHistory history = entry.getValue();
+                if (history.getTailSize() > 0) {
+                    ByteBuffer segment = history.encodeTail(entry.getKey());
+                    int count = segment.getInt(AccountHistory.COUNT_OFFSET);
+                    history.completeSeal(writeSegment(segment), count);
+                }
+            }
+        } finally {
+            filesLock.writeLock().lock();
+            try {
+                for (DataFile file : files.values()) {
+                    file.channel.close();
+                }
+            } finally {
+                filesLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Anexa un movimiento al historial de un producto y sella su cola si se completó un segmento.
+     * Se invoca con el candado del producto adquirido.
+     *
+     * @param product       Producto modificado
+     * @param operationType Tipo de operación
+     * @param amount        Monto del movimiento en centavos
+     * @param balance       Saldo después del movimiento en centavos
+     */
+    private void append(FinancialProduct product, OperationType operationType, long amount, long balance) {
+        long number = ProductNumbers.parse(product.getProductNumber());
+        AccountHistory history = histories.get(number);
+        if (history == null) {
+            history = histories.computeIfAbsent(number, ignored -> new AccountHistory());
+        }
+        if (history.append(System.currentTimeMillis(), operationType, amount, balance, segmentEntries)) {
+            ByteBuffer segment = history.encodeTail(number);
+            int count = segment.getInt(AccountHistory.COUNT_OFFSET);
+            try {
+                history.completeSeal(writeSegment(segment), count);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Escribe un segmento al final del archivo de datos actual, rotándolo si no hay espacio.
+     * Solo la reserva de la posición es exclusiva; la escritura se hace en paralelo con otras.
+     *
+     * @param segment Segmento codificado
+     * @return Ubicación del segmento: identificador del archivo y posición dentro de él
+     * @throws IOException Si ocurre un error de escritura
+     */
+    private long writeSegment(ByteBuffer segment) throws IOException {
+        DataFile file;
+        long start;
+        synchronized (appendLock) {
+            if (currentPosition > 0 && currentPosition + segment.remaining() > fileSize) {
+                current = openFile(current.id + 1);
+                currentPosition = 0;
+            }
+            file = current;
+            start = currentPosition;
+            currentPosition += segment.remaining();
+            // Un archivo con segmentos pendientes de escribir nunca se considera sin uso
+            file.liveSegments.incrementAndGet();
+        }
+
+        try {
+            long position = start;
+            while (segment.hasRemaining()) {
+                position += file.channel.write(segment, position);
+            }
+        } catch (IOException e) {
+            file.liveSegments.decrementAndGet();
+            throw e;
+        }
+        return ((long) file.id << POSITION_BITS) | start;
+    }
+
+    /**
+     * Lee un segmento y agrega sus movimientos dentro del rango indicado.
+     * Debe invocarse con el candado de lectura de los archivos adquirido.
+     *
+     * @param location   Ubicación del segmento
+     * @param count      Cantidad de movimientos del segmento
+     * @param fromMillis Inicio del rango en milisegundos, incluido
+     * @param toMillis   Fin del rango en milisegundos, excluido
+     * @param entries    Lista donde se agregan los movimientos
+     * @throws IOException Si el segmento no puede leerse
+     */
+    private void readSegment(long location, int count, long fromMillis, long toMillis, List<HistoryEntry> entries)
+            throws IOException {
+        DataFile file = files.get(fileId(location));
+        ByteBuffer buffer = ByteBuffer.allocate(AccountHistory.SEGMENT_HEADER_BYTES + count * AccountHistory.ENTRY_BYTES);
+        long position = location & POSITION_MASK;
+        while (buffer.hasRemaining()) {
+            int read = file.channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Segmento de historial incompleto en " + file.path);
+            }
+            position += read;
+        }
+        if (buffer.getInt(AccountHistory.COUNT_OFFSET) != count) {
+            throw new IOException("Segmento de historial dañado en " + file.path);
+        }
+
+        int timestampsOffset = AccountHistory.SEGMENT_HEADER_BYTES;
+        int typesOffset = timestampsOffset + count * Long.BYTES;
+        int amountsOffset = typesOffset + count;
+        int balancesOffset = amountsOffset + count * Long.BYTES;
+        for (int i = 0; i < count; i++) {
+            long timestamp = buffer.getLong(timestampsOffset + i * Long.BYTES);
+            if (timestamp >= fromMillis && timestamp < toMillis) {
+                entries.add(new HistoryEntry(timestamp, OPERATION_TYPES[buffer.get(typesOffset + i)],
+                        buffer.getLong(amountsOffset + i * Long.BYTES),
+                        buffer.getLong(balancesOffset + i * Long.BYTES)));
+            }
+        }
+    }
+
+    /**
+     * Resume por mes una secuencia cronológica de movimientos.
+     *
+     * @param entries Movimientos en orden cronológico
+     * @return Resúmenes mensuales en orden cronológico
+     */
+    private List<MonthlySummary> summarize(List<HistoryEntry> entries) {
+        List<MonthlySummary> summaries = new ArrayList<>();
+        YearMonth month = null;
+        long creditCount = 0;
+        long creditTotal = 0;
+        long debitCount = 0;
+        long debitTotal = 0;
+        long interest = 0;
+        long closingBalance = 0;
+        for (HistoryEntry entry : entries) {
+            YearMonth entryMonth = YearMonth.from(Instant.ofEpochMilli(entry.timestamp()).atZone(zone));
+            if (!entryMonth.equals(month)) {
+                if (month != null) {
+                    summaries.add(new MonthlySummary(month, creditCount, creditTotal, debitCount, debitTotal,
+                            interest, closingBalance));
+                }
+                month = entryMonth;
+                creditCount = 0;
+                creditTotal = 0;
+                debitCount = 0;
+                debitTotal = 0;
+                interest = 0;
+            }
+
+            if (entry.operationType() == OperationType.INTEREST_ACCRUAL) {
+                interest += entry.amount();
+            } else if (entry.amount() >= 0) {
+                creditCount++;
+                creditTotal += entry.amount();
+            } else {
+                debitCount++;
+                debitTotal -= entry.amount();
+            }
+            closingBalance = entry.balance();
+        }
+        if (month != null) {
+            summaries.add(new MonthlySummary(month, creditCount, creditTotal, debitCount, debitTotal, interest,
+                    closingBalance));
+        }
+        return summaries;
+    }
+
+    /**
+     * Cierra y elimina los archivos de datos, salvo el actual, que ya no tienen segmentos vigentes.
+     *
+     * @throws IOException Si un archivo no puede eliminarse
+     */
+    private void deleteUnusedFiles() throws IOException {
+        filesLock.writeLock().lock();
+        try {
+            DataFile active;
+            synchronized (appendLock) {
+                active = current;
+            }
+            Iterator<DataFile> iterator = files.values().iterator();
+            while (iterator.hasNext()) {
+                DataFile file = iterator.next();
+                if (file != active && file.liveSegments.get() == 0) {
+                    file.channel.close();
+                    Files.deleteIfExists(file.path);
+                    iterator.remove();
+                }
+            }
+        } finally {
+            filesLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Abre los archivos de datos existentes en orden de creación y reconstruye las referencias de
+     * sus segmentos. Como las posiciones se reservan en orden, los segmentos de cada cuenta se
+     * encuentran en el mismo orden en que se sellaron.
+     *
+     * @return Identificador del último archivo existente, o -1 si no hay ninguno
+     * @throws IOException Si un archivo no puede abrirse o leerse
+     */
+    private int reopenFiles() throws IOException {
+        Map<Integer, Path> existing = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    existing.put(Integer.parseInt(name.substring(FILE_PREFIX.length(),
+                            name.length() - FILE_SUFFIX.length())), path);
+                } catch (NumberFormatException e) {
+                    // No es un archivo de datos del historial
+                }
+            }
+        }
+
+        int lastId = -1;
+        for (Map.Entry<Integer, Path> entry : existing.entrySet()) {
+            FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            DataFile file = new DataFile(entry.getKey(), entry.getValue(), channel);
+            files.put(file.id, file);
+            restoreSegments(file);
+            lastId = file.id;
+        }
+        return lastId;
+    }
+
+    /**
+     * Registra los segmentos válidos de un archivo de datos existente, hasta el primero que esté
+     * incompleto o cuyo CRC no coincida.
+     *
+     * @param file Archivo de datos
+     * @throws IOException Si el archivo no puede leerse
+     */
+    private void restoreSegments(DataFile file) throws IOException {
+        long size = file.channel.size();
+        ByteBuffer header = ByteBuffer.allocate(AccountHistory.SEGMENT_HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        long position = 0;
+        while (position + AccountHistory.SEGMENT_HEADER_BYTES <= size) {
+            header.clear();
+            readFully(file.channel, header, position);
+            int count = header.getInt(AccountHistory.COUNT_OFFSET);
+            long available = size - position - AccountHistory.SEGMENT_HEADER_BYTES;
+            if (count <= 0 || count > available / AccountHistory.ENTRY_BYTES) {
+                return;
+            }
+
+            ByteBuffer columns = ByteBuffer.allocate(count * AccountHistory.ENTRY_BYTES);
+            readFully(file.channel, columns, position + AccountHistory.SEGMENT_HEADER_BYTES);
+            crc.reset();
+            crc.update(columns.flip());
+            if ((int) crc.getValue() != header.getInt(AccountHistory.CHECKSUM_OFFSET)) {
+                return;
+            }
+
+            long number = header.getLong(0);
+            histories.computeIfAbsent(number, ignored -> new AccountHistory()).restoreSegment(
+                    ((long) file.id << POSITION_BITS) | position, count, columns.getLong(0),
+                    columns.getLong((count - 1) * Long.BYTES));
+            file.liveSegments.incrementAndGet();
+            position += AccountHistory.SEGMENT_HEADER_BYTES + columns.capacity();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Fin inesperado del archivo de historial");
+            }
+            position += read;
+        }
+    }
+
+    private DataFile openFile(int id) throws IOException {
+        Path path = directory.resolve(String.format("%s%06d%s", FILE_PREFIX, id, FILE_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        DataFile file = new DataFile(id, path, channel);
+        files.put(id, file);
+        return file;
+    }
+
+    private long startOf(LocalDate date) {
+        return date.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static int fileId(long location) {
+        return (int) (location >>> POSITION_BITS);
+    }
+
+    /**
+     * Archivo de datos del historial con la cantidad de segmentos vigentes que contiene.
+     */
+    private static final class DataFile {
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final AtomicInteger liveSegments = new AtomicInteger();
+
+        private DataFile(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
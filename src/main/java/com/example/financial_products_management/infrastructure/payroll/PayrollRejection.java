@@ -0,0 +1,51 @@
+package com.example.financial_products_management.infrastructure.payroll;
+
+/**
+ * Motivo por el que una línea de un archivo de nómina no se acredita.
+ */
+public enum PayrollRejection {
+    /**
+     * La línea no tiene los campos número de producto, identificación y monto
+     */
+    INVALID_FORMAT("Formato de línea inválido"),
+
+    /**
+     * El monto no es un número válido o no es mayor a cero
+     */
+    INVALID_AMOUNT("Monto inválido"),
+
+    /**
+     * No existe un producto con el número indicado
+     */
+    PRODUCT_NOT_FOUND("Producto no encontrado"),
+
+    /**
+     * El producto existe pero no es una cuenta especial para pago de salario
+     */
+    NOT_SALARY_ACCOUNT("El producto no es una cuenta de salario"),
+
+    /**
+     * La identificación de la línea no coincide con la del titular de la cuenta
+     */
+    CUSTOMER_MISMATCH("La identificación no coincide con el titular"),
+
+    /**
+     * La cuenta rechazó el depósito al acreditarlo
+     */
+    POSTING_FAILED("El depósito fue rechazado");
+
+    private final String description;
+
+    PayrollRejection(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Obtiene la descripción del motivo para el reporte de conciliación.
+     *
+     * @return Descripción del motivo
+     */
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.financial_products_management.infrastructure.payroll;
+
+import com.example.financial_products_management.domain.shared.Money;
+import java.util.Map;
+
+/**
+ * Resultado de la conciliación de un archivo de nómina.
+ * Todos los montos se expresan en centavos.
+ *
+ * @param lines           Cantidad de líneas de detalle leídas (sin comentarios ni línea de control)
+ * @param fileAmount      Suma de los montos válidos del archivo, acreditados o no
+ * @param credited        Cantidad de líneas acreditadas
+ * @param creditedAmount  Suma de los montos acreditados
+ * @param rejections      Cantidad de líneas no acreditadas por cada motivo
+ * @param controlLines    Cantidad de líneas declarada en la línea de control, o -1 si el archivo no la tiene
+ * @param controlAmount   Monto total declarado en la línea de control, o 0 si el archivo no la tiene
+ */
+public record PayrollReport(long lines, long fileAmount, long credited, long creditedAmount,
+                            Map<PayrollRejection, Long> rejections, long controlLines, long controlAmount) {
+
+    /**
+     * Obtiene la cantidad de líneas no acreditadas.
+     *
+     * @return Líneas rechazadas por cualquier motivo
+     */
+    public long rejected() {
+        return lines - credited;
+    }
+
+    /**
+     * Indica si el archivo incluía una línea de control.
+     *
+     * @return true si hay totales de control
+     */
+    public boolean hasControlTotals() {
+        return controlLines >= 0;
+    }
+
+    /**
+     * Indica si las líneas y el monto leídos coinciden con los totales de control del archivo.
+     * Un archivo sin línea de control se considera conciliado.
+     *
+     * @return true si los totales coinciden
+     */
+    public boolean matchesControlTotals() {
+        return !hasControlTotals() || (controlLines == lines && controlAmount == fileAmount);
+    }
+
+    /**
+     * Indica si la nómina se acreditó completa y coincide con sus totales de control.
+     *
+     * @return true si todas las líneas se acreditaron y los totales coinciden
+     */
+    public boolean isReconciled() {
+        return credited == lines && creditedAmount == fileAmount && matchesControlTotals();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Líneas leídas: %d; Acreditadas: %d por $%s; Rechazadas: %d",
+                lines, credited, Money.format(creditedAmount), rejected()));
+        rejections.forEach((reason, count) -> builder.append(String.format("%n  %s: %d", reason.getDescription(), count)));
+        if (hasControlTotals()) {
+            builder.append(String.format("%nTotales de control: %d líneas por $%s (%s)", controlLines,
+                    Money.format(controlAmount), matchesControlTotals() ? "coinciden" : "NO COINCIDEN"));
+        }
+        builder.append(String.format("%nMonto del archivo: $%s; Conciliada: %s", Money.format(fileAmount),
+                isReconciled() ? "sí" : "no"));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.financial_products_management.infrastructure.payroll;
+
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationBatch;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Acredita los salarios de un archivo de nómina de un empleador.
+ * El archivo es de texto UTF-8 con una línea por empleado, con los campos separados por comas:
+ * {@code numeroProducto,identificacion,monto}, donde el monto se expresa en unidades con hasta dos
+ * decimales. Las líneas vacías y las que comienzan con {@code #} se ignoran; una línea
+ * {@code TOTAL,lineas,monto} declara los totales de control del archivo.
+ *
+ * <p>El archivo se lee en flujo: cada línea se valida contra el repositorio (el producto debe
+ * existir, ser una cuenta de salario y pertenecer a la identificación indicada) y las líneas
+ * válidas se agrupan en lotes de depósitos que un hilo aparte acredita con
+ * {@link FinancialCompany#performBatch(OperationBatch)} mientras se lee el lote siguiente. Solo
+ * existen dos lotes que se reutilizan, por lo que la memoria no depende del tamaño del archivo.
+ *
+ * <p>El reporte de conciliación es un archivo de texto con una línea por cada línea de la nómina
+ * no acreditada ({@code linea,numeroProducto,identificacion,monto,motivo}) seguida del resumen.
+ */
+public class PayrollRunner {
+    /**
+     * Cantidad de depósitos por lote por defecto.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private static final String CONTROL_PREFIX = "TOTAL";
+
+    private final FinancialCompany financialCompany;
+    private final ProductRepository repository;
+    private final int batchSize;
+
+    /**
+     * Crea un proceso de nómina con el tamaño de lote por defecto.
+     *
+     * @param financialCompany Entidad financiera que acredita los depósitos
+     * @param repository       Repositorio usado para validar las líneas
+     */
+    public PayrollRunner(FinancialCompany financialCompany, ProductRepository repository) {
+        this(financialCompany, repository, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Crea un proceso de nómina.
+     *
+     * @param financialCompany Entidad financiera que acredita los depósitos
+     * @param repository       Repositorio usado para validar las líneas
+     * @param batchSize        Cantidad de depósitos por lote
+     * @throws IllegalArgumentException Si el tamaño de lote no es positivo
+     */
+    public PayrollRunner(FinancialCompany financialCompany, ProductRepository repository, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a cero");
+        }
+        this.financialCompany = financialCompany;
+        this.repository = repository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Procesa un archivo de nómina y escribe su reporte de conciliación.
+     *
+     * @param payrollFile Archivo de nómina
+     * @param reportFile  Archivo donde se escribe el reporte de conciliación
+     * @return Resumen de la conciliación
+     * @throws IOException Si no es posible leer la nómina o escribir el reporte
+     */
+    public PayrollReport run(Path payrollFile, Path reportFile) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(payrollFile, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            Run run = new Run(writer);
+            PayrollReport report = run.process(reader);
+            writer.write("# " + report.toString().replace(System.lineSeparator(), System.lineSeparator() + "# "));
+            writer.newLine();
+            return report;
+        }
+    }
+
+    /**
+     * Lote de depósitos junto con los datos de cada línea necesarios para el reporte.
+     */
+    private static final class Chunk {
+        private final OperationBatch batch;
+        private final long[] lineNumbers;
+        private final String[] identifications;
+
+        private Chunk(int capacity) {
+            this.batch = new OperationBatch(capacity);
+            this.lineNumbers = new long[capacity];
+            this.identifications = new String[capacity];
+        }
+
+        private void clear() {
+            batch.clear();
+            Arrays.fill(identifications, null);
+        }
+    }
+
+    /**
+     * Estado de una ejecución: contadores, lotes en circulación y el hilo que acredita.
+     */
+    private final class Run {
+        private final Chunk endOfFile = new Chunk(1);
+        private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(2);
+        private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(2);
+        private final BufferedWriter writer;
+        private final long[] rejections = new long[PayrollRejection.values().length];
+        private long lines;
+        private long fileAmount;
+        private long controlLines = -1;
+        private long controlAmount;
+        // Escritos solo por el hilo que acredita; se leen tras esperar su terminación
+        private long credited;
+        private long creditedAmount;
+        private volatile Throwable failure;
+
+        private Run(BufferedWriter writer) {
+            this.writer = writer;
+            free.add(new Chunk(batchSize));
+            free.add(new Chunk(batchSize));
+        }
+
+        private PayrollReport process(BufferedReader reader) throws IOException {
+            Thread poster = new Thread(this::post, "payroll-poster");
+            poster.setDaemon(true);
+            poster.start();
+            boolean completed = false;
+            try {
+                Chunk chunk = free.take();
+                String line;
+                long lineNumber = 0;
+                while (failure == null && (line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (readLine(line, lineNumber, chunk) && chunk.batch.size() == batchSize) {
+                        full.put(chunk);
+                        chunk = free.take();
+                    }
+                }
+                if (chunk.batch.size() > 0) {
+                    full.put(chunk);
+                }
+                full.put(endOfFile);
+                poster.join();
+                completed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("El proceso de nómina fue interrumpido", e);
+            } finally {
+                if (!completed) {
+                    poster.interrupt();
+                }
+            }
+
+            if (failure instanceof UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (failure != null) {
+                throw new IllegalStateException("Falló la acreditación de la nómina", failure);
+            }
+
+            Map<PayrollRejection, Long> byReason = new EnumMap<>(PayrollRejection.class);
+            for (PayrollRejection reason : PayrollRejection.values()) {
+                if (rejections[reason.ordinal()] > 0) {
+                    byReason.put(reason, rejections[reason.ordinal()]);
+                }
+            }
+            return new PayrollReport(lines, fileAmount, credited, creditedAmount,
+                    Collections.unmodifiableMap(byReason), controlLines, controlAmount);
+        }
+
+        /**
+         * Interpreta y valida una línea del archivo y, si es válida, la agrega al lote.
+         *
+         * @return true si la línea se agregó al lote
+         */
+        private boolean readLine(String line, long lineNumber, Chunk chunk) throws IOException {
+            if (line.isBlank() || line.startsWith("#")) {
+                return false;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length == 3 && fields[0].trim().equals(CONTROL_PREFIX)) {
+                readControl(fields, line, lineNumber);
+                return false;
+            }
+
+            lines++;
+            if (fields.length != 3) {
+                reject(lineNumber, line, PayrollRejection.INVALID_FORMAT);
+                return false;
+            }
+            String productNumber = fields[0].trim();
+            String identification = fields[1].trim();
+            long amount;
+            try {
+                amount = Money.parse(fields[2]);
+            } catch (NumberFormatException e) {
+                reject(lineNumber, line, PayrollRejection.INVALID_AMOUNT);
+                return false;
+            }
+            if (amount <= 0) {
+                reject(lineNumber, line, PayrollRejection.INVALID_AMOUNT);
+                return false;
+            }
+            fileAmount += amount;
+
+            FinancialProduct product = repository.findByProductNumber(productNumber);
+            if (product == null) {
+                reject(lineNumber, line, PayrollRejection.PRODUCT_NOT_FOUND);
+                return false;
+            }
+            if (!(product instanceof SalaryAccount)) {
+                reject(lineNumber, line, PayrollRejection.NOT_SALARY_ACCOUNT);
+                return false;
+            }
+            String owner = product.getCustomer().getIdentification();
+            if (owner == null || !owner.trim().equals(identification)) {
+                reject(lineNumber, line, PayrollRejection.CUSTOMER_MISMATCH);
+                return false;
+            }
+
+            int index = chunk.batch.add(productNumber, OperationType.DEPOSIT, amount);
+            chunk.lineNumbers[index] = lineNumber;
+            chunk.identifications[index] = identification;
+            return true;
+        }
+
+        private void readControl(String[] fields, String line, long lineNumber) throws IOException {
+            try {
+                controlLines = Long.parseLong(fields[1].trim());
+                controlAmount = Money.parse(fields[2]);
+            } catch (NumberFormatException e) {
+                controlLines = -1;
+                lines++;
+                reject(lineNumber, line, PayrollRejection.INVALID_FORMAT);
+            }
+        }
+
+        private void reject(long lineNumber, String line, PayrollRejection reason) throws IOException {
+            rejections[reason.ordinal()]++;
+            write(lineNumber + "," + line + "," + reason.getDescription());
+        }
+
+        /**
+         * Acredita los lotes a medida que se completan y devuelve cada lote para reutilizarlo.
+         */
+        private void post() {
+            try {
+                while (true) {
+                    Chunk chunk = full.take();
+                    if (chunk == endOfFile) {
+                        return;
+                    }
+                    if (failure == null) {
+                        try {
+                            postChunk(chunk);
+                        } catch (IOException e) {
+                            failure = new UncheckedIOException(e);
+                        } catch (RuntimeException | Error e) {
+                            failure = e;
+                        }
+                    }
+                    chunk.clear();
+                    free.put(chunk);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void postChunk(Chunk chunk) throws IOException {
+            OperationBatch batch = chunk.batch;
+            financialCompany.performBatch(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                OperationStatus status = batch.getStatus(i);
+                if (status.isSuccess()) {
+                    credited++;
+                    creditedAmount += batch.getAmount(i);
+                } else {
+                    // Solo este hilo incrementa este motivo; el lector lo consulta tras esperar su terminación
+                    rejections[PayrollRejection.POSTING_FAILED.ordinal()]++;
+                    write(chunk.lineNumbers[i] + "," + batch.getProductNumber(i) + "," + chunk.identifications[i]
+                            + "," + Money.format(batch.getAmount(i)) + "," + PayrollRejection.POSTING_FAILED.getDescription()
+                            + " (" + status + ")");
+                }
+            }
+        }
+
+        private void write(String reportLine) throws IOException {
+            synchronized (writer) {
+                writer.write(reportLine);
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+/**
+ * Motivo por el que una fila de un archivo de carga masiva no se importa.
+ */
+public enum BulkImportRejection {
+    /**
+     * La fila no tiene los campos esperados, el tipo de cuenta o la clasificación no existen,
+     * o falta la identificación del titular
+     */
+    INVALID_FORMAT("Formato de fila inválido"),
+
+    /**
+     * El número de producto no es un número entero válido
+     */
+    INVALID_PRODUCT_NUMBER("Número de producto inválido"),
+
+    /**
+     * El saldo inicial o el valor propio del tipo de cuenta no es un monto válido para la cuenta
+     */
+    INVALID_AMOUNT("Monto inválido"),
+
+    /**
+     * Ya existe un producto con el mismo número, en el repositorio o antes en el archivo
+     */
+    DUPLICATE_PRODUCT("Número de producto repetido"),
+
+    /**
+     * El titular ya tiene un producto, en el repositorio o antes en el archivo
+     */
+    DUPLICATE_CUSTOMER("El cliente ya tiene un producto"),
+
+    /**
+     * El repositorio rechazó el producto al registrarlo
+     */
+    REGISTRATION_FAILED("El registro del producto fue rechazado");
+
+    private final String description;
+
+    BulkImportRejection(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Obtiene la descripción del motivo.
+     *
+     * @return Descripción del motivo
+     */
+    public String getDescription() {
+        return description;
+    }
+}
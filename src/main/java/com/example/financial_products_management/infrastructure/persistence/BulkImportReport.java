@@ -0,0 +1,44 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Resultado de la carga masiva de un archivo de productos.
+ *
+ * @param rows       Cantidad de filas de productos leídas (sin comentarios ni encabezado)
+ * @param imported   Cantidad de productos registrados
+ * @param rejections Cantidad de filas no importadas por cada motivo
+ * @param elapsed    Duración de la carga
+ */
+public record BulkImportReport(long rows, long imported, Map<BulkImportRejection, Long> rejections,
+                               Duration elapsed) {
+
+    /**
+     * Obtiene la cantidad de filas no importadas.
+     *
+     * @return Filas rechazadas por cualquier motivo
+     */
+    public long rejected() {
+        return rows - imported;
+    }
+
+    /**
+     * Obtiene la cantidad de productos registrados por segundo.
+     *
+     * @return Productos por segundo, o cero si la carga no tomó tiempo medible
+     */
+    public double productsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : imported * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Filas leídas: %d; Importadas: %d; Rechazadas: %d", rows, imported, rejected()));
+        rejections.forEach((reason, count) -> builder.append(String.format("%n  %s: %d", reason.getDescription(), count)));
+        builder.append(String.format("%nDuración: %d ms (%.0f productos/s)", elapsed.toMillis(), productsPerSecond()));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,530 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.BusinessDate;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Carga masiva de clientes y productos desde un archivo local.
+ * Admite dos formatos, que se distinguen por el encabezado del archivo:
+ * <ul>
+ *   <li>Texto CSV en UTF-8 con una fila por producto y su titular:
+ *   {@code tipo,numeroProducto,identificacion,nombres,apellidos,telefono,saldoInicial,valor,clasificacion},
+ *   donde el tipo es {@code AHORRO}, {@code CORRIENTE}, {@code VIVIENDA} o {@code SALARIO}, el valor es
+ *   el límite de sobregiro, el valor de la vivienda o el salario según el tipo, y la clasificación solo
+ *   aplica a las cuentas de vivienda. Los montos se expresan en unidades con hasta dos decimales. Las
+ *   filas vacías, las que comienzan con {@code #} y un encabezado que comience con {@code tipo} se ignoran.</li>
+ *   <li>Binario, generado con {@link #exportBinary(Iterable, Path)}: registros de creación con el mismo
+ *   formato y CRC que el diario de transacciones.</li>
+ * </ul>
+ *
+ * <p>El archivo se lee por bloques con un canal de NIO sin materializar una línea por fila. Cada fila
+ * se valida y los productos válidos se registran en lotes con {@link FinancialCompany#registerAll(List)},
+ * que los agrega al repositorio e indexa de una vez por lote. Los números de producto y los titulares
+ * repetidos se detectan con los índices hash del repositorio y con conjuntos hash del lote en curso, sin
+ * recorrer los productos existentes, por lo que la memoria de la carga no depende del tamaño del archivo.
+ *
+ * <p>Las filas rechazadas se escriben, si se indica, en un archivo de rechazos con el formato
+ * {@code linea,motivo,detalle}; en archivos binarios la línea es la posición del registro.
+ */
+public class BulkImporter {
+    /**
+     * Cantidad de productos por lote por defecto.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    /**
+     * Encabezado que identifica a un archivo de carga masiva binario ("FPBI").
+     */
+    static final int BINARY_MAGIC = 0x46504249;
+
+    private static final int BINARY_VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int MAX_FIELDS = 9;
+    private static final String HEADER_PREFIX = "tipo";
+
+    private static final int FIELD_KIND = 0;
+    private static final int FIELD_PRODUCT_NUMBER = 1;
+    private static final int FIELD_IDENTIFICATION = 2;
+    private static final int FIELD_FIRST_NAME = 3;
+    private static final int FIELD_LAST_NAME = 4;
+    private static final int FIELD_PHONE = 5;
+    private static final int FIELD_BALANCE = 6;
+    private static final int FIELD_VALUE = 7;
+    private static final int FIELD_CLASSIFICATION = 8;
+
+    private final FinancialCompany financialCompany;
+    private final ProductRepository repository;
+    private final int chunkSize;
+
+    /**
+     * Crea un importador con el tamaño de lote por defecto.
+     *
+     * @param financialCompany Entidad financiera que registra los productos
+     * @param repository       Repositorio usado para detectar productos y titulares existentes
+     */
+    public BulkImporter(FinancialCompany financialCompany, ProductRepository repository) {
+        this(financialCompany, repository, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Crea un importador.
+     *
+     * @param financialCompany Entidad financiera que registra los productos
+     * @param repository       Repositorio usado para detectar productos y titulares existentes
+     * @param chunkSize        Cantidad de productos por lote
+     * @throws IllegalArgumentException Si el tamaño de lote no es positivo
+     */
+    public BulkImporter(FinancialCompany financialCompany, ProductRepository repository, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor a cero");
+        }
+        this.financialCompany = financialCompany;
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Importa los productos de un archivo CSV o binario.
+     *
+     * @param source     Archivo a importar
+     * @param rejectFile Archivo donde se escriben las filas rechazadas, o null para no escribirlas
+     * @return Resumen de la carga
+     * @throws IOException Si no es posible leer el archivo o escribir los rechazos, o si el archivo
+     *                     binario está incompleto o dañado
+     */
+    public BulkImportReport importFile(Path source, Path rejectFile) throws IOException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+             BufferedWriter writer = rejectFile == null ? null : Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            Load load = new Load(channel, writer);
+            load.run();
+            return load.report(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Escribe productos en un archivo de carga masiva binario.
+     * Solo se exportan los datos de creación de cada producto; el estado acumulado por las
+     * operaciones (intereses, últimos movimientos) no forma parte del archivo.
+     *
+     * @param products Productos a exportar
+     * @param target   Archivo de destino; se reemplaza si existe
+     * @return Cantidad de productos exportados
+     * @throws IOException Si no es posible escribir el archivo
+     */
+    public static long exportBinary(Iterable<? extends FinancialProduct> products, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            CRC32 crc = new CRC32();
+            buffer.putInt(BINARY_MAGIC);
+            buffer.putInt(BINARY_VERSION);
+            long exported = 0;
+            for (FinancialProduct product : products) {
+                int position = buffer.position();
+                try {
+                    JournalCodec.writeCreation(buffer, exported, product, crc);
+                } catch (BufferOverflowException e) {
+                    buffer.position(position);
+                    drain(channel, buffer);
+                    JournalCodec.writeCreation(buffer, exported, product, crc);
+                }
+                exported++;
+            }
+            drain(channel, buffer);
+            return exported;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Estado de una carga: buffer de lectura, lote en curso y contadores.
+     */
+    private final class Load {
+        private final FileChannel channel;
+        private final BufferedWriter writer;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[] bytes = buffer.array();
+        private final int[] fieldStarts = new int[MAX_FIELDS];
+        private final int[] fieldEnds = new int[MAX_FIELDS];
+        private final List<FinancialProduct> chunk = new ArrayList<>(chunkSize);
+        private final long[] chunkLines = new long[chunkSize];
+        private final Set<Long> chunkNumbers = new HashSet<>(chunkSize * 2);
+        private final Set<String> chunkCustomers = new HashSet<>(chunkSize * 2);
+        private final long[] rejections = new long[BulkImportRejection.values().length];
+        private final LocalDate openingDate = BusinessDate.today();
+        private boolean endOfFile;
+        private long rows;
+        private long imported;
+
+        private Load(FileChannel channel, BufferedWriter writer) {
+            this.channel = channel;
+            this.writer = writer;
+        }
+
+        private void run() throws IOException {
+            buffer.flip();
+            fill();
+            if (buffer.remaining() >= Integer.BYTES * 2 && buffer.getInt(0) == BINARY_MAGIC) {
+                int version = buffer.getInt(Integer.BYTES);
+                if (version != BINARY_VERSION) {
+                    throw new IOException("Versión de archivo de carga masiva no soportada: " + version);
+                }
+                buffer.position(Integer.BYTES * 2);
+                readBinary();
+            } else {
+                readCsv();
+            }
+            flush();
+        }
+
+        private BulkImportReport report(Duration elapsed) {
+            Map<BulkImportRejection, Long> byReason = new EnumMap<>(BulkImportRejection.class);
+            for (BulkImportRejection reason : BulkImportRejection.values()) {
+                if (rejections[reason.ordinal()] > 0) {
+                    byReason.put(reason, rejections[reason.ordinal()]);
+                }
+            }
+            return new BulkImportReport(rows, imported, Collections.unmodifiableMap(byReason), elapsed);
+        }
+
+        /**
+         * Conserva los bytes pendientes del buffer al inicio y lo completa con datos del archivo.
+         */
+        private void fill() throws IOException {
+            buffer.compact();
+            while (!endOfFile && buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    endOfFile = true;
+                }
+            }
+            buffer.flip();
+        }
+
+        private void readCsv() throws IOException {
+            long lineNumber = 0;
+            while (true) {
+                int start = buffer.position();
+                int limit = buffer.limit();
+                int end = start;
+                while (end < limit && bytes[end] != '\n') {
+                    end++;
+                }
+                if (end == limit && !endOfFile) {
+                    if (start == 0 && limit == bytes.length) {
+                        throw new IOException("La línea " + (lineNumber + 1) + " excede el tamaño máximo de lectura");
+                    }
+                    fill();
+                    continue;
+                }
+                if (start == limit) {
+                    return;
+                }
+
+                lineNumber++;
+                buffer.position(end < limit ? end + 1 : end);
+                if (end > start && bytes[end - 1] == '\r') {
+                    end--;
+                }
+                readRow(start, end, lineNumber);
+            }
+        }
+
+        /**
+         * Interpreta una fila CSV y, si es válida, la agrega al lote.
+         */
+        private void readRow(int start, int end, long lineNumber) throws IOException {
+            int first = skipSpaces(start, end);
+            if (first == end || bytes[first] == '#') {
+                return;
+            }
+
+            int fields = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || bytes[i] == ',') {
+                    if (fields == MAX_FIELDS) {
+                        fields++;
+                        break;
+                    }
+                    fieldStarts[fields] = fieldStart;
+                    fieldEnds[fields] = i;
+                    fields++;
+                    fieldStart = i + 1;
+                }
+            }
+
+            if (rows == 0 && fields > 0 && text(FIELD_KIND).toLowerCase(Locale.ROOT).startsWith(HEADER_PREFIX)) {
+                return;
+            }
+            rows++;
+
+            String kind = fields >= FIELD_CLASSIFICATION ? text(FIELD_KIND).toUpperCase(Locale.ROOT) : "";
+            boolean housing = kind.equals("VIVIENDA");
+            if (fields < FIELD_CLASSIFICATION || fields > MAX_FIELDS || (housing && fields < MAX_FIELDS)) {
+                reject(lineNumber, BulkImportRejection.INVALID_FORMAT, line(start, end));
+                return;
+            }
+
+            String productNumber = text(FIELD_PRODUCT_NUMBER);
+            Customer customer = new Customer(text(FIELD_IDENTIFICATION), text(FIELD_FIRST_NAME),
+                    text(FIELD_LAST_NAME), text(FIELD_PHONE));
+            long balance;
+            long value;
+            try {
+                balance = amount(FIELD_BALANCE);
+                value = isBlank(FIELD_VALUE) ? 0 : amount(FIELD_VALUE);
+            } catch (NumberFormatException e) {
+                reject(lineNumber, BulkImportRejection.INVALID_AMOUNT, line(start, end));
+                return;
+            }
+
+            FinancialProduct product;
+            switch (kind) {
+                case "AHORRO" -> product = new SavingsAccount(productNumber, openingDate, customer, balance);
+                case "CORRIENTE" -> product = new CheckingAccount(productNumber, openingDate, customer, balance, value);
+                case "SALARIO" -> product = new SalaryAccount(productNumber, openingDate, customer, balance, value);
+                case "VIVIENDA" -> {
+                    HousingClassification classification;
+                    try {
+                        classification = HousingClassification.valueOf(
+                                text(FIELD_CLASSIFICATION).toUpperCase(Locale.ROOT).replace(' ', '_'));
+                    } catch (IllegalArgumentException e) {
+                        reject(lineNumber, BulkImportRejection.INVALID_FORMAT, line(start, end));
+                        return;
+                    }
+                    product = new HousingSavingsAccount(productNumber, openingDate, customer, balance, value,
+                            classification);
+                }
+                default -> {
+                    reject(lineNumber, BulkImportRejection.INVALID_FORMAT, line(start, end));
+                    return;
+                }
+            }
+            accept(product, lineNumber);
+        }
+
+        private void readBinary() throws IOException {
+            CRC32 crc = new CRC32();
+            long position = 0;
+            while (true) {
+                JournalRecord record;
+                try {
+                    record = JournalCodec.read(buffer, crc);
+                } catch (RuntimeException e) {
+                    throw new IOException("Registro dañado en la posición " + (position + 1) + " del archivo", e);
+                }
+                if (record == null) {
+                    if (!buffer.hasRemaining() && endOfFile) {
+                        return;
+                    }
+                    if (endOfFile || (buffer.position() == 0 && buffer.limit() == bytes.length)) {
+                        throw new IOException("Registro incompleto o dañado en la posición " + (position + 1)
+                                + " del archivo");
+                    }
+                    fill();
+                    continue;
+                }
+
+                position++;
+                rows++;
+                if (record.type() != JournalCodec.CREATE) {
+                    reject(position, BulkImportRejection.INVALID_FORMAT, "Registro de tipo " + record.type());
+                    continue;
+                }
+                accept(record.product(), position);
+            }
+        }
+
+        /**
+         * Valida un producto construido a partir de una fila y lo agrega al lote si no está repetido.
+         */
+        private void accept(FinancialProduct product, long lineNumber) throws IOException {
+            BulkImportRejection invalid = validate(product);
+            if (invalid != null) {
+                reject(lineNumber, invalid, product.getProductNumber());
+                return;
+            }
+
+            String productNumber = product.getProductNumber().trim();
+            long number = ProductNumbers.parse(productNumber);
+            if (chunkNumbers.contains(number) || repository.findByProductNumber(number) != null) {
+                reject(lineNumber, BulkImportRejection.DUPLICATE_PRODUCT, productNumber);
+                return;
+            }
+
+            String customerIdentification = product.getCustomer().getIdentification().trim();
+            if (chunkCustomers.contains(customerIdentification)
+                    || repository.existsByCustomerIdentification(customerIdentification)) {
+                reject(lineNumber, BulkImportRejection.DUPLICATE_CUSTOMER, productNumber);
+                return;
+            }
+
+            chunkNumbers.add(number);
+            chunkCustomers.add(customerIdentification);
+            chunkLines[chunk.size()] = lineNumber;
+            chunk.add(product);
+            if (chunk.size() == chunkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Aplica las mismas reglas que la creación individual de productos.
+         *
+         * @return Motivo de rechazo, o null si el producto es válido
+         */
+        private BulkImportRejection validate(FinancialProduct product) {
+            if (ProductNumbers.parse(product.getProductNumber()) == ProductNumbers.NONE) {
+                return BulkImportRejection.INVALID_PRODUCT_NUMBER;
+            }
+
+            String identification = product.getCustomer().getIdentification();
+            if (identification == null || identification.isBlank()) {
+                return BulkImportRejection.INVALID_FORMAT;
+            }
+
+            if (product.getBalance() < 0
+                    || (product instanceof CheckingAccount checking && checking.getOverdraftLimit() < 0)
+                    || (product instanceof HousingSavingsAccount housing && housing.getTotalHousingValue() <= 0)
+                    || (product instanceof SalaryAccount salary && salary.getSalaryAmount() <= 0)) {
+                return BulkImportRejection.INVALID_AMOUNT;
+            }
+            return null;
+        }
+
+        /**
+         * Registra el lote en curso. Si el lote es rechazado, por ejemplo porque otro hilo registró
+         * uno de sus productos durante la carga, se registra producto por producto para aislar los rechazos.
+         */
+        private void flush() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+
+            try {
+                financialCompany.registerAll(chunk);
+                imported += chunk.size();
+            } catch (IllegalArgumentException e) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    FinancialProduct product = chunk.get(i);
+                    try {
+                        financialCompany.registerAll(List.of(product));
+                        imported++;
+                    } catch (IllegalArgumentException rejected) {
+                        reject(chunkLines[i], BulkImportRejection.REGISTRATION_FAILED,
+                                product.getProductNumber() + ": " + rejected.getMessage());
+                    }
+                }
+            }
+            chunk.clear();
+            chunkNumbers.clear();
+            chunkCustomers.clear();
+        }
+
+        private void reject(long lineNumber, BulkImportRejection reason, String detail) throws IOException {
+            rejections[reason.ordinal()]++;
+            if (writer != null) {
+                writer.write(lineNumber + "," + reason.getDescription() + "," + detail);
+                writer.newLine();
+            }
+        }
+
+        private int skipSpaces(int start, int end) {
+            while (start < end && (bytes[start] & 0xFF) <= ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        /**
+         * Obtiene el texto de un campo sin los espacios al inicio y al final.
+         */
+        private String text(int field) {
+            int start = skipSpaces(fieldStarts[field], fieldEnds[field]);
+            int end = fieldEnds[field];
+            while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+                end--;
+            }
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        private boolean isBlank(int field) {
+            return skipSpaces(fieldStarts[field], fieldEnds[field]) == fieldEnds[field];
+        }
+
+        private String line(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Convierte un campo de monto a centavos sin crear textos intermedios cuando el monto tiene
+         * la forma habitual de dígitos con hasta dos decimales; en otro caso usa {@link Money#parse(String)}.
+         *
+         * @throws NumberFormatException Si el campo no es un monto válido
+         */
+        private long amount(int field) {
+            int start = skipSpaces(fieldStarts[field], fieldEnds[field]);
+            int end = fieldEnds[field];
+            while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+                end--;
+            }
+
+            long units = 0;
+            int i = start;
+            while (i < end && i - start < 16 && bytes[i] >= '0' && bytes[i] <= '9') {
+                units = units * 10 + (bytes[i++] - '0');
+            }
+            long cents = 0;
+            int decimals = 0;
+            if (i > start && i < end - 1 && bytes[i] == '.') {
+                i++;
+                while (i < end && decimals < 2 && bytes[i] >= '0' && bytes[i] <= '9') {
+                    cents = cents * 10 + (bytes[i++] - '0');
+                    decimals++;
+                }
+            }
+            if (i == end && i > start) {
+                return units * Money.CENTS_PER_UNIT + (decimals == 1 ? cents * 10 : cents);
+            }
+            return Money.parse(new String(bytes, start, end - start, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.OperationType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.CRC32;
+
+/**
+ * Codificación binaria de los registros del diario de transacciones y de los snapshots.
+ * Cada registro se escribe como {@code [longitud:int][crc32:int][contenido]}, donde el contenido
+ * comienza con el tipo de registro y su número de secuencia. El CRC permite detectar registros
+ * incompletos al final del archivo tras una caída.
+ */
+final class JournalCodec {
+    static final byte CREATE = 1;
+    static final byte DEPOSIT = 10;
+    static final byte WITHDRAWAL = 11;
+    static final byte TRANSFER = 12;
+    static final byte INTEREST_ACCRUAL = 13;
+    static final byte SNAPSHOT_ENTRY = 20;
+    static final byte SNAPSHOT_END = 21;
+
+    static final byte KIND_SAVINGS = 1;
+    static final byte KIND_CHECKING = 2;
+    static final byte KIND_HOUSING = 3;
+    static final byte KIND_SALARY = 4;
+
+    /**
+     * Tamaño del encabezado de cada registro (longitud y CRC).
+     */
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * Escribe un registro de creación de producto.
+     *
+     * @param buffer   Buffer de destino
+     * @param sequence Número de secuencia del registro
+     * @param product  Producto creado
+     * @param crc      Calculador de CRC reutilizable
+     * @throws java.nio.BufferOverflowException Si el buffer no tiene espacio suficiente
+     */
+    static void writeCreation(ByteBuffer buffer, long sequence, FinancialProduct product, CRC32 crc) {
+        int start = beginRecord(buffer, CREATE, sequence);
+        putProduct(buffer, product);
+        endRecord(buffer, start, crc);
+    }
+
+    /**
+     * Escribe un registro de operación aplicada.
+     *
+     * @param buffer        Buffer de destino
+     * @param sequence      Número de secuencia del registro
+     * @param operationType Tipo de operación
+     * @param productNumber Número del producto
+     * @param amount        Monto de la operación en centavos
+     * @param businessDate  Fecha de negocio en que se aplicó la operación
+     * @param crc           Calculador de CRC reutilizable
+     * @throws java.nio.BufferOverflowException Si el buffer no tiene espacio suficiente
+     */
+    static void writeOperation(ByteBuffer buffer, long sequence, OperationType operationType,
+                               String productNumber, long amount, LocalDate businessDate, CRC32 crc) {
+        byte type = operationType == OperationType.DEPOSIT ? DEPOSIT : WITHDRAWAL;
+        int start = beginRecord(buffer, type, sequence);
+        putString(buffer, productNumber);
+        buffer.putLong(amount);
+        putDate(buffer, businessDate);
+        endRecord(buffer, start, crc);
+    }
+
+    /**
+     * Escribe un registro de transferencia aplicada entre dos productos.
+     *
+     * @param buffer              Buffer de destino
+     * @param sequence            Número de secuencia del registro
+     * @param sourceProductNumber Número del producto de origen
+     * @param targetProductNumber Número del producto de destino
+     * @param amount              Monto transferido en centavos
+     * @param businessDate        Fecha de negocio en que se aplicó la transferencia
+     * @param crc                 Calculador de CRC reutilizable
+     * @throws java.nio.BufferOverflowException Si el buffer no tiene espacio suficiente
+     */
+    static void writeTransfer(ByteBuffer buffer, long sequence, String sourceProductNumber,
+                              String targetProductNumber, long amount, LocalDate businessDate, CRC32 crc) {
+        int start = beginRecord(buffer, TRANSFER, sequence);
+        putString(buffer, sourceProductNumber);
+        putString(buffer, targetProductNumber);
+        buffer.putLong(amount);
+        putDate(buffer, businessDate);
+        endRecord(buffer, start, crc);
+    }
+
+    /**
+     * Escribe un registro de causación de intereses de una cuenta de ahorro.
+     *
+     * @param buffer        Buffer de destino
+     * @param sequence      Número de secuencia del registro
+     * @param productNumber Número del producto
+     * @param interest      Interés causado en centavos
+     * @param businessDate  Día causado
+     * @param crc           Calculador de CRC reutilizable
+     * @throws java.nio.BufferOverflowException Si el buffer no tiene espacio suficiente
+     */
+    static void writeInterestAccrual(ByteBuffer buffer, long sequence, String productNumber, long interest,
+                                     LocalDate businessDate, CRC32 crc) {
+        int start = beginRecord(buffer, INTEREST_ACCRUAL, sequence);
+        putString(buffer, productNumber);
+        buffer.putLong(interest);
+        putDate(buffer, businessDate);
+        endRecord(buffer, start, crc);
+    }
+
+    /**
+     * Escribe una entrada de snapshot con el estado completo de un producto.
+     * La secuencia indica el último registro del diario ya reflejado en ese estado.
+     *
+     * @param buffer   Buffer de destino
+     * @param sequence Última secuencia del diario reflejada en el estado del producto
+     * @param product  Producto a registrar
+     * @param crc      Calculador de CRC reutilizable
+     * @throws java.nio.BufferOverflowException Si el buffer no tiene espacio suficiente
+     */
+    static void writeSnapshotEntry(ByteBuffer buffer, long sequence, FinancialProduct product, CRC32 crc) {
+        int start = beginRecord(buffer, SNAPSHOT_ENTRY, sequence);
+        putProduct(buffer, product);
+        putState(buffer, product);
+        endRecord(buffer, start, crc);
+    }
+
+    /**
+     * Escribe el registro final de un snapshot.
+     *
+     * @param buffer   Buffer de destino
+     * @param sequence Secuencia del diario al comenzar el snapshot
+     * @param count    Cantidad de productos incluidos
+     * @param crc      Calculador de CRC reutilizable
+     */
+    static void writeSnapshotEnd(ByteBuffer buffer, long sequence, long count, CRC32 crc) {
+        int start = beginRecord(buffer, SNAPSHOT_END, sequence);
+        buffer.putLong(count);
+        endRecord(buffer, start, crc);
+    }
+
+    /**
+     * Lee el siguiente registro completo del buffer.
+     * Si el buffer no contiene un registro completo y válido, su posición no se modifica.
+     *
+     * @param buffer Buffer de origen
+     * @param crc    Calculador de CRC reutilizable
+     * @return Registro leído, o null si no hay un registro completo y válido
+     */
+    static JournalRecord read(ByteBuffer buffer, CRC32 crc) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            return null;
+        }
+
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        int checksum = buffer.getInt(start + Integer.BYTES);
+        if (length <= 0 || buffer.remaining() < HEADER_SIZE + length) {
+            return null;
+        }
+
+        ByteBuffer payload = buffer.slice(start + HEADER_SIZE, length);
+        crc.reset();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        JournalRecord record = decode(payload);
+        buffer.position(start + HEADER_SIZE + length);
+        return record;
+    }
+
+    /**
+     * Decodifica el contenido de un registro.
+     *
+     * @param payload Contenido del registro sin encabezado
+     * @return Registro decodificado
+     */
+    private static JournalRecord decode(ByteBuffer payload) {
+        byte type = payload.get();
+        long sequence = payload.getLong();
+
+        return switch (type) {
+            case DEPOSIT, WITHDRAWAL -> {
+                String productNumber = getString(payload);
+                long amount = payload.getLong();
+                yield new JournalRecord(type, sequence, productNumber, amount, null, null, getDate(payload));
+            }
+            case TRANSFER -> {
+                String source = getString(payload);
+                String target = getString(payload);
+                long amount = payload.getLong();
+                yield new JournalRecord(type, sequence, source, amount, null, target, getDate(payload));
+            }
+            case INTEREST_ACCRUAL -> new JournalRecord(type, sequence, getString(payload), payload.getLong(), null,
+                    null, getDate(payload));
+            case CREATE -> {
+                FinancialProduct product = getProduct(payload);
+                yield new JournalRecord(type, sequence, product.getProductNumber(), 0, product);
+            }
+            case SNAPSHOT_ENTRY -> {
+                FinancialProduct product = getProduct(payload);
+                getState(payload, product);
+                yield new JournalRecord(type, sequence, product.getProductNumber(), 0, product);
+            }
+            case SNAPSHOT_END -> new JournalRecord(type, sequence, null, payload.getLong(), null);
+            default -> throw new IllegalStateException("Tipo de registro desconocido: " + type);
+        };
+    }
+
+    /**
+     * Escribe los datos de creación de un producto.
+     *
+     * @param buffer  Buffer de destino
+     * @param product Producto a escribir
+     */
+    private static void putProduct(ByteBuffer buffer, FinancialProduct product) {
+        Customer customer = product.getCustomer();
+        buffer.put(kindOf(product));
+        putString(buffer, product.getProductNumber());
+        buffer.putLong(product.getOpeningDate().toEpochDay());
+        putString(buffer, customer.getIdentification());
+        putString(buffer, customer.getFirstName());
+        putString(buffer, customer.getLastName());
+        putString(buffer, customer.getPhone());
+        buffer.putLong(product.getBalance());
+
+        if (product instanceof CheckingAccount checking) {
+            buffer.putLong(checking.getOverdraftLimit());
+        } else if (product instanceof HousingSavingsAccount housing) {
+            buffer.putLong(housing.getTotalHousingValue());
+            buffer.put((byte) housing.getClassification().ordinal());
+        } else if (product instanceof SalaryAccount salary) {
+            buffer.putLong(salary.getSalaryAmount());
+        }
+    }
+
+    /**
+     * Lee los datos de creación de un producto.
+     *
+     * @param buffer Buffer de origen
+     * @return Producto reconstruido
+     */
+    private static FinancialProduct getProduct(ByteBuffer buffer) {
+        byte kind = buffer.get();
+        String productNumber = getString(buffer);
+        LocalDate openingDate = LocalDate.ofEpochDay(buffer.getLong());
+        Customer customer = new Customer(getString(buffer), getString(buffer), getString(buffer), getString(buffer));
+        long balance = buffer.getLong();
+
+        return switch (kind) {
+            case KIND_SAVINGS -> new SavingsAccount(productNumber, openingDate, customer, balance);
+            case KIND_CHECKING -> new CheckingAccount(productNumber, openingDate, customer, balance, buffer.getLong());
+            case KIND_HOUSING -> new HousingSavingsAccount(productNumber, openingDate, customer, balance,
+                    buffer.getLong(), HousingClassification.values()[buffer.get()]);
+            case KIND_SALARY -> new SalaryAccount(productNumber, openingDate, customer, balance, buffer.getLong());
+            default -> throw new IllegalStateException("Tipo de producto desconocido: " + kind);
+        };
+    }
+
+    /**
+     * Escribe el estado propio de cada tipo de cuenta.
+     *
+     * @param buffer  Buffer de destino
+     * @param product Producto a escribir
+     */
+    private static void putState(ByteBuffer buffer, FinancialProduct product) {
+        if (product instanceof SavingsAccount savings) {
+            buffer.putLong(savings.getAccumulatedInterest());
+            putDate(buffer, savings.getLastDepositDate());
+            buffer.putLong(savings.getLastDepositAmount());
+            putDate(buffer, savings.getLastAccrualDate());
+        } else if (product instanceof CheckingAccount checking) {
+            putDate(buffer, checking.getLastOperationDate());
+            buffer.putLong(checking.getLastOperationAmount());
+            OperationType lastType = checking.getLastOperationType();
+            buffer.put(lastType == null ? -1 : (byte) lastType.ordinal());
+        } else if (product instanceof HousingSavingsAccount housing) {
+            putDate(buffer, housing.getLastPaymentDate());
+            buffer.putLong(housing.getLastPaymentAmount());
+            buffer.putLong(housing.getTotalPaid());
+        } else if (product instanceof SalaryAccount salary) {
+            putDate(buffer, salary.getLastWithdrawalDate());
+            buffer.putLong(salary.getLastWithdrawalAmount());
+        }
+    }
+
+    /**
+     * Lee el estado propio de cada tipo de cuenta y lo restaura en el producto.
+     *
+     * @param buffer  Buffer de origen
+     * @param product Producto a restaurar
+     */
+    private static void getState(ByteBuffer buffer, FinancialProduct product) {
+        if (product instanceof SavingsAccount savings) {
+            savings.restoreState(buffer.getLong(), getDate(buffer), buffer.getLong(), getDate(buffer));
+        } else if (product instanceof CheckingAccount checking) {
+            LocalDate date = getDate(buffer);
+            long amount = buffer.getLong();
+            byte lastType = buffer.get();
+            checking.restoreState(date, amount, lastType < 0 ? null : OperationType.values()[lastType]);
+        } else if (product instanceof HousingSavingsAccount housing) {
+            housing.restoreState(getDate(buffer), buffer.getLong(), buffer.getLong());
+        } else if (product instanceof SalaryAccount salary) {
+            salary.restoreState(getDate(buffer), buffer.getLong());
+        }
+    }
+
+    /**
+     * Determina el código de tipo de cuenta de un producto.
+     *
+     * @param product Producto
+     * @return Código del tipo de cuenta
+     */
+    static byte kindOf(FinancialProduct product) {
+        if (product instanceof SavingsAccount) {
+            return KIND_SAVINGS;
+        } else if (product instanceof CheckingAccount) {
+            return KIND_CHECKING;
+        } else if (product instanceof HousingSavingsAccount) {
+            return KIND_HOUSING;
+        } else if (product instanceof SalaryAccount) {
+            return KIND_SALARY;
+        }
+        throw new IllegalArgumentException("Tipo de producto no soportado por el diario: " + product.getProductType());
+    }
+
+    private static int beginRecord(ByteBuffer buffer, byte type, long sequence) {
+        int start = buffer.position();
+        buffer.position(start + HEADER_SIZE);
+        buffer.put(type);
+        buffer.putLong(sequence);
+        return start;
+    }
+
+    private static void endRecord(ByteBuffer buffer, int start, CRC32 crc) {
+        int end = buffer.position();
+        int length = end - start - HEADER_SIZE;
+        crc.reset();
+        crc.update(buffer.slice(start + HEADER_SIZE, length));
+        buffer.putInt(start, length);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private static void putDate(ByteBuffer buffer, LocalDate date) {
+        buffer.putLong(date == null ? NO_DATE : date.toEpochDay());
+    }
+
+    private static LocalDate getDate(ByteBuffer buffer) {
+        long epochDay = buffer.getLong();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Texto demasiado largo para el diario");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import java.time.LocalDate;
+
+/**
+ * Registro decodificado del diario de transacciones.
+ * Un registro es la creación de un producto o una operación aplicada sobre él.
+ *
+ * @param type                Tipo de registro (ver constantes de {@link JournalCodec})
+ * @param sequence            Número de secuencia del registro en el diario
+ * @param productNumber       Número del producto afectado (el de origen en transferencias)
+ * @param amount              Monto de la operación en centavos (cero para creaciones)
+ * @param product             Producto reconstruido para registros de creación, null en otro caso
+ * @param targetProductNumber Número del producto de destino en transferencias, null en otro caso
+ * @param businessDate        Fecha de negocio de operaciones y transferencias, o día causado en registros de
+ *                            causación de intereses; null en creaciones
+ */
+record JournalRecord(byte type, long sequence, String productNumber, long amount, FinancialProduct product,
+                     String targetProductNumber, LocalDate businessDate) {
+
+    /**
+     * Crea un registro que afecta a un único producto.
+     *
+     * @param type          Tipo de registro
+     * @param sequence      Número de secuencia del registro en el diario
+     * @param productNumber Número del producto afectado
+     * @param amount        Monto de la operación en centavos
+     * @param product       Producto reconstruido, o null
+     */
+    JournalRecord(byte type, long sequence, String productNumber, long amount, FinancialProduct product) {
+        this(type, sequence, productNumber, amount, product, null, null);
+    }
+
+    /**
+     * Indica si el registro corresponde a la creación de un producto.
+     *
+     * @return true si es un registro de creación
+     */
+    boolean isCreation() {
+        return product != null;
+    }
+}
@@ -0,0 +1,867 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.ProductPage;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.ProductNumbers;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de productos financieros almacenado fuera del heap en un archivo mapeado en memoria.
+ * Cada producto ocupa un registro de ancho fijo con sus datos, los del titular y el estado propio
+ * de su tipo de cuenta, por lo que el heap no retiene un objeto por producto. Las consultas
+ * materializan bajo demanda una vista del producto que se descarta tras usarse; los cambios
+ * aplicados sobre la vista se copian al registro mediante {@link #save(FinancialProduct)}.
+ * Los índices por número de producto y por identificación del cliente son tablas hash de
+ * direccionamiento abierto sobre arreglos de enteros, que se reconstruyen al abrir el archivo
+ * recorriendo únicamente las claves. El índice por número usa el valor numérico del número, que
+ * se lee directamente de los bytes del registro, por lo que buscar un número no crea objetos.
+ * El archivo se mapea en bloques que se agregan a medida que crece la cantidad de productos.
+ * Las consultas no adquieren candados; las inserciones se serializan entre sí.
+ */
+public class MappedProductRepository implements ProductRepository, AutoCloseable {
+    /**
+     * Tamaño por defecto de cada bloque mapeado del archivo.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64L << 20;
+
+    static final int RECORD_SIZE = 256;
+
+    private static final int MAGIC = 0x46505244;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_RECORD_SIZE = 8;
+    private static final int HEADER_COUNT = 16;
+    private static final int HEADER_CHUNK_SIZE = 24;
+
+    private static final int KIND = 0;
+    private static final int CLASSIFICATION = 1;
+    private static final int LAST_OPERATION_TYPE = 2;
+    private static final int OPENING_DATE = 4;
+    private static final int LAST_DATE = 8;
+    private static final int ACCRUAL_DATE = 12;
+    private static final int BALANCE = 16;
+    private static final int LIMIT = 24;
+    private static final int LAST_AMOUNT = 32;
+    private static final int TOTAL = 40;
+    private static final int PRODUCT_NUMBER = 48;
+    private static final int IDENTIFICATION = 72;
+    private static final int FIRST_NAME = 96;
+    private static final int LAST_NAME = 160;
+    private static final int PHONE = 224;
+
+    private static final int PRODUCT_NUMBER_WIDTH = IDENTIFICATION - PRODUCT_NUMBER;
+    private static final int IDENTIFICATION_WIDTH = FIRST_NAME - IDENTIFICATION;
+    private static final int NAME_WIDTH = LAST_NAME - FIRST_NAME;
+    private static final int PHONE_WIDTH = RECORD_SIZE - PHONE;
+
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NULL_STRING = 0xFF;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final long chunkSize;
+    private final int recordsPerChunk;
+    private volatile MappedByteBuffer[] chunks;
+    private volatile int[] numberIndex;
+    private volatile int[] customerIndex;
+    private volatile int count;
+
+    /**
+     * Abre o crea un repositorio mapeado con el tamaño de bloque por defecto.
+     *
+     * @param file Archivo del repositorio; se crea si no existe
+     * @throws IOException Si ocurre un error al abrir o mapear el archivo
+     */
+    public MappedProductRepository(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Abre o crea un repositorio mapeado.
+     * Si el archivo ya existe se conserva el tamaño de bloque con el que fue creado y se
+     * reconstruyen los índices a partir de los registros almacenados.
+     *
+     * @param file      Archivo del repositorio; se crea si no existe
+     * @param chunkSize Tamaño de cada bloque mapeado en bytes para archivos nuevos
+     * @throws IOException           Si ocurre un error al abrir o mapear el archivo
+     * @throws IllegalStateException Si el archivo no es un repositorio válido
+     */
+    public MappedProductRepository(Path file, long chunkSize) throws IOException {
+        if (chunkSize < RECORD_SIZE || chunkSize > Integer.MAX_VALUE || chunkSize % RECORD_SIZE != 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser un múltiplo del tamaño de registro");
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            boolean created = channel.size() == 0;
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (created) {
+                header.putInt(HEADER_MAGIC, MAGIC);
+                header.putInt(HEADER_VERSION, VERSION);
+                header.putInt(HEADER_RECORD_SIZE, RECORD_SIZE);
+                header.putLong(HEADER_COUNT, 0);
+                header.putLong(HEADER_CHUNK_SIZE, chunkSize);
+            } else if (header.getInt(HEADER_MAGIC) != MAGIC
+                    || header.getInt(HEADER_VERSION) != VERSION
+                    || header.getInt(HEADER_RECORD_SIZE) != RECORD_SIZE) {
+                throw new IllegalStateException("El archivo no es un repositorio de productos válido: " + file);
+            }
+
+            this.chunkSize = header.getLong(HEADER_CHUNK_SIZE);
+            this.recordsPerChunk = (int) (this.chunkSize / RECORD_SIZE);
+            int stored = Math.toIntExact(header.getLong(HEADER_COUNT));
+
+            MappedByteBuffer[] mapped = new MappedByteBuffer[(stored + recordsPerChunk - 1) / recordsPerChunk];
+            for (int i = 0; i < mapped.length; i++) {
+                mapped[i] = mapChunk(i);
+            }
+            this.chunks = mapped;
+            rebuildIndexes(stored);
+            this.count = stored;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Agrega un producto financiero al repositorio.
+     * Valida que el número de producto y el cliente no estén registrados y que los textos
+     * quepan en los campos de ancho fijo del registro.
+     *
+     * @param product Producto a agregar
+     * @throws IllegalArgumentException Si el producto es nulo, su número no es un entero, ya existe,
+     *                                  el cliente no tiene identificación o ya tiene un producto, o algún
+     *                                  texto excede el ancho de su campo
+     */
+    @Override
+    public synchronized void addProduct(FinancialProduct product) throws IllegalArgumentException {
+        if (product == null) {
+            throw new IllegalArgumentException("El producto no puede ser nulo");
+        }
+
+        long productNumber = numberOf(product);
+        byte[] customerIdentification = identificationOf(product);
+
+        if (findNumber(numberIndex, productNumber, count) >= 0) {
+            throw new IllegalArgumentException("Ya existe un producto con el número: " + product.getProductNumber());
+        }
+
+        if (find(customerIndex, IDENTIFICATION, customerIdentification, count) >= 0) {
+            throw new IllegalArgumentException("El cliente ya tiene un producto registrado. Cada cliente puede tener solo un producto.");
+        }
+
+        int record = count;
+        ensureCapacity(record + 1);
+        writeRecord(chunkOf(record), offsetOf(record), product);
+
+        int[] numbers = insert(numberIndex, PRODUCT_NUMBER, record, numberHash(productNumber), record + 1);
+        int[] customers = insert(customerIndex, IDENTIFICATION, record, hash(customerIdentification), record + 1);
+        numberIndex = numbers;
+        customerIndex = customers;
+
+        header.putLong(HEADER_COUNT, record + 1);
+        count = record + 1;
+    }
+
+    /**
+     * Agrega un lote de productos financieros al repositorio.
+     * Escribe primero todos los registros del lote y luego amplía cada índice una sola vez para
+     * insertarlos, en lugar de validar y reindexar producto por producto. Los registros no son
+     * visibles para las consultas hasta que se publica la nueva cantidad de productos.
+     *
+     * @param products Productos a agregar
+     * @throws IllegalArgumentException Si algún producto es rechazado; en ese caso no se agrega ninguno
+     */
+    @Override
+    public synchronized void addAll(List<? extends FinancialProduct> products) throws IllegalArgumentException {
+        int first = count;
+        int total = first + products.size();
+        long[] batchNumbers = new long[products.size()];
+        Set<String> batchCustomers = new HashSet<>(products.size() * 2);
+        ensureCapacity(total);
+        for (int i = 0; i < products.size(); i++) {
+            FinancialProduct product = products.get(i);
+            if (product == null) {
+                throw new IllegalArgumentException("El producto no puede ser nulo");
+            }
+
+            long productNumber = numberOf(product);
+            if (findNumber(numberIndex, productNumber, first) >= 0) {
+                throw new IllegalArgumentException("Ya existe un producto con el número: " + product.getProductNumber());
+            }
+            batchNumbers[i] = productNumber;
+
+            byte[] customerIdentification = identificationOf(product);
+            if (find(customerIndex, IDENTIFICATION, customerIdentification, first) >= 0
+                    || !batchCustomers.add(product.getCustomer().getIdentification().trim())) {
+                throw new IllegalArgumentException("El cliente ya tiene un producto registrado. Cada cliente puede tener solo un producto.");
+            }
+
+            writeRecord(chunkOf(first + i), offsetOf(first + i), product);
+        }
+
+        // Los números repetidos dentro del lote quedan contiguos al ordenarlos
+        Arrays.sort(batchNumbers);
+        for (int i = 1; i < batchNumbers.length; i++) {
+            if (batchNumbers[i] == batchNumbers[i - 1]) {
+                throw new IllegalArgumentException("Ya existe un producto con el número: " + batchNumbers[i]);
+            }
+        }
+
+        int[] numbers = grow(numberIndex, PRODUCT_NUMBER, total);
+        int[] customers = grow(customerIndex, IDENTIFICATION, total);
+        for (int record = first; record < total; record++) {
+            place(numbers, record + 1, keyHash(record, PRODUCT_NUMBER));
+            place(customers, record + 1, keyHash(record, IDENTIFICATION));
+        }
+        numberIndex = numbers;
+        customerIndex = customers;
+
+        header.putLong(HEADER_COUNT, total);
+        count = total;
+    }
+
+    /**
+     * Busca un producto por su número.
+     *
+     * @param productNumber Número del producto
+     * @return Vista del producto o null si no existe
+     */
+    @Override
+    public FinancialProduct findByProductNumber(String productNumber) {
+        return findByProductNumber(ProductNumbers.parse(productNumber));
+    }
+
+    /**
+     * Busca un producto por el valor numérico de su número.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Vista del producto o null si no existe
+     */
+    @Override
+    public FinancialProduct findByProductNumber(long productNumber) {
+        int record = findNumberRecord(productNumber);
+        return record < 0 ? null : materialize(record);
+    }
+
+    /**
+     * Busca el producto de un cliente por su identificación.
+     *
+     * @param customerIdentification Identificación del cliente
+     * @return Vista del producto del cliente o null si no existe
+     */
+    @Override
+    public FinancialProduct findByCustomerIdentification(String customerIdentification) {
+        int record = findCustomerRecord(customerIdentification);
+        return record < 0 ? null : materialize(record);
+    }
+
+    /**
+     * Verifica si un cliente ya tiene un producto registrado.
+     *
+     * @param customerIdentification Identificación del cliente
+     * @return true si el cliente ya tiene un producto, false en caso contrario
+     */
+    @Override
+    public boolean existsByCustomerIdentification(String customerIdentification) {
+        return findCustomerRecord(customerIdentification) >= 0;
+    }
+
+    /**
+     * Obtiene todos los productos materializando una vista por cada registro.
+     *
+     * @return Lista con las vistas de todos los productos
+     */
+    @Override
+    public List<FinancialProduct> getAllProducts() {
+        int total = count;
+        List<FinancialProduct> products = new ArrayList<>(total);
+        for (int record = 0; record < total; record++) {
+            products.add(materialize(record));
+        }
+        return products;
+    }
+
+    /**
+     * Verifica si existe un producto con el número dado.
+     *
+     * @param productNumber Número del producto
+     * @return true si existe, false en caso contrario
+     */
+    @Override
+    public boolean existsByProductNumber(String productNumber) {
+        return findNumberRecord(ProductNumbers.parse(productNumber)) >= 0;
+    }
+
+    /**
+     * Copia al registro el saldo y el estado propio del tipo de cuenta de una vista modificada.
+     *
+     * @param product Vista del producto modificado
+     * @throws IllegalArgumentException Si el producto no está registrado
+     */
+    @Override
+    public void save(FinancialProduct product) {
+        int record = findNumberRecord(ProductNumbers.parse(product.getProductNumber()));
+        if (record < 0) {
+            throw new IllegalArgumentException("No existe un producto con el número: " + product.getProductNumber());
+        }
+        writeState(chunkOf(record), offsetOf(record), product);
+    }
+
+    /**
+     * Obtiene la cantidad de productos almacenados.
+     *
+     * @return Cantidad de productos
+     */
+    @Override
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Materializa la vista del producto almacenado en una posición del orden de registro.
+     *
+     * @param position Posición del producto
+     * @return Vista del producto de la posición
+     * @throws IndexOutOfBoundsException Si la posición está fuera de rango
+     */
+    @Override
+    public FinancialProduct findByPosition(int position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException("Posición fuera de rango: " + position);
+        }
+        return materialize(position);
+    }
+
+    /**
+     * Recorre en orden de registro los productos de un tipo.
+     * El tipo se compara con el byte de tipo de cuenta de cada registro, por lo que solo se
+     * materializan las vistas de los productos que cumplen el filtro.
+     *
+     * @param type Tipo de producto; {@code FinancialProduct.class} incluye todos
+     * @param <T>  Tipo de producto
+     * @return Flujo de las vistas de los productos del tipo indicado
+     */
+    @Override
+    public <T extends FinancialProduct> Stream<T> stream(Class<T> type) {
+        boolean[] kinds = kindsOf(type);
+        return IntStream.range(0, count)
+                .filter(record -> kinds[chunkOf(record).get(offsetOf(record) + KIND)])
+                .mapToObj(record -> type.cast(materialize(record)));
+    }
+
+    /**
+     * Obtiene una página de productos de un tipo a partir de un cursor, materializando solo las
+     * vistas de los productos que cumplen el filtro.
+     *
+     * @param type   Tipo de producto; {@code FinancialProduct.class} incluye todos
+     * @param cursor Posición desde la que se continúa; cero para la primera página
+     * @param limit  Cantidad máxima de productos de la página
+     * @param <T>    Tipo de producto
+     * @return Página de productos con el cursor de la página siguiente
+     * @throws IllegalArgumentException Si el cursor es negativo o el límite no es positivo
+     */
+    @Override
+    public <T extends FinancialProduct> ProductPage<T> findPage(Class<T> type, int cursor, int limit) {
+        if (cursor < 0 || limit <= 0) {
+            throw new IllegalArgumentException("El cursor no puede ser negativo y el límite debe ser positivo");
+        }
+
+        boolean[] kinds = kindsOf(type);
+        int end = count;
+        List<T> products = new ArrayList<>(Math.min(limit, Math.max(0, end - cursor)));
+        int record = cursor;
+        while (record < end && products.size() < limit) {
+            if (kinds[chunkOf(record).get(offsetOf(record) + KIND)]) {
+                products.add(type.cast(materialize(record)));
+            }
+            record++;
+        }
+        return new ProductPage<>(products, record < end ? record : -1);
+    }
+
+    /**
+     * Fuerza a disco los registros modificados y cierra el archivo.
+     * Los bloques mapeados se liberan cuando el recolector de basura los descarta.
+     *
+     * @throws IOException Si ocurre un error al cerrar el archivo
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    /**
+     * Indica, para cada byte de tipo de cuenta, si sus productos son instancias del tipo indicado.
+     */
+    private static boolean[] kindsOf(Class<? extends FinancialProduct> type) {
+        boolean[] kinds = new boolean[JournalCodec.KIND_SALARY + 1];
+        kinds[JournalCodec.KIND_SAVINGS] = type.isAssignableFrom(SavingsAccount.class);
+        kinds[JournalCodec.KIND_CHECKING] = type.isAssignableFrom(CheckingAccount.class);
+        kinds[JournalCodec.KIND_HOUSING] = type.isAssignableFrom(HousingSavingsAccount.class);
+        kinds[JournalCodec.KIND_SALARY] = type.isAssignableFrom(SalaryAccount.class);
+        return kinds;
+    }
+
+    private MappedByteBuffer mapChunk(int index) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + index * chunkSize, chunkSize);
+    }
+
+    private void ensureCapacity(int records) {
+        MappedByteBuffer[] current = chunks;
+        int required = (int) (((long) records + recordsPerChunk - 1) / recordsPerChunk);
+        if (current.length >= required) {
+            return;
+        }
+
+        MappedByteBuffer[] larger = Arrays.copyOf(current, required);
+        try {
+            for (int i = current.length; i < required; i++) {
+                larger[i] = mapChunk(i);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No fue posible ampliar el repositorio de productos", e);
+        }
+        chunks = larger;
+    }
+
+    private ByteBuffer chunkOf(int record) {
+        return chunks[record / recordsPerChunk];
+    }
+
+    private int offsetOf(int record) {
+        return (record % recordsPerChunk) * RECORD_SIZE;
+    }
+
+    /**
+     * Busca el registro del producto con el número indicado.
+     *
+     * @param productNumber Valor numérico del número del producto
+     * @return Número de registro o -1 si no existe
+     */
+    private int findNumberRecord(long productNumber) {
+        if (productNumber == ProductNumbers.NONE) {
+            return -1;
+        }
+        // La lectura de count publica los registros e índices escritos antes de incrementarlo
+        int published = count;
+        return findNumber(numberIndex, productNumber, published);
+    }
+
+    /**
+     * Busca el registro del producto del cliente con la identificación indicada.
+     *
+     * @param customerIdentification Identificación del cliente
+     * @return Número de registro o -1 si no existe
+     */
+    private int findCustomerRecord(String customerIdentification) {
+        byte[] bytes = keyBytes(customerIdentification);
+        if (bytes == null) {
+            return -1;
+        }
+        // La lectura de count publica los registros e índices escritos antes de incrementarlo
+        int published = count;
+        return find(customerIndex, IDENTIFICATION, bytes, published);
+    }
+
+    private int findNumber(int[] index, long productNumber, int published) {
+        int mask = index.length - 1;
+        for (int slot = numberHash(productNumber) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int record = entry - 1;
+            if (record < published && storedNumber(chunkOf(record), offsetOf(record) + PRODUCT_NUMBER) == productNumber) {
+                return record;
+            }
+        }
+    }
+
+    private int find(int[] index, int field, byte[] key, int published) {
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int record = entry - 1;
+            if (record < published && keyEquals(chunkOf(record), offsetOf(record) + field, key)) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Inserta un registro en un índice, duplicando su capacidad si supera la mitad de ocupación.
+     *
+     * @param index   Índice actual
+     * @param field   Posición del campo clave dentro del registro
+     * @param record  Registro a insertar
+     * @param hash    Hash de la clave del registro
+     * @param entries Cantidad de entradas que tendrá el índice tras la inserción
+     * @return Índice con el registro insertado, que puede ser un arreglo nuevo
+     */
+    private int[] insert(int[] index, int field, int record, int hash, int entries) {
+        int[] target = grow(index, field, entries);
+        place(target, record + 1, hash);
+        return target;
+    }
+
+    /**
+     * Obtiene un índice con capacidad para la cantidad de entradas indicada sin superar la mitad
+     * de ocupación, reubicando las entradas actuales en un arreglo nuevo si es necesario.
+     *
+     * @param index   Índice actual
+     * @param field   Posición del campo clave dentro del registro
+     * @param entries Cantidad de entradas que tendrá el índice
+     * @return El mismo índice si tiene capacidad suficiente, o uno nuevo con las entradas actuales
+     */
+    private int[] grow(int[] index, int field, int entries) {
+        if (entries * 2L <= index.length) {
+            return index;
+        }
+
+        int[] target = new int[Integer.highestOneBit(entries * 2 - 1) << 1];
+        for (int entry : index) {
+            if (entry != 0) {
+                place(target, entry, keyHash(entry - 1, field));
+            }
+        }
+        return target;
+    }
+
+    private static void place(int[] index, int entry, int hash) {
+        int mask = index.length - 1;
+        int slot = hash & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = entry;
+    }
+
+    private void rebuildIndexes(int records) {
+        int capacity = Integer.highestOneBit(Math.max(16, records * 2 - 1)) << 1;
+        int[] numbers = new int[capacity];
+        int[] customers = new int[capacity];
+        for (int record = 0; record < records; record++) {
+            place(numbers, record + 1, keyHash(record, PRODUCT_NUMBER));
+            place(customers, record + 1, keyHash(record, IDENTIFICATION));
+        }
+        this.numberIndex = numbers;
+        this.customerIndex = customers;
+    }
+
+    /**
+     * Calcula el hash de un campo clave almacenado, ignorando los espacios al inicio y al final.
+     * El número de producto se dispersa por su valor numérico.
+     */
+    private int keyHash(int record, int field) {
+        ByteBuffer chunk = chunkOf(record);
+        int position = offsetOf(record) + field;
+        if (field == PRODUCT_NUMBER) {
+            return numberHash(storedNumber(chunk, position));
+        }
+        int length = chunk.get(position) & 0xFF;
+        int start = position + 1;
+        int end = start + length;
+        while (start < end && (chunk.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (chunk.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chunk.get(i);
+        }
+        return mix(hash);
+    }
+
+    private static int hash(byte[] bytes) {
+        int hash = 1;
+        for (int i = 0; i < bytes.length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        return mix(hash);
+    }
+
+    private static int numberHash(long productNumber) {
+        return (int) (ProductNumbers.hash(productNumber) >>> Integer.SIZE);
+    }
+
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Compara un campo clave almacenado con una clave ya normalizada, ignorando los espacios
+     * al inicio y al final del valor almacenado. Los bytes de caracteres multibyte en UTF-8 son
+     * siempre mayores a 0x7F, por lo que recortar bytes equivale a recortar caracteres.
+     */
+    private static boolean keyEquals(ByteBuffer chunk, int position, byte[] key) {
+        int length = chunk.get(position) & 0xFF;
+        if (length == NULL_STRING) {
+            return false;
+        }
+        int start = position + 1;
+        int end = start + length;
+        while (start < end && (chunk.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (chunk.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (chunk.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Lee el valor numérico de un número de producto almacenado, con las mismas reglas que
+     * {@link ProductNumbers#parse(String)} y sin crear el texto.
+     *
+     * @return Valor numérico, o {@link ProductNumbers#NONE} si el campo no es un entero válido
+     */
+    private static long storedNumber(ByteBuffer chunk, int position) {
+        int length = chunk.get(position) & 0xFF;
+        if (length == NULL_STRING) {
+            return ProductNumbers.NONE;
+        }
+        int start = position + 1;
+        int end = start + length;
+        while (start < end && (chunk.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (chunk.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+
+        boolean negative = false;
+        if (start < end && (chunk.get(start) == '-' || chunk.get(start) == '+')) {
+            negative = chunk.get(start) == '-';
+            start++;
+        }
+        if (start == end) {
+            return ProductNumbers.NONE;
+        }
+
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = chunk.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > Long.MAX_VALUE / 10
+                    || (value == Long.MAX_VALUE / 10 && digit > Long.MAX_VALUE % 10)) {
+                return ProductNumbers.NONE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Obtiene el valor numérico del número de un producto a registrar.
+     *
+     * @throws IllegalArgumentException Si el número no es un entero válido
+     */
+    private static long numberOf(FinancialProduct product) {
+        long productNumber = ProductNumbers.parse(product.getProductNumber());
+        if (productNumber == ProductNumbers.NONE) {
+            throw new IllegalArgumentException("El número del producto debe ser un número entero válido");
+        }
+        return productNumber;
+    }
+
+    /**
+     * Obtiene la identificación del titular de un producto a registrar, sin espacios en los extremos.
+     *
+     * @throws IllegalArgumentException Si la identificación es nula o vacía
+     */
+    private static byte[] identificationOf(FinancialProduct product) {
+        byte[] customerIdentification = keyBytes(product.getCustomer().getIdentification());
+        if (customerIdentification == null) {
+            throw new IllegalArgumentException("La identificación del cliente es obligatoria");
+        }
+        return customerIdentification;
+    }
+
+    private static byte[] keyBytes(String key) {
+        if (key == null) {
+            return null;
+        }
+        String trimmed = key.trim();
+        return trimmed.isEmpty() ? null : trimmed.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Escribe un producto completo en su registro.
+     */
+    private static void writeRecord(ByteBuffer chunk, int base, FinancialProduct product) {
+        Customer customer = product.getCustomer();
+        byte[] productNumber = fieldBytes(product.getProductNumber(), PRODUCT_NUMBER_WIDTH, "número de producto");
+        byte[] identification = fieldBytes(customer.getIdentification(), IDENTIFICATION_WIDTH, "identificación");
+        byte[] firstName = fieldBytes(customer.getFirstName(), NAME_WIDTH, "nombre");
+        byte[] lastName = fieldBytes(customer.getLastName(), NAME_WIDTH, "apellido");
+        byte[] phone = fieldBytes(customer.getPhone(), PHONE_WIDTH, "teléfono");
+
+        chunk.put(base + KIND, JournalCodec.kindOf(product));
+        chunk.put(base + CLASSIFICATION, product instanceof HousingSavingsAccount housing
+                ? (byte) housing.getClassification().ordinal() : 0);
+        chunk.putInt(base + OPENING_DATE, (int) product.getOpeningDate().toEpochDay());
+        putField(chunk, base + PRODUCT_NUMBER, productNumber);
+        putField(chunk, base + IDENTIFICATION, identification);
+        putField(chunk, base + FIRST_NAME, firstName);
+        putField(chunk, base + LAST_NAME, lastName);
+        putField(chunk, base + PHONE, phone);
+        writeState(chunk, base, product);
+    }
+
+    /**
+     * Escribe el saldo y el estado propio del tipo de cuenta en un registro.
+     */
+    private static void writeState(ByteBuffer chunk, int base, FinancialProduct product) {
+        chunk.putLong(base + BALANCE, product.getBalance());
+        if (product instanceof SavingsAccount savings) {
+            putDate(chunk, base + LAST_DATE, savings.getLastDepositDate());
+            chunk.putLong(base + LAST_AMOUNT, savings.getLastDepositAmount());
+            chunk.putLong(base + TOTAL, savings.getAccumulatedInterest());
+            putDate(chunk, base + ACCRUAL_DATE, savings.getLastAccrualDate());
+        } else if (product instanceof CheckingAccount checking) {
+            chunk.putLong(base + LIMIT, checking.getOverdraftLimit());
+            putDate(chunk, base + LAST_DATE, checking.getLastOperationDate());
+            chunk.putLong(base + LAST_AMOUNT, checking.getLastOperationAmount());
+            OperationType lastType = checking.getLastOperationType();
+            chunk.put(base + LAST_OPERATION_TYPE, lastType == null ? -1 : (byte) lastType.ordinal());
+        } else if (product instanceof HousingSavingsAccount housing) {
+            chunk.putLong(base + LIMIT, housing.getTotalHousingValue());
+            putDate(chunk, base + LAST_DATE, housing.getLastPaymentDate());
+            chunk.putLong(base + LAST_AMOUNT, housing.getLastPaymentAmount());
+            chunk.putLong(base + TOTAL, housing.getTotalPaid());
+        } else if (product instanceof SalaryAccount salary) {
+            chunk.putLong(base + LIMIT, salary.getSalaryAmount());
+            putDate(chunk, base + LAST_DATE, salary.getLastWithdrawalDate());
+            chunk.putLong(base + LAST_AMOUNT, salary.getLastWithdrawalAmount());
+        }
+    }
+
+    /**
+     * Construye una vista del producto almacenado en un registro.
+     */
+    private FinancialProduct materialize(int record) {
+        ByteBuffer chunk = chunkOf(record);
+        int base = offsetOf(record);
+
+        String productNumber = getField(chunk, base + PRODUCT_NUMBER);
+        LocalDate openingDate = LocalDate.ofEpochDay(chunk.getInt(base + OPENING_DATE));
+        Customer customer = new Customer(getField(chunk, base + IDENTIFICATION), getField(chunk, base + FIRST_NAME),
+                getField(chunk, base + LAST_NAME), getField(chunk, base + PHONE));
+        long balance = chunk.getLong(base + BALANCE);
+        long limit = chunk.getLong(base + LIMIT);
+        LocalDate lastDate = getDate(chunk, base + LAST_DATE);
+        long lastAmount = chunk.getLong(base + LAST_AMOUNT);
+        long total = chunk.getLong(base + TOTAL);
+
+        switch (chunk.get(base + KIND)) {
+            case JournalCodec.KIND_SAVINGS -> {
+                SavingsAccount savings = new SavingsAccount(productNumber, openingDate, customer, balance);
+                savings.restoreState(total, lastDate, lastAmount, getDate(chunk, base + ACCRUAL_DATE));
+                return savings;
+            }
+            case JournalCodec.KIND_CHECKING -> {
+                CheckingAccount checking = new CheckingAccount(productNumber, openingDate, customer, balance, limit);
+                byte lastType = chunk.get(base + LAST_OPERATION_TYPE);
+                checking.restoreState(lastDate, lastAmount, lastType < 0 ? null : OperationType.values()[lastType]);
+                return checking;
+            }
+            case JournalCodec.KIND_HOUSING -> {
+                HousingSavingsAccount housing = new HousingSavingsAccount(productNumber, openingDate, customer, balance,
+                        limit, HousingClassification.values()[chunk.get(base + CLASSIFICATION)]);
+                housing.restoreState(lastDate, lastAmount, total);
+                return housing;
+            }
+            case JournalCodec.KIND_SALARY -> {
+                SalaryAccount salary = new SalaryAccount(productNumber, openingDate, customer, balance, limit);
+                salary.restoreState(lastDate, lastAmount);
+                return salary;
+            }
+            default -> throw new IllegalStateException("Registro de producto dañado en la posición " + record);
+        }
+    }
+
+    private static byte[] fieldBytes(String value, int width, String name) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > width - 1) {
+            throw new IllegalArgumentException("El campo " + name + " excede el ancho máximo de "
+                    + (width - 1) + " bytes");
+        }
+        return bytes;
+    }
+
+    private static void putField(ByteBuffer chunk, int position, byte[] bytes) {
+        if (bytes == null) {
+            chunk.put(position, (byte) NULL_STRING);
+            return;
+        }
+        chunk.put(position, (byte) bytes.length);
+        chunk.put(position + 1, bytes);
+    }
+
+    private static String getField(ByteBuffer chunk, int position) {
+        int length = chunk.get(position) & 0xFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        chunk.get(position + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDate(ByteBuffer chunk, int position, LocalDate date) {
+        chunk.putInt(position, date == null ? NO_DATE : (int) date.toEpochDay());
+    }
+
+    private static LocalDate getDate(ByteBuffer chunk, int position) {
+        int epochDay = chunk.getInt(position);
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
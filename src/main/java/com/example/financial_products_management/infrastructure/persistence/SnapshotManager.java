@@ -0,0 +1,263 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Genera snapshots binarios del repositorio de productos sin detener las operaciones.
+ * Cada producto se copia con su candado adquirido junto con la última secuencia del diario
+ * reflejada en su estado, de modo que la recuperación sabe qué registros posteriores aplicar
+ * a cada producto. Al terminar un snapshot se eliminan los segmentos del diario que ya no
+ * son necesarios para recuperar el estado.
+ * El snapshot guarda también las fechas de la última operación de cada cuenta, y los registros
+ * posteriores traen su propia fecha de negocio, por lo que el snapshot más el final del diario
+ * reproducen el estado anterior a la caída sin tomar la fecha del reinicio.
+ */
+public class SnapshotManager implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int END_RECORD_SIZE = JournalCodec.HEADER_SIZE + 1 + Long.BYTES * 2;
+
+    private final FinancialCompany financialCompany;
+    private final ProductRepository repository;
+    private final TransactionJournal journal;
+    private final Path directory;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Crea un administrador de snapshots que escribe en el directorio del diario.
+     *
+     * @param financialCompany Entidad financiera que opera sobre el repositorio
+     * @param repository       Repositorio de productos
+     * @param journal          Diario de transacciones asociado
+     */
+    public SnapshotManager(FinancialCompany financialCompany, ProductRepository repository,
+                           TransactionJournal journal) {
+        this.financialCompany = financialCompany;
+        this.repository = repository;
+        this.journal = journal;
+        this.directory = journal.getDirectory();
+    }
+
+    /**
+     * Genera un snapshot de todos los productos mientras el sistema sigue operando.
+     * Los productos se recorren sin copiar el libro, por lo que la memoria usada no depende de su tamaño.
+     * El archivo se escribe primero con un nombre temporal y se renombra al completarse, por lo
+     * que una caída durante el proceso nunca deja un snapshot parcial.
+     *
+     * @return Archivo del snapshot generado
+     * @throws IOException Si ocurre un error de escritura
+     */
+    public synchronized Path takeSnapshot() throws IOException {
+        long snapshotSequence = journal.getLastSequence();
+        Path target = snapshotPath(snapshotSequence);
+        Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+
+        long highestSequence = snapshotSequence;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            CRC32 crc = new CRC32();
+            long[] captured = new long[1];
+            long count = 0;
+
+            for (FinancialProduct product : (Iterable<FinancialProduct>) repository.stream()::iterator) {
+                while (!writeEntry(buffer, product, crc, captured)) {
+                    if (buffer.position() == 0) {
+                        buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                    } else {
+                        flush(channel, buffer);
+                    }
+                }
+                highestSequence = Math.max(highestSequence, captured[0]);
+                count++;
+            }
+
+            if (buffer.remaining() < END_RECORD_SIZE) {
+                flush(channel, buffer);
+            }
+            JournalCodec.writeSnapshotEnd(buffer, snapshotSequence, count, crc);
+            flush(channel, buffer);
+            channel.force(true);
+        }
+
+        // El snapshot no puede reflejar operaciones que el diario aún no persistió
+        journal.awaitDurable(highestSequence);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        TransactionJournal.forceDirectory(directory);
+
+        deleteOlderSnapshots(snapshotSequence);
+        journal.truncateBefore(snapshotSequence);
+        return target;
+    }
+
+    /**
+     * Escribe la entrada de un producto con su candado adquirido, junto con la última secuencia
+     * del diario reflejada en su estado.
+     *
+     * @param buffer   Buffer de destino
+     * @param product  Producto a escribir
+     * @param crc      Calculador de CRC reutilizable
+     * @param captured Arreglo de un elemento donde se devuelve la secuencia capturada
+     * @return true si la entrada se escribió, false si el buffer no tiene espacio suficiente
+     */
+    private boolean writeEntry(ByteBuffer buffer, FinancialProduct product, CRC32 crc, long[] captured) {
+        boolean[] written = new boolean[1];
+        financialCompany.readLocked(product, locked -> {
+            int start = buffer.position();
+            try {
+                captured[0] = journal.getLastSequence();
+                JournalCodec.writeSnapshotEntry(buffer, captured[0], locked, crc);
+                written[0] = true;
+            } catch (BufferOverflowException e) {
+                buffer.position(start);
+            }
+        });
+        return written[0];
+    }
+
+    /**
+     * Inicia la generación periódica de snapshots en un hilo en segundo plano.
+     *
+     * @param interval Intervalo entre snapshots
+     * @throws IllegalStateException Si la generación periódica ya fue iniciada
+     */
+    public synchronized void startPeriodicSnapshots(Duration interval) {
+        if (scheduler != null) {
+            throw new IllegalStateException("La generación periódica de snapshots ya fue iniciada");
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-manager");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error generando snapshot: " + e.getMessage());
+            }
+        }, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la generación periódica de snapshots y espera a que termine el snapshot en curso.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService current;
+        synchronized (this) {
+            current = scheduler;
+            scheduler = null;
+        }
+        if (current == null) {
+            return;
+        }
+
+        current.shutdown();
+        try {
+            current.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Carga en el repositorio el snapshot válido más reciente cuyo estado pueda completarse con
+     * el diario disponible.
+     *
+     * @param directory            Directorio del diario
+     * @param firstJournalSequence Secuencia del primer registro disponible en el diario
+     * @param repository           Repositorio donde se cargan los productos
+     * @param capturedSequences    Mapa donde se devuelve, por número de producto, la última secuencia
+     *                             del diario reflejada en su estado
+     * @return Secuencia del diario al iniciar el snapshot cargado, o cero si no se cargó ninguno
+     * @throws IOException Si ocurre un error de lectura
+     */
+    static long loadLatest(Path directory, long firstJournalSequence, ProductRepository repository,
+                           Map<String, Long> capturedSequences) throws IOException {
+        for (Map.Entry<Long, Path> snapshot : listSnapshots(directory).descendingMap().entrySet()) {
+            long snapshotSequence = snapshot.getKey();
+            if (firstJournalSequence > snapshotSequence + 1) {
+                break;
+            }
+
+            List<JournalRecord> entries = new ArrayList<>();
+            long[] end = {-1, -1};
+            try (FileChannel channel = FileChannel.open(snapshot.getValue(), StandardOpenOption.READ)) {
+                TransactionJournal.readRecords(channel, record -> {
+                    if (record.type() == JournalCodec.SNAPSHOT_ENTRY) {
+                        entries.add(record);
+                    } else if (record.type() == JournalCodec.SNAPSHOT_END) {
+                        end[0] = record.sequence();
+                        end[1] = record.amount();
+                    }
+                });
+            }
+            if (end[0] != snapshotSequence || end[1] != entries.size()) {
+                continue;
+            }
+
+            for (JournalRecord entry : entries) {
+                repository.addProduct(entry.product());
+                capturedSequences.put(entry.productNumber(), entry.sequence());
+            }
+            return snapshotSequence;
+        }
+        return 0;
+    }
+
+    private static TreeMap<Long, Path> listSnapshots(Path directory) throws IOException {
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path snapshot : stream) {
+                String name = snapshot.getFileName().toString();
+                String sequence = name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length());
+                snapshots.put(Long.parseLong(sequence), snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    private void deleteOlderSnapshots(long snapshotSequence) throws IOException {
+        for (Path snapshot : listSnapshots(directory).headMap(snapshotSequence, false).values()) {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    private Path snapshotPath(long snapshotSequence) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, snapshotSequence, SNAPSHOT_SUFFIX));
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
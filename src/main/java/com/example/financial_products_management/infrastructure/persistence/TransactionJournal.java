@@ -0,0 +1,711 @@
+package com.example.financial_products_management.infrastructure.persistence;
+
+import com.example.financial_products_management.domain.financial_company.OperationListener;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.BusinessDate;
+import com.example.financial_products_management.domain.shared.Depositable;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.domain.shared.Withdrawable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Diario de transacciones binario, de solo anexado, para FinancialCompany.
+ * Registra cada creación de producto y cada depósito o retiro aplicado. Los registros se
+ * acumulan en memoria y un hilo de escritura los persiste en lote con una sola llamada a
+ * {@code force} (group commit), de modo que muchas operaciones comparten el mismo fsync.
+ * Cada hilo que opera espera, ya sin candados adquiridos, a que su último registro sea durable.
+ * Los hilos que anexan registros y los que esperan durabilidad usan monitores distintos para
+ * no competir entre sí.
+ * El diario se divide en segmentos dentro de un directorio; cada segmento se nombra con la
+ * secuencia de su primer registro y se rota al superar un tamaño máximo. Los segmentos ya
+ * cubiertos por un snapshot se eliminan con {@link #truncateBefore(long)}.
+ * Al iniciar, {@link #recover(Path, ProductRepository)} carga el snapshot más reciente y
+ * reproduce únicamente los registros posteriores.
+ */
+public class TransactionJournal implements OperationListener, AutoCloseable {
+    /**
+     * Tamaño máximo por defecto de un segmento antes de rotarlo.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 20;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final TreeMap<Long, Path> segments;
+    private final Object segmentsLock = new Object();
+    private final Object monitor = new Object();
+    private final Object durability = new Object();
+    private final CRC32 crc = new CRC32();
+    private final ThreadLocal<long[]> lastSequenceOfThread = ThreadLocal.withInitial(() -> new long[1]);
+    private final Thread writer;
+
+    private FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private ByteBuffer writing = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private long lastSequence;
+    private boolean closed;
+    private boolean writerWaiting;
+    private volatile long durableSequence;
+    private volatile IOException failure;
+
+    /**
+     * Crea un diario que continúa escribiendo al final del último segmento ya validado.
+     *
+     * @param directory    Directorio del diario
+     * @param segmentSize  Tamaño máximo de un segmento en bytes
+     * @param segments     Segmentos existentes ordenados por su primera secuencia
+     * @param channel      Canal del último segmento posicionado al final del último registro válido
+     * @param lastSequence Último número de secuencia registrado
+     */
+    private TransactionJournal(Path directory, long segmentSize, TreeMap<Long, Path> segments, FileChannel channel,
+                               long lastSequence) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segments = segments;
+        this.channel = channel;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.writer = new Thread(this::writeLoop, "transaction-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Abre un diario con el tamaño de segmento por defecto y reconstruye el repositorio.
+     *
+     * @param directory  Directorio del diario; se crea si no existe
+     * @param repository Repositorio donde se reconstruyen los productos
+     * @return Diario listo para registrar nuevas operaciones
+     * @throws IOException Si ocurre un error de lectura o escritura
+     * @see #recover(Path, ProductRepository, long)
+     */
+    public static TransactionJournal recover(Path directory, ProductRepository repository) throws IOException {
+        return recover(directory, repository, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Abre un diario y reconstruye el repositorio a partir del snapshot más reciente y de los
+     * registros posteriores a él.
+     * Si el último segmento termina con un registro incompleto (por ejemplo tras una caída), ese
+     * registro se descarta y el segmento se trunca en el último registro válido.
+     * Cada registro reproducido restaura la fecha de negocio con que se aplicó, de modo que las
+     * fechas de última operación no dependen del día de la recuperación.
+     *
+     * @param directory   Directorio del diario; se crea si no existe
+     * @param repository  Repositorio donde se reconstruyen los productos
+     * @param segmentSize Tamaño máximo de un segmento en bytes
+     * @return Diario listo para registrar nuevas operaciones
+     * @throws IOException           Si ocurre un error de lectura o escritura
+     * @throws IllegalStateException Si el diario está dañado o le faltan segmentos
+     */
+    public static TransactionJournal recover(Path directory, ProductRepository repository, long segmentSize)
+            throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de segmento debe ser mayor a cero");
+        }
+
+        Files.createDirectories(directory);
+        TreeMap<Long, Path> segments = listSegments(directory);
+
+        Map<String, Long> capturedSequences = new HashMap<>();
+        long firstSegmentSequence = segments.isEmpty() ? 1 : segments.firstKey();
+        long snapshotSequence = SnapshotManager.loadLatest(directory, firstSegmentSequence, repository,
+                capturedSequences);
+        if (firstSegmentSequence > snapshotSequence + 1) {
+            throw new IllegalStateException("El diario de transacciones está incompleto: falta la secuencia "
+                    + (snapshotSequence + 1));
+        }
+
+        OperationResult scratch = new OperationResult();
+        long[] lastSequence = {snapshotSequence};
+        Consumer<JournalRecord> replay = record -> {
+            lastSequence[0] = Math.max(lastSequence[0], record.sequence());
+            if (record.sequence() <= snapshotSequence) {
+                return;
+            }
+            if (record.type() == JournalCodec.TRANSFER) {
+                // Cada parte se aplica solo si el snapshot no la incluye ya en su producto
+                applyTransfer(record, repository, scratch,
+                        isAfterCapture(record.sequence(), record.productNumber(), capturedSequences),
+                        isAfterCapture(record.sequence(), record.targetProductNumber(), capturedSequences));
+            } else if (isAfterCapture(record.sequence(), record.productNumber(), capturedSequences)) {
+                apply(record, repository, scratch);
+            }
+        };
+
+        FileChannel channel = null;
+        for (Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator(); it.hasNext(); ) {
+            Path segment = it.next().getValue();
+            FileChannel segmentChannel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                long validLength = readRecords(segmentChannel, replay);
+                if (it.hasNext()) {
+                    if (validLength != segmentChannel.size()) {
+                        throw new IllegalStateException("Segmento del diario dañado: " + segment);
+                    }
+                    segmentChannel.close();
+                } else {
+                    segmentChannel.truncate(validLength);
+                    segmentChannel.position(validLength);
+                    channel = segmentChannel;
+                }
+            } catch (IOException | RuntimeException e) {
+                segmentChannel.close();
+                throw e;
+            }
+        }
+
+        if (channel == null) {
+            long firstSequence = lastSequence[0] + 1;
+            Path segment = segmentPath(directory, firstSequence);
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            segments.put(firstSequence, segment);
+            forceDirectory(directory);
+        }
+        return new TransactionJournal(directory, segmentSize, segments, channel, lastSequence[0]);
+    }
+
+    /**
+     * Lista los segmentos de un directorio ordenados por la secuencia de su primer registro.
+     *
+     * @param directory Directorio del diario
+     * @return Segmentos encontrados
+     * @throws IOException Si ocurre un error al listar el directorio
+     */
+    private static TreeMap<Long, Path> listSegments(Path directory) throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segment : stream) {
+                String name = segment.getFileName().toString();
+                String sequence = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                segments.put(Long.parseLong(sequence), segment);
+            }
+        }
+        return segments;
+    }
+
+    private static Path segmentPath(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Lee los registros válidos de un canal desde el inicio y los entrega al consumidor.
+     *
+     * @param channel  Canal a leer
+     * @param consumer Consumidor de cada registro válido
+     * @return Longitud en bytes de la porción válida del archivo
+     * @throws IOException Si ocurre un error de lectura
+     */
+    static long readRecords(FileChannel channel, Consumer<JournalRecord> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        CRC32 checksum = new CRC32();
+        long position = 0;
+
+        while (true) {
+            int read = channel.read(buffer, position);
+            if (read > 0) {
+                position += read;
+            }
+            buffer.flip();
+
+            JournalRecord record;
+            while ((record = JournalCodec.read(buffer, checksum)) != null) {
+                consumer.accept(record);
+            }
+            long validLength = position - buffer.remaining();
+
+            if (read <= 0) {
+                return validLength;
+            }
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer);
+            } else {
+                buffer.compact();
+            }
+        }
+    }
+
+    /**
+     * Fuerza a disco las entradas de un directorio, de modo que los archivos creados o
+     * renombrados en él sobrevivan a una caída. En plataformas que no permiten abrir
+     * directorios no tiene efecto.
+     *
+     * @param directory Directorio a forzar
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // No soportado en la plataforma
+        }
+    }
+
+    /**
+     * Indica si un registro es posterior al estado que el snapshot capturó de un producto.
+     *
+     * @param sequence          Secuencia del registro
+     * @param productNumber     Número del producto
+     * @param capturedSequences Secuencia capturada por el snapshot para cada producto
+     * @return true si el registro debe aplicarse sobre el producto
+     */
+    private static boolean isAfterCapture(long sequence, String productNumber, Map<String, Long> capturedSequences) {
+        Long captured = capturedSequences.get(productNumber);
+        return captured == null || sequence > captured;
+    }
+
+    /**
+     * Aplica un registro del diario sobre el repositorio.
+     * Las fechas de la última operación de cada cuenta quedan con la fecha de negocio del registro,
+     * no con la del día de la recuperación.
+     *
+     * @param record     Registro a aplicar
+     * @param repository Repositorio a reconstruir
+     * @param scratch    Resultado reutilizable
+     * @throws IllegalStateException Si el registro referencia un producto inexistente o ya no puede aplicarse
+     */
+    static void apply(JournalRecord record, ProductRepository repository, OperationResult scratch) {
+        if (record.isCreation()) {
+            repository.addProduct(record.product());
+            return;
+        }
+        if (record.type() == JournalCodec.TRANSFER) {
+            applyTransfer(record, repository, scratch, true, true);
+            return;
+        }
+
+        FinancialProduct product = repository.findByProductNumber(record.productNumber());
+        if (product == null) {
+            throw new IllegalStateException("El diario referencia un producto inexistente: " + record.productNumber());
+        }
+
+        if (record.type() == JournalCodec.INTEREST_ACCRUAL && product instanceof SavingsAccount savings) {
+            if (!savings.accrueInterest(record.amount(), record.businessDate())) {
+                throw notApplied(record, record.productNumber(), "causación ya aplicada");
+            }
+        } else if (record.type() == JournalCodec.DEPOSIT && product instanceof Depositable depositable) {
+            requireApplied(record, record.productNumber(), depositable.tryDeposit(record.amount(), scratch));
+            restoreOperationDate(product, OperationType.DEPOSIT, record.businessDate());
+        } else if (record.type() == JournalCodec.WITHDRAWAL && product instanceof Withdrawable withdrawable) {
+            requireApplied(record, record.productNumber(), withdrawable.tryWithdraw(record.amount(), scratch));
+            restoreOperationDate(product, OperationType.WITHDRAWAL, record.businessDate());
+        } else {
+            throw new IllegalStateException("Operación del diario no soportada por el producto: " + record.productNumber());
+        }
+        repository.save(product);
+    }
+
+    /**
+     * Aplica un registro de transferencia sobre el repositorio.
+     *
+     * @param record      Registro de transferencia
+     * @param repository  Repositorio a reconstruir
+     * @param scratch     Resultado reutilizable
+     * @param applySource true para aplicar el retiro del producto de origen
+     * @param applyTarget true para aplicar el depósito en el producto de destino
+     * @throws IllegalStateException Si alguna de las partes ya no puede aplicarse
+     */
+    static void applyTransfer(JournalRecord record, ProductRepository repository, OperationResult scratch,
+                              boolean applySource, boolean applyTarget) {
+        if (applySource) {
+            FinancialProduct source = repository.findByProductNumber(record.productNumber());
+            if (!(source instanceof Withdrawable withdrawable)) {
+                throw new IllegalStateException("Transferencia del diario no soportada por el origen: "
+                        + record.productNumber());
+            }
+            requireApplied(record, record.productNumber(), withdrawable.tryWithdraw(record.amount(), scratch));
+            restoreOperationDate(source, OperationType.WITHDRAWAL, record.businessDate());
+            repository.save(source);
+        }
+        if (applyTarget) {
+            FinancialProduct target = repository.findByProductNumber(record.targetProductNumber());
+            if (!(target instanceof Depositable depositable)) {
+                throw new IllegalStateException("Transferencia del diario no soportada por el destino: "
+                        + record.targetProductNumber());
+            }
+            requireApplied(record, record.targetProductNumber(), depositable.tryDeposit(record.amount(), scratch));
+            restoreOperationDate(target, OperationType.DEPOSIT, record.businessDate());
+            repository.save(target);
+        }
+    }
+
+    private static void requireApplied(JournalRecord record, String productNumber, OperationStatus status) {
+        if (!status.isSuccess()) {
+            throw notApplied(record, productNumber, status.name());
+        }
+    }
+
+    private static IllegalStateException notApplied(JournalRecord record, String productNumber, String reason) {
+        return new IllegalStateException("El registro " + record.sequence()
+                + " del diario no pudo aplicarse sobre el producto " + productNumber + ": " + reason);
+    }
+
+    /**
+     * Reemplaza la fecha que la operación reproducida registró en la cuenta (la del día de la
+     * recuperación) por la fecha de negocio del registro.
+     *
+     * @param product       Producto sobre el que se reprodujo la operación
+     * @param operationType Depósito o retiro reproducido
+     * @param businessDate  Fecha de negocio del registro
+     */
+    private static void restoreOperationDate(FinancialProduct product, OperationType operationType,
+                                             LocalDate businessDate) {
+        if (product instanceof SavingsAccount savings && operationType == OperationType.DEPOSIT) {
+            savings.restoreState(savings.getAccumulatedInterest(), businessDate, savings.getLastDepositAmount(),
+                    savings.getLastAccrualDate());
+        } else if (product instanceof CheckingAccount checking) {
+            checking.restoreState(businessDate, checking.getLastOperationAmount(), checking.getLastOperationType());
+        } else if (product instanceof HousingSavingsAccount housing && operationType == OperationType.DEPOSIT) {
+            housing.restoreState(businessDate, housing.getLastPaymentAmount(), housing.getTotalPaid());
+        } else if (product instanceof SalaryAccount salary && operationType == OperationType.WITHDRAWAL) {
+            salary.restoreState(businessDate, salary.getLastWithdrawalAmount());
+        }
+    }
+
+    @Override
+    public void onProductCreated(FinancialProduct product) {
+        append((buffer, sequence) -> JournalCodec.writeCreation(buffer, sequence, product, crc));
+    }
+
+    @Override
+    public void onOperationApplied(FinancialProduct product, OperationResult result) {
+        LocalDate businessDate = BusinessDate.today();
+        append((buffer, sequence) -> JournalCodec.writeOperation(buffer, sequence, result.getOperationType(),
+                product.getProductNumber(), result.getAmount(), businessDate, crc));
+    }
+
+    @Override
+    public void onTransferApplied(FinancialProduct source, FinancialProduct target, OperationResult result) {
+        LocalDate businessDate = BusinessDate.today();
+        append((buffer, sequence) -> JournalCodec.writeTransfer(buffer, sequence, source.getProductNumber(),
+                target.getProductNumber(), result.getAmount(), businessDate, crc));
+    }
+
+    @Override
+    public void onInterestAccrued(SavingsAccount account, long interest, LocalDate businessDate) {
+        append((buffer, sequence) -> JournalCodec.writeInterestAccrual(buffer, sequence, account.getProductNumber(),
+                interest, businessDate, crc));
+    }
+
+    /**
+     * Espera a que el último registro escrito por el hilo actual sea durable.
+     *
+     * @throws UncheckedIOException Si el diario no pudo persistir los registros
+     */
+    @Override
+    public void afterOperation() {
+        long[] last = lastSequenceOfThread.get();
+        if (last[0] > 0) {
+            awaitDurable(last[0]);
+            last[0] = 0;
+        }
+    }
+
+    /**
+     * Entrega la secuencia del último registro escrito por el hilo actual y la olvida.
+     *
+     * @return Secuencia del registro, o 0 si el hilo no escribió registros desde la última entrega
+     */
+    @Override
+    public long handOffOperations() {
+        long[] last = lastSequenceOfThread.get();
+        long sequence = last[0];
+        last[0] = 0;
+        return sequence;
+    }
+
+    /**
+     * Espera a que el registro de la secuencia entregada sea durable.
+     *
+     * @param mark Secuencia obtenida de {@link #handOffOperations()}
+     * @throws UncheckedIOException Si el diario no pudo persistir los registros
+     */
+    @Override
+    public void awaitOperations(long mark) {
+        if (mark > 0) {
+            awaitDurable(mark);
+        }
+    }
+
+    /**
+     * Espera a que el registro con la secuencia indicada sea durable.
+     *
+     * @param sequence Secuencia a esperar
+     * @throws UncheckedIOException Si el diario no pudo persistir los registros
+     */
+    public void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+
+        synchronized (durability) {
+            boolean interrupted = false;
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("No fue posible persistir el diario de transacciones", failure);
+                }
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("El diario de transacciones está cerrado");
+                }
+                try {
+                    durability.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Obtiene la última secuencia asignada a un registro.
+     *
+     * @return Última secuencia asignada
+     */
+    public long getLastSequence() {
+        synchronized (monitor) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * Obtiene el directorio del diario.
+     *
+     * @return Directorio del diario
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Elimina los segmentos cuyos registros tienen todos una secuencia menor o igual a la indicada.
+     * El segmento activo nunca se elimina.
+     *
+     * @param sequence Secuencia hasta la cual los registros ya no son necesarios
+     * @throws IOException Si ocurre un error al eliminar un segmento
+     */
+    public void truncateBefore(long sequence) throws IOException {
+        synchronized (segmentsLock) {
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                long nextFirstSequence = segments.higherKey(oldest.getKey());
+                if (nextFirstSequence - 1 > sequence) {
+                    break;
+                }
+                Files.deleteIfExists(oldest.getValue());
+                segments.pollFirstEntry();
+            }
+        }
+    }
+
+    /**
+     * Persiste los registros pendientes, detiene el hilo de escritura y cierra el archivo.
+     * Antes de cerrarlo debe retirarse de la compañía con {@link
+     * com.example.financial_products_management.domain.financial_company.FinancialCompany#removeListener}:
+     * los observadores se notifican con el cambio ya aplicado, y un diario cerrado no puede registrarlo.
+     *
+     * @throws IOException Si ocurre un error al cerrar el archivo
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (monitor) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            monitor.notifyAll();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    /**
+     * Anexa un registro al buffer pendiente con la siguiente secuencia, ampliando el buffer si no cabe.
+     *
+     * @param encoder Escritura del registro en el buffer
+     * @throws UncheckedIOException  Si el hilo de escritura ya falló
+     * @throws IllegalStateException Si el diario está cerrado
+     */
+    private void append(RecordEncoder encoder) {
+        synchronized (monitor) {
+            long sequence = nextSequence();
+            int start = pending.position();
+            while (true) {
+                try {
+                    encoder.encode(pending, sequence);
+                    break;
+                } catch (BufferOverflowException e) {
+                    pending.position(start);
+                    growPending();
+                }
+            }
+            published(sequence);
+        }
+    }
+
+    private long nextSequence() {
+        if (closed) {
+            // Error de uso: el diario se cerró sin retirarlo antes de la compañía
+            throw new IllegalStateException("El diario de transacciones está cerrado");
+        }
+        IOException failed = failure;
+        if (failed != null) {
+            // El hilo de escritura terminó: nada vaciaría el buffer pendiente, que crecería sin límite
+            throw new UncheckedIOException("No fue posible persistir el diario de transacciones", failed);
+        }
+        return ++lastSequence;
+    }
+
+    private void published(long sequence) {
+        lastSequenceOfThread.get()[0] = sequence;
+        if (writerWaiting) {
+            monitor.notify();
+        }
+    }
+
+    private void growPending() {
+        ByteBuffer larger = ByteBuffer.allocateDirect(pending.capacity() * 2);
+        pending.flip();
+        larger.put(pending);
+        pending = larger;
+    }
+
+    /**
+     * Ciclo del hilo de escritura: intercambia el buffer pendiente, lo escribe y fuerza el
+     * archivo a disco, y luego despierta a los hilos que esperan esa durabilidad.
+     */
+    private void writeLoop() {
+        try {
+            writeBatches();
+        } finally {
+            synchronized (durability) {
+                durability.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Escribe lotes de registros hasta que el diario se cierre o falle.
+     * Al terminar un lote, si el segmento activo superó el tamaño máximo se abre uno nuevo.
+     */
+    private void writeBatches() {
+        while (true) {
+            long batchSequence;
+            synchronized (monitor) {
+                while (pending.position() == 0 && !closed) {
+                    writerWaiting = true;
+                    try {
+                        monitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } finally {
+                        writerWaiting = false;
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+
+                ByteBuffer full = pending;
+                pending = writing.capacity() >= full.capacity() ? writing : ByteBuffer.allocateDirect(full.capacity());
+                writing = full;
+                batchSequence = lastSequence;
+            }
+
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+                writing.clear();
+            } catch (IOException e) {
+                failure = e;
+                return;
+            }
+
+            durableSequence = batchSequence;
+            synchronized (durability) {
+                durability.notifyAll();
+            }
+
+            try {
+                if (channel.position() >= segmentSize) {
+                    rotate(batchSequence + 1);
+                }
+            } catch (IOException e) {
+                failure = e;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Cierra el segmento activo y abre uno nuevo cuyo primer registro tendrá la secuencia indicada.
+     *
+     * @param firstSequence Secuencia del primer registro del nuevo segmento
+     * @throws IOException Si ocurre un error al crear el segmento
+     */
+    private void rotate(long firstSequence) throws IOException {
+        FileChannel previous;
+        synchronized (segmentsLock) {
+            Path segment = segmentPath(directory, firstSequence);
+            FileChannel next = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            segments.put(firstSequence, segment);
+            forceDirectory(directory);
+            previous = channel;
+            channel = next;
+        }
+        previous.close();
+    }
+
+    /**
+     * Escritura de un registro del diario en un buffer.
+     */
+    @FunctionalInterface
+    private interface RecordEncoder {
+        /**
+         * Escribe el registro.
+         *
+         * @param buffer   Buffer de destino
+         * @param sequence Secuencia del registro
+         * @throws BufferOverflowException Si el registro no cabe en el buffer
+         */
+        void encode(ByteBuffer buffer, long sequence);
+    }
+}
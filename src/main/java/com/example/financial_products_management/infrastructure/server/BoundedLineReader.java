@@ -0,0 +1,107 @@
+package com.example.financial_products_management.infrastructure.server;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lector de líneas con una longitud máxima que se aplica mientras se lee.
+ * A diferencia de {@link java.io.BufferedReader#readLine()}, nunca acumula más de la longitud
+ * máxima: cuando una línea la supera, descarta el resto de sus caracteres hasta el fin de línea y
+ * la informa como demasiado larga, de modo que un cliente no puede agotar la memoria del servidor
+ * enviando una línea sin fin. Reconoce los mismos fines de línea que BufferedReader ({@code \n},
+ * {@code \r} y {@code \r\n}). No es seguro para uso concurrente.
+ */
+final class BoundedLineReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader in;
+    private final int maxLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean skipLineFeed;
+    private boolean tooLong;
+
+    /**
+     * Crea el lector.
+     *
+     * @param in        Origen de los caracteres
+     * @param maxLength Longitud máxima de una línea, sin el fin de línea
+     */
+    BoundedLineReader(Reader in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Lee la siguiente línea. Si supera la longitud máxima, la consume completa pero solo conserva
+     * sus primeros caracteres y {@link #isTooLong()} devuelve true hasta la siguiente lectura.
+     *
+     * @return Línea sin el fin de línea, o null al final del flujo
+     * @throws IOException Si no se puede leer del origen
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        tooLong = false;
+        boolean read = false;
+        while (true) {
+            if (position >= limit && !fill()) {
+                return read ? line.toString() : null;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            read = true;
+            while (position < limit) {
+                char c = buffer[position++];
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    return line.toString();
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    tooLong = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indica si la última línea leída superaba la longitud máxima.
+     *
+     * @return true si la línea fue truncada
+     */
+    boolean isTooLong() {
+        return tooLong;
+    }
+
+    /**
+     * Indica si hay caracteres disponibles sin bloquear.
+     *
+     * @return true si la siguiente lectura no bloquea hasta recibir el primer carácter
+     * @throws IOException Si no se puede consultar el origen
+     */
+    boolean ready() throws IOException {
+        if (skipLineFeed && position < limit && buffer[position] == '\n') {
+            position++;
+            skipLineFeed = false;
+        }
+        return position < limit || in.ready();
+    }
+
+    private boolean fill() throws IOException {
+        int count = in.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
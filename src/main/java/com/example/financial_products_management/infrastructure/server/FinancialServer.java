@@ -0,0 +1,273 @@
+package com.example.financial_products_management.infrastructure.server;
+
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servidor local de solicitudes sobre FinancialCompany con el protocolo de texto de {@link ProtocolSession}.
+ * Atiende cada conexión en su propio hilo: un hilo virtual cuando la JVM los ofrece (Java 21 o
+ * posterior), de modo que decenas de miles de clientes concurrentes solo cuestan memoria, o un hilo
+ * de plataforma de un grupo que crece según la demanda en versiones anteriores. FinancialCompany
+ * serializa las operaciones con ReentrantLock, que no fija el hilo virtual a su portador mientras
+ * espera un candado.
+ * Un cliente puede enviar varias solicitudes sin esperar las respuestas: las respuestas se escriben
+ * en orden y se envían cuando no quedan solicitudes pendientes de leer.
+ * Por defecto solo escucha en la interfaz local.
+ */
+public class FinancialServer implements Closeable {
+    private static final int BACKLOG = 4096;
+    private static final int MAX_LINE_LENGTH = 4096;
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 5;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final FinancialCompany financialCompany;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = newPerTaskExecutor("financial-connection");
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    /**
+     * Abre el servidor en un puerto de la interfaz local.
+     *
+     * @param financialCompany Entidad financiera que atiende las solicitudes
+     * @param port             Puerto, o 0 para usar uno libre
+     * @throws IOException Si el puerto no puede abrirse
+     */
+    public FinancialServer(FinancialCompany financialCompany, int port) throws IOException {
+        this(financialCompany, port, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Abre el servidor en un puerto de una interfaz.
+     *
+     * @param financialCompany Entidad financiera que atiende las solicitudes
+     * @param port             Puerto, o 0 para usar uno libre
+     * @param address          Interfaz donde escuchar
+     * @throws IOException Si el puerto no puede abrirse
+     */
+    public FinancialServer(FinancialCompany financialCompany, int port, InetAddress address) throws IOException {
+        this.financialCompany = financialCompany;
+        this.serverSocket = new ServerSocket(port, BACKLOG, address);
+        this.acceptor = new Thread(this::acceptLoop, "financial-server-acceptor");
+        this.acceptor.setDaemon(true);
+    }
+
+    /**
+     * Comienza a aceptar conexiones.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * Obtiene el puerto donde escucha el servidor.
+     *
+     * @return Puerto
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Obtiene la cantidad de conexiones aceptadas desde que se abrió el servidor.
+     *
+     * @return Cantidad de conexiones
+     */
+    public long getAcceptedConnections() {
+        return accepted.get();
+    }
+
+    /**
+     * Obtiene la cantidad de conexiones abiertas.
+     *
+     * @return Cantidad de conexiones
+     */
+    public int getOpenConnections() {
+        return clients.size();
+    }
+
+    /**
+     * Obtiene la cantidad de solicitudes atendidas.
+     *
+     * @return Cantidad de solicitudes
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * Espera hasta que el servidor se cierre.
+     *
+     * @throws InterruptedException Si el hilo que espera es interrumpido
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * Deja de aceptar conexiones y cierra las abiertas.
+     *
+     * @throws IOException Si el puerto no puede cerrarse
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            serverSocket.close();
+            for (Socket client : clients) {
+                closeQuietly(client);
+            }
+            connections.shutdown();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Acepta conexiones hasta que el servidor se cierra. Un error al aceptar suele persistir un
+     * tiempo (por ejemplo, cuando el proceso agotó sus descriptores de archivo), así que antes de
+     * reintentar espera un intervalo que se duplica con cada error seguido, hasta un segundo.
+     */
+    private void acceptLoop() {
+        long backoff = 0;
+        while (!closed) {
+            Socket client;
+            try {
+                client = serverSocket.accept();
+            } catch (IOException e) {
+                if (closed) {
+                    break;
+                }
+                backoff = backoff == 0
+                        ? MIN_ACCEPT_BACKOFF_MILLIS
+                        : Math.min(backoff * 2, MAX_ACCEPT_BACKOFF_MILLIS);
+                System.err.println("Error aceptando una conexión: " + e.getMessage()
+                        + "; se reintenta en " + backoff + " ms");
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                continue;
+            }
+            backoff = 0;
+            accepted.incrementAndGet();
+            clients.add(client);
+            try {
+                connections.execute(() -> serve(client));
+            } catch (RuntimeException e) {
+                // El servidor se cerró mientras se aceptaba la conexión
+                clients.remove(client);
+                closeQuietly(client);
+            }
+        }
+    }
+
+    /**
+     * Atiende las solicitudes de una conexión hasta que el cliente la cierra o envía SALIR.
+     * Las líneas se leen con un límite de longitud, de modo que una solicitud demasiado larga se
+     * rechaza sin guardarla completa en memoria.
+     *
+     * @param client Conexión del cliente
+     */
+    private void serve(Socket client) {
+        ProtocolSession session = new ProtocolSession(financialCompany);
+        try (client;
+             InputStreamReader input = new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8);
+             BufferedWriter writer = new BufferedWriter(
+                     new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            client.setTcpNoDelay(true);
+            BoundedLineReader reader = new BoundedLineReader(input, MAX_LINE_LENGTH);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String response = reader.isTooLong()
+                        ? "ERROR SOLICITUD_INVALIDA La solicitud supera " + MAX_LINE_LENGTH + " caracteres"
+                        : session.handle(line);
+                requests.incrementAndGet();
+                writer.write(response);
+                writer.newLine();
+                if (response.equals(ProtocolSession.GOODBYE)) {
+                    break;
+                }
+                if (!reader.ready()) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (SocketException e) {
+            // El cliente cerró la conexión o el servidor se está cerrando
+        } catch (IOException e) {
+            System.err.println("Error atendiendo una conexión: " + e.getMessage());
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // La conexión ya no se usa
+        }
+    }
+
+    /**
+     * Crea un ejecutor que inicia un hilo por tarea: virtual si la JVM lo permite o de plataforma si no.
+     * Los hilos virtuales se obtienen por reflexión para que el proyecto siga compilando con Java 17.
+     *
+     * @param name Prefijo del nombre de los hilos de plataforma
+     * @return Ejecutor de un hilo por tarea
+     */
+    static ExecutorService newPerTaskExecutor(String name) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, name + "-" + threads.incrementAndGet(), 256 * 1024);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Indica si los hilos de conexión son virtuales.
+     *
+     * @return true si la JVM ofrece hilos virtuales
+     */
+    public static boolean usesVirtualThreads() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.financial_products_management.infrastructure.server;
+
+import com.example.financial_products_management.domain.financial_company.LatencyHistogram;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cliente de carga para {@link FinancialServer}.
+ * Crea cuentas corrientes de prueba y luego abre muchas conexiones concurrentes, cada una en su
+ * propio hilo (virtual si la JVM lo permite), que envían depósitos, retiros y transferencias entre
+ * cuentas elegidas al azar y esperan cada respuesta antes de enviar la siguiente solicitud.
+ * Al terminar informa el rendimiento y los percentiles de latencia de ida y vuelta.
+ * <p>
+ * Opciones:
+ * <ul>
+ *   <li>{@code --host <host>}, {@code --port <puerto>}: servidor (por defecto localhost:9090)</li>
+ *   <li>{@code --clients <n>}: conexiones concurrentes (por defecto 1000)</li>
+ *   <li>{@code --requests <n>}: solicitudes por conexión (por defecto 1000)</li>
+ *   <li>{@code --accounts <n>}: cuentas de prueba (por defecto 10000)</li>
+ *   <li>{@code --first-account <n>}: número de la primera cuenta de prueba (por defecto 1000000)</li>
+ * </ul>
+ */
+public final class LoadGenerator {
+    private static final int CREATION_WINDOW = 1024;
+
+    private String host = "localhost";
+    private int port = 9090;
+    private int clients = 1000;
+    private int requestsPerClient = 1000;
+    private int accounts = 10_000;
+    private int firstAccount = 1_000_000;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * Ejecuta la carga contra el servidor.
+     *
+     * @param args Opciones de ejecución
+     * @throws Exception Si la carga no puede ejecutarse
+     */
+    public static void main(String[] args) throws Exception {
+        LoadGenerator generator = new LoadGenerator();
+        generator.parse(args);
+        generator.run();
+    }
+
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Falta el valor de la opción " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--host" -> host = value;
+                case "--port" -> port = Integer.parseInt(value);
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--requests" -> requestsPerClient = Integer.parseInt(value);
+                case "--accounts" -> accounts = Integer.parseInt(value);
+                case "--first-account" -> firstAccount = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        if (clients <= 0 || requestsPerClient <= 0 || accounts < 2) {
+            throw new IllegalArgumentException("Se requieren clientes y solicitudes positivos y al menos dos cuentas");
+        }
+    }
+
+    private void run() throws Exception {
+        long created = createAccounts();
+        System.out.printf("Cuentas de prueba: %d (%d creadas, el resto ya existía)%n", accounts, created);
+        System.out.printf("Hilos de conexión: %s%n", FinancialServer.usesVirtualThreads() ? "virtuales" : "de plataforma");
+
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>(clients);
+        long elapsed;
+        ExecutorService executor = FinancialServer.newPerTaskExecutor("load-client");
+        try {
+            for (int client = 0; client < clients; client++) {
+                workers.add(executor.submit(() -> {
+                    runClient(ready, start);
+                    return null;
+                }));
+            }
+            ready.await();
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            elapsed = System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long total = accepted.sum() + rejected.sum();
+        System.out.printf("Conexiones: %d, solicitudes: %d (aceptadas: %d, rechazadas: %d)%n",
+                clients, total, accepted.sum(), rejected.sum());
+        System.out.printf("Tiempo: %.2f s, rendimiento: %.0f solicitudes/s%n", elapsed / 1e9, total / (elapsed / 1e9));
+        System.out.printf("Latencia (µs): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f máx=%.1f%n",
+                latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                latency.getValueAtPercentile(99) / 1e3, latency.getValueAtPercentile(99.9) / 1e3,
+                latency.getMax() / 1e3);
+    }
+
+    /**
+     * Crea las cuentas de prueba por una sola conexión, enviando las solicitudes por ventanas sin
+     * esperar cada respuesta.
+     *
+     * @return Cantidad de cuentas creadas
+     */
+    private long createAccounts() throws IOException {
+        long created = 0;
+        try (Connection connection = new Connection(host, port)) {
+            for (int from = 0; from < accounts; from += CREATION_WINDOW) {
+                int to = Math.min(accounts, from + CREATION_WINDOW);
+                for (int i = from; i < to; i++) {
+                    int number = firstAccount + i;
+                    connection.writer.write("CREAR CORRIENTE," + number + ",LG" + number
+                            + ",Cliente,De Carga,3000000000,1000000,100000,");
+                    connection.writer.newLine();
+                }
+                connection.writer.flush();
+                for (int i = from; i < to; i++) {
+                    if (connection.reader.readLine().startsWith("OK")) {
+                        created++;
+                    }
+                }
+            }
+        }
+        return created;
+    }
+
+    private void runClient(CountDownLatch ready, CountDownLatch start) throws IOException, InterruptedException {
+        try (Connection connection = new Connection(host, port)) {
+            ready.countDown();
+            start.await();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < requestsPerClient; i++) {
+                int source = firstAccount + random.nextInt(accounts);
+                int choice = random.nextInt(10);
+                String request;
+                if (choice < 5) {
+                    request = "DEPOSITAR " + source + " " + (1 + random.nextInt(100));
+                } else if (choice < 8) {
+                    request = "RETIRAR " + source + " " + (1 + random.nextInt(100));
+                } else {
+                    int target = firstAccount + (source - firstAccount + 1 + random.nextInt(accounts - 1)) % accounts;
+                    request = "TRANSFERIR " + source + " " + target + " " + (1 + random.nextInt(100));
+                }
+
+                long begin = System.nanoTime();
+                connection.writer.write(request);
+                connection.writer.newLine();
+                connection.writer.flush();
+                String response = connection.reader.readLine();
+                latency.record(System.nanoTime() - begin);
+                if (response == null) {
+                    throw new IOException("El servidor cerró la conexión");
+                }
+                (response.startsWith("OK") ? accepted : rejected).increment();
+            }
+        }
+    }
+
+    /**
+     * Conexión de texto con el servidor.
+     */
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Connection(String host, int port) throws IOException {
+            socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
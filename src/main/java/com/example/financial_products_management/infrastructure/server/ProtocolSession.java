@@ -0,0 +1,196 @@
+package com.example.financial_products_management.infrastructure.server;
+
+import com.example.financial_products_management.domain.customer.Customer;
+import com.example.financial_products_management.domain.financial_company.FinancialCompany;
+import com.example.financial_products_management.domain.financial_product.model.FinancialProduct;
+import com.example.financial_products_management.domain.financial_product.model.account.CheckingAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.HousingSavingsAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SalaryAccount;
+import com.example.financial_products_management.domain.financial_product.model.account.SavingsAccount;
+import com.example.financial_products_management.domain.shared.HousingClassification;
+import com.example.financial_products_management.domain.shared.Money;
+import com.example.financial_products_management.domain.shared.OperationResult;
+import com.example.financial_products_management.domain.shared.OperationStatus;
+import com.example.financial_products_management.domain.shared.OperationType;
+import com.example.financial_products_management.exception.ProductNotFoundException;
+import java.util.Locale;
+
+/**
+ * Intérprete del protocolo de texto del servidor para una conexión.
+ * Cada solicitud es una línea con un comando y sus argumentos separados por espacios, y cada
+ * respuesta es una línea que empieza con {@code OK} o {@code ERROR}. Los montos se escriben en
+ * unidades con hasta dos decimales (por ejemplo {@code 1500.05}).
+ * <ul>
+ *   <li>{@code CREAR tipo,numeroProducto,identificacion,nombres,apellidos,telefono,saldoInicial,valor,clasificacion}:
+ *       crea un producto con el mismo formato de fila de la carga masiva; responde {@code OK CREADO numero}</li>
+ *   <li>{@code DEPOSITAR numero monto [clave]} y {@code RETIRAR numero monto [clave]}: responden
+ *       {@code OK estado saldo}</li>
+ *   <li>{@code TRANSFERIR origen destino monto [clave]}: responde {@code OK TRANSFERRED saldoOrigen saldoDestino}</li>
+ *   <li>{@code CONSULTAR numero} y {@code TITULAR identificacion}: responden
+ *       {@code OK numero tipo saldo identificacion}, con el tipo como en la carga masiva</li>
+ *   <li>{@code SALIR}: responde {@code OK ADIOS} y cierra la conexión</li>
+ * </ul>
+ * La clave opcional es una clave de idempotencia: reenviar la misma solicitud con la misma clave
+ * devuelve la respuesta original sin aplicar la operación de nuevo (requiere que la entidad tenga
+ * una caché de idempotencia asignada).
+ * Los rechazos responden {@code ERROR estado detalle}, con el estado de la operación (por ejemplo
+ * {@code INSUFFICIENT_FUNDS}) o {@code SOLICITUD_INVALIDA}. Las operaciones usan las variantes de
+ * FinancialCompany que registran el resultado sin lanzar excepciones, con un único resultado
+ * reutilizado por conexión. No es seguro para uso concurrente: cada conexión tiene su propia sesión.
+ */
+public class ProtocolSession {
+    /**
+     * Respuesta al comando de cierre de la conexión.
+     */
+    public static final String GOODBYE = "OK ADIOS";
+
+    private static final String INVALID_REQUEST = "SOLICITUD_INVALIDA";
+
+    private final FinancialCompany financialCompany;
+    private final OperationResult result = new OperationResult();
+    private final StringBuilder response = new StringBuilder(64);
+
+    /**
+     * Crea una sesión sobre una entidad financiera.
+     *
+     * @param financialCompany Entidad financiera que atiende las solicitudes
+     */
+    public ProtocolSession(FinancialCompany financialCompany) {
+        this.financialCompany = financialCompany;
+    }
+
+    /**
+     * Atiende una solicitud.
+     *
+     * @param line Línea de la solicitud, sin el salto de línea
+     * @return Línea de respuesta, sin el salto de línea
+     */
+    public String handle(String line) {
+        String request = line.strip();
+        int space = request.indexOf(' ');
+        String command = (space < 0 ? request : request.substring(0, space)).toUpperCase(Locale.ROOT);
+        String[] args = space < 0 ? new String[0] : request.substring(space + 1).strip().split(" +");
+        try {
+            return switch (command) {
+                case "DEPOSITAR" -> operation(OperationType.DEPOSIT, args);
+                case "RETIRAR" -> operation(OperationType.WITHDRAWAL, args);
+                case "TRANSFERIR" -> transfer(args);
+                case "CONSULTAR" -> describe(financialCompany.consultByProductNumber(argument(args, 0, 1)));
+                case "TITULAR" -> describe(financialCompany.consultByCustomer(argument(args, 0, 1)));
+                case "CREAR" -> create(space < 0 ? "" : request.substring(space + 1));
+                case "SALIR" -> GOODBYE;
+                default -> error(INVALID_REQUEST, "Comando desconocido: " + command);
+            };
+        } catch (ProductNotFoundException e) {
+            return error(OperationStatus.PRODUCT_NOT_FOUND.name(), e.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException | UnsupportedOperationException e) {
+            return error(INVALID_REQUEST, e.getMessage());
+        }
+    }
+
+    private String operation(OperationType operationType, String[] args) {
+        String productNumber = argument(args, 0, 2, 3);
+        long amount = amount(args[1]);
+        OperationStatus status = financialCompany.performOperation(productNumber, operationType, amount, result,
+                optional(args, 2));
+        return status.isSuccess()
+                ? start("OK ", status).append(' ').append(Money.format(result.getBalance())).toString()
+                : error(status.name(), result.getMessage());
+    }
+
+    private String transfer(String[] args) {
+        String source = argument(args, 0, 3, 4);
+        long amount = amount(args[2]);
+        OperationStatus status = financialCompany.performTransfer(source, args[1], amount, result, optional(args, 3));
+        return status.isSuccess()
+                ? start("OK ", status).append(' ').append(Money.format(result.getBalance()))
+                .append(' ').append(Money.format(result.getTargetBalance())).toString()
+                : error(status.name(), result.getMessage());
+    }
+
+    private String create(String row) {
+        String[] fields = row.split(",", -1);
+        if (fields.length < 8 || fields.length > 9) {
+            throw new IllegalArgumentException("La fila de creación debe tener entre 8 y 9 campos");
+        }
+        String kind = fields[0].strip().toUpperCase(Locale.ROOT);
+        String productNumber = fields[1].strip();
+        Customer customer = new Customer(fields[2].strip(), fields[3].strip(), fields[4].strip(), fields[5].strip());
+        long balance = amount(fields[6]);
+        long value = fields[7].isBlank() ? 0 : amount(fields[7]);
+        switch (kind) {
+            case "AHORRO" -> financialCompany.createSavingsAccount(productNumber, customer, balance);
+            case "CORRIENTE" -> financialCompany.createCheckingAccount(productNumber, customer, balance, value);
+            case "SALARIO" -> financialCompany.createSalaryAccount(productNumber, customer, balance, value);
+            case "VIVIENDA" -> {
+                if (fields.length < 9) {
+                    throw new IllegalArgumentException("La cuenta de vivienda requiere la clasificación");
+                }
+                financialCompany.createHousingSavingsAccount(productNumber, customer, balance, value,
+                        HousingClassification.valueOf(fields[8].strip().toUpperCase(Locale.ROOT).replace(' ', '_')));
+            }
+            default -> throw new IllegalArgumentException("Tipo de producto desconocido: " + fields[0].strip());
+        }
+        return "OK CREADO " + productNumber;
+    }
+
+    private String describe(FinancialProduct product) {
+        response.setLength(0);
+        return response.append("OK ").append(product.getProductNumber()).append(' ').append(kindOf(product))
+                .append(' ').append(Money.format(product.getBalance()))
+                .append(' ').append(product.getCustomer().getIdentification()).toString();
+    }
+
+    private StringBuilder start(String prefix, OperationStatus status) {
+        response.setLength(0);
+        return response.append(prefix).append(status.name());
+    }
+
+    private String error(String status, String detail) {
+        response.setLength(0);
+        response.append("ERROR ").append(status);
+        if (detail != null && !detail.isEmpty()) {
+            // La respuesta ocupa una sola línea
+            response.append(' ').append(detail.replace('\n', ' ').replace('\r', ' '));
+        }
+        return response.toString();
+    }
+
+    private static String argument(String[] args, int index, int expected) {
+        return argument(args, index, expected, expected);
+    }
+
+    private static String argument(String[] args, int index, int minimum, int maximum) {
+        if (args.length < minimum || args.length > maximum) {
+            throw new IllegalArgumentException(minimum == maximum
+                    ? "Cantidad de argumentos inválida: se esperaban " + minimum
+                    : "Cantidad de argumentos inválida: se esperaban entre " + minimum + " y " + maximum);
+        }
+        return args[index];
+    }
+
+    private static String optional(String[] args, int index) {
+        return index < args.length ? args[index] : null;
+    }
+
+    private static long amount(String text) {
+        try {
+            return Money.parse(text.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Monto inválido: " + text.strip());
+        }
+    }
+
+    private static String kindOf(FinancialProduct product) {
+        if (product instanceof SavingsAccount) {
+            return "AHORRO";
+        }
+        if (product instanceof CheckingAccount) {
+            return "CORRIENTE";
+        }
+        if (product instanceof HousingSavingsAccount) {
+            return "VIVIENDA";
+        }
+        return product instanceof SalaryAccount ? "SALARIO" : "OTRO";
+    }
+}
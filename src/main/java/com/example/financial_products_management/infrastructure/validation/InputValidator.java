@@ -1,6 +1,7 @@
 package com.example.financial_products_management.infrastructure.validation;
 
 import com.example.financial_products_management.domain.repository.ProductRepository;
+import com.example.financial_products_management.domain.shared.Money;
 import java.util.Scanner;
 
 /**
@@ -76,16 +77,17 @@ public class InputValidator {
     
     /**
      * Obtiene un monto válido (positivo) del usuario.
+     * El monto se ingresa en unidades con hasta dos decimales y se convierte a centavos.
      *
      * @param prompt Mensaje a mostrar al usuario
-     * @return Monto válido ingresado por el usuario
+     * @return Monto válido ingresado por el usuario en centavos
      */
-    public double getValidAmount(String prompt) {
-        double amount;
+    public long getValidAmount(String prompt) {
+        long amount;
         do {
             try {
                 System.out.print(prompt);
-                amount = Double.parseDouble(scanner.nextLine().trim());
+                amount = Money.parse(scanner.nextLine());
                 if (amount < 0) {
                     System.out.println("El monto debe ser un número positivo.");
                 } else {